@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.api.BenchmarkModule;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.api.TransactionTypes;
+import com.oltpbenchmark.api.Worker;
+import com.oltpbenchmark.benchmarks.noop.NoOpBenchmark;
+import com.oltpbenchmark.jdbc.StubDriver;
+import com.oltpbenchmark.types.DatabaseType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end client overhead: the noop benchmark at an unlimited rate against
+ * {@link StubDriver}, so every nanosecond of a transaction is spent in
+ * benchbase (Worker.run, WorkloadState.fetchWork, Phase.chooseTransaction,
+ * the latency recorder and the statement handling in NoOp) and none in a
+ * database.
+ * <p>
+ * Each invocation is one ThreadBench run of {@link #seconds} seconds. The
+ * {@code transactions} counter is the number to compare: the wall time per
+ * transaction over all terminals, which is CPU time per transaction when the
+ * terminals saturate the cores:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ClientOverheadBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientOverheadBenchmark {
+
+    @Param({"1", "8"})
+    public int terminals;
+
+    @Param({"false", "true"})
+    public boolean latencyHistograms;
+
+    @Param({"2"})
+    public int seconds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long transactions;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubDriver.register();
+    }
+
+    @Benchmark
+    public Results run(Counters counters) throws IOException {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setBenchmarkName("noop");
+        workConf.setDatabaseType(DatabaseType.HSQLDB);
+        workConf.setUrl(StubDriver.URL + "noop");
+        workConf.setTerminals(this.terminals);
+        workConf.setLatencyHistograms(this.latencyHistograms);
+
+        BenchmarkModule bench = new NoOpBenchmark(workConf);
+        TransactionTypes types = new TransactionTypes(new ArrayList<>(List.of(TransactionType.INVALID, bench.initTransactionType("NoOp", 1, 0, 0))));
+        workConf.setTransTypes(types);
+        workConf.addPhase(1, this.seconds, 0, 1, List.of(100.0), false, false, false, true, this.terminals, Phase.Arrival.REGULAR);
+
+        List<Worker<? extends BenchmarkModule>> workers = bench.makeWorkers();
+        Results results = ThreadBench.runRateLimitedBenchmark(workers, List.of(workConf), 0);
+        bench.getConnectionProvider().close();
+
+        counters.transactions += results.getMeasuredRequests();
+        return results;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording and reading back latency samples. {@link #fill} records
+ * 100M samples in one shot and prints how many heap bytes each one retains;
+ * run it with {@code -prof gc} to also see the allocation rate, e.g.
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="LatencyRecordBenchmark -prof gc"
+ * </pre>
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class LatencyRecordBenchmark {
+
+    private static final long BASE = 1_000_000_000L;
+
+    @Param({"100000000"})
+    public int samples;
+
+    private LatencyRecord record;
+    private long nextStart;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        record = new LatencyRecord(BASE);
+        nextStart = BASE;
+    }
+
+    /**
+     * Steady-state cost of a single addLatency call.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public void add() {
+        long start = nextStart;
+        nextStart += 1000;
+        record.addLatency(1, start - 200, start, start + 750_000, 7, 0);
+        if (nextStart - BASE >= samples * 1000L) {
+            record = new LatencyRecord(BASE);
+            nextStart = BASE;
+        }
+    }
+
+    /**
+     * Record {@link #samples} samples, then read all of them back.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void fill(Blackhole bh) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        long start = BASE;
+        for (int i = 0; i < samples; i++) {
+            record.addLatency(i & 7, start - 200, start, start + 750_000, i & 63, 0);
+            start += 1000;
+        }
+
+        System.gc();
+        long retained = memory.getHeapMemoryUsage().getUsed() - before;
+        System.out.printf("%n%,d samples retain %,d bytes (%.1f bytes/sample)%n", samples, retained, (double) retained / samples);
+
+        long sum = 0;
+        for (LatencyRecord.Sample sample : record) {
+            sum += sample.getLatencyMicrosecond();
+        }
+        bh.consume(sum);
+        record = null;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post-processing time of the per-window result series (the .samples.csv
+ * and .results.csv files) for a two hour run with 20 transaction types.
+ * <p>
+ * {@link #singlePass} streams synthetic samples through {@link WindowedStatistics}
+ * once and gets 1 and 5 second statistics for all types and all three
+ * metrics, which is what ResultWriter does now. {@link #perTypeSort} is the
+ * previous approach, one pass per (type, metric) that boxes and sorts every
+ * window, and is run on fewer samples because it does not finish on 500M in
+ * reasonable time:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ResultWindowsBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ResultWindowsBenchmark {
+
+    private static final int TYPES = 20;
+    private static final long RUN_NANOS = TimeUnit.HOURS.toNanos(2);
+
+    @State(Scope.Benchmark)
+    public static class Large {
+        @Param({"500000000"})
+        public long samples;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Small {
+        @Param({"5000000"})
+        public long legacySamples;
+    }
+
+    /**
+     * Generates the same samples every time, in start time order.
+     */
+    private static final class Samples {
+        private final long count;
+        private final long stepNanos;
+        private final SplittableRandom rng = new SplittableRandom(42);
+        private long index = 0;
+
+        long start;
+        int type;
+        int latency;
+        int queue;
+
+        Samples(long count) {
+            this.count = count;
+            this.stepNanos = RUN_NANOS / count;
+        }
+
+        boolean next() {
+            if (index == count) {
+                return false;
+            }
+            start = index++ * stepNanos;
+            type = 1 + rng.nextInt(TYPES);
+            // Log-normal-ish service times around a millisecond
+            latency = (int) Math.min(Integer.MAX_VALUE, Math.exp(7 + rng.nextDouble() * 3));
+            queue = rng.nextInt(100) < 95 ? 0 : rng.nextInt(50000);
+            return true;
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Large state, Blackhole bh) {
+        WindowedStatistics stats = new WindowedStatistics(3, 1, 5);
+        Samples samples = new Samples(state.samples);
+        long current = 0;
+        LatencyHistograms second = new LatencyHistograms(3);
+        while (samples.next()) {
+            long s = TimeUnit.NANOSECONDS.toSeconds(samples.start);
+            if (s != current) {
+                stats.addSecond(current, second);
+                second = new LatencyHistograms(3);
+                current = s;
+            }
+            second.record(samples.type, samples.latency, samples.queue);
+        }
+        stats.addSecond(current, second);
+        stats.finish();
+
+        for (LatencyHistograms.Metric metric : LatencyHistograms.Metric.values()) {
+            for (int type = 0; type <= TYPES; type++) {
+                bh.consume(stats.get(1, type, metric));
+                bh.consume(stats.get(5, type, metric));
+            }
+        }
+    }
+
+    @Benchmark
+    public void perTypeSort(Small state, Blackhole bh) {
+        for (int type = 0; type <= TYPES; type++) {
+            for (int metric = 0; metric < 3; metric++) {
+                Samples samples = new Samples(state.legacySamples);
+                long windowEnd = TimeUnit.SECONDS.toNanos(1);
+                ArrayList<Integer> window = new ArrayList<>();
+                boolean more = samples.next();
+                while (more) {
+                    if (samples.start >= windowEnd) {
+                        bh.consume(sortedStatistics(window));
+                        window.clear();
+                        windowEnd += TimeUnit.SECONDS.toNanos(1);
+                        continue;
+                    }
+                    if (type == 0 || samples.type == type) {
+                        window.add(switch (metric) {
+                            case 0 -> samples.latency;
+                            case 1 -> samples.queue;
+                            default -> samples.latency + samples.queue;
+                        });
+                    }
+                    more = samples.next();
+                }
+                bh.consume(sortedStatistics(window));
+            }
+        }
+    }
+
+    private static DistributionStatistics sortedStatistics(ArrayList<Integer> window) {
+        int[] values = new int[window.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = window.get(i);
+        }
+        return DistributionStatistics.computeStatistics(values);
+    }
+}
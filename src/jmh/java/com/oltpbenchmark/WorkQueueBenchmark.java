@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatch throughput of the rate-limited work queue: one producer (the
+ * ThreadBench loop) feeding a pool of parked workers, as in a rate-limited
+ * phase with many terminals.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkQueueBenchmark {
+
+    private static final int LIMIT = 10000;
+    private static final int BATCH = 1000;
+
+    @Param({"64", "512", "4096"})
+    public int workers;
+
+    @Param({"RING_BUFFER", "SYNCHRONIZED"})
+    public WorkQueue.Type type;
+
+    /**
+     * Simulated time a worker spends blocked on the database per procedure.
+     */
+    @Param({"0", "100000"})
+    public long serviceNanos;
+
+    private WorkQueue queue;
+    private final LongAdder consumed = new LongAdder();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean stop;
+    private long expected;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = WorkQueue.create(type, LIMIT);
+        stop = false;
+        expected = 0;
+        for (int i = 0; i < workers; i++) {
+            Thread t = new Thread(() -> {
+                while (queue.take(() -> stop) != null) {
+                    if (serviceNanos > 0) {
+                        LockSupport.parkNanos(serviceNanos);
+                    }
+                    consumed.increment();
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        stop = true;
+        queue.wakeAll();
+        for (Thread t : threads) {
+            t.join();
+        }
+        threads.clear();
+    }
+
+    /**
+     * Submit a batch and wait until the workers have drained it.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void dispatch() {
+        int remaining = BATCH;
+        while (remaining > 0) {
+            remaining -= queue.offer(remaining, () -> new SubmittedProcedure(1));
+            Thread.onSpinWait();
+        }
+        expected += BATCH;
+        while (consumed.sum() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.util.SplitMixRandom;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing a Worker its next transaction in an unlimited-rate phase
+ * with {@link #types} equally weighted transaction types: {@link #choose} is
+ * Phase.chooseTransaction alone, {@link #fetchWork} is the whole
+ * WorkloadState.fetchWork / finishedWork round trip around it, and
+ * fetchWork64, fetchWork512 and fetchWork4096 are the same round trip made
+ * by that many threads sharing one WorkloadState:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="WorkloadStateBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkloadStateBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int types;
+
+    private final Random rng = new SplitMixRandom(42);
+    private Phase phase;
+    private WorkloadState workloadState;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Double> weights = Collections.nCopies(this.types, 100.0 / this.types);
+        this.phase = new Phase("noop", 1, 60, 0, 1, weights, false, false, false, true, 1, Phase.Arrival.REGULAR);
+        this.workloadState = new WorkloadState(new BenchmarkState(1), List.of(this.phase), 1);
+        this.workloadState.switchToNextPhase();
+    }
+
+    @Benchmark
+    public int choose() {
+        return this.phase.chooseTransaction(false, this.rng);
+    }
+
+    @Benchmark
+    public SubmittedProcedure fetchWork() {
+        SubmittedProcedure proc = this.workloadState.fetchWork(this.rng);
+        this.workloadState.finishedWork();
+        return proc;
+    }
+
+    /**
+     * One WorkloadState shared by all benchmark threads, as by the terminals
+     * of an unlimited-rate phase.
+     */
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        private WorkloadState workloadState;
+
+        @Setup(Level.Trial)
+        public void setUp(WorkloadStateBenchmark benchmark, BenchmarkParams params) {
+            List<Double> weights = Collections.nCopies(benchmark.types, 100.0 / benchmark.types);
+            Phase phase = new Phase("noop", 1, 60, 0, 1, weights, false, false, false, true, params.getThreads(), Phase.Arrival.REGULAR);
+            this.workloadState = new WorkloadState(new BenchmarkState(1), List.of(phase), params.getThreads());
+            this.workloadState.switchToNextPhase();
+        }
+
+        private SubmittedProcedure fetchWork(Random rng) {
+            SubmittedProcedure proc = this.workloadState.fetchWork(rng);
+            this.workloadState.finishedWork();
+            return proc;
+        }
+    }
+
+    @Benchmark
+    @Threads(64)
+    public SubmittedProcedure fetchWork64(Shared shared) {
+        return shared.fetchWork(this.rng);
+    }
+
+    @Benchmark
+    @Threads(512)
+    public SubmittedProcedure fetchWork512(Shared shared) {
+        return shared.fetchWork(this.rng);
+    }
+
+    @Benchmark
+    @Threads(4096)
+    public SubmittedProcedure fetchWork4096(Shared shared) {
+        return shared.fetchWork(this.rng);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.featurebench;
+
+import com.oltpbenchmark.benchmarks.featurebench.helpers.UtilToMethod;
+import com.oltpbenchmark.benchmarks.featurebench.utils.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the featurebench bind-parameter utils that show up in most
+ * configs. The boxed* and jdk* methods are the old per-bind paths, for
+ * comparison. utilToMethodGet is UtilToMethod.get, the boxed path through
+ * the helper; FeatureBenchWorker binds through UtilToMethod.bind, which
+ * costs what the typed run* methods cost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UtilBenchmark {
+
+    private RandomAString randomAString;
+    private RandomNumber randomNumber;
+    private PrimaryIntGen primaryIntGen;
+    private RandomUUID randomUUID;
+    private RandomJson randomJson;
+    private UtilToMethod utilToMethod;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        randomAString = new RandomAString(List.of(10, 100), 0, 1);
+        randomNumber = new RandomNumber(List.of(1, 1_000_000), 0, 1);
+        primaryIntGen = new PrimaryIntGen(List.of(1, Integer.MAX_VALUE), 0, 1);
+        randomUUID = new RandomUUID(List.of(), 0, 1);
+        randomJson = new RandomJson(List.of(5, 20), 0, 1);
+        utilToMethod = new UtilToMethod("RandomNumber", List.of(1, 1_000_000), 0, 1);
+    }
+
+    @Benchmark
+    public String randomAString() {
+        return randomAString.runString();
+    }
+
+    @Benchmark
+    public int randomNumber() {
+        return randomNumber.runInt();
+    }
+
+    @Benchmark
+    public Object boxedRandomNumber() {
+        return randomNumber.run();
+    }
+
+    @Benchmark
+    public int primaryIntGen() {
+        return primaryIntGen.runInt();
+    }
+
+    @Benchmark
+    public Object randomUUID() {
+        return randomUUID.run();
+    }
+
+    @Benchmark
+    public UUID jdkRandomUUID() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String randomJson() {
+        return randomJson.runString();
+    }
+
+    @Benchmark
+    public Object utilToMethodGet() throws ReflectiveOperationException {
+        return utilToMethod.get();
+    }
+}
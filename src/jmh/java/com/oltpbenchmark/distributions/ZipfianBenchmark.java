@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributions;
+
+import com.oltpbenchmark.util.SplitMixRandom;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setup and sampling cost of the zipfian generators, as used by every YCSB Worker.
+ * <p>
+ * {@link #create} is the cost of one generator with an empty zeta cache:
+ * LOOP_ZETA is how ZipfianGenerator used to compute zeta, CACHED_ZETA goes
+ * through {@link ZetaCache} and REJECTION_INVERSION needs no zeta at all.
+ * {@link #sample} is the cost of one draw:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="ZipfianBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ZipfianBenchmark {
+
+    public enum Sampler {
+        LOOP_ZETA, CACHED_ZETA, REJECTION_INVERSION
+    }
+
+    @Param({"1000000", "1000000000"})
+    public long items;
+
+    @Param({"0.99"})
+    public double theta;
+
+    @Param({"LOOP_ZETA", "CACHED_ZETA", "REJECTION_INVERSION"})
+    public Sampler sampler;
+
+    private final Random rng = new SplitMixRandom(42);
+    private IntegerGenerator gen;
+    private ZipfianGenerator zipfian;
+    private RejectionInversionZipfianGenerator rejectionInversion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.gen = create();
+        if (this.gen instanceof ZipfianGenerator z) {
+            this.zipfian = z;
+        } else {
+            this.rejectionInversion = (RejectionInversionZipfianGenerator) this.gen;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        ZetaCache.clear();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public IntegerGenerator create() {
+        return switch (this.sampler) {
+            case LOOP_ZETA -> new ZipfianGenerator(this.rng, 0, this.items - 1, this.theta, ZipfianGenerator.zetastatic(this.items, this.theta));
+            case CACHED_ZETA -> new ZipfianGenerator(this.rng, 0, this.items - 1, this.theta);
+            case REJECTION_INVERSION -> new RejectionInversionZipfianGenerator(this.rng, 0, this.items - 1, this.theta);
+        };
+    }
+
+    @Benchmark
+    public long sample() {
+        return this.zipfian != null ? this.zipfian.nextLong() : this.rejectionInversion.nextLong();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * An in-process JDBC driver that does no work: statements execute without
+ * results, updates change no rows and commits always succeed. Running a
+ * benchmark against {@code jdbc:stub:} measures what benchbase itself costs
+ * per transaction.
+ * <p>
+ * Every java.sql object it hands out is a dynamic proxy that answers with
+ * the zero value of the method's return type, another stub for java.sql
+ * interfaces, and tracks only the closed and auto-commit flags.
+ */
+public final class StubDriver implements Driver {
+
+    public static final String URL = "jdbc:stub:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubDriver());
+        } catch (SQLException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    /**
+     * Make sure the driver is registered with the DriverManager.
+     */
+    public static void register() {
+        // Done by the static initializer
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        return acceptsURL(url) ? stub(Connection.class) : null;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static <T> T stub(Class<T> iface) {
+        return iface.cast(Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{iface}, new Handler(iface)));
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final Class<?> iface;
+        private boolean closed = false;
+        private boolean autoCommit = true;
+
+        Handler(Class<?> iface) {
+            this.iface = iface;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "close":
+                    this.closed = true;
+                    return null;
+                case "isClosed":
+                    return this.closed;
+                case "isValid":
+                    return !this.closed;
+                case "setAutoCommit":
+                    this.autoCommit = (Boolean) args[0];
+                    return null;
+                case "getAutoCommit":
+                    return this.autoCommit;
+                case "unwrap":
+                    return proxy;
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Stub" + this.iface.getSimpleName();
+                default:
+                    return zero(method.getReturnType());
+            }
+        }
+
+        private static Object zero(Class<?> type) {
+            if (type == void.class) {
+                return null;
+            } else if (type == boolean.class) {
+                return false;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == long.class) {
+                return 0L;
+            } else if (type == short.class) {
+                return (short) 0;
+            } else if (type == byte.class) {
+                return (byte) 0;
+            } else if (type == double.class) {
+                return 0.0;
+            } else if (type == float.class) {
+                return 0.0f;
+            } else if (type == char.class) {
+                return (char) 0;
+            } else if (type == String.class) {
+                return "stub";
+            } else if (type.isArray()) {
+                return Array.newInstance(type.getComponentType(), 0);
+            } else if (type.isInterface() && type.getPackageName().equals("java.sql")) {
+                return stub(type);
+            }
+            return null;
+        }
+    }
+}
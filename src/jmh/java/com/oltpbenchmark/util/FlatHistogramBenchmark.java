@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one draw from a FlatHistogram of {@link #values} distinct Integers
+ * with zipf-like counts, as Wikipedia, SEATS and AuctionMark use them.
+ * TREE_MAP is how FlatHistogram used to sample (tailMap().firstKey() and a get
+ * per draw), ALIAS is FlatHistogram.nextValue() and ALIAS_INT is
+ * AliasTable.nextInt(), which does not unbox:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="FlatHistogramBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlatHistogramBenchmark {
+
+    public enum Sampler {
+        TREE_MAP, ALIAS, ALIAS_INT
+    }
+
+    @Param({"10", "1000", "100000"})
+    public int values;
+
+    @Param({"TREE_MAP", "ALIAS", "ALIAS_INT"})
+    public Sampler sampler;
+
+    private final Random rng = new SplitMixRandom(42);
+    private TreeMapHistogram<Integer> treeMap;
+    private RandomDistribution.FlatHistogram<Integer> flat;
+    private AliasTable<Integer> table;
+
+    /**
+     * FlatHistogram before it was rebuilt on an AliasTable.
+     */
+    private static final class TreeMapHistogram<T extends Comparable<T>> {
+        private final RandomDistribution.Flat inner;
+        private final SortedMap<Long, T> value_rle = new TreeMap<>();
+
+        TreeMapHistogram(Random random, Histogram<T> histogram) {
+            this.inner = new RandomDistribution.Flat(random, 0, histogram.getSampleCount());
+            long total = 0;
+            for (T k : histogram.values()) {
+                total += histogram.get(k);
+                this.value_rle.put(total, k);
+            }
+        }
+
+        T nextValue() {
+            int idx = this.inner.nextInt();
+            Long total = this.value_rle.tailMap((long) idx).firstKey();
+            return this.value_rle.get(total);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Histogram<Integer> histogram = new Histogram<>();
+        for (int i = 1; i <= this.values; i++) {
+            histogram.put(i, Math.max(1, 1000000 / i));
+        }
+        this.treeMap = new TreeMapHistogram<>(this.rng, histogram);
+        this.table = new AliasTable<>(histogram);
+        this.flat = new RandomDistribution.FlatHistogram<>(this.rng, this.table);
+    }
+
+    @Benchmark
+    public int sample() {
+        return switch (this.sampler) {
+            case TREE_MAP -> this.treeMap.nextValue();
+            case ALIAS -> this.flat.nextValue();
+            case ALIAS_INT -> this.table.nextInt(this.rng);
+        };
+    }
+}
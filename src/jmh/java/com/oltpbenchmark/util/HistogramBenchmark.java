@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one Histogram.put of an Integer key that is already in a histogram
+ * of {@link #values} keys, as the SEATS, AuctionMark and Twitter loaders and
+ * profiles count values:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="HistogramBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistogramBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int values;
+
+    private final SplitMixRandom rng = new SplitMixRandom(42);
+    private Histogram<Integer> histogram;
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.histogram = new Histogram<>();
+        this.keys = new Integer[this.values];
+        for (int i = 0; i < this.values; i++) {
+            this.keys[i] = i;
+            this.histogram.put(this.keys[i]);
+        }
+    }
+
+    @Benchmark
+    public void put() {
+        this.histogram.put(this.keys[this.rng.nextInt(this.values)]);
+    }
+
+    @Benchmark
+    public void putDelta() {
+        this.histogram.put(this.keys[this.rng.nextInt(this.values)], 3);
+    }
+}
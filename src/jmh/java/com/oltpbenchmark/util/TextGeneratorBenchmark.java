@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one TextGenerator.randomStr of {@link #length} characters, which
+ * the Wikipedia, Twitter and Epinions loaders and workers call for every
+ * text column they write:
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="TextGeneratorBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextGeneratorBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int length;
+
+    private final Random rng = new SplitMixRandom(42);
+
+    @Benchmark
+    public String randomStr() {
+        return TextGenerator.randomStr(this.rng, this.length);
+    }
+}
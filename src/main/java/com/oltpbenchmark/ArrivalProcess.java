@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Generates the arrival times of one workload's requests during a rate
+ * limited phase. Times are nanosecond offsets from the start of the phase.
+ * <p>
+ * Instances are stateful and are only used by the ThreadBench driver thread,
+ * so each phase gets a fresh one from its {@link Factory}.
+ */
+public abstract class ArrivalProcess {
+
+    private static final double NANOS_PER_SECOND = 1000000000.;
+
+    /**
+     * Creates a new ArrivalProcess each time a phase starts.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        /**
+         * @param rng the generator of the new process, from the run's {@link com.oltpbenchmark.util.RandomStreams}
+         */
+        ArrivalProcess create(Random rng);
+    }
+
+    /**
+     * @return the offset of the next arrival, never before the previous one,
+     * or Long.MAX_VALUE if there are no more arrivals
+     */
+    public abstract long next();
+
+    /**
+     * @return the number of arrivals the process is expected to produce
+     * between the two offsets
+     */
+    public abstract double expected(long fromNs, long toNs);
+
+    /**
+     * Factory for the two arrival types that only need the phase rate.
+     */
+    public static Factory factory(Phase.Arrival arrival, int rate) {
+        return switch (arrival) {
+            case REGULAR -> rng -> regular(rate);
+            case POISSON -> rng -> poisson(rate, rng);
+            default -> throw new IllegalArgumentException("Arrival " + arrival + " needs more than a rate");
+        };
+    }
+
+    /**
+     * Evenly spaced arrivals. Offsets are computed from the arrival count, so
+     * rounding never accumulates into drift.
+     */
+    public static ArrivalProcess regular(double rate) {
+        return new Regular(rate);
+    }
+
+    /**
+     * Arrivals with exponentially distributed gaps.
+     */
+    public static ArrivalProcess poisson(double rate, Random rng) {
+        return new Modulated(t -> rate, rate, rng);
+    }
+
+    /**
+     * Poisson arrivals that run at burstRate for the first burstNs of every
+     * periodNs and at baseRate (which may be zero) for the rest of it.
+     */
+    public static ArrivalProcess bursty(double baseRate, double burstRate, long periodNs, long burstNs, Random rng) {
+        if (periodNs <= 0 || burstNs < 0 || burstNs > periodNs) {
+            throw new IllegalArgumentException("Burst length must be between 0 and the burst period");
+        }
+        return new Modulated(t -> (t % periodNs) < burstNs ? burstRate : baseRate, Math.max(baseRate, burstRate), rng);
+    }
+
+    /**
+     * Poisson arrivals whose rate follows a cosine wave around meanRate,
+     * starting at its lowest point: meanRate * (1 - amplitude * cos(2 pi t / period)).
+     */
+    public static ArrivalProcess diurnal(double meanRate, double amplitude, long periodNs, Random rng) {
+        if (periodNs <= 0 || amplitude < 0 || amplitude > 1) {
+            throw new IllegalArgumentException("Diurnal arrivals need a positive period and an amplitude between 0 and 1");
+        }
+        double omega = 2 * Math.PI / periodNs;
+        return new Modulated(t -> meanRate * (1 - amplitude * Math.cos(omega * (t % periodNs))), meanRate * (1 + amplitude), rng);
+    }
+
+    /**
+     * Replay recorded arrival offsets, starting over once the trace is exhausted.
+     *
+     * @param offsetsNs sorted offsets, the first of which is zero
+     */
+    public static ArrivalProcess trace(long[] offsetsNs) {
+        return new Trace(offsetsNs);
+    }
+
+    /**
+     * Read a trace file with one arrival timestamp in (fractional) seconds
+     * per line. Blank lines and lines starting with '#' are skipped. The
+     * timestamps are sorted and shifted so that the first one is at zero.
+     */
+    public static long[] readTrace(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        long[] offsets = new long[lines.size()];
+        int n = 0;
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            offsets[n++] = Math.round(Double.parseDouble(line) * NANOS_PER_SECOND);
+        }
+        if (n == 0) {
+            throw new IOException("Trace file " + path + " has no arrivals");
+        }
+        offsets = Arrays.copyOf(offsets, n);
+        Arrays.sort(offsets);
+        long first = offsets[0];
+        for (int i = 0; i < n; i++) {
+            offsets[i] -= first;
+        }
+        return offsets;
+    }
+
+    private static final class Regular extends ArrivalProcess {
+        private final double rate;
+        private long count = 0;
+
+        Regular(double rate) {
+            this.rate = rate;
+        }
+
+        @Override
+        public long next() {
+            return (long) (count++ * NANOS_PER_SECOND / rate + 0.5);
+        }
+
+        @Override
+        public double expected(long fromNs, long toNs) {
+            return (toNs - fromNs) * rate / NANOS_PER_SECOND;
+        }
+    }
+
+    /**
+     * Non-homogeneous Poisson process, sampled by thinning a homogeneous one
+     * that runs at the maximum rate.
+     */
+    private static final class Modulated extends ArrivalProcess {
+        private final DoubleUnaryOperator rateAt;
+        private final double maxRate;
+        private final Random rng;
+        private double t = 0;
+
+        Modulated(DoubleUnaryOperator rateAt, double maxRate, Random rng) {
+            this.rateAt = rateAt;
+            this.maxRate = maxRate;
+            this.rng = rng;
+        }
+
+        @Override
+        public long next() {
+            if (maxRate <= 0) {
+                return Long.MAX_VALUE;
+            }
+            do {
+                t += -Math.log(1 - rng.nextDouble()) / maxRate * NANOS_PER_SECOND;
+            } while (rng.nextDouble() * maxRate > rateAt.applyAsDouble(t));
+            return (long) t;
+        }
+
+        @Override
+        public double expected(long fromNs, long toNs) {
+            // The driver asks for short windows, so the midpoint rate is close enough
+            return rateAt.applyAsDouble((fromNs + toNs) / 2.) * (toNs - fromNs) / NANOS_PER_SECOND;
+        }
+    }
+
+    private static final class Trace extends ArrivalProcess {
+        private final long[] offsets;
+        private final long lengthNs;
+        private long index = 0;
+
+        Trace(long[] offsets) {
+            if (offsets.length == 0) {
+                throw new IllegalArgumentException("Empty trace");
+            }
+            this.offsets = offsets;
+            // Leave one average gap between the end of the trace and its replay
+            long last = offsets[offsets.length - 1];
+            this.lengthNs = last > 0 ? last + last / (offsets.length - 1) : (long) NANOS_PER_SECOND;
+        }
+
+        @Override
+        public long next() {
+            long round = index / offsets.length;
+            long offset = round * lengthNs + offsets[(int) (index % offsets.length)];
+            index++;
+            return offset;
+        }
+
+        @Override
+        public double expected(long fromNs, long toNs) {
+            return countBefore(toNs) - countBefore(fromNs);
+        }
+
+        private long countBefore(long offsetNs) {
+            long round = offsetNs / lengthNs;
+            int pos = Arrays.binarySearch(offsets, offsetNs % lengthNs);
+            if (pos < 0) {
+                pos = -pos - 1;
+            } else {
+                while (pos > 0 && offsets[pos - 1] == offsets[pos]) {
+                    pos--;
+                }
+            }
+            return round * offsets.length + pos;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates the arrivals of every rate limited workload on the ThreadBench
+ * driver thread and hands them to the workers' queues when they fall due.
+ * <p>
+ * Each workload has its own stream driven by its current phase's
+ * {@link ArrivalProcess}, so workloads with different rates no longer share
+ * one tick. Every arrival keeps its exact scheduled time as the intended
+ * start of the procedure, so waking up late only shows up as queue time and
+ * never reduces the offered load. There are only a handful of streams, so
+ * the deadline queue is a scan over them.
+ */
+final class ArrivalScheduler {
+
+    /**
+     * Time before a deadline that the driver stops parking and spins. Spinning
+     * only helps if it does not take a CPU away from the workers.
+     */
+    static final long SPIN_NS = Runtime.getRuntime().availableProcessors() > 1 ? 20000 : 0;
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final class Stream {
+        private final WorkloadState workState;
+        private ArrivalProcess process = null;
+        private long phaseStartNs;
+        private long lastDispatchNs;
+        private long nextNs = Long.MAX_VALUE;
+
+        Stream(WorkloadState workState) {
+            this.workState = workState;
+        }
+    }
+
+    private final Stream[] streams;
+    private final long originNs;
+    private final long[] batch = new long[BATCH_SIZE];
+    private final OfferedLoad offeredLoad = new OfferedLoad();
+
+    ArrivalScheduler(List<WorkloadState> workStates, long originNs) {
+        this.streams = new Stream[workStates.size()];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = new Stream(workStates.get(i));
+        }
+        this.originNs = originNs;
+    }
+
+    /**
+     * Restart every stream from its workload's current phase. Called whenever
+     * the workloads switch phases.
+     */
+    void startPhase(long nowNs) {
+        for (Stream stream : streams) {
+            Phase phase = stream.workState.getCurrentPhase();
+            stream.phaseStartNs = nowNs;
+            stream.lastDispatchNs = nowNs;
+            if (phase == null || phase.isDisabled() || !phase.isRateLimited() || phase.isSerial()) {
+                stream.process = null;
+                stream.nextNs = Long.MAX_VALUE;
+            } else {
+                stream.process = phase.newArrivalProcess();
+                stream.nextNs = toAbsolute(stream, stream.process.next());
+            }
+        }
+    }
+
+    /**
+     * Queue every arrival that is due at nowNs.
+     */
+    void dispatch(long nowNs) {
+        int second = second(nowNs);
+        for (Stream stream : streams) {
+            if (stream.process == null) {
+                continue;
+            }
+            offeredLoad.addTarget(second, stream.process.expected(stream.lastDispatchNs - stream.phaseStartNs, nowNs - stream.phaseStartNs));
+            stream.lastDispatchNs = nowNs;
+            offeredLoad.setElapsedNs(nowNs - originNs);
+
+            int count = 0;
+            while (stream.nextNs <= nowNs) {
+                batch[count++] = stream.nextNs;
+                stream.nextNs = toAbsolute(stream, stream.process.next());
+                if (count == batch.length) {
+                    enqueue(stream, count);
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                enqueue(stream, count);
+            }
+        }
+    }
+
+    private void enqueue(Stream stream, int count) {
+        int accepted = stream.workState.addToQueue(batch, count);
+        for (int i = 0; i < count; i++) {
+            int second = second(batch[i]);
+            offeredLoad.addOffered(second, 1);
+            if (i < accepted) {
+                offeredLoad.addEnqueued(second, 1);
+            }
+        }
+    }
+
+    /**
+     * @return when the next arrival of any stream is due, or Long.MAX_VALUE if none is
+     */
+    long nextArrivalNs() {
+        long next = Long.MAX_VALUE;
+        for (Stream stream : streams) {
+            next = Math.min(next, stream.nextNs);
+        }
+        return next;
+    }
+
+    OfferedLoad getOfferedLoad() {
+        return offeredLoad;
+    }
+
+    private int second(long ns) {
+        return (int) Math.max(0, (ns - originNs) / 1000000000L);
+    }
+
+    private static long toAbsolute(Stream stream, long offsetNs) {
+        if (offsetNs == Long.MAX_VALUE || offsetNs > Long.MAX_VALUE - stream.phaseStartNs) {
+            return Long.MAX_VALUE;
+        }
+        return stream.phaseStartNs + offsetNs;
+    }
+
+    /**
+     * Park until shortly before the deadline, then spin the rest of the way,
+     * which keeps the driver's wake-up jitter well below the timer slack of
+     * a plain sleep.
+     */
+    static void awaitUntil(long deadlineNs) {
+        long remaining;
+        while ((remaining = deadlineNs - System.nanoTime()) > SPIN_NS) {
+            LockSupport.parkNanos(remaining - SPIN_NS);
+            if (Thread.interrupted()) {
+                throw new RuntimeException(new InterruptedException());
+            }
+        }
+        while (deadlineNs - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
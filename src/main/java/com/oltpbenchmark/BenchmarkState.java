@@ -28,7 +28,23 @@ public final class BenchmarkState {
 
     private static final Logger LOG = LoggerFactory.getLogger(BenchmarkState.class);
 
+    /**
+     * Keeps the state transitions of several benchbase processes that run
+     * one benchmark together in step, see {@link com.oltpbenchmark.distributed.Coordinator}.
+     */
+    public interface Barrier {
+
+        Barrier NONE = point -> {
+        };
+
+        /**
+         * Block until every process of the run has reached the same point.
+         */
+        void await(String point);
+    }
+
     private final long testStartNs;
+    private final Barrier barrier;
     private final CountDownLatch startBarrier;
     private final AtomicInteger notDoneCount;
     private volatile State state = State.WARMUP;
@@ -38,23 +54,32 @@ public final class BenchmarkState {
      *                   master thread.
      */
     public BenchmarkState(int numThreads) {
+        this(numThreads, Barrier.NONE);
+    }
+
+    /**
+     * @param barrier synchronizes the master thread's transitions with the
+     *                other processes of a distributed run
+     */
+    public BenchmarkState(int numThreads, Barrier barrier) {
         startBarrier = new CountDownLatch(numThreads);
         notDoneCount = new AtomicInteger(numThreads);
+        this.barrier = barrier;
 
 
         testStartNs = System.nanoTime();
     }
 
-    // Protected by this
-
     public long getTestStartNs() {
         return testStartNs;
     }
 
+    /**
+     * A plain volatile read: workers check the state on every transaction
+     * and must not contend on a lock for it.
+     */
     public State getState() {
-        synchronized (this) {
-            return state;
-        }
+        return state;
     }
 
     /**
@@ -72,7 +97,16 @@ public final class BenchmarkState {
         }
     }
 
+    /**
+     * Wait until all processes of a distributed run have reached this point.
+     * Only the master thread calls this; returns at once for a local run.
+     */
+    public void synchronize(String point) {
+        barrier.await(point);
+    }
+
     public void startMeasure() {
+        synchronize(State.MEASURE.name());
         state = State.MEASURE;
     }
 
@@ -27,9 +27,13 @@ import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.JinjavaConfig;
 import com.hubspot.jinjava.interpret.RenderResult;
 import com.oltpbenchmark.api.BenchmarkModule;
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.api.TransactionTypes;
 import com.oltpbenchmark.api.Worker;
+import com.oltpbenchmark.distributed.Agent;
+import com.oltpbenchmark.distributed.Coordinator;
+import com.oltpbenchmark.jdbc.ConnectionProvider;
 import com.oltpbenchmark.types.DatabaseType;
 import com.oltpbenchmark.util.*;
 import org.apache.commons.cli.*;
@@ -48,7 +52,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.InetAddress;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
@@ -64,6 +71,17 @@ public class DBWorkload {
     private static final String RATE_DISABLED = "disabled";
     private static final String RATE_UNLIMITED = "unlimited";
 
+    private static final String AGENT_TOKEN_ENV = "BENCHBASE_AGENT_TOKEN";
+
+    /**
+     * Set when this process coordinates a distributed run
+     */
+    private static Coordinator coordinator = null;
+    /**
+     * Set when this process is an agent of a distributed run
+     */
+    private static Agent agent = null;
+
     /**
      * @param args
      * @throws Exception
@@ -79,6 +97,12 @@ public class DBWorkload {
 
         CommandLine argsLine = parser.parse(options, args);
 
+        if (argsLine.hasOption("agent")) {
+            // An agent runs the command line it gets from the coordinator
+            agent = Agent.connect(argsLine.getOptionValue("agent"), agentToken(argsLine));
+            argsLine = parser.parse(options, agent.getArgs());
+        }
+
         if (argsLine.hasOption("h")) {
             printUsage(options);
             return;
@@ -92,6 +116,15 @@ public class DBWorkload {
             return;
         }
 
+        if (argsLine.hasOption("coordinator")) {
+            int agents = Integer.parseInt(argsLine.getOptionValue("agents", "1"));
+            InetAddress bindAddress = argsLine.hasOption("coordinator-bind")
+                    ? InetAddress.getByName(argsLine.getOptionValue("coordinator-bind"))
+                    : InetAddress.getLoopbackAddress();
+            coordinator = new Coordinator(bindAddress, Integer.parseInt(argsLine.getOptionValue("coordinator")), agents,
+                    agentToken(argsLine), agentArgs(argsLine), Paths.get(argsLine.getOptionValue("c")));
+        }
+
 
         // Seconds
         int intervalMonitor = 0;
@@ -137,36 +170,8 @@ public class DBWorkload {
             // BEGIN LOADING WORKLOAD CONFIGURATION
             // ----------------------------------------------------------------
 
-            WorkloadConfiguration wrkld = new WorkloadConfiguration();
-            wrkld.setBenchmarkName(plugin);
-            wrkld.setXmlConfig(xmlConfig);
-            wrkld.setConfigFilePath(configFile);
-
-            // Pull in database configuration
-            wrkld.setDatabaseType(DatabaseType.get(xmlConfig.getString("type")));
-            wrkld.setDriverClass(xmlConfig.getString("driver"));
-            wrkld.setUrl(xmlConfig.getString("url"));
-            wrkld.setUsername(xmlConfig.getString("username"));
-            wrkld.setPassword(xmlConfig.getString("password"));
-            wrkld.setRandomSeed(xmlConfig.getInt("randomSeed", -1));
-            wrkld.setBatchSize(xmlConfig.getInt("batchsize", 128));
-            wrkld.setMaxRetries(xmlConfig.getInt("retries", 3));
-            wrkld.setNewConnectionPerTxn(xmlConfig.getBoolean("newConnectionPerTxn", false));
-
-            int terminals = xmlConfig.getInt("terminals[not(@bench)]", 0);
-            terminals = xmlConfig.getInt("terminals" + pluginTest, terminals);
-            wrkld.setTerminals(terminals);
-
-            if (xmlConfig.containsKey("loaderThreads")) {
-                int loaderThreads = xmlConfig.getInt("loaderThreads");
-                wrkld.setLoaderThreads(loaderThreads);
-            }
-
-            String isolationMode = xmlConfig.getString("isolation[not(@bench)]", "TRANSACTION_SERIALIZABLE");
-            wrkld.setIsolationMode(xmlConfig.getString("isolation" + pluginTest, isolationMode));
-            wrkld.setScaleFactor(xmlConfig.getDouble("scalefactor", 1.0));
-            wrkld.setDataDir(xmlConfig.getString("datadir", "."));
-            wrkld.setDDLPath(xmlConfig.getString("ddlpath", null));
+            WorkloadConfiguration wrkld = newWorkloadConfiguration(plugin, xmlConfig, configFile, argsLine);
+            int terminals = wrkld.getTotalTerminals();
 
             double selectivity = -1;
             try {
@@ -187,6 +192,9 @@ public class DBWorkload {
             }
 
             BenchmarkModule bench = ClassUtil.newInstance(classname, new Object[]{wrkld}, new Class<?>[]{WorkloadConfiguration.class});
+            if ((wrkld.getPartitionCount() > 1 || coordinator != null) && !bench.supportsPartitioning()) {
+                throw new ParseException("Benchmark " + plugin + " cannot be split over several processes");
+            }
             Map<String, Object> initDebug = new ListOrderedMap<>();
             initDebug.put("Benchmark", String.format("%s {%s}", plugin.toUpperCase(), classname));
             initDebug.put("Configuration", configFile);
@@ -196,8 +204,35 @@ public class DBWorkload {
             initDebug.put("Isolation", wrkld.getIsolationString());
             initDebug.put("Batch Size", wrkld.getBatchSize());
             initDebug.put("Scale Factor", wrkld.getScaleFactor());
+            initDebug.put("Random Seed", wrkld.getRandomStreams().getRunSeed());
             initDebug.put("Terminals", wrkld.getTerminals());
+            if (wrkld.getPartitionCount() > 1) {
+                initDebug.put("Partition", String.format("%d of %d, terminals %d-%d of %d", wrkld.getPartition() + 1, wrkld.getPartitionCount(),
+                        wrkld.getTerminalOffset(), wrkld.getTerminalOffset() + wrkld.getTerminals() - 1, wrkld.getTotalTerminals()));
+            }
+            if (coordinator != null) {
+                initDebug.put("Coordinator", String.format("port=%d, agents=%d", coordinator.getPort(), coordinator.getAgentCount()));
+            }
             initDebug.put("New Connection Per Txn", wrkld.getNewConnectionPerTxn());
+            initDebug.put("Statement Cache", wrkld.getStatementCache());
+            if (wrkld.getConnectionPoolSize() > 0) {
+                initDebug.put("Connection Pool", String.format("size=%d, maxLifetime=%dms, validationTimeout=%ds",
+                        wrkld.getConnectionPoolSize(), wrkld.getMaxConnectionLifetime(), wrkld.getConnectionValidationTimeout()));
+            }
+            if (wrkld.getMaxConcurrentConnects() > 0 || wrkld.getConnectRate() > 0) {
+                initDebug.put("Connect Throttle", String.format("concurrent=%d, rate=%.1f/s", wrkld.getMaxConcurrentConnects(), wrkld.getConnectRate()));
+            }
+            initDebug.put("Work Queue", wrkld.getWorkQueueType());
+            initDebug.put("Virtual Threads", wrkld.getVirtualThreads());
+            if (wrkld.getLiveMetrics()) {
+                initDebug.put("Live Metrics", String.format("port=%d, file=%s, interval=%dms", wrkld.getMetricsPort(), wrkld.getMetricsFile(), wrkld.getMetricsInterval()));
+            }
+            initDebug.put("Bulk Load", wrkld.getBulkLoadMethod());
+            if (wrkld.getLatencyHistograms()) {
+                initDebug.put("Latency Histograms", String.format("%d significant digits, %s, raw samples %s",
+                        wrkld.getLatencyHistogramDigits(), wrkld.getLatencyHistogramsPerSecond() ? "per second" : "cumulative only",
+                        wrkld.getRawLatencySamples() ? "kept" : "dropped"));
+            }
 
             if (selectivity != -1) {
                 initDebug.put("Selectivity", selectivity);
@@ -276,12 +311,47 @@ public class DBWorkload {
             }
 
 
+            // Featurebench workloads can also run concurrently, each with its own
+            // terminals, rate and phases, and results that are reported separately
+            boolean parallelWorkloads = plugin.equalsIgnoreCase("featurebench") && totalWorkloadCount > 1
+                && xmlConfig.getBoolean("microbenchmark/properties/parallelWorkloads", false);
+            List<BenchmarkModule> parallelBenchList = new ArrayList<>();
+            List<Integer> parallelWorkCounts = new ArrayList<>();
+            List<List<TransactionType>> parallelTXTypes = new ArrayList<>();
+            WorkloadConfiguration firstWrkld = wrkld;
+            if (parallelWorkloads) {
+                if (new HashSet<>(workloadsFromExecuteRules).size() != workloadsFromExecuteRules.size()) {
+                    throw new RuntimeException("Workload names must be unique to run them in parallel: " + workloadsFromExecuteRules);
+                }
+                LOG.info("Workloads will run in parallel");
+            }
+
             for (int workCount = 1; workCount <= totalWorkloadCount; workCount++) {
 
                 List<HierarchicalConfiguration<ImmutableNode>> executeRules =
                     (workloads == null || workloads.size() == 0) ? null : workloads.get(workCount - 1)
                         .configurationsAt("run");
 
+                if (parallelWorkloads) {
+                    if (workCount > 1) {
+                        // Each concurrent workload needs its own phases, transaction types and workers.
+                        // Its seed is derived from the run seed, so the run can still be replayed.
+                        wrkld = newWorkloadConfiguration(plugin, xmlConfig, configFile, argsLine);
+                        wrkld.setUrl(firstWrkld.getUrl());
+                        wrkld.setRandomSeed((int) (firstWrkld.getRandomStreams().seed("workload", workCount) & Integer.MAX_VALUE));
+                        bench = ClassUtil.newInstance(classname, new Object[]{wrkld}, new Class<?>[]{WorkloadConfiguration.class});
+                    }
+                    wrkld.setWorkloadName(workloadsFromExecuteRules.get(workCount - 1));
+                }
+
+                // Workload specific number of terminals
+                int workloadTerminals = terminals;
+                if (plugin.equalsIgnoreCase("featurebench") && workloads != null && workloads.size() >= workCount
+                    && workloads.get(workCount - 1).containsKey("terminals")) {
+                    workloadTerminals = workloads.get(workCount - 1).getInt("terminals");
+                }
+                wrkld.setTerminals(workloadTerminals);
+
 
                 boolean isExecutePresent = xmlConfig.containsKey("microbenchmark/properties/execute");
                 boolean isExecuteTrue = false;
@@ -431,6 +501,11 @@ public class DBWorkload {
                     String rate_string;
                     rate_string = work.getString("rate[not(@bench)]", "");
                     rate_string = work.getString("rate" + pluginTest, rate_string);
+                    // get workload specific rate
+                    if (plugin.equalsIgnoreCase("featurebench") && workloads != null && workloads.size() >= workCount
+                        && workloads.get(workCount - 1).containsKey("rate")) {
+                        rate_string = workloads.get(workCount - 1).getString("rate");
+                    }
                     if (rate_string.equals(RATE_DISABLED)) {
                         disabled = true;
                     } else if (rate_string.equals(RATE_UNLIMITED)) {
@@ -452,8 +527,11 @@ public class DBWorkload {
                     }
                     Phase.Arrival arrival = Phase.Arrival.REGULAR;
                     String arrive = work.getString("@arrival", "regular");
-                    if (arrive.equalsIgnoreCase("POISSON")) {
-                        arrival = Phase.Arrival.POISSON;
+                    try {
+                        arrival = Phase.Arrival.valueOf(arrive.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        LOG.error(String.format("Arrival must be one of %s", Arrays.toString(Phase.Arrival.values()).toLowerCase()));
+                        System.exit(-1);
                     }
 
                     // We now have the option to run all queries exactly once in
@@ -462,14 +540,14 @@ public class DBWorkload {
 
 
                     int activeTerminals;
-                    activeTerminals = work.getInt("active_terminals[not(@bench)]", terminals);
+                    activeTerminals = work.getInt("active_terminals[not(@bench)]", workloadTerminals);
                     activeTerminals = work.getInt("active_terminals" + pluginTest, activeTerminals);
                     // If using serial, we should have only one terminal
                     if (serial && activeTerminals != 1) {
                         LOG.warn("Serial ordering is enabled, so # of active terminals is clamped to 1.");
                         activeTerminals = 1;
                     }
-                    if (activeTerminals > terminals) {
+                    if (activeTerminals > workloadTerminals) {
                         LOG.error(String.format("Configuration error in work %d: " + "Number of active terminals is bigger than the total number of terminals", i));
                         System.exit(-1);
                     }
@@ -539,7 +617,20 @@ public class DBWorkload {
                     }
 
 
-                    wrkld.addPhase(i, time, warmup, rate, weights, rateLimited, disabled, serial, timed, activeTerminals, arrival);
+                    if (wrkld.getPartitionCount() > 1) {
+                        if (serial) {
+                            LOG.error("Serial phases cannot be split into partitions.");
+                            System.exit(-1);
+                        }
+                        // Each partition runs its share of the phase
+                        activeTerminals = wrkld.partitionShare(activeTerminals);
+                        if (rateLimited && !disabled) {
+                            rate = wrkld.partitionShare(rate);
+                        }
+                    }
+
+                    ArrivalProcess.Factory arrivalFactory = getArrivalFactory(work, arrival, rate, time);
+                    wrkld.addPhase(i, time, warmup, rate, weights, rateLimited, disabled, serial, timed, activeTerminals, arrival, arrivalFactory);
                 }
 
                 // CHECKING INPUT PHASES
@@ -659,12 +750,24 @@ public class DBWorkload {
                 }
 
 
+                if (parallelWorkloads) {
+                    // Started together once all workloads are set up
+                    if (isBooleanOptionSet(argsLine, "execute") && uniqueRunWorkloads.contains(wrkld.getWorkloadName())) {
+                        parallelBenchList.add(bench);
+                        parallelWorkCounts.add(workCount);
+                        parallelTXTypes.add(new ArrayList<>(activeTXTypes));
+                    }
+                    benchList.clear();
+                    activeTXTypes.clear();
+                    continue;
+                }
+
                 if (isBooleanOptionSet(argsLine, "execute") && (argsLine.hasOption("workloads")) && executeRules != null) {
                     String val = workloads.get(workCount - 1).getString("workload");
                     if (uniqueRunWorkloads.contains(val) || uniqueRunWorkloads.contains("DEFAULT_WORKLOAD")) {
                         LOG.info("Starting Workload " + (workloads.get(workCount - 1).containsKey("workload") ? workloads.get(workCount - 1).getString("workload") : workCount));
                         try {
-                            Results r = runWorkload(benchList, intervalMonitor, workCount);
+                            Results r = runWorkload(benchList, workCount, intervalMonitor);
                             writeOutputs(r, activeTXTypes, argsLine, xmlConfig,
                                 executeRules == null ? null : workloads.get(workCount - 1).getString("workload"),
                                 executeRules == null ? null : workloads.get(workCount - 1).getString("customTags", null),
@@ -695,7 +798,7 @@ public class DBWorkload {
                     }
                     // Bombs away!
                     try {
-                        Results r = runWorkload(benchList, intervalMonitor, workCount);
+                        Results r = runWorkload(benchList, workCount, intervalMonitor);
                         // if block currently only valid for bulkload experiments
                         if(xmlConfig.containsKey("microbenchmark/properties/workload")) {
                             writeOutputs(r, activeTXTypes, argsLine, xmlConfig,
@@ -728,17 +831,46 @@ public class DBWorkload {
                 activeTXTypes.clear();
             }
 
+            if (!parallelBenchList.isEmpty()) {
+                List<String> names = new ArrayList<>();
+                for (BenchmarkModule benchmark : parallelBenchList) {
+                    names.add(benchmark.getWorkloadConfiguration().getWorkloadName());
+                }
+                LOG.info("Starting Workloads " + names + " in parallel");
+                try {
+                    Results r = runWorkload(parallelBenchList, parallelWorkCounts, intervalMonitor);
+                    for (int i = 0; i < parallelBenchList.size(); i++) {
+                        String name = names.get(i);
+                        HierarchicalConfiguration<ImmutableNode> workload = workloads.get(parallelWorkCounts.get(i) - 1);
+                        Results workloadResults = r.getWorkloadResults().get(name);
+                        LOG.info("Workload {}: {}", name, workloadResults);
+                        writeOutputs(workloadResults, parallelTXTypes.get(i), argsLine, xmlConfig, name,
+                            workload.getString("customTags", null), workload.getBoolean("skipReport", false));
+                        writeHistograms(workloadResults);
+                    }
+
+                    if (argsLine.hasOption("json-histograms")) {
+                        String histogram_json = writeJSONHistograms(r.getWorkloadResults());
+                        String fileName = argsLine.getOptionValue("json-histograms");
+                        FileUtil.writeStringToFile(new File(fileName), histogram_json);
+                        LOG.info("Histograms JSON Data: " + fileName);
+                    }
+                } catch (Throwable ex) {
+                    LOG.error("Unexpected error when executing benchmarks.", ex);
+                    System.exit(1);
+                }
+            }
+
             if (argsLine.hasOption("cleanup") && isBooleanOptionSet(argsLine, "cleanup")) {
                 for (BenchmarkModule benchmarkModule : copyBenchList) {
                     if (xmlConfig.containsKey("microbenchmark/properties/cleanup")) {
                         List<String> ddls = xmlConfig.getList(String.class, "microbenchmark/properties/cleanup");
-                        try {
-                            Statement stmtObj = benchmarkModule.makeConnection().createStatement();
+                        try (Connection conn = benchmarkModule.makeConnection();
+                             Statement stmtObj = conn.createStatement()) {
                             for (String ddl : ddls) {
                                 stmtObj.execute(ddl);
                             }
                             LOG.info("\n=================Cleanup Phase taking from Yaml=========\n");
-                            stmtObj.close();
                         } catch (Exception ex) {
                             ex.printStackTrace();
                         }
@@ -749,6 +881,13 @@ public class DBWorkload {
                 }
             }
         }
+
+        if (coordinator != null) {
+            coordinator.close();
+        }
+        if (agent != null) {
+            agent.close();
+        }
     }
 
     private static Options buildOptions(XMLConfiguration pluginConfig) {
@@ -761,6 +900,7 @@ public class DBWorkload {
         options.addOption(null, "execute", true, "Execute the benchmark workload");
         options.addOption("h", "help", false, "Print this help");
         options.addOption("s", "sample", true, "Sampling window");
+        options.addOption(null, "raw", true, "Keep every latency sample and write the raw output even when latencyHistograms is enabled");
         options.addOption("im", "interval-monitor", true, "Throughput Monitoring Interval in milliseconds");
         options.addOption("d", "directory", true, "Base directory for the result files, default is current directory");
         options.addOption(null, "dialects-export", true, "Export benchmark SQL to a dialects file");
@@ -768,6 +908,12 @@ public class DBWorkload {
         options.addOption("workloads", "workloads", true, "Run some specific workloads");
         options.addOption("p", "params", true, "Use variables through CLI for YAML");
         options.addOption(null, "cleanup", true, "Clean up the database");
+        options.addOption(null, "partition", true, "Only run this share of the terminals and rate, as k/n for the k-th of n processes");
+        options.addOption(null, "coordinator", true, "Coordinate a distributed run: listen for agents on this port and merge their results");
+        options.addOption(null, "agents", true, "Number of agents of a distributed run, default is 1");
+        options.addOption(null, "agent", true, "Run as an agent of the coordinator at host:port");
+        options.addOption(null, "coordinator-bind", true, "Address the coordinator listens on for agents, default is the loopback address");
+        options.addOption(null, "agent-token", true, "Secret shared by the coordinator and its agents, default is the " + AGENT_TOKEN_ENV + " environment variable");
         return options;
     }
 
@@ -818,12 +964,78 @@ public class DBWorkload {
     }
 
     private static String writeJSONHistograms(Results r) {
+        return JSONUtil.toJSONString(jsonHistograms(r));
+    }
+
+    /**
+     * The histograms of concurrent workloads, keyed by workload name, as
+     * their transaction type ids overlap.
+     */
+    private static String writeJSONHistograms(Map<String, Results> workloadResults) {
+        Map<String, Map<String, JSONSerializable>> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Results> e : workloadResults.entrySet()) {
+            map.put(e.getKey(), jsonHistograms(e.getValue()));
+        }
+        return JSONUtil.toJSONString(map);
+    }
+
+    private static Map<String, JSONSerializable> jsonHistograms(Results r) {
         Map<String, JSONSerializable> map = new HashMap<>();
         map.put("completed", r.getSuccess());
         map.put("aborted", r.getAbort());
         map.put("rejected", r.getRetry());
         map.put("unexpected", r.getError());
-        return JSONUtil.toJSONString(map);
+        return map;
+    }
+
+    /**
+     * Build the arrival process of a rate limited phase. Besides the phase
+     * rate, the bursty, diurnal and trace arrivals take their settings from
+     * attributes on the work element:
+     * <ul>
+     * <li>bursty: burstRate (default 10x rate), burstPeriod and burstLength in seconds (default 10 and 1)</li>
+     * <li>diurnal: period in seconds (default the phase time) and amplitude between 0 and 1 (default 0.5)</li>
+     * <li>trace: trace, a file with one arrival timestamp in seconds per line; the rate is ignored</li>
+     * </ul>
+     */
+    private static ArrivalProcess.Factory getArrivalFactory(HierarchicalConfiguration<ImmutableNode> work, Phase.Arrival arrival, int rate, int time) {
+        switch (arrival) {
+            case BURSTY: {
+                int burstRate = work.getInt("@burstRate", rate * 10);
+                long periodNs = (long) (work.getDouble("@burstPeriod", 10) * 1000000000L);
+                long burstNs = (long) (work.getDouble("@burstLength", 1) * 1000000000L);
+                if (periodNs <= 0 || burstNs < 0 || burstNs > periodNs) {
+                    LOG.error("burstLength must be between 0 and burstPeriod");
+                    System.exit(-1);
+                }
+                return rng -> ArrivalProcess.bursty(rate, burstRate, periodNs, burstNs, rng);
+            }
+            case DIURNAL: {
+                long periodNs = (long) (work.getDouble("@period", Math.max(time, 1)) * 1000000000L);
+                double amplitude = work.getDouble("@amplitude", 0.5);
+                if (periodNs <= 0 || amplitude < 0 || amplitude > 1) {
+                    LOG.error("Diurnal arrivals need a positive period and an amplitude between 0 and 1");
+                    System.exit(-1);
+                }
+                return rng -> ArrivalProcess.diurnal(rate, amplitude, periodNs, rng);
+            }
+            case TRACE: {
+                String traceFile = work.getString("@trace", "");
+                if (traceFile.isEmpty()) {
+                    LOG.error("Trace arrivals need a trace file");
+                    System.exit(-1);
+                }
+                try {
+                    long[] offsets = ArrivalProcess.readTrace(Paths.get(traceFile));
+                    LOG.info("Loaded {} arrivals from trace {}", offsets.length, traceFile);
+                    return rng -> ArrivalProcess.trace(offsets);
+                } catch (IOException | NumberFormatException e) {
+                    throw new RuntimeException("Failed to read arrival trace " + traceFile, e);
+                }
+            }
+            default:
+                return ArrivalProcess.factory(arrival, rate);
+        }
     }
 
     /**
@@ -839,6 +1051,11 @@ public class DBWorkload {
                                      XMLConfiguration xmlConfig, String workload_name,
                                      String customTags,Boolean skipReport) throws Exception {
 
+        if (agent != null) {
+            LOG.info("Results were sent to the coordinator");
+            return;
+        }
+
         // If an output directory is used, store the information
         String outputDirectory = "results";
 
@@ -861,16 +1078,30 @@ public class DBWorkload {
 
         int windowSize = Integer.parseInt(argsLine.getOptionValue("s", "5"));
 
-        String rawFileName = baseFileName + ".raw.csv";
-        try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, rawFileName))) {
-            LOG.info("Output Raw data into file: {}", rawFileName);
-            rw.writeRaw(activeTXTypes, ps);
+        if (r.getLatencySamples() != null) {
+            String rawFileName = baseFileName + ".raw.csv";
+            try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, rawFileName))) {
+                LOG.info("Output Raw data into file: {}", rawFileName);
+                rw.writeRaw(activeTXTypes, ps);
+            }
+        }
+
+        if (rw.hasTimeSeries()) {
+            String sampleFileName = baseFileName + ".samples.csv";
+            try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, sampleFileName))) {
+                LOG.info("Output samples into file: {}", sampleFileName);
+                rw.writeSamples(ps);
+            }
+        } else {
+            LOG.info("Only the cumulative latency histograms were kept, set latencyHistogramsPerSecond for the samples and windowed results");
         }
 
-        String sampleFileName = baseFileName + ".samples.csv";
-        try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, sampleFileName))) {
-            LOG.info("Output samples into file: {}", sampleFileName);
-            rw.writeSamples(ps);
+        if (rw.hasOfferedLoad()) {
+            String offeredFileName = baseFileName + ".offered.csv";
+            try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, offeredFileName))) {
+                LOG.info("Output offered load into file: {}", offeredFileName);
+                rw.writeOfferedLoad(ps);
+            }
         }
 
         String summaryFileName = baseFileName + ".summary.json";
@@ -928,27 +1159,28 @@ public class DBWorkload {
             }
         }
 
-        String resultsFileName = baseFileName + ".results.csv";
-        try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, resultsFileName))) {
-            LOG.info("Output results into file: {} with window size {}", resultsFileName, windowSize);
-            rw.writeResults(windowSize, ps);
-        }
-        if (name.equalsIgnoreCase("featurebench")) {
-            for (TransactionType t : activeTXTypes) {
-                String fileName = baseFileName + ".results." + t.getTransactionName() + ".csv";
-                try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, fileName))) {
-                    rw.writeResults(windowSize, ps, t);
-                }
+        if (rw.hasTimeSeries()) {
+            String resultsFileName = baseFileName + ".results.csv";
+            try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, resultsFileName))) {
+                LOG.info("Output results into file: {} with window size {}", resultsFileName, windowSize);
+                rw.writeResults(windowSize, ps);
             }
-        } else {
-            for (TransactionType t : activeTXTypes) {
-                String fileName = baseFileName + ".results." + t.getName() + ".csv";
-                try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, fileName))) {
-                    rw.writeResults(windowSize, ps, t);
+            if (name.equalsIgnoreCase("featurebench")) {
+                for (TransactionType t : activeTXTypes) {
+                    String fileName = baseFileName + ".results." + t.getTransactionName() + ".csv";
+                    try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, fileName))) {
+                        rw.writeResults(windowSize, ps, t);
+                    }
+                }
+            } else {
+                for (TransactionType t : activeTXTypes) {
+                    String fileName = baseFileName + ".results." + t.getName() + ".csv";
+                    try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, fileName))) {
+                        rw.writeResults(windowSize, ps, t);
+                    }
                 }
             }
         }
-
     }
 
     private static void runCreator(BenchmarkModule bench) throws SQLException, IOException {
@@ -958,7 +1190,8 @@ public class DBWorkload {
 
     private static String runCreatorDB(BenchmarkModule benchmark, String totalDDL,
                                        boolean analyze_on_all_tables) throws SQLException {
-        Statement stmtObj = benchmark.makeConnection().createStatement();
+        Connection conn = benchmark.makeConnection();
+        Statement stmtObj = conn.createStatement();
         stmtObj.execute(totalDDL);
         Pattern patternCreateDB = Pattern.compile("create database (.+?) ", Pattern.CASE_INSENSITIVE);
         Matcher matcherCreateDB = patternCreateDB.matcher(totalDDL);
@@ -989,6 +1222,7 @@ public class DBWorkload {
         int index = url.indexOf(matcher.group(0), url.indexOf(matcher.group(0)) + 1);
         String newUrl = url.substring(0, index) + dbName + url.substring(index + matcher.group(0).length());
         stmtObj.close();
+        conn.close();
         return newUrl;
     }
 
@@ -1020,15 +1254,111 @@ public class DBWorkload {
         return url.substring(0, index) + dbName + url.substring(index + matcher.group(0).length());
     }
 
+    /**
+     * Read the settings shared by all phases of a benchmark from its configuration file.
+     */
+    private static WorkloadConfiguration newWorkloadConfiguration(String plugin, XMLConfiguration xmlConfig, String configFile, CommandLine argsLine) {
+        WorkloadConfiguration wrkld = new WorkloadConfiguration();
+        wrkld.setBenchmarkName(plugin);
+        wrkld.setXmlConfig(xmlConfig);
+        wrkld.setConfigFilePath(configFile);
+
+        // Pull in database configuration
+        wrkld.setDatabaseType(DatabaseType.get(xmlConfig.getString("type")));
+        wrkld.setDriverClass(xmlConfig.getString("driver"));
+        wrkld.setUrl(xmlConfig.getString("url"));
+        wrkld.setUsername(xmlConfig.getString("username"));
+        wrkld.setPassword(xmlConfig.getString("password"));
+        wrkld.setRandomSeed(xmlConfig.getInt("randomSeed", -1));
+        wrkld.setBatchSize(xmlConfig.getInt("batchsize", 128));
+        wrkld.setMaxRetries(xmlConfig.getInt("retries", 3));
+        wrkld.setNewConnectionPerTxn(xmlConfig.getBoolean("newConnectionPerTxn", false));
+        wrkld.setStatementCache(xmlConfig.getBoolean("statementCache", true));
+        wrkld.setConnectionPoolSize(xmlConfig.getInt("connectionPool", 0));
+        wrkld.setMaxConnectionLifetime(xmlConfig.getLong("maxConnectionLifetime", 0));
+        wrkld.setConnectionValidationTimeout(xmlConfig.getInt("connectionValidationTimeout", 5));
+        wrkld.setMaxConcurrentConnects(xmlConfig.getInt("maxConcurrentConnects", 0));
+        wrkld.setConnectRate(xmlConfig.getDouble("connectRate", 0));
+        wrkld.setWorkQueueType(WorkQueue.Type.valueOf(xmlConfig.getString("workQueue", "ring_buffer").toUpperCase()));
+        wrkld.setVirtualThreads(xmlConfig.getBoolean("virtualThreads", false));
+        wrkld.setMetricsPort(xmlConfig.getInt("metricsPort", 0));
+        wrkld.setMetricsFile(xmlConfig.getString("metricsFile", null));
+        wrkld.setMetricsInterval(xmlConfig.getInt("metricsInterval", 1000));
+        wrkld.setBulkLoadMethod(BulkWriter.Method.valueOf(xmlConfig.getString("bulkLoad", "auto").toUpperCase()));
+        wrkld.setLatencyHistograms(xmlConfig.getBoolean("latencyHistograms", false));
+        wrkld.setLatencyHistogramDigits(xmlConfig.getInt("latencyHistogramDigits", LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS));
+        wrkld.setLatencyHistogramsPerSecond(xmlConfig.getBoolean("latencyHistogramsPerSecond", false));
+        wrkld.setRawLatencySamples(Boolean.parseBoolean(argsLine.getOptionValue("raw", "false")));
+        if (agent != null) {
+            // The coordinator merges the agents' histograms
+            wrkld.setLatencyHistograms(true);
+        }
+        if (argsLine.hasOption("partition")) {
+            String[] partition = argsLine.getOptionValue("partition").split("/");
+            wrkld.setPartition(Integer.parseInt(partition[0]) - 1, Integer.parseInt(partition[1]));
+        }
+
+        String pluginTest = "[@bench='" + plugin + "']";
+        int terminals = xmlConfig.getInt("terminals[not(@bench)]", 0);
+        terminals = xmlConfig.getInt("terminals" + pluginTest, terminals);
+        wrkld.setTerminals(terminals);
+
+        if (xmlConfig.containsKey("loaderThreads")) {
+            int loaderThreads = xmlConfig.getInt("loaderThreads");
+            wrkld.setLoaderThreads(loaderThreads);
+        }
+
+        String isolationMode = xmlConfig.getString("isolation[not(@bench)]", "TRANSACTION_SERIALIZABLE");
+        wrkld.setIsolationMode(xmlConfig.getString("isolation" + pluginTest, isolationMode));
+        wrkld.setScaleFactor(xmlConfig.getDouble("scalefactor", 1.0));
+        wrkld.setDataDir(xmlConfig.getString("datadir", "."));
+        wrkld.setDDLPath(xmlConfig.getString("ddlpath", null));
+        return wrkld;
+    }
+
     private static void runLoader(BenchmarkModule bench) throws SQLException, InterruptedException {
         LOG.debug(String.format("Loading %s Database", bench));
         bench.loadDatabase();
     }
 
-    private static Results runWorkload(List<BenchmarkModule> benchList, int intervalMonitor, int workcount) throws IOException {
+    private static Results runWorkload(List<BenchmarkModule> benchList, int workcount, int intervalMonitor) throws IOException {
+        return runWorkload(benchList, Collections.nCopies(benchList.size(), workcount), intervalMonitor);
+    }
+
+    /**
+     * Run the benchmarks in benchList together, each with the featurebench
+     * workload of the same index in workcounts.
+     */
+    private static Results runWorkload(List<BenchmarkModule> benchList, List<Integer> workcounts, int intervalMonitor) throws IOException {
+        if (coordinator != null) {
+            List<WorkloadConfiguration> workConfs = new ArrayList<>();
+            for (BenchmarkModule bench : benchList) {
+                workConfs.add(bench.getWorkloadConfiguration());
+            }
+            Results r = coordinator.runWorkload(workConfs);
+            LOG.info(SINGLE_LINE);
+            LOG.info("Rate limited reqs/s of {} agents: {}", coordinator.getAgentCount(), r);
+            return r;
+        }
+        if (agent != null) {
+            // Wait until the coordinator has created and loaded the database
+            agent.await("workload " + workcounts);
+        }
+
         List<Worker<?>> workers = new ArrayList<>();
         List<WorkloadConfiguration> workConfs = new ArrayList<>();
-        for (BenchmarkModule bench : benchList) {
+        for (int i = 0; i < benchList.size(); i++) {
+            BenchmarkModule bench = benchList.get(i);
+            int workcount = workcounts.get(i);
+            ConnectionProvider connections = bench.getConnectionProvider();
+            try {
+                connections.warmUp();
+            } catch (SQLException ex) {
+                LOG.warn("Failed to warm up connections for {}: {}", bench.getBenchmarkName(), ex.getMessage());
+            }
+            // Only report the connects of the measured run, not those of the load phase or the warm-up
+            connections.getStatistics().reset();
+
             LOG.info("Creating {} virtual terminals...", bench.getWorkloadConfiguration().getTerminals());
             if (bench.getBenchmarkName().equalsIgnoreCase("featurebench")) {
                 workers.addAll(bench.makeWorkers(workcount));
@@ -1042,12 +1372,50 @@ public class DBWorkload {
             workConfs.add(bench.getWorkloadConfiguration());
 
         }
-        Results r = ThreadBench.runRateLimitedBenchmark(workers, workConfs, intervalMonitor);
+        Results r = ThreadBench.runRateLimitedBenchmark(workers, workConfs, intervalMonitor, agent != null ? agent : BenchmarkState.Barrier.NONE);
+        for (BenchmarkModule bench : benchList) {
+            bench.getConnectionProvider().close();
+        }
+        if (agent != null) {
+            agent.sendResults(r, workConfs);
+        }
         LOG.info(SINGLE_LINE);
         LOG.info("Rate limited reqs/s: {}", r);
         return r;
     }
 
+    /**
+     * The command line for the agents of a distributed run. Only the
+     * coordinator creates and loads the database and writes results.
+     */
+    private static List<String> agentArgs(CommandLine argsLine) {
+        Set<String> coordinatorOnly = Set.of("config", "create", "clear", "load", "cleanup", "dialects-export", "directory",
+                "json-histograms", "partition", "coordinator", "agents", "coordinator-bind", "agent-token");
+        List<String> args = new ArrayList<>();
+        for (Option option : argsLine.getOptions()) {
+            if (coordinatorOnly.contains(option.getLongOpt())) {
+                continue;
+            }
+            args.add("--" + option.getLongOpt());
+            if (option.getValues() != null) {
+                args.addAll(Arrays.asList(option.getValues()));
+            }
+        }
+        return args;
+    }
+
+    /**
+     * The secret agents send to the coordinator, from the command line or
+     * else the environment, where other users of the machine cannot see it.
+     */
+    private static String agentToken(CommandLine argsLine) {
+        String token = argsLine.getOptionValue("agent-token", System.getenv(AGENT_TOKEN_ENV));
+        if (token == null || token.isEmpty()) {
+            throw new RuntimeException("A distributed run needs an agent token, set --agent-token or " + AGENT_TOKEN_ENV);
+        }
+        return token;
+    }
+
     private static void printUsage(Options options) {
         HelpFormatter hlpfrmt = new HelpFormatter();
         hlpfrmt.printHelp("benchbase", options);
@@ -1120,8 +1488,10 @@ public class DBWorkload {
         boolean matchFound = matcher.find();
         if (matchFound) {
             String databaseName = matcher.group(0);
-            Statement stmtObj = benchmark.makeConnection().createStatement();
-            stmtObj.execute(String.format("ALTER DATABASE %s SET yb_enable_optimizer_statistics to true;", databaseName));
+            try (Connection conn = benchmark.makeConnection();
+                 Statement stmtObj = conn.createStatement()) {
+                stmtObj.execute(String.format("ALTER DATABASE %s SET yb_enable_optimizer_statistics to true;", databaseName));
+            }
         } else {
             LOG.info("No match!");
         }
@@ -29,7 +29,7 @@ import java.util.concurrent.TimeUnit;
 public class DistributionStatistics {
     private static final Logger LOG = LoggerFactory.getLogger(DistributionStatistics.class);
 
-    private static final double[] PERCENTILES = {0.0, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 1.0};
+    private static final double[] PERCENTILES = {0.0, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 1.0, 0.999, 0.9999, 0.99999};
 
     private static final int MINIMUM = 0;
     private static final int PERCENTILE_25TH = 1;
@@ -39,6 +39,9 @@ public class DistributionStatistics {
     private static final int PERCENTILE_95TH = 5;
     private static final int PERCENTILE_99TH = 6;
     private static final int MAXIMUM = 7;
+    private static final int PERCENTILE_99_9TH = 8;
+    private static final int PERCENTILE_99_99TH = 9;
+    private static final int PERCENTILE_99_999TH = 10;
 
     private final int count;
     private final long[] percentiles;
@@ -97,6 +100,26 @@ public class DistributionStatistics {
         return new DistributionStatistics(valuesAsMicroseconds.length, percentiles, average, standardDeviation);
     }
 
+    /**
+     * Computes distribution statistics from a histogram. Minimum, maximum,
+     * count and average are exact; percentiles are as precise as the histogram.
+     */
+    public static DistributionStatistics computeStatistics(LatencyHistogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            long[] percentiles = new long[PERCENTILES.length];
+            Arrays.fill(percentiles, -1);
+            return new DistributionStatistics(0, percentiles, -1, -1);
+        }
+
+        long[] percentiles = new long[PERCENTILES.length];
+        for (int i = 0; i < percentiles.length; ++i) {
+            percentiles[i] = histogram.getValueAtPercentile(PERCENTILES[i]);
+        }
+
+        return new DistributionStatistics((int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount()), percentiles,
+                histogram.getMean(), histogram.getStdDeviation());
+    }
+
     public int getCount() {
         return count;
     }
@@ -137,6 +160,18 @@ public class DistributionStatistics {
         return percentiles[PERCENTILE_99TH];
     }
 
+    public double get99_9thPercentile() {
+        return percentiles[PERCENTILE_99_9TH];
+    }
+
+    public double get99_99thPercentile() {
+        return percentiles[PERCENTILE_99_99TH];
+    }
+
+    public double get99_999thPercentile() {
+        return percentiles[PERCENTILE_99_999TH];
+    }
+
     public double getMaximum() {
         return percentiles[MAXIMUM];
     }
@@ -151,20 +186,33 @@ public class DistributionStatistics {
                + "90th=" + TimeUnit.MICROSECONDS.toMillis((long) get90thPercentile()) + ", "
                + "95th=" + TimeUnit.MICROSECONDS.toMillis((long) get95thPercentile()) + ", "
                + "99th=" + TimeUnit.MICROSECONDS.toMillis((long) get99thPercentile()) + ", "
+               + "99.9th=" + TimeUnit.MICROSECONDS.toMillis((long) get99_9thPercentile()) + ", "
+               + "99.99th=" + TimeUnit.MICROSECONDS.toMillis((long) get99_99thPercentile()) + ", "
+               + "99.999th=" + TimeUnit.MICROSECONDS.toMillis((long) get99_999thPercentile()) + ", "
                + "max=" + TimeUnit.MICROSECONDS.toMillis((long) getMaximum()) + "]";
     }
 
     public Map<String, Integer> toMap() {
+        return toMap("Latency");
+    }
+
+    /**
+     * @param metric what the values measure, e.g. "Latency" or "Queue Time"
+     */
+    public Map<String, Integer> toMap(String metric) {
         Map<String, Integer> distMap = new LinkedHashMap<>();
-        distMap.put("Minimum Latency (microseconds)", (int) getMinimum());
-        distMap.put("25th Percentile Latency (microseconds)", (int) get25thPercentile());
-        distMap.put("Median Latency (microseconds)", (int) getMedian());
-        distMap.put("Average Latency (microseconds)", (int) getAverage());
-        distMap.put("75th Percentile Latency (microseconds)", (int) get75thPercentile());
-        distMap.put("90th Percentile Latency (microseconds)", (int) get90thPercentile());
-        distMap.put("95th Percentile Latency (microseconds)", (int) get95thPercentile());
-        distMap.put("99th Percentile Latency (microseconds)", (int) get99thPercentile());
-        distMap.put("Maximum Latency (microseconds)", (int) getMaximum());
+        distMap.put("Minimum " + metric + " (microseconds)", (int) getMinimum());
+        distMap.put("25th Percentile " + metric + " (microseconds)", (int) get25thPercentile());
+        distMap.put("Median " + metric + " (microseconds)", (int) getMedian());
+        distMap.put("Average " + metric + " (microseconds)", (int) getAverage());
+        distMap.put("75th Percentile " + metric + " (microseconds)", (int) get75thPercentile());
+        distMap.put("90th Percentile " + metric + " (microseconds)", (int) get90thPercentile());
+        distMap.put("95th Percentile " + metric + " (microseconds)", (int) get95thPercentile());
+        distMap.put("99th Percentile " + metric + " (microseconds)", (int) get99thPercentile());
+        distMap.put("99.9th Percentile " + metric + " (microseconds)", (int) get99_9thPercentile());
+        distMap.put("99.99th Percentile " + metric + " (microseconds)", (int) get99_99thPercentile());
+        distMap.put("99.999th Percentile " + metric + " (microseconds)", (int) get99_999thPercentile());
+        distMap.put("Maximum " + metric + " (microseconds)", (int) getMaximum());
         return distMap;
     }
 }
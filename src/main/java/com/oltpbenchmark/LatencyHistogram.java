@@ -0,0 +1,285 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of non-negative microsecond values, in the spirit of
+ * HdrHistogram.
+ * <p>
+ * Values below 2^p are counted exactly. Every power-of-two range above that
+ * is split into 2^p equal sub-buckets, so any recorded value is off by at most
+ * 1 part in 2^p. p is derived from the requested number of significant
+ * decimal digits. Sub-bucket arrays are only allocated for the ranges that are
+ * actually used, so memory does not depend on the number of values and a
+ * typical latency histogram costs a few KB.
+ * <p>
+ * Minimum, maximum, count and mean are exact. Histograms with the same
+ * precision can be merged with {@link #add(LatencyHistogram)}, also across
+ * processes through {@link #writeTo(DataOutput)} and {@link #readFrom(DataInput)}.
+ * <p>
+ * Not thread-safe.
+ */
+public class LatencyHistogram {
+
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    private final int significantDigits;
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final long[][] counts;
+
+    private long totalCount = 0;
+    private long sum = 0;
+    private double sumOfSquares = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public LatencyHistogram() {
+        this(DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param significantDigits number of significant decimal digits to keep, between 1 and 5
+     */
+    public LatencyHistogram(int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be between 1 and 5, got " + significantDigits);
+        }
+        this.significantDigits = significantDigits;
+        long precision = (long) Math.pow(10, significantDigits);
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(precision - 1);
+        this.subBucketCount = 1 << subBucketBits;
+        this.counts = new long[64 - subBucketBits][];
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int group = group(value);
+        long[] bucket = counts[group];
+        if (bucket == null) {
+            bucket = counts[group] = new long[subBucketCount];
+        }
+        bucket[subBucket(value, group)]++;
+
+        totalCount++;
+        sum += value;
+        sumOfSquares += (double) value * value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Add all values recorded in another histogram with the same precision.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.subBucketBits != this.subBucketBits) {
+            throw new IllegalArgumentException("Cannot merge histograms with different precision");
+        }
+        if (other.totalCount == 0) {
+            return;
+        }
+        for (int group = 0; group < counts.length; group++) {
+            long[] theirs = other.counts[group];
+            if (theirs == null) {
+                continue;
+            }
+            long[] ours = counts[group];
+            if (ours == null) {
+                counts[group] = theirs.clone();
+            } else {
+                for (int i = 0; i < ours.length; i++) {
+                    ours[i] += theirs[i];
+                }
+            }
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Write the histogram in a compact binary form: only the sub-bucket arrays
+     * that are in use are written.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(significantDigits);
+        out.writeLong(totalCount);
+        out.writeLong(sum);
+        out.writeDouble(sumOfSquares);
+        out.writeLong(min);
+        out.writeLong(max);
+        int used = 0;
+        for (long[] bucket : counts) {
+            if (bucket != null) {
+                used++;
+            }
+        }
+        out.writeByte(used);
+        for (int group = 0; group < counts.length; group++) {
+            long[] bucket = counts[group];
+            if (bucket == null) {
+                continue;
+            }
+            out.writeByte(group);
+            for (long count : bucket) {
+                out.writeLong(count);
+            }
+        }
+    }
+
+    /**
+     * Read a histogram written by {@link #writeTo(DataOutput)}.
+     */
+    public static LatencyHistogram readFrom(DataInput in) throws IOException {
+        LatencyHistogram h = new LatencyHistogram(in.readByte());
+        h.totalCount = in.readLong();
+        h.sum = in.readLong();
+        h.sumOfSquares = in.readDouble();
+        h.min = in.readLong();
+        h.max = in.readLong();
+        int used = in.readByte();
+        for (int i = 0; i < used; i++) {
+            int group = in.readByte();
+            if (group < 0 || group >= h.counts.length) {
+                throw new IOException("Invalid histogram bucket group " + group);
+            }
+            long[] bucket = h.counts[group] = new long[h.subBucketCount];
+            for (int sub = 0; sub < bucket.length; sub++) {
+                bucket[sub] = in.readLong();
+            }
+        }
+        return h;
+    }
+
+    public void reset() {
+        for (long[] bucket : counts) {
+            if (bucket != null) {
+                Arrays.fill(bucket, 0);
+            }
+        }
+        totalCount = 0;
+        sum = 0;
+        sumOfSquares = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Sample standard deviation, to match DistributionStatistics.
+     */
+    public double getStdDeviation() {
+        if (totalCount < 2) {
+            return 0;
+        }
+        double mean = getMean();
+        double variance = (sumOfSquares - totalCount * mean * mean) / (totalCount - 1);
+        return Math.sqrt(Math.max(0, variance));
+    }
+
+    /**
+     * Returns the value at the given percentile, using the same rank as
+     * DistributionStatistics does on a sorted array: the value at index
+     * (int) (percentile * count), clamped to the last value.
+     *
+     * @param percentile between 0.0 and 1.0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long index = (long) (percentile * totalCount);
+        if (index >= totalCount) {
+            return max;
+        }
+        if (index == 0) {
+            return min;
+        }
+
+        long seen = 0;
+        for (int group = 0; group < counts.length; group++) {
+            long[] bucket = counts[group];
+            if (bucket == null) {
+                continue;
+            }
+            for (int sub = 0; sub < bucket.length; sub++) {
+                seen += bucket[sub];
+                if (seen > index) {
+                    return Math.max(min, Math.min(max, highestEquivalentValue(group, sub)));
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Group 0 counts values below 2^p exactly; group g > 0 holds
+     * [2^(p+g-1), 2^(p+g)) in buckets that are 2^(g-1) wide.
+     */
+    private int group(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        return msb < subBucketBits ? 0 : msb - subBucketBits + 1;
+    }
+
+    private int subBucket(long value, int group) {
+        if (group == 0) {
+            return (int) value;
+        }
+        return (int) (value >>> (group - 1)) - subBucketCount;
+    }
+
+    private long highestEquivalentValue(int group, int sub) {
+        if (group == 0) {
+            return sub;
+        }
+        long lowest = ((long) subBucketCount + sub) << (group - 1);
+        return lowest + (1L << (group - 1)) - 1;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the latency histograms of all workers of a benchmark run, in total
+ * and, if asked for, in one-second windows counted from the start of the test.
+ * <p>
+ * Each worker only keeps the histograms of the second it is currently in and
+ * merges them here when it moves on to the next one. The cumulative
+ * histograms have a fixed size. The per-second ones grow with the length of
+ * the run, so they are only kept when the time series outputs need them.
+ * Larger report windows are built by merging seconds.
+ */
+public class LatencyHistogramCollector {
+
+    private final long originNs;
+    private final int significantDigits;
+    private final LatencyHistograms total;
+    private final TreeMap<Long, LatencyHistograms> seconds;
+
+    /**
+     * @param perSecond whether to keep the histograms of every second, or only the cumulative ones
+     */
+    public LatencyHistogramCollector(long originNs, int significantDigits, boolean perSecond) {
+        this.originNs = originNs;
+        this.significantDigits = significantDigits;
+        this.total = new LatencyHistograms(significantDigits);
+        this.seconds = perSecond ? new TreeMap<>() : null;
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * @return the window a transaction that started at startNs belongs to
+     */
+    public long secondOf(long startNs) {
+        return TimeUnit.NANOSECONDS.toSeconds(startNs - originNs);
+    }
+
+    public synchronized void merge(long second, LatencyHistograms histograms) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        total.add(histograms);
+        if (seconds == null) {
+            return;
+        }
+        LatencyHistograms existing = seconds.get(second);
+        if (existing == null) {
+            seconds.put(second, histograms);
+        } else {
+            existing.add(histograms);
+        }
+    }
+
+    /**
+     * @return a copy of the histograms of the whole run
+     */
+    public synchronized LatencyHistograms getTotal() {
+        LatencyHistograms copy = new LatencyHistograms(significantDigits);
+        copy.add(total);
+        return copy;
+    }
+
+    /**
+     * @return the histograms of every second that recorded anything, in order,
+     * or null if only the cumulative histograms are kept
+     */
+    public synchronized SortedMap<Long, LatencyHistograms> getSeconds() {
+        return seconds == null ? null : new TreeMap<>(seconds);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.api.TransactionType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * One {@link LatencyHistogram} per (metric, transaction type id). Transaction
+ * type ids are small and dense, so they index arrays that grow on demand.
+ * <p>
+ * Not thread-safe.
+ */
+public class LatencyHistograms {
+
+    /**
+     * The values recorded for each transaction, see {@link LatencyRecord}.
+     */
+    public enum Metric {
+        LATENCY,
+        QUEUE,
+        RESPONSE,
+    }
+
+    private final int significantDigits;
+    private final LatencyHistogram[][] histograms = new LatencyHistogram[Metric.values().length][0];
+    private long count = 0;
+
+    public LatencyHistograms(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    public void record(int transactionType, long latencyMicroseconds, long queueMicroseconds) {
+        histogram(Metric.LATENCY, transactionType).record(latencyMicroseconds);
+        histogram(Metric.QUEUE, transactionType).record(queueMicroseconds);
+        histogram(Metric.RESPONSE, transactionType).record(latencyMicroseconds + queueMicroseconds);
+        count++;
+    }
+
+    public void add(LatencyHistograms other) {
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram[] theirs = other.histograms[metric.ordinal()];
+            for (int type = 0; type < theirs.length; type++) {
+                if (theirs[type] != null) {
+                    histogram(metric, type).add(theirs[type]);
+                }
+            }
+        }
+        count += other.count;
+    }
+
+    /**
+     * Add all transaction types of other up into the histograms of
+     * {@link TransactionType#INVALID_ID}, so only their totals are kept. This
+     * is how histograms of workloads whose type ids overlap are combined.
+     */
+    public void addTotals(LatencyHistograms other) {
+        for (Metric metric : Metric.values()) {
+            for (LatencyHistogram theirs : other.histograms[metric.ordinal()]) {
+                if (theirs != null) {
+                    histogram(metric, TransactionType.INVALID_ID).add(theirs);
+                }
+            }
+        }
+        count += other.count;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(significantDigits);
+        out.writeLong(count);
+        for (LatencyHistogram[] byType : histograms) {
+            out.writeInt(byType.length);
+            for (LatencyHistogram h : byType) {
+                out.writeBoolean(h != null);
+                if (h != null) {
+                    h.writeTo(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read histograms written by {@link #writeTo(DataOutput)}.
+     */
+    public static LatencyHistograms readFrom(DataInput in) throws IOException {
+        LatencyHistograms histograms = new LatencyHistograms(in.readByte());
+        histograms.count = in.readLong();
+        for (int metric = 0; metric < histograms.histograms.length; metric++) {
+            LatencyHistogram[] byType = histograms.histograms[metric] = new LatencyHistogram[in.readInt()];
+            for (int type = 0; type < byType.length; type++) {
+                if (in.readBoolean()) {
+                    byType[type] = LatencyHistogram.readFrom(in);
+                }
+            }
+        }
+        return histograms;
+    }
+
+    /**
+     * @return one more than the highest transaction type id recorded
+     */
+    public int size() {
+        int size = 0;
+        for (LatencyHistogram[] byType : histograms) {
+            size = Math.max(size, byType.length);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return the histogram for one transaction type, or null if none was recorded
+     */
+    public LatencyHistogram get(Metric metric, int transactionType) {
+        LatencyHistogram[] byType = histograms[metric.ordinal()];
+        return transactionType < byType.length ? byType[transactionType] : null;
+    }
+
+    /**
+     * @return a new histogram holding the values of all transaction types
+     */
+    public LatencyHistogram getTotal(Metric metric) {
+        LatencyHistogram total = new LatencyHistogram(significantDigits);
+        for (LatencyHistogram h : histograms[metric.ordinal()]) {
+            if (h != null) {
+                total.add(h);
+            }
+        }
+        return total;
+    }
+
+    private LatencyHistogram histogram(Metric metric, int transactionType) {
+        LatencyHistogram[] byType = histograms[metric.ordinal()];
+        if (transactionType >= byType.length) {
+            byType = histograms[metric.ordinal()] = Arrays.copyOf(byType, transactionType + 1);
+        }
+        LatencyHistogram h = byType[transactionType];
+        if (h == null) {
+            h = byType[transactionType] = new LatencyHistogram(significantDigits);
+        }
+        return h;
+    }
+}
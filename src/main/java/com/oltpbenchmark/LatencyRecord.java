@@ -15,162 +15,188 @@
  *
  */
 
-
 package com.oltpbenchmark;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Efficiently stores a record of (start time, latency) pairs.
+ * <p>
+ * Latency is the service time, measured from when a worker starts a
+ * transaction. Each sample also records how long the transaction waited
+ * before that, measured from its intended start time. Response time is the
+ * sum of the two, so it does not suffer from coordinated omission when the
+ * database stalls a rate-limited run.
+ * <p>
+ * Samples are stored column-wise in chunks of primitive arrays (20 bytes per
+ * sample) and are read back through a flyweight {@link Sample} cursor, so
+ * neither recording nor iterating allocates an object per sample.
  */
 public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
     /**
-     * Allocate space for 500k samples at a time
+     * Allocate space for up to 500k samples at a time. Chunks start small and
+     * double, so that idle workers don't hold on to 10 MB each.
      */
     static final int ALLOC_SIZE = 500000;
+    private static final int FIRST_ALLOC_SIZE = 4096;
 
     /**
-     * Contains (start time, latency, transactionType, workerid, phaseid) pentiplets
+     * Contains (start time, latency, queue time, transactionType, workerid, phaseid) tuples
      * in microsecond form. The start times are "compressed" by encoding them as
-     * increments, starting from startNs. A 32-bit integer provides sufficient resolution
-     * for an interval of 2146 seconds, or 35 minutes.
+     * offsets from the first start time of their chunk. A 32-bit integer provides
+     * sufficient resolution for an interval of 2146 seconds, or 35 minutes; a
+     * sample further away than that starts a new chunk.
      */
-    private final ArrayList<Sample[]> values = new ArrayList<>();
-    private int nextIndex;
+    private static final class Chunk {
+        private final long baseNanosecond;
+        private final int[] startOffsetMicrosecond;
+        private final int[] latencyMicrosecond;
+        private final int[] queueMicrosecond;
+        private final short[] transactionType;
+        private final short[] phaseId;
+        private final int[] workerId;
+        private int size = 0;
+
+        private Chunk(long baseNanosecond, int capacity) {
+            this.baseNanosecond = baseNanosecond;
+            this.startOffsetMicrosecond = new int[capacity];
+            this.latencyMicrosecond = new int[capacity];
+            this.queueMicrosecond = new int[capacity];
+            this.transactionType = new short[capacity];
+            this.phaseId = new short[capacity];
+            this.workerId = new int[capacity];
+        }
+
+        private int capacity() {
+            return workerId.length;
+        }
+    }
+
+    private final ArrayList<Chunk> chunks = new ArrayList<>();
+    private Chunk current = null;
 
     private final long startNanosecond;
-    private long lastNanosecond;
 
     public LatencyRecord(long startNanosecond) {
         this.startNanosecond = startNanosecond;
-        this.lastNanosecond = startNanosecond;
-        allocateChunk();
-
     }
 
     public void addLatency(int transType, long startNanosecond, long endNanosecond, int workerId, int phaseId) {
+        addLatency(transType, startNanosecond, startNanosecond, endNanosecond, workerId, phaseId);
+    }
 
-
-        if (nextIndex == ALLOC_SIZE) {
-            allocateChunk();
+    /**
+     * @param intendedStartNanosecond when the transaction was scheduled to start;
+     *                                anything before startNanosecond is queue time
+     */
+    public void addLatency(int transType, long intendedStartNanosecond, long startNanosecond, long endNanosecond, int workerId, int phaseId) {
+        long startOffsetMicroseconds = current == null ? -1 : (startNanosecond - current.baseNanosecond + 500) / 1000;
+        if (current == null || current.size == current.capacity()
+                || startOffsetMicroseconds < Integer.MIN_VALUE || startOffsetMicroseconds > Integer.MAX_VALUE) {
+            int capacity = current == null ? FIRST_ALLOC_SIZE : Math.min(ALLOC_SIZE, current.capacity() * 2);
+            current = new Chunk(chunks.isEmpty() ? this.startNanosecond : startNanosecond, capacity);
+            chunks.add(current);
+            startOffsetMicroseconds = (startNanosecond - current.baseNanosecond + 500) / 1000;
         }
-        Sample[] chunk = values.get(values.size() - 1);
-
-        long startOffsetNanosecond = (startNanosecond - lastNanosecond + 500);
-
-        int latencyMicroseconds = (int) ((endNanosecond - startNanosecond + 500) / 1000);
-
-
-        chunk[nextIndex] = new Sample(transType, startOffsetNanosecond, latencyMicroseconds, workerId, phaseId);
-        ++nextIndex;
-
-        lastNanosecond += startOffsetNanosecond;
-    }
 
-    private void allocateChunk() {
-        values.add(new Sample[ALLOC_SIZE]);
-        nextIndex = 0;
+        int i = current.size++;
+        current.startOffsetMicrosecond[i] = (int) startOffsetMicroseconds;
+        current.latencyMicrosecond[i] = (int) ((endNanosecond - startNanosecond + 500) / 1000);
+        current.queueMicrosecond[i] = (int) Math.max(0, (startNanosecond - intendedStartNanosecond + 500) / 1000);
+        current.transactionType[i] = (short) transType;
+        current.phaseId[i] = (short) phaseId;
+        current.workerId[i] = workerId;
     }
 
     /**
      * Returns the number of recorded samples.
      */
     public int size() {
-        // Samples stored in full chunks
-        int samples = (values.size() - 1) * ALLOC_SIZE;
-
-        // Samples stored in the last not full chunk
-        samples += nextIndex;
+        int samples = 0;
+        for (Chunk chunk : chunks) {
+            samples += chunk.size;
+        }
         return samples;
     }
 
     /**
-     * Stores the start time and latency for a single sample. Immutable.
+     * A view of one recorded sample. Iterators hand out the same instance for
+     * every sample and move it along, so a Sample is only valid until the next
+     * call to hasNext() or next() on the iterator that returned it.
      */
-    public static final class Sample implements Comparable<Sample> {
-        private final int transactionType;
-        private long startNanosecond;
-        private final int latencyMicrosecond;
-        private final int workerId;
-        private final int phaseId;
+    public static final class Sample {
+        private Chunk chunk;
+        private int index;
 
-        public Sample(int transactionType, long startNanosecond, int latencyMicrosecond, int workerId, int phaseId) {
-            this.transactionType = transactionType;
-            this.startNanosecond = startNanosecond;
-            this.latencyMicrosecond = latencyMicrosecond;
-            this.workerId = workerId;
-            this.phaseId = phaseId;
+        private Sample() {
         }
 
         public int getTransactionType() {
-            return transactionType;
+            return chunk.transactionType[index];
         }
 
         public long getStartNanosecond() {
-            return startNanosecond;
+            return chunk.baseNanosecond + TimeUnit.MICROSECONDS.toNanos(chunk.startOffsetMicrosecond[index]);
         }
 
+        /**
+         * @return service time, from when a worker started the transaction until it finished
+         */
         public int getLatencyMicrosecond() {
-            return latencyMicrosecond;
+            return chunk.latencyMicrosecond[index];
         }
 
-        public int getWorkerId() {
-            return workerId;
+        /**
+         * @return time from the intended start until a worker started the transaction
+         */
+        public int getQueueMicrosecond() {
+            return chunk.queueMicrosecond[index];
         }
 
-        public int getPhaseId() {
-            return phaseId;
+        /**
+         * @return time from the intended start until the transaction finished
+         */
+        public int getResponseMicrosecond() {
+            return chunk.queueMicrosecond[index] + chunk.latencyMicrosecond[index];
         }
 
-        @Override
-        public int compareTo(Sample other) {
-            long diff = this.startNanosecond - other.startNanosecond;
-
-            // explicit comparison to avoid long to int overflow
-            if (diff > 0) {
-                return 1;
-            } else if (diff < 0) {
-                return -1;
-            } else {
+        public int getWorkerId() {
+            return chunk.workerId[index];
+        }
 
-                return 0;
-            }
+        public int getPhaseId() {
+            return chunk.phaseId[index];
         }
     }
 
     private final class LatencyRecordIterator implements Iterator<Sample> {
+        private final Sample sample = new Sample();
         private int chunkIndex = 0;
         private int subIndex = 0;
-        private long lastIteratorNanosecond = startNanosecond;
 
         @Override
         public boolean hasNext() {
-            if (chunkIndex < values.size() - 1) {
-                return true;
+            while (chunkIndex < chunks.size() && subIndex >= chunks.get(chunkIndex).size) {
+                chunkIndex++;
+                subIndex = 0;
             }
-            return subIndex < nextIndex;
+            return chunkIndex < chunks.size();
         }
 
         @Override
         public Sample next() {
-            Sample[] chunk = values.get(chunkIndex);
-            Sample s = chunk[subIndex];
-
-            // Iterate in chunk, and wrap to next one
-            ++subIndex;
-
-            if (subIndex == ALLOC_SIZE) {
-                chunkIndex += 1;
-                subIndex = 0;
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-
-            // Previously, s.startNs was just an offset from the previous
-            // value.  Now we make it an absolute.
-            s.startNanosecond += lastIteratorNanosecond;
-            lastIteratorNanosecond = s.startNanosecond;
-
-            return s;
+            sample.chunk = chunks.get(chunkIndex);
+            sample.index = subIndex++;
+            return sample;
         }
 
         @Override
@@ -182,4 +208,71 @@ public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
     public Iterator<Sample> iterator() {
         return new LatencyRecordIterator();
     }
+
+    /**
+     * Iterate over the samples of several records in start time order. Each
+     * record must already be in start time order, which is the case for the
+     * record of a single Worker, so this is a k-way merge instead of a sort.
+     */
+    public static Iterable<Sample> merge(List<LatencyRecord> records) {
+        return () -> new MergeIterator(records);
+    }
+
+    private static final class MergeIterator implements Iterator<Sample> {
+        private final PriorityQueue<Cursor> heap = new PriorityQueue<>(Comparator.comparingLong((Cursor c) -> c.startNanosecond));
+        private Cursor current = null;
+
+        private MergeIterator(List<LatencyRecord> records) {
+            for (LatencyRecord record : records) {
+                Cursor cursor = new Cursor(record.iterator());
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+
+        private void advanceCurrent() {
+            if (current != null) {
+                if (current.advance()) {
+                    heap.add(current);
+                }
+                current = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            advanceCurrent();
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public Sample next() {
+            advanceCurrent();
+            if (heap.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            current = heap.poll();
+            return current.sample;
+        }
+    }
+
+    private static final class Cursor {
+        private final Iterator<Sample> iterator;
+        private Sample sample;
+        private long startNanosecond;
+
+        private Cursor(Iterator<Sample> iterator) {
+            this.iterator = iterator;
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            sample = iterator.next();
+            startNanosecond = sample.getStartNanosecond();
+            return true;
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.Arrays;
+
+/**
+ * Per-second record of the load the arrival scheduler was asked to offer
+ * (target), the arrivals it generated (offered) and the arrivals the work
+ * queues accepted (enqueued). Seconds are counted from the start of the
+ * benchmark, warmup included.
+ */
+public final class OfferedLoad {
+
+    private double[] target = new double[64];
+    private long[] offered = new long[64];
+    private long[] enqueued = new long[64];
+    private int seconds = 0;
+    private long elapsedNs = 0;
+
+    void setElapsedNs(long elapsedNs) {
+        this.elapsedNs = elapsedNs;
+    }
+
+    void addTarget(int second, double expected) {
+        ensure(second);
+        target[second] += expected;
+    }
+
+    void addOffered(int second, long count) {
+        ensure(second);
+        offered[second] += count;
+    }
+
+    void addEnqueued(int second, long count) {
+        ensure(second);
+        enqueued[second] += count;
+    }
+
+    private void ensure(int second) {
+        if (second >= target.length) {
+            int size = Math.max(second + 1, target.length * 2);
+            target = Arrays.copyOf(target, size);
+            offered = Arrays.copyOf(offered, size);
+            enqueued = Arrays.copyOf(enqueued, size);
+        }
+        seconds = Math.max(seconds, second + 1);
+    }
+
+    /**
+     * @return the number of seconds recorded so far
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * @return the time from the start of the benchmark to the end of the last rate limited phase
+     */
+    public double getElapsedSeconds() {
+        return elapsedNs / 1000000000.;
+    }
+
+    public double getTarget(int second) {
+        return target[second];
+    }
+
+    public long getOffered(int second) {
+        return offered[second];
+    }
+
+    public long getEnqueued(int second) {
+        return enqueued[second];
+    }
+
+    public double getTotalTarget() {
+        double total = 0;
+        for (int i = 0; i < seconds; i++) {
+            total += target[i];
+        }
+        return total;
+    }
+
+    public long getTotalOffered() {
+        long total = 0;
+        for (int i = 0; i < seconds; i++) {
+            total += offered[i];
+        }
+        return total;
+    }
+
+    public long getTotalEnqueued() {
+        long total = 0;
+        for (int i = 0; i < seconds; i++) {
+            total += enqueued[i];
+        }
+        return total;
+    }
+}
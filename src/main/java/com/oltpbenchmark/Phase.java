@@ -17,6 +17,7 @@
 
 package com.oltpbenchmark;
 
+import com.oltpbenchmark.util.RandomStreams;
 import com.oltpbenchmark.util.StringUtil;
 
 import java.util.ArrayList;
@@ -25,16 +26,19 @@ import java.util.Random;
 
 public class Phase {
     public enum Arrival {
-        REGULAR, POISSON,
+        REGULAR, POISSON, BURSTY, DIURNAL, TRACE,
     }
 
-    private final Random gen = new Random();
+    private final RandomStreams randomStreams;
+    private final Random gen;
+    private int arrivalProcesses = 0;
     private final String benchmarkName;
     private final int id;
     private final int time;
     private final int warmupTime;
     private final int rate;
     private final Arrival arrival;
+    private final ArrivalProcess.Factory arrivalFactory;
 
 
     private final boolean rateLimited;
@@ -48,6 +52,14 @@ public class Phase {
 
 
     Phase(String benchmarkName, int id, int t, int wt, int r, List<Double> weights, boolean rateLimited, boolean disabled, boolean serial, boolean timed, int activeTerminals, Arrival a) {
+        this(benchmarkName, id, t, wt, r, weights, rateLimited, disabled, serial, timed, activeTerminals, a, ArrivalProcess.factory(a, r));
+    }
+
+    Phase(String benchmarkName, int id, int t, int wt, int r, List<Double> weights, boolean rateLimited, boolean disabled, boolean serial, boolean timed, int activeTerminals, Arrival a, ArrivalProcess.Factory arrivalFactory) {
+        this(benchmarkName, id, t, wt, r, weights, rateLimited, disabled, serial, timed, activeTerminals, a, arrivalFactory, new RandomStreams(RandomStreams.newRunSeed()));
+    }
+
+    Phase(String benchmarkName, int id, int t, int wt, int r, List<Double> weights, boolean rateLimited, boolean disabled, boolean serial, boolean timed, int activeTerminals, Arrival a, ArrivalProcess.Factory arrivalFactory, RandomStreams randomStreams) {
         this.benchmarkName = benchmarkName;
         this.id = id;
         this.time = t;
@@ -62,6 +74,9 @@ public class Phase {
         this.nextSerial = 1;
         this.activeTerminals = activeTerminals;
         this.arrival = a;
+        this.arrivalFactory = arrivalFactory;
+        this.randomStreams = randomStreams;
+        this.gen = randomStreams.stream("phase", id);
     }
 
 
@@ -122,6 +137,13 @@ public class Phase {
         return arrival;
     }
 
+    /**
+     * @return a fresh generator for this phase's arrival times
+     */
+    public synchronized ArrivalProcess newArrivalProcess() {
+        return arrivalFactory.create(randomStreams.stream("arrivals-" + id, arrivalProcesses++));
+    }
+
     public List<Double> getWeights() {
         return (this.weights);
     }
@@ -150,6 +172,14 @@ public class Phase {
     }
 
     public int chooseTransaction(boolean isColdQuery) {
+        return chooseTransaction(isColdQuery, gen);
+    }
+
+    /**
+     * @param rng the caller's own generator. Workers pass theirs so that
+     *            unlimited phases don't share this phase's generator.
+     */
+    public int chooseTransaction(boolean isColdQuery, Random rng) {
         if (isDisabled()) {
             return -1;
         }
@@ -182,7 +212,7 @@ public class Phase {
             }
             return ret;
         } else {
-            int randomPercentage = gen.nextInt((int) totalWeight()) + 1;
+            int randomPercentage = rng.nextInt((int) totalWeight()) + 1;
             double weight = 0.0;
             for (int i = 0; i < this.weightCount; i++) {
                 weight += weights.get(i);
@@ -19,20 +19,28 @@
 package com.oltpbenchmark;
 
 import com.oltpbenchmark.LatencyRecord.Sample;
+import com.oltpbenchmark.api.TransactionCounters;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.benchmarks.featurebench.FeaturebenchAdditionalResults;
+import com.oltpbenchmark.jdbc.ConnectionStatistics;
+import com.oltpbenchmark.types.TransactionStatus;
 import com.oltpbenchmark.util.Histogram;
 
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.SortedMap;
 
 public final class Results {
 
     private final long nanoseconds;
     private final int measuredRequests;
     private final DistributionStatistics distributionStatistics;
-    private final List<LatencyRecord.Sample> latencySamples;
+    private final DistributionStatistics queueDistributionStatistics;
+    private final DistributionStatistics responseDistributionStatistics;
+    private final Iterable<LatencyRecord.Sample> latencySamples;
+    private LatencyHistograms latencyHistogramTotal = null;
+    private SortedMap<Long, LatencyHistograms> latencyHistograms = null;
     private final Histogram<TransactionType> unknown = new Histogram<>(false);
     private final Histogram<TransactionType> success = new Histogram<>(true);
     private final Histogram<TransactionType> abort = new Histogram<>(false);
@@ -42,25 +50,105 @@ public final class Results {
     private final Map<TransactionType, Histogram<String>> abortMessages = new HashMap<>();
     private final Histogram<TransactionType> zeroRows = new Histogram<>(true);
     private final FeaturebenchAdditionalResults featurebenchAdditionalResults = new FeaturebenchAdditionalResults();
+    private long statementCacheHits = 0;
+    private long statementCacheMisses = 0;
+    private boolean virtualThreads = false;
+    private int workerThreads = 0;
+    private int carrierThreads = 0;
+    private double carrierUtilization = -1;
+    private OfferedLoad offeredLoad = null;
+    private final ConnectionStatistics connectionStatistics = new ConnectionStatistics();
+    private final Map<String, Results> workloadResults = new LinkedHashMap<>();
 
-    public Results(long nanoseconds, int measuredRequests, DistributionStatistics distributionStatistics, final List<LatencyRecord.Sample> latencySamples) {
+    public Results(long nanoseconds, int measuredRequests, DistributionStatistics distributionStatistics, final Iterable<LatencyRecord.Sample> latencySamples) {
+        this(nanoseconds, measuredRequests, distributionStatistics, null, null, latencySamples);
+    }
+
+    /**
+     * @param distributionStatistics         service time (latency) of the measured samples
+     * @param queueDistributionStatistics    time between intended start and start
+     * @param responseDistributionStatistics time between intended start and end
+     */
+    public Results(long nanoseconds, int measuredRequests, DistributionStatistics distributionStatistics,
+                   DistributionStatistics queueDistributionStatistics, DistributionStatistics responseDistributionStatistics,
+                   final Iterable<LatencyRecord.Sample> latencySamples) {
         this.nanoseconds = nanoseconds;
         this.measuredRequests = measuredRequests;
         this.distributionStatistics = distributionStatistics;
+        this.queueDistributionStatistics = queueDistributionStatistics;
+        this.responseDistributionStatistics = responseDistributionStatistics;
 
         if (distributionStatistics == null) {
             this.latencySamples = null;
         } else {
-            // defensive copy
-            this.latencySamples = List.copyOf(latencySamples);
+            this.latencySamples = latencySamples;
+        }
+    }
 
+    /**
+     * Results whose statistics are computed from latency histograms rather than samples.
+     *
+     * @param seconds        latency histograms per second of the run
+     * @param latencySamples only kept for the raw output, may be null
+     */
+    public static Results fromLatencyHistograms(long nanoseconds, int measuredRequests, int significantDigits,
+                                                SortedMap<Long, LatencyHistograms> seconds, Iterable<LatencyRecord.Sample> latencySamples) {
+        LatencyHistograms total = new LatencyHistograms(significantDigits);
+        for (LatencyHistograms h : seconds.values()) {
+            total.add(h);
         }
+        return fromLatencyHistograms(nanoseconds, measuredRequests, total, seconds, latencySamples);
+    }
+
+    /**
+     * Results whose statistics are computed from latency histograms rather than samples.
+     *
+     * @param total          latency histograms of the whole run
+     * @param seconds        latency histograms per second of the run, or null if only the total was kept
+     * @param latencySamples only kept for the raw output, may be null
+     */
+    public static Results fromLatencyHistograms(long nanoseconds, int measuredRequests, LatencyHistograms total,
+                                                SortedMap<Long, LatencyHistograms> seconds, Iterable<LatencyRecord.Sample> latencySamples) {
+        DistributionStatistics stats = DistributionStatistics.computeStatistics(total.getTotal(LatencyHistograms.Metric.LATENCY));
+        DistributionStatistics queueStats = DistributionStatistics.computeStatistics(total.getTotal(LatencyHistograms.Metric.QUEUE));
+        DistributionStatistics responseStats = DistributionStatistics.computeStatistics(total.getTotal(LatencyHistograms.Metric.RESPONSE));
+
+        Results results = new Results(nanoseconds, measuredRequests, stats, queueStats, responseStats, latencySamples);
+        results.latencyHistogramTotal = total;
+        results.setLatencyHistograms(seconds);
+        return results;
     }
 
     public DistributionStatistics getDistributionStatistics() {
         return distributionStatistics;
     }
 
+    /**
+     * @return latency histograms of the whole run, or null if only samples were recorded
+     */
+    public LatencyHistograms getLatencyHistogramTotal() {
+        return latencyHistogramTotal;
+    }
+
+    /**
+     * @return latency histograms per second of the run, or null if only samples or only the total were recorded
+     */
+    public SortedMap<Long, LatencyHistograms> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    public void setLatencyHistograms(SortedMap<Long, LatencyHistograms> latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    public DistributionStatistics getQueueDistributionStatistics() {
+        return queueDistributionStatistics;
+    }
+
+    public DistributionStatistics getResponseDistributionStatistics() {
+        return responseDistributionStatistics;
+    }
+
     public Histogram<TransactionType> getSuccess() {
         return success;
     }
@@ -91,6 +179,81 @@ public final class Results {
 
     public Histogram<TransactionType> getZeroRows() { return zeroRows; }
 
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * Fold one Worker's outcome counts into the per-status histograms.
+     */
+    public void addTransactionCounters(TransactionCounters counters) {
+        counters.addTo(TransactionStatus.UNKNOWN, unknown);
+        counters.addTo(TransactionStatus.SUCCESS, success);
+        counters.addTo(TransactionStatus.USER_ABORTED, abort);
+        counters.addTo(TransactionStatus.RETRY, retry);
+        counters.addTo(TransactionStatus.RETRY_DIFFERENT, retryDifferent);
+        counters.addTo(TransactionStatus.ERROR, error);
+        counters.addTo(TransactionStatus.ZERO_ROWS, zeroRows);
+    }
+
+    public void addStatementCacheCounts(long hits, long misses) {
+        this.statementCacheHits += hits;
+        this.statementCacheMisses += misses;
+    }
+
+    /**
+     * @param carrierUtilization JVM CPU time over (wall time * carrierThreads), or -1 if unknown
+     */
+    public void setWorkerThreads(boolean virtualThreads, int workerThreads, int carrierThreads, double carrierUtilization) {
+        this.virtualThreads = virtualThreads;
+        this.workerThreads = workerThreads;
+        this.carrierThreads = carrierThreads;
+        this.carrierUtilization = carrierUtilization;
+    }
+
+    /**
+     * Connect and acquire latencies of the run, apart from transaction latency.
+     */
+    public ConnectionStatistics getConnectionStatistics() {
+        return connectionStatistics;
+    }
+
+    /**
+     * Results of each workload of a run with concurrent workloads, by workload name.
+     * Empty if only one workload ran.
+     */
+    public Map<String, Results> getWorkloadResults() {
+        return workloadResults;
+    }
+
+    public OfferedLoad getOfferedLoad() {
+        return offeredLoad;
+    }
+
+    public void setOfferedLoad(OfferedLoad offeredLoad) {
+        this.offeredLoad = offeredLoad;
+    }
+
+    public boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public int getCarrierThreads() {
+        return carrierThreads;
+    }
+
+    public double getCarrierUtilization() {
+        return carrierUtilization;
+    }
+
     public Map<TransactionType, Histogram<String>> getAbortMessages() {
         return abortMessages;
     }
@@ -103,7 +266,11 @@ public final class Results {
         return (double) success.getSampleCount() / (double) nanoseconds * 1e9;
     }
 
-    public List<Sample> getLatencySamples() {
+    /**
+     * @return all samples in start time order, or null if they were not kept.
+     * Iteration hands out flyweight samples, see {@link LatencyRecord.Sample}.
+     */
+    public Iterable<Sample> getLatencySamples() {
         return latencySamples;
     }
 
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded lock-free multi-producer/multi-consumer queue (a sequence-numbered
+ * ring buffer in the style of Vyukov's MPMC queue).
+ * <p>
+ * Workers that find the queue empty register themselves on a waiter list and
+ * park. Wake-ups cascade: offer() unparks a single waiter, and a worker that
+ * takes a procedure while more are queued unparks the next one, but only one
+ * worker is ever on its way up at a time. Workers that are already running
+ * drain the queue without anybody being woken, unpark costs are not
+ * serialized in the producer, and there is no shared monitor for thousands
+ * of workers to convoy on.
+ */
+public class RingBufferWorkQueue implements WorkQueue {
+
+    private static final class Waiter {
+        private final Thread thread = Thread.currentThread();
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        /**
+         * @return true if the caller is the first to claim this waiter
+         */
+        private boolean claim() {
+            return this.claimed.compareAndSet(false, true);
+        }
+    }
+
+    private final int limit;
+    private final int mask;
+    private final AtomicReferenceArray<SubmittedProcedure> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waking = new AtomicInteger();
+
+    public RingBufferWorkQueue(int limit) {
+        this.limit = limit;
+        // Leave room for limit + 1 entries to match SynchronizedWorkQueue
+        int capacity = Integer.highestOneBit(limit + 1) << 1;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public int offer(int amount, Supplier<SubmittedProcedure> procedures) {
+        int added = 0;
+        while (added < amount && size() <= limit) {
+            if (!enqueue(procedures.get())) {
+                break;
+            }
+            added++;
+        }
+        if (added > 0 && waking.get() == 0) {
+            signal(1);
+        }
+        return added;
+    }
+
+    @Override
+    public SubmittedProcedure take(BooleanSupplier stop) {
+        SubmittedProcedure proc = dequeue();
+        if (proc != null) {
+            propagate();
+            return proc;
+        }
+
+        while (true) {
+            Waiter waiter = new Waiter();
+            waiters.add(waiter);
+
+            // Re-check after registering so that a concurrent offer() cannot be missed
+            proc = dequeue();
+            if (proc != null) {
+                release(waiter);
+                propagate();
+                return proc;
+            }
+            if (stop.getAsBoolean()) {
+                release(waiter);
+                return null;
+            }
+
+            LockSupport.park(this);
+            release(waiter);
+            if (Thread.interrupted()) {
+                throw new RuntimeException(new InterruptedException());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        while (dequeue() != null) {
+            // drain
+        }
+    }
+
+    @Override
+    public void wakeAll() {
+        signal(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Take our waiter off the list. If a producer got to it first, we are the
+     * worker it was waking up, and now we are awake.
+     */
+    private void release(Waiter waiter) {
+        if (!waiter.claim()) {
+            waking.decrementAndGet();
+        }
+    }
+
+    /**
+     * Pass the wake-up on if there is more work than the running workers have taken.
+     */
+    private void propagate() {
+        if (size() > 0 && waking.get() == 0 && !waiters.isEmpty()) {
+            signal(1);
+        }
+    }
+
+    private void signal(int count) {
+        while (count > 0) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null) {
+                return;
+            }
+            // Count the wake-up before it can be observed, so waking never reads low
+            waking.incrementAndGet();
+            if (waiter.claim()) {
+                LockSupport.unpark(waiter.thread);
+                count--;
+            } else {
+                waking.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean enqueue(SubmittedProcedure proc) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(idx, proc);
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // full
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    private SubmittedProcedure dequeue() {
+        long pos = head.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    SubmittedProcedure proc = buffer.get(idx);
+                    buffer.lazySet(idx, null);
+                    sequences.set(idx, pos + mask + 1);
+                    return proc;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // empty
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+}
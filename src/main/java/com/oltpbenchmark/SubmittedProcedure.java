@@ -28,14 +28,26 @@ public class SubmittedProcedure {
     private final long startTime;
 
     SubmittedProcedure(int type) {
+        this(type, System.nanoTime());
+    }
+
+    /**
+     * @param startTime when the procedure was scheduled to start (System.nanoTime()).
+     *                  For rate-limited phases this is its arrival time in the
+     *                  ThreadBench schedule, not when a worker picks it up.
+     */
+    SubmittedProcedure(int type, long startTime) {
         this.type = type;
-        this.startTime = System.nanoTime();
+        this.startTime = startTime;
     }
 
     public int getType() {
         return type;
     }
 
+    /**
+     * @return the intended start time of this procedure
+     */
     public long getStartTime() {
         return startTime;
     }
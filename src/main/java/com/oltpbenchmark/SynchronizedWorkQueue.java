@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.LinkedList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The original WorkloadState queue: a LinkedList behind one monitor.
+ * Kept as a baseline for comparison with {@link RingBufferWorkQueue}.
+ */
+public class SynchronizedWorkQueue implements WorkQueue {
+    private final LinkedList<SubmittedProcedure> queue = new LinkedList<>();
+    private final int limit;
+    private int waiting = 0;
+
+    public SynchronizedWorkQueue(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public synchronized int offer(int amount, Supplier<SubmittedProcedure> procedures) {
+        int added = 0;
+        for (int i = 0; i < amount && queue.size() <= limit; ++i) {
+            queue.add(procedures.get());
+            added++;
+        }
+
+        // Wake up sleeping workers to deal with the new work.
+        int numToWake = Math.min(added, waiting);
+        while (numToWake-- > 0) {
+            this.notify();
+        }
+        return added;
+    }
+
+    @Override
+    public synchronized SubmittedProcedure take(BooleanSupplier stop) {
+        if (queue.peek() == null) {
+            waiting++;
+            try {
+                while (queue.peek() == null) {
+                    if (stop.getAsBoolean()) {
+                        return null;
+                    }
+                    this.wait();
+                }
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                waiting--;
+            }
+        }
+        return queue.remove();
+    }
+
+    @Override
+    public synchronized void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public synchronized void wakeAll() {
+        this.notifyAll();
+    }
+
+    @Override
+    public synchronized int size() {
+        return queue.size();
+    }
+}
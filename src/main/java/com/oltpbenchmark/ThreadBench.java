@@ -21,48 +21,140 @@ import com.oltpbenchmark.LatencyRecord.Sample;
 import com.oltpbenchmark.api.BenchmarkModule;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.api.Worker;
+import com.oltpbenchmark.metrics.LiveMetrics;
 import com.oltpbenchmark.types.State;
 import com.oltpbenchmark.util.StringUtil;
+import com.oltpbenchmark.util.ThreadUtil;
 import org.apache.commons.collections4.map.ListOrderedMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.*;
 
 public class ThreadBench implements Thread.UncaughtExceptionHandler {
     private static final Logger LOG = LoggerFactory.getLogger(ThreadBench.class);
 
+    /**
+     * Longest the driver sleeps between checks of the benchmark state when
+     * no arrival is due.
+     */
+    private static final long MAX_IDLE_NS = 10000000L;
+
     private final BenchmarkState testState;
     private final List<? extends Worker<? extends BenchmarkModule>> workers;
     private final ArrayList<Thread> workerThreads;
     private final List<WorkloadConfiguration> workConfs;
-    private final ArrayList<LatencyRecord.Sample> samples = new ArrayList<>();
     private final int intervalMonitor;
+    /**
+     * One collector per workload, so that concurrent workloads report separately
+     */
+    private final Map<WorkloadConfiguration, LatencyHistogramCollector> latencyHistograms = new IdentityHashMap<>();
+    private final LiveMetrics liveMetrics;
+
+    private boolean virtualThreads;
+    private long threadsStartNs;
+    private long threadsStartCpuNs;
 
     private ThreadBench(List<? extends Worker<? extends BenchmarkModule>> workers,
-            List<WorkloadConfiguration> workConfs, int intervalMonitoring) {
+            List<WorkloadConfiguration> workConfs, int intervalMonitoring, BenchmarkState.Barrier barrier) {
         this.workers = workers;
         this.workConfs = workConfs;
         this.workerThreads = new ArrayList<>(workers.size());
         this.intervalMonitor = intervalMonitoring;
-        this.testState = new BenchmarkState(workers.size() + 1);
+        this.testState = new BenchmarkState(workers.size() + 1, barrier);
+
+        for (WorkloadConfiguration workConf : workConfs) {
+            if (workConf.getLatencyHistograms()) {
+                for (WorkloadConfiguration conf : workConfs) {
+                    this.latencyHistograms.put(conf, new LatencyHistogramCollector(testState.getTestStartNs(), workConf.getLatencyHistogramDigits(), workConf.getLatencyHistogramsPerSecond()));
+                }
+                break;
+            }
+        }
+
+        LiveMetrics live = null;
+        for (WorkloadConfiguration workConf : workConfs) {
+            if (workConf.getLiveMetrics()) {
+                live = new LiveMetrics(workConf.getMetricsInterval(), workConf.getMetricsPort(), workConf.getMetricsFile(), workConf.getLatencyHistogramDigits());
+                break;
+            }
+        }
+        this.liveMetrics = live;
     }
 
     public static Results runRateLimitedBenchmark(List<Worker<? extends BenchmarkModule>> workers,
             List<WorkloadConfiguration> workConfs, int intervalMonitoring) {
-        ThreadBench bench = new ThreadBench(workers, workConfs, intervalMonitoring);
-        return bench.runRateLimitedMultiPhase();
+        return runRateLimitedBenchmark(workers, workConfs, intervalMonitoring, BenchmarkState.Barrier.NONE);
+    }
+
+    /**
+     * @param barrier keeps the state transitions in step with the other
+     *                processes of a distributed run
+     */
+    public static Results runRateLimitedBenchmark(List<Worker<? extends BenchmarkModule>> workers,
+            List<WorkloadConfiguration> workConfs, int intervalMonitoring, BenchmarkState.Barrier barrier) {
+        ThreadBench bench = new ThreadBench(workers, workConfs, intervalMonitoring, barrier);
+        try {
+            return bench.runRateLimitedMultiPhase();
+        } finally {
+            if (bench.liveMetrics != null) {
+                bench.liveMetrics.close();
+            }
+        }
     }
 
     private void createWorkerThreads() {
+        this.virtualThreads = workConfs.stream().anyMatch(WorkloadConfiguration::getVirtualThreads);
+        this.threadsStartNs = System.nanoTime();
+        this.threadsStartCpuNs = ThreadUtil.processCpuTimeNanos();
 
         for (Worker<?> worker : workers) {
             worker.initializeState();
-            Thread thread = new Thread(worker);
+            worker.setLatencyHistogramCollector(latencyHistograms.get(worker.getWorkloadConfiguration()));
+            if (liveMetrics != null) {
+                worker.setIntervalRecorder(liveMetrics.register(getWorkloadName(worker.getWorkloadConfiguration())));
+            }
+            Thread thread = null;
+            if (this.virtualThreads) {
+                thread = ThreadUtil.newVirtualThread(worker);
+                if (thread == null) {
+                    LOG.warn("Virtual threads are not available in Java {}, running workers on platform threads",
+                            System.getProperty("java.version"));
+                    this.virtualThreads = false;
+                }
+            }
+            if (thread == null) {
+                thread = new Thread(worker);
+            }
             thread.setUncaughtExceptionHandler(this);
             thread.start();
             this.workerThreads.add(thread);
         }
+        if (this.virtualThreads) {
+            LOG.info("Running {} workers on virtual threads over {} carrier threads", workers.size(), ThreadUtil.virtualThreadCarriers());
+        }
+    }
+
+    /**
+     * Report how busy the virtual thread carriers were. The JDK does not
+     * expose per-carrier busy time, so this is the JVM's CPU time over the
+     * CPU time the carriers could have used since the workers started.
+     */
+    private void setWorkerThreadStats(Results results) {
+        if (!this.virtualThreads) {
+            results.setWorkerThreads(false, workers.size(), 0, -1);
+            return;
+        }
+        int carriers = ThreadUtil.virtualThreadCarriers();
+        long cpuNs = ThreadUtil.processCpuTimeNanos();
+        double utilization = -1;
+        if (cpuNs >= 0 && this.threadsStartCpuNs >= 0) {
+            long wallNs = System.nanoTime() - this.threadsStartNs;
+            utilization = (double) (cpuNs - this.threadsStartCpuNs) / ((double) wallNs * carriers);
+        }
+        LOG.info("Virtual thread carrier utilization: {}", utilization < 0 ? "unknown" : String.format("%.1f%%", utilization * 100));
+        results.setWorkerThreads(true, workers.size(), carriers, utilization);
     }
 
     private void interruptWorkers() {
@@ -71,9 +163,7 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
         }
     }
 
-    private int finalizeWorkers(ArrayList<Thread> workerThreads) throws InterruptedException {
-
-        int requests = 0;
+    private void finalizeWorkers(ArrayList<Thread> workerThreads) throws InterruptedException {
 
         new WatchDogThread().start();
 
@@ -91,14 +181,10 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
              * catch (InterruptedException e) { } }
              */
 
-            requests += workers.get(i).getRequests();
-
             LOG.debug("threadbench calling teardown");
 
             workers.get(i).tearDown();
         }
-
-        return requests;
     }
 
     private Results runRateLimitedMultiPhase() {
@@ -109,16 +195,25 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
             workStates.add(workState.getWorkloadState());
         }
 
+        if (liveMetrics != null) {
+            try {
+                liveMetrics.start();
+            } catch (IOException ex) {
+                throw new RuntimeException("Failed to start live metrics", ex);
+            }
+        }
+
         this.createWorkerThreads();
 
+        // All processes of a distributed run start their clocks together
+        testState.synchronize("start");
+
         // long measureStart = start;
 
         long start = System.nanoTime();
         long warmupStart = System.nanoTime();
         long warmup = warmupStart;
         long measureEnd = -1;
-        // used to determine the longest sleep interval
-        int lowestRate = Integer.MAX_VALUE;
 
         Phase phase = null;
 
@@ -126,29 +221,20 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
             workState.switchToNextPhase();
             phase = workState.getCurrentPhase();
             LOG.info(phase.currentPhaseString());
-            if (phase.getRate() < lowestRate) {
-                lowestRate = phase.getRate();
-            }
         }
 
         // Change testState to cold query if execution is serial, since we don't
         // have a warm-up phase for serial execution but execute a cold and a
         // measured query in sequence.
         if (phase != null && phase.isLatencyRun()) {
-            synchronized (testState) {
-                testState.startColdQuery();
-            }
+            testState.startColdQuery();
         }
 
-        long intervalNs = getInterval(lowestRate, phase.getArrival());
+        // Each workload gets its own arrival stream, paced by the driver thread
+        ArrivalScheduler scheduler = new ArrivalScheduler(workStates, start);
+        scheduler.startPhase(start);
 
-        long nextInterval = start + intervalNs;
-        int nextToAdd = 1;
-        int rateFactor;
-
-        boolean resetQueues = true;
-
-        long delta = phase.getTime() * 1000000000L;
+        long delta = phaseNanos(workStates);
         boolean lastEntry = false;
 
         // Initialize the Monitor
@@ -161,36 +247,13 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
 
         // Main Loop
         while (true) {
-            // posting new work... and resetting the queue in case we have new
-            // portion of the workload...
-
-            for (WorkloadState workState : workStates) {
-                if (workState.getCurrentPhase() != null) {
-                    rateFactor = workState.getCurrentPhase().getRate() / lowestRate;
-                } else {
-                    rateFactor = 1;
-                }
-                workState.addToQueue(nextToAdd * rateFactor, resetQueues);
-            }
-            resetQueues = false;
-
-            // Wait until the interval expires, which may be "don't wait"
+            // posting the arrivals that are due
             long now = System.nanoTime();
+            scheduler.dispatch(now);
+
             if (phase != null) {
                 warmup = warmupStart + phase.getWarmupTime() * 1000000000L;
             }
-            long diff = nextInterval - now;
-            while (diff > 0) { // this can wake early: sleep multiple times to avoid that
-                long ms = diff / 1000000;
-                diff = diff % 1000000;
-                try {
-                    Thread.sleep(ms, (int) diff);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-                now = System.nanoTime();
-                diff = nextInterval - now;
-            }
 
             boolean phaseComplete = false;
             if (phase != null) {
@@ -208,74 +271,55 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
             // Go to next phase if this one is complete
             if (phaseComplete && !lastEntry) {
                 // enters here after each phase of the test
-                // reset the queues so that the new phase is not affected by the
-                // queue of the previous one
-                resetQueues = true;
+
+                // All processes of a distributed run end the phase together.
+                // Not after switching phases: workers that were woken by the
+                // switch would go back to sleep before they see DONE.
+                testState.synchronize("end of phase " + phase.getId());
+                now = System.nanoTime();
 
                 // Fetch a new Phase
-                synchronized (testState) {
-                    if (phase.isLatencyRun()) {
-                        testState.ackLatencyComplete();
-                    }
-                    for (WorkloadState workState : workStates) {
-                        synchronized (workState) {
-                            workState.switchToNextPhase();
-                            lowestRate = Integer.MAX_VALUE;
-                            phase = workState.getCurrentPhase();
-                            interruptWorkers();
-                            if (phase == null && !lastEntry) {
-                                // Last phase
-                                lastEntry = true;
-                                testState.startCoolDown();
-                                measureEnd = now;
-                                LOG.info("{} :: Waiting for all terminals to finish ..", StringUtil.bold("TERMINATE"));
-                            } else if (phase != null) {
-                                // Reset serial execution parameters.
-                                if (phase.isLatencyRun()) {
-                                    phase.resetSerial();
-                                    testState.startColdQuery();
-                                }
-                                LOG.info(phase.currentPhaseString());
-                                if (phase.getRate() < lowestRate) {
-                                    lowestRate = phase.getRate();
-                                }
-                            }
+                if (phase.isLatencyRun()) {
+                    testState.ackLatencyComplete();
+                }
+                for (WorkloadState workState : workStates) {
+                    workState.switchToNextPhase();
+                    phase = workState.getCurrentPhase();
+                    interruptWorkers();
+                    if (phase == null && !lastEntry) {
+                        // Last phase
+                        lastEntry = true;
+                        testState.startCoolDown();
+                        measureEnd = now;
+                        LOG.info("{} :: Waiting for all terminals to finish ..", StringUtil.bold("TERMINATE"));
+                    } else if (phase != null) {
+                        // Reset serial execution parameters.
+                        if (phase.isLatencyRun()) {
+                            phase.resetSerial();
+                            testState.startColdQuery();
                         }
-                    }
-                    if (phase != null) {
-                        // update frequency in which we check according to
-                        // wakeup
-                        // speed
-                        // intervalNs = (long) (1000000000. / (double)
-                        // lowestRate + 0.5);
-                        delta += phase.getTime() * 1000000000L;
+                        LOG.info(phase.currentPhaseString());
                     }
                 }
-            }
-
-            // Compute the next interval
-            // and how many messages to deliver
-            if (phase != null) {
-                intervalNs = 0;
-                nextToAdd = 0;
-                do {
-                    intervalNs += getInterval(lowestRate, phase.getArrival());
-                    nextToAdd++;
-                } while ((-diff) > intervalNs && !lastEntry);
-                nextInterval += intervalNs;
+                // switching phases cleared the queues, so the new phase
+                // starts with fresh arrival streams
+                scheduler.startPhase(now);
+                if (phase != null) {
+                    delta += phaseNanos(workStates);
+                }
             }
 
             // Update the test state appropriately
             State state = testState.getState();
             if (state == State.WARMUP && now >= warmup) {
-                synchronized (testState) {
-                    if (phase != null && phase.isLatencyRun()) {
-                        testState.startColdQuery();
-                    } else {
-                        testState.startMeasure();
-                    }
-                    interruptWorkers();
+                if (phase != null && phase.isLatencyRun()) {
+                    testState.startColdQuery();
+                } else {
+                    testState.startMeasure();
                 }
+                interruptWorkers();
+                // startMeasure() may have waited for the other processes of a distributed run
+                now = System.nanoTime();
                 start = now;
                 LOG.info("{} :: Warmup complete, starting measurements.", StringUtil.bold("MEASURE"));
                 // measureEnd = measureStart + measureSeconds * 1000000000L;
@@ -292,70 +336,169 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
                 // Time to quit.
                 break;
             }
+
+            // Wait for the next arrival, but wake up in time to end the
+            // warmup or the phase
+            long deadline = Math.min(scheduler.nextArrivalNs(), now + MAX_IDLE_NS);
+            state = testState.getState();
+            if (state == State.WARMUP) {
+                deadline = Math.min(deadline, warmup);
+            } else if (state == State.MEASURE && phase != null && !phase.isLatencyRun() && !lastEntry) {
+                deadline = Math.min(deadline, start + delta);
+            }
+            ArrivalScheduler.awaitUntil(deadline);
+        }
+
+        OfferedLoad offeredLoad = scheduler.getOfferedLoad();
+        if (offeredLoad.getTotalOffered() > 0) {
+            LOG.info("Offered load: {} arrivals targeted, {} offered, {} enqueued",
+                    Math.round(offeredLoad.getTotalTarget()), offeredLoad.getTotalOffered(), offeredLoad.getTotalEnqueued());
         }
 
         try {
-            int requests = finalizeWorkers(this.workerThreads);
+            finalizeWorkers(this.workerThreads);
+
+            Results results = collectResults(workers, workConfs, start, measureEnd);
+            setWorkerThreadStats(results);
+            results.setOfferedLoad(offeredLoad);
 
-            // Combine all the latencies together in the most disgusting way
-            // possible: sorting!
-            for (Worker<?> w : workers) {
-                for (LatencyRecord.Sample sample : w.getLatencyRecords()) {
-                    samples.add(sample);
+            // Concurrent workloads also get results of their own
+            if (workConfs.size() > 1) {
+                for (WorkloadConfiguration workConf : workConfs) {
+                    List<Worker<?>> group = new ArrayList<>();
+                    for (Worker<?> w : workers) {
+                        if (w.getWorkloadConfiguration() == workConf) {
+                            group.add(w);
+                        }
+                    }
+                    results.getWorkloadResults().put(getWorkloadName(workConf), collectResults(group, List.of(workConf), start, measureEnd));
                 }
             }
-            Collections.sort(samples);
 
-            // Compute stats on all the latencies
-            int[] latencies = new int[samples.size()];
-            for (int i = 0; i < samples.size(); ++i) {
-                latencies[i] = samples.get(i).getLatencyMicrosecond();
-            }
-            DistributionStatistics stats = DistributionStatistics.computeStatistics(latencies);
+            return (results);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            Results results = new Results(measureEnd - start, requests, stats, samples);
+    /**
+     * Build the Results of the given workers, which must have finished.
+     */
+    private Results collectResults(List<? extends Worker<?>> workers, List<WorkloadConfiguration> workConfs, long start, long measureEnd) {
+        int requests = 0;
+        for (Worker<?> w : workers) {
+            requests += w.getRequests();
+        }
 
-            // Compute transaction histogram
-            Set<TransactionType> txnTypes = new HashSet<>();
+        // Each worker's record is already in start time order, so the
+        // combined view is a k-way merge rather than a sort
+        List<LatencyRecord> records = new ArrayList<>(workers.size());
+        int sampleCount = 0;
+        for (Worker<?> w : workers) {
+            LatencyRecord record = w.getLatencyRecords();
+            records.add(record);
+            sampleCount += record.size();
+        }
+        Iterable<Sample> samples = LatencyRecord.merge(records);
+
+        Results results;
+        if (!latencyHistograms.isEmpty()) {
+            // Compute stats from the merged histograms, samples are only kept for the raw output
+            int digits = latencyHistograms.get(workConfs.get(0)).getSignificantDigits();
+            // Concurrent workloads number their transaction types independently,
+            // so their combined histograms only keep the totals per second
+            boolean totalsOnly = workConfs.size() > 1;
+            LatencyHistograms total = new LatencyHistograms(digits);
+            SortedMap<Long, LatencyHistograms> seconds = null;
             for (WorkloadConfiguration workConf : workConfs) {
-                txnTypes.addAll(workConf.getTransTypes());
+                LatencyHistogramCollector collector = latencyHistograms.get(workConf);
+                merge(total, collector.getTotal(), totalsOnly);
+                SortedMap<Long, LatencyHistograms> theirs = collector.getSeconds();
+                if (theirs == null) {
+                    continue;
+                }
+                if (seconds == null) {
+                    seconds = new TreeMap<>();
+                }
+                for (Map.Entry<Long, LatencyHistograms> e : theirs.entrySet()) {
+                    merge(seconds.computeIfAbsent(e.getKey(), k -> new LatencyHistograms(digits)), e.getValue(), totalsOnly);
+                }
             }
-            txnTypes.remove(TransactionType.INVALID);
-
-            results.getUnknown().putAll(txnTypes, 0);
-            results.getSuccess().putAll(txnTypes, 0);
-            results.getRetry().putAll(txnTypes, 0);
-            results.getAbort().putAll(txnTypes, 0);
-            results.getError().putAll(txnTypes, 0);
-            results.getRetryDifferent().putAll(txnTypes, 0);
-            results.getZeroRows().putAll(txnTypes, 0);
-
-            for (Worker<?> w : workers) {
-                results.getUnknown().putHistogram(w.getTransactionUnknownHistogram());
-                results.getSuccess().putHistogram(w.getTransactionSuccessHistogram());
-                results.getRetry().putHistogram(w.getTransactionRetryHistogram());
-                results.getAbort().putHistogram(w.getTransactionAbortHistogram());
-                results.getError().putHistogram(w.getTransactionErrorHistogram());
-                results.getRetryDifferent().putHistogram(w.getTransactionRetryDifferentHistogram());
-                results.getZeroRows().putHistogram(w.getTransactionZeroRowsHistogram());
-                results.getFeaturebenchAdditionalResults().setJsonResultsList(w.featurebenchAdditionalResults.getJsonResultsList());
+            boolean keepSamples = workConfs.stream().anyMatch(WorkloadConfiguration::getRawLatencySamples);
+            results = Results.fromLatencyHistograms(measureEnd - start, requests, total, seconds, keepSamples ? samples : null);
+        } else {
+            // Compute stats on all the latencies
+            int[] latencies = new int[sampleCount];
+            int[] queueTimes = new int[sampleCount];
+            int[] responseTimes = new int[sampleCount];
+            int i = 0;
+            for (LatencyRecord record : records) {
+                for (Sample sample : record) {
+                    latencies[i] = sample.getLatencyMicrosecond();
+                    queueTimes[i] = sample.getQueueMicrosecond();
+                    responseTimes[i] = sample.getResponseMicrosecond();
+                    i++;
+                }
             }
+            DistributionStatistics stats = DistributionStatistics.computeStatistics(latencies);
+            DistributionStatistics queueStats = DistributionStatistics.computeStatistics(queueTimes);
+            DistributionStatistics responseStats = DistributionStatistics.computeStatistics(responseTimes);
 
-            return (results);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            results = new Results(measureEnd - start, requests, stats, queueStats, responseStats, samples);
         }
+
+        // Compute transaction histogram
+        Set<TransactionType> txnTypes = new HashSet<>();
+        for (WorkloadConfiguration workConf : workConfs) {
+            txnTypes.addAll(workConf.getTransTypes());
+        }
+        txnTypes.remove(TransactionType.INVALID);
+
+        results.getUnknown().putAll(txnTypes, 0);
+        results.getSuccess().putAll(txnTypes, 0);
+        results.getRetry().putAll(txnTypes, 0);
+        results.getAbort().putAll(txnTypes, 0);
+        results.getError().putAll(txnTypes, 0);
+        results.getRetryDifferent().putAll(txnTypes, 0);
+        results.getZeroRows().putAll(txnTypes, 0);
+
+        for (Worker<?> w : workers) {
+            results.addTransactionCounters(w.getTransactionCounters());
+            results.addStatementCacheCounts(w.getStatementCacheHits(), w.getStatementCacheMisses());
+            results.getFeaturebenchAdditionalResults().setJsonResultsList(w.featurebenchAdditionalResults.getJsonResultsList());
+        }
+        workers.stream().map(Worker::getBenchmark).distinct()
+                .forEach(bench -> results.getConnectionStatistics().add(bench.getConnectionProvider().getStatistics()));
+        return results;
     }
 
-    private long getInterval(int lowestRate, Phase.Arrival arrival) {
-        // TODO Auto-generated method stub
-        if (arrival == Phase.Arrival.POISSON) {
-            return (long) ((-Math.log(1 - Math.random()) / lowestRate) * 1000000000.);
+    private static void merge(LatencyHistograms into, LatencyHistograms histograms, boolean totalsOnly) {
+        if (totalsOnly) {
+            into.addTotals(histograms);
         } else {
-            return (long) (1000000000. / (double) lowestRate + 0.5);
+            into.add(histograms);
         }
     }
 
+    /**
+     * Length of the current phase. Concurrent workloads switch phases
+     * together, so it is the longest of their current phases.
+     */
+    private static long phaseNanos(List<WorkloadState> workStates) {
+        long nanos = 0;
+        for (WorkloadState workState : workStates) {
+            Phase phase = workState.getCurrentPhase();
+            if (phase != null) {
+                nanos = Math.max(nanos, phase.getTime() * 1000000000L);
+            }
+        }
+        return nanos;
+    }
+
+    private static String getWorkloadName(WorkloadConfiguration workConf) {
+        return workConf.getWorkloadName() != null ? workConf.getWorkloadName() : workConf.getBenchmarkName();
+    }
+
     @Override
     public void uncaughtException(Thread t, Throwable e) {
 
@@ -373,116 +516,6 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
 
     }
 
-    public static final class TimeBucketIterable implements Iterable<DistributionStatistics> {
-        private final Iterable<Sample> samples;
-        private final int windowSizeSeconds;
-        private final TransactionType transactionType;
-
-        /**
-         * @param samples
-         * @param windowSizeSeconds
-         * @param transactionType   Allows to filter transactions by type
-         */
-        public TimeBucketIterable(Iterable<Sample> samples, int windowSizeSeconds, TransactionType transactionType) {
-            this.samples = samples;
-            this.windowSizeSeconds = windowSizeSeconds;
-            this.transactionType = transactionType;
-        }
-
-        @Override
-        public Iterator<DistributionStatistics> iterator() {
-            return new TimeBucketIterator(samples.iterator(), windowSizeSeconds, transactionType);
-        }
-    }
-
-    private static final class TimeBucketIterator implements Iterator<DistributionStatistics> {
-        private final Iterator<Sample> samples;
-        private final int windowSizeSeconds;
-        private final TransactionType txType;
-
-        private Sample sample;
-        private long nextStartNanosecond;
-
-        private DistributionStatistics next;
-
-        /**
-         * @param samples
-         * @param windowSizeSeconds
-         * @param txType            Allows to filter transactions by type
-         */
-        public TimeBucketIterator(Iterator<LatencyRecord.Sample> samples, int windowSizeSeconds,
-                TransactionType txType) {
-            this.samples = samples;
-            this.windowSizeSeconds = windowSizeSeconds;
-            this.txType = txType;
-
-            if (samples.hasNext()) {
-                sample = samples.next();
-                // TODO: To be totally correct, we would want this to be the
-                // timestamp of the start
-                // of the measurement interval. In most cases this won't matter.
-                nextStartNanosecond = sample.getStartNanosecond();
-                calculateNext();
-            }
-        }
-
-        private void calculateNext() {
-
-            // Collect all samples in the time window
-            ArrayList<Integer> latencies = new ArrayList<>();
-            long endNanoseconds = nextStartNanosecond + (windowSizeSeconds * 1000000000L);
-            while (sample != null && sample.getStartNanosecond() < endNanoseconds) {
-
-                // Check if a TX Type filter is set, in the default case,
-                // INVALID TXType means all should be reported, if a filter is
-                // set, only this specific transaction
-                if (txType.equals(TransactionType.INVALID) || txType.getId() == sample.getTransactionType()) {
-                    latencies.add(sample.getLatencyMicrosecond());
-                }
-
-                if (samples.hasNext()) {
-                    sample = samples.next();
-                } else {
-                    sample = null;
-                }
-            }
-
-            // Set up the next time window
-
-            nextStartNanosecond = endNanoseconds;
-
-            int[] l = new int[latencies.size()];
-            for (int i = 0; i < l.length; ++i) {
-                l[i] = latencies.get(i);
-            }
-
-            next = DistributionStatistics.computeStatistics(l);
-        }
-
-        @Override
-        public boolean hasNext() {
-            return next != null;
-        }
-
-        @Override
-        public DistributionStatistics next() {
-            if (next == null) {
-                throw new NoSuchElementException();
-            }
-            DistributionStatistics out = next;
-            next = null;
-            if (sample != null) {
-                calculateNext();
-            }
-            return out;
-        }
-
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException("unsupported");
-        }
-    }
-
     private class WatchDogThread extends Thread {
         {
             this.setDaemon(true);
@@ -535,10 +568,8 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
 
                 // Compute the last throughput
                 long measuredRequests = 0;
-                synchronized (testState) {
-                    for (Worker<?> w : workers) {
-                        measuredRequests += w.getAndResetIntervalRequests();
-                    }
+                for (Worker<?> w : workers) {
+                    measuredRequests += w.getAndResetIntervalRequests();
                 }
                 double seconds = this.intervalMonitor / 1000d;
                 double tps = (double) measuredRequests / seconds;
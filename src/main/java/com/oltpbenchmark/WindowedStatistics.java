@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.api.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-window statistics of every transaction type and every
+ * {@link LatencyHistograms.Metric}, for one or more window sizes, built in a
+ * single streaming pass.
+ * <p>
+ * Input arrives one second at a time, in order. Only the histograms of the
+ * window that is currently open are kept; when a window closes its
+ * statistics are computed and the histograms are dropped. Memory therefore
+ * grows with the number of windows times the number of transaction types,
+ * not with the number of samples.
+ */
+public final class WindowedStatistics {
+
+    private static final LatencyHistograms.Metric[] METRICS = LatencyHistograms.Metric.values();
+    private static final DistributionStatistics EMPTY = DistributionStatistics.computeStatistics(new int[0]);
+
+    /**
+     * The windows of one size. Each closed window holds its statistics
+     * indexed by [transaction type id][metric], with the totals at id 0.
+     */
+    private final class Series {
+        private final int windowSizeSeconds;
+        private final List<DistributionStatistics[][]> windows = new ArrayList<>();
+        private LatencyHistograms open = null;
+
+        Series(int windowSizeSeconds) {
+            this.windowSizeSeconds = windowSizeSeconds;
+        }
+
+        void add(long second, LatencyHistograms histograms) {
+            long index = (second - firstSecond) / windowSizeSeconds;
+            while (windows.size() < index) {
+                close();
+            }
+            if (open == null) {
+                open = new LatencyHistograms(significantDigits);
+            }
+            open.add(histograms);
+        }
+
+        void close() {
+            if (open == null) {
+                windows.add(null);
+                return;
+            }
+            DistributionStatistics[][] window = new DistributionStatistics[open.size()][];
+            for (int type = 0; type < window.length; type++) {
+                DistributionStatistics[] byMetric = new DistributionStatistics[METRICS.length];
+                for (LatencyHistograms.Metric metric : METRICS) {
+                    LatencyHistogram h = type == TransactionType.INVALID_ID ? open.getTotal(metric) : open.get(metric, type);
+                    byMetric[metric.ordinal()] = h == null ? EMPTY : DistributionStatistics.computeStatistics(h);
+                }
+                window[type] = byMetric;
+            }
+            windows.add(window);
+            open = null;
+        }
+    }
+
+    private final int significantDigits;
+    private final Series[] series;
+    private long firstSecond = -1;
+    private boolean finished = false;
+
+    /**
+     * @param windowSizesSeconds the window sizes to build statistics for
+     */
+    public WindowedStatistics(int significantDigits, int... windowSizesSeconds) {
+        this.significantDigits = significantDigits;
+        int[] sizes = Arrays.stream(windowSizesSeconds).distinct().toArray();
+        this.series = new Series[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 1) {
+                throw new IllegalArgumentException("Window size must be at least one second");
+            }
+            series[i] = new Series(sizes[i]);
+        }
+    }
+
+    /**
+     * Windows built from the samples of a run, starting at the first sample.
+     */
+    public static WindowedStatistics fromSamples(Iterable<LatencyRecord.Sample> samples, int significantDigits, int... windowSizesSeconds) {
+        WindowedStatistics stats = new WindowedStatistics(significantDigits, windowSizesSeconds);
+        long originNs = 0;
+        long current = -1;
+        LatencyHistograms second = null;
+        for (LatencyRecord.Sample sample : samples) {
+            if (second == null) {
+                originNs = sample.getStartNanosecond();
+                current = 0;
+                second = new LatencyHistograms(significantDigits);
+            }
+            long s = TimeUnit.NANOSECONDS.toSeconds(sample.getStartNanosecond() - originNs);
+            if (s != current) {
+                stats.addSecond(current, second);
+                second = new LatencyHistograms(significantDigits);
+                current = s;
+            }
+            second.record(sample.getTransactionType(), sample.getLatencyMicrosecond(), sample.getQueueMicrosecond());
+        }
+        if (second != null) {
+            stats.addSecond(current, second);
+        }
+        stats.finish();
+        return stats;
+    }
+
+    /**
+     * Windows built from per-second histograms recorded during the run,
+     * starting at the first second.
+     */
+    public static WindowedStatistics fromHistograms(SortedMap<Long, LatencyHistograms> seconds, int... windowSizesSeconds) {
+        int significantDigits = seconds.isEmpty() ? LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS : seconds.get(seconds.firstKey()).getSignificantDigits();
+        WindowedStatistics stats = new WindowedStatistics(significantDigits, windowSizesSeconds);
+        seconds.forEach(stats::addSecond);
+        stats.finish();
+        return stats;
+    }
+
+    /**
+     * Add the histograms of one second. Seconds must be added in increasing order.
+     */
+    public void addSecond(long second, LatencyHistograms histograms) {
+        if (finished) {
+            throw new IllegalStateException("Already finished");
+        }
+        if (histograms.isEmpty()) {
+            return;
+        }
+        if (firstSecond < 0) {
+            firstSecond = second;
+        }
+        for (Series s : series) {
+            s.add(second, histograms);
+        }
+    }
+
+    /**
+     * Close the last open window. Must be called after the last second was added.
+     */
+    public void finish() {
+        if (!finished) {
+            for (Series s : series) {
+                if (s.open != null) {
+                    s.close();
+                }
+            }
+            finished = true;
+        }
+    }
+
+    public boolean hasWindowSize(int windowSizeSeconds) {
+        return find(windowSizeSeconds) != null;
+    }
+
+    /**
+     * @param transactionType the transaction type id, or 0 for all types together
+     * @return the statistics of every window in order, empty ones included
+     */
+    public List<DistributionStatistics> get(int windowSizeSeconds, int transactionType, LatencyHistograms.Metric metric) {
+        Series s = find(windowSizeSeconds);
+        if (s == null) {
+            throw new IllegalArgumentException("No statistics for windows of " + windowSizeSeconds + " seconds");
+        }
+        List<DistributionStatistics> result = new ArrayList<>(s.windows.size());
+        for (DistributionStatistics[][] window : s.windows) {
+            if (window == null || transactionType >= window.length) {
+                result.add(EMPTY);
+            } else {
+                result.add(window[transactionType][metric.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    private Series find(int windowSizeSeconds) {
+        for (Series s : series) {
+            if (s.windowSizeSeconds == windowSizeSeconds) {
+                return s;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hands SubmittedProcedures from the rate-limiting thread to the workers of
+ * a rate-limited phase. Implementations must be safe for many concurrent
+ * producers and consumers, and must only wake as many waiting consumers as
+ * there is new work for.
+ */
+public interface WorkQueue {
+
+    enum Type {
+        /**
+         * Lock-free bounded MPMC ring buffer; waiting workers are parked individually.
+         */
+        RING_BUFFER,
+        /**
+         * A LinkedList guarded by a single monitor with wait/notify hand-off.
+         */
+        SYNCHRONIZED,
+    }
+
+    static WorkQueue create(Type type, int limit) {
+        return switch (type) {
+            case RING_BUFFER -> new RingBufferWorkQueue(limit);
+            case SYNCHRONIZED -> new SynchronizedWorkQueue(limit);
+        };
+    }
+
+    /**
+     * Add up to amount new procedures. If the queue already holds more than
+     * its limit, the remaining procedures are dropped because the workers
+     * cannot keep up with the requested rate.
+     *
+     * @return the number of procedures actually added
+     */
+    int offer(int amount, Supplier<SubmittedProcedure> procedures);
+
+    /**
+     * Take the next procedure, blocking until one is available.
+     *
+     * @param stop checked before every wait; if it returns true the caller gives up
+     * @return the next procedure, or null if stop returned true first
+     */
+    SubmittedProcedure take(BooleanSupplier stop);
+
+    /**
+     * Drop all queued procedures.
+     */
+    void clear();
+
+    /**
+     * Wake every waiting consumer so that it can re-check its stop condition.
+     */
+    void wakeAll();
+
+    int size();
+}
@@ -18,8 +18,10 @@
 
 package com.oltpbenchmark;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.TransactionTypes;
 import com.oltpbenchmark.types.DatabaseType;
+import com.oltpbenchmark.util.RandomStreams;
 import com.oltpbenchmark.util.ThreadUtil;
 import org.apache.commons.configuration2.XMLConfiguration;
 
@@ -32,6 +34,12 @@ public class WorkloadConfiguration {
     private final List<Phase> phases = new ArrayList<>();
     private DatabaseType databaseType;
     private String benchmarkName;
+
+    /**
+     * Name of the featurebench workload this configuration runs, if any. Set
+     * when several workloads run concurrently and report separately.
+     */
+    private String workloadName = null;
     private String url;
     private String username;
     private String password;
@@ -39,9 +47,15 @@ public class WorkloadConfiguration {
     private int batchSize;
     private int maxRetries;
     private int randomSeed = -1;
+    private RandomStreams randomStreams = null;
     private double scaleFactor = 1.0;
     private double selectivity = -1.0;
     private int terminals;
+    /**
+     * This process's share of a run that is split over several benchbase processes, see {@link #setPartition}.
+     */
+    private int partition = 0;
+    private int partitionCount = 1;
     private int loaderThreads = ThreadUtil.availableProcessors();
     private XMLConfiguration xmlConfig = null;
     private WorkloadState workloadState;
@@ -57,6 +71,87 @@ public class WorkloadConfiguration {
      */
     private boolean newConnectionPerTxn = false;
 
+    /**
+     * If true, each Worker keeps its Procedures' PreparedStatements open and reuses them across transactions
+     * instead of preparing them again for every execution.
+     */
+    private boolean statementCache = true;
+
+    /**
+     * Number of idle connections kept by the connection pool, or 0 to open a physical connection every time one is
+     * needed. With newConnectionPerTxn, a pool turns the per-transaction connect into a logical reconnect.
+     */
+    private int connectionPoolSize = 0;
+
+    /**
+     * Pooled connections older than this are closed instead of reused, in milliseconds, or 0 for no limit.
+     */
+    private long maxConnectionLifetime = 0;
+
+    /**
+     * Timeout in seconds of the validity check of a pooled connection that has been idle for a while, or 0 to not
+     * validate.
+     */
+    private int connectionValidationTimeout = 5;
+
+    /**
+     * How many physical connections may be opened at the same time, or 0 for no limit.
+     */
+    private int maxConcurrentConnects = 0;
+
+    /**
+     * How many physical connections may be opened per second, or 0 for no limit.
+     */
+    private double connectRate = 0;
+
+    /**
+     * How rate-limited phases hand work to their Workers.
+     */
+    private WorkQueue.Type workQueueType = WorkQueue.Type.RING_BUFFER;
+
+    /**
+     * If true, Workers run on virtual threads (JDK 21+) instead of one platform thread each.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Port of the live Prometheus metrics endpoint, or 0 for none.
+     */
+    private int metricsPort = 0;
+
+    /**
+     * File that live metrics are appended to as JSON lines, or null for none.
+     */
+    private String metricsFile = null;
+
+    /**
+     * How often live metrics are published, in milliseconds.
+     */
+    private int metricsInterval = 1000;
+
+    /**
+     * How loaders that use a BulkWriter send their rows.
+     */
+    private BulkWriter.Method bulkLoadMethod = BulkWriter.Method.AUTO;
+
+    /**
+     * If true, Workers record latencies into mergeable histograms with latencyHistogramDigits significant digits
+     * instead of keeping every sample.
+     */
+    private boolean latencyHistograms = false;
+    private int latencyHistogramDigits = LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS;
+
+    /**
+     * If true, the latency histograms are also kept for every second of the run, which the time series outputs are
+     * built from. Otherwise only the cumulative histograms are kept, so memory does not grow with the run length.
+     */
+    private boolean latencyHistogramsPerSecond = false;
+
+    /**
+     * If true, keep every latency sample for the raw output. Always the case unless latencyHistograms is set.
+     */
+    private boolean rawLatencySamples = true;
+
     public String getBenchmarkName() {
         return benchmarkName;
     }
@@ -65,6 +160,14 @@ public class WorkloadConfiguration {
         this.benchmarkName = benchmarkName;
     }
 
+    public String getWorkloadName() {
+        return workloadName;
+    }
+
+    public void setWorkloadName(String workloadName) {
+        this.workloadName = workloadName;
+    }
+
     public WorkloadState getWorkloadState() {
         return workloadState;
     }
@@ -150,15 +253,166 @@ public class WorkloadConfiguration {
         this.newConnectionPerTxn = newConnectionPerTxn;
     }
 
+    /**
+     * @return @see statementCache member docs for behavior.
+     */
+    public boolean getStatementCache() {
+        return statementCache;
+    }
+
+    public void setStatementCache(boolean statementCache) {
+        this.statementCache = statementCache;
+    }
+
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public void setConnectionPoolSize(int connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    public long getMaxConnectionLifetime() {
+        return maxConnectionLifetime;
+    }
+
+    public void setMaxConnectionLifetime(long maxConnectionLifetime) {
+        this.maxConnectionLifetime = maxConnectionLifetime;
+    }
+
+    public int getConnectionValidationTimeout() {
+        return connectionValidationTimeout;
+    }
+
+    public void setConnectionValidationTimeout(int connectionValidationTimeout) {
+        this.connectionValidationTimeout = connectionValidationTimeout;
+    }
+
+    public int getMaxConcurrentConnects() {
+        return maxConcurrentConnects;
+    }
+
+    public void setMaxConcurrentConnects(int maxConcurrentConnects) {
+        this.maxConcurrentConnects = maxConcurrentConnects;
+    }
+
+    public double getConnectRate() {
+        return connectRate;
+    }
+
+    public void setConnectRate(double connectRate) {
+        this.connectRate = connectRate;
+    }
+
+    public WorkQueue.Type getWorkQueueType() {
+        return workQueueType;
+    }
+
+    public void setWorkQueueType(WorkQueue.Type workQueueType) {
+        this.workQueueType = workQueueType;
+    }
+
+    public boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    public int getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    public void setMetricsInterval(int metricsInterval) {
+        this.metricsInterval = metricsInterval;
+    }
+
+    /**
+     * @return true if live metrics should be published during the run
+     */
+    public boolean getLiveMetrics() {
+        return metricsPort > 0 || metricsFile != null;
+    }
+
+    public BulkWriter.Method getBulkLoadMethod() {
+        return bulkLoadMethod;
+    }
+
+    public void setBulkLoadMethod(BulkWriter.Method bulkLoadMethod) {
+        this.bulkLoadMethod = bulkLoadMethod;
+    }
+
+    /**
+     * @return @see latencyHistograms member docs for behavior.
+     */
+    public boolean getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    public void setLatencyHistograms(boolean latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    public int getLatencyHistogramDigits() {
+        return latencyHistogramDigits;
+    }
+
+    public void setLatencyHistogramDigits(int latencyHistogramDigits) {
+        this.latencyHistogramDigits = latencyHistogramDigits;
+    }
+
+    /**
+     * @return @see latencyHistogramsPerSecond member docs for behavior.
+     */
+    public boolean getLatencyHistogramsPerSecond() {
+        return latencyHistogramsPerSecond;
+    }
+
+    public void setLatencyHistogramsPerSecond(boolean latencyHistogramsPerSecond) {
+        this.latencyHistogramsPerSecond = latencyHistogramsPerSecond;
+    }
+
+    /**
+     * @return @see rawLatencySamples member docs for behavior.
+     */
+    public boolean getRawLatencySamples() {
+        return rawLatencySamples || !latencyHistograms;
+    }
+
+    public void setRawLatencySamples(boolean rawLatencySamples) {
+        this.rawLatencySamples = rawLatencySamples;
+    }
+
     /**
      * Initiate a new benchmark and workload state
      */
     public void initializeState(BenchmarkState benchmarkState) {
-        this.workloadState = new WorkloadState(benchmarkState, phases, terminals);
+        this.workloadState = new WorkloadState(benchmarkState, phases, getTerminals(), workQueueType);
     }
 
     public void addPhase(int id, int time, int warmup, int rate, List<Double> weights, boolean rateLimited, boolean disabled, boolean serial, boolean timed, int active_terminals, Phase.Arrival arrival) {
-        phases.add(new Phase(benchmarkName, id, time, warmup, rate, weights, rateLimited, disabled, serial, timed, active_terminals, arrival));
+        phases.add(new Phase(benchmarkName, id, time, warmup, rate, weights, rateLimited, disabled, serial, timed, active_terminals, arrival, ArrivalProcess.factory(arrival, rate), getRandomStreams()));
+    }
+
+    public void addPhase(int id, int time, int warmup, int rate, List<Double> weights, boolean rateLimited, boolean disabled, boolean serial, boolean timed, int active_terminals, Phase.Arrival arrival, ArrivalProcess.Factory arrivalFactory) {
+        phases.add(new Phase(benchmarkName, id, time, warmup, rate, weights, rateLimited, disabled, serial, timed, active_terminals, arrival, arrivalFactory, getRandomStreams()));
     }
 
 
@@ -195,7 +449,28 @@ public class WorkloadConfiguration {
      * Set the random seed for this benchmark
      * @param randomSeed
      */
-    public void setRandomSeed(int randomSeed) { this.randomSeed = randomSeed; }
+    public synchronized void setRandomSeed(int randomSeed) {
+        this.randomSeed = randomSeed;
+        this.randomStreams = null;
+    }
+
+    /**
+     * The generators of this benchmark's Workers and LoaderThreads, derived from
+     * randomSeed. If no seed was set, one is picked now so that it can be reported.
+     */
+    public synchronized RandomStreams getRandomStreams() {
+        if (this.randomStreams == null) {
+            if (this.randomSeed == -1) {
+                this.randomSeed = RandomStreams.newRunSeed();
+            }
+            this.randomStreams = new RandomStreams(this.randomSeed);
+            if (this.partitionCount > 1) {
+                // Otherwise every partition would replay the same values
+                this.randomStreams = new RandomStreams(this.randomStreams.seed("partition", this.partition));
+            }
+        }
+        return this.randomStreams;
+    }
 
     /**
      * Return the scale factor of the database size
@@ -268,14 +543,70 @@ public class WorkloadConfiguration {
         }
     }
 
+    /**
+     * @return the number of terminals this process runs, which is its partition's share of {@link #getTotalTerminals()}
+     */
     public int getTerminals() {
+        return partitionShare(terminals);
+    }
+
+    /**
+     * @return the number of terminals of the whole run, over all partitions
+     */
+    public int getTotalTerminals() {
         return terminals;
     }
 
+    /**
+     * @return the index of this process's first terminal among {@link #getTotalTerminals()}
+     */
+    public int getTerminalOffset() {
+        return partitionOffset(terminals);
+    }
+
     public void setTerminals(int terminals) {
         this.terminals = terminals;
     }
 
+    /**
+     * Run only part of the workload, for runs that are split over several
+     * benchbase processes. Each partition gets a contiguous share of the
+     * terminals and of the rate, and random streams of its own.
+     *
+     * @param partition      index of this process's partition, starting at 0
+     * @param partitionCount number of partitions of the run
+     */
+    public synchronized void setPartition(int partition, int partitionCount) {
+        if (partitionCount < 1 || partition < 0 || partition >= partitionCount) {
+            throw new IllegalArgumentException(String.format("Invalid partition %d of %d", partition, partitionCount));
+        }
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+        this.randomStreams = null;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * @return this partition's share of total, which is split as evenly as possible over all partitions
+     */
+    public int partitionShare(int total) {
+        return total / partitionCount + (partition < total % partitionCount ? 1 : 0);
+    }
+
+    /**
+     * @return the index of the first of total items that belong to this partition
+     */
+    public int partitionOffset(int total) {
+        return partition * (total / partitionCount) + Math.min(partition, total % partitionCount);
+    }
+
     public TransactionTypes getTransTypes() {
         return transTypes;
     }
@@ -22,13 +22,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class is used to share a state among the workers of a single
  * workload. Worker use it to ask for work and as interface to the global
  * BenchmarkState
+ * <p>
+ * Waiting workers block on a ReentrantLock/Condition instead of this
+ * object's monitor, so that workers on virtual threads unmount from their
+ * carrier while they wait.
  *
  * @author alendit
  */
@@ -37,77 +44,82 @@ public class WorkloadState {
     private static final Logger LOG = LoggerFactory.getLogger(WorkloadState.class);
 
     private final BenchmarkState benchmarkState;
-    private final LinkedList<SubmittedProcedure> workQueue = new LinkedList<>();
+    private final WorkQueue workQueue;
     private final int num_terminals;
     private final Iterator<Phase> phaseIterator;
 
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+
     private int workersWaiting = 0;
-    private int workersWorking = 0;
+    private final AtomicInteger workersWorking = new AtomicInteger();
     private int workerNeedSleep;
 
-    private Phase currentPhase = null;
+    private volatile Phase currentPhase = null;
 
     public WorkloadState(BenchmarkState benchmarkState, List<Phase> works, int num_terminals) {
+        this(benchmarkState, works, num_terminals, WorkQueue.Type.RING_BUFFER);
+    }
+
+    public WorkloadState(BenchmarkState benchmarkState, List<Phase> works, int num_terminals, WorkQueue.Type workQueueType) {
         this.benchmarkState = benchmarkState;
         this.num_terminals = num_terminals;
         this.workerNeedSleep = num_terminals;
+        this.workQueue = WorkQueue.create(workQueueType, RATE_QUEUE_LIMIT);
 
         phaseIterator = works.iterator();
     }
 
     /**
-     * Add a request to do work.
+     * Queue procedures for the given arrivals.
+     *
+     * @param intendedStartNs when each procedure was scheduled to arrive
+     * @return how many of the arrivals were queued; the rest were dropped
+     * because the workers cannot keep up with the rate
      */
-    public void addToQueue(int amount, boolean resetQueues) {
-        int workAdded = 0;
-        
-        synchronized (this) {
-            if (resetQueues) {
-                workQueue.clear();
-            }
-
-            // Only use the work queue if the phase is enabled and rate limited.
-            if (currentPhase == null || currentPhase.isDisabled()
-                    || !currentPhase.isRateLimited() || currentPhase.isSerial()) {
-                return;
-            }
-            
-            // Add the specified number of procedures to the end of the queue.
-            // If we can't keep up with current rate, truncate transactions
-            for (int i = 0; i < amount && workQueue.size() <= RATE_QUEUE_LIMIT; ++i) {
-                workQueue.add(new SubmittedProcedure(currentPhase.chooseTransaction()));
-                workAdded++;
-            }
-
-            // Wake up sleeping workers to deal with the new work.
-            int numToWake = Math.min(workAdded, workersWaiting);
-            while (numToWake-- > 0) {
-                this.notify();
-            }
+    public int addToQueue(long[] intendedStartNs, int count) {
+        // Only use the work queue if the phase is enabled and rate limited.
+        Phase phase = currentPhase;
+        if (phase == null || phase.isDisabled()
+                || !phase.isRateLimited() || phase.isSerial()) {
+            return 0;
         }
+
+        // The queue wakes up only as many sleeping workers as it received work.
+        int[] next = {0};
+        return workQueue.offer(count, () -> new SubmittedProcedure(phase.chooseTransaction(), intendedStartNs[next[0]++]));
     }
 
     public void signalDone() {
         int current = this.benchmarkState.signalDone();
         if (current == 0) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 if (workersWaiting > 0) {
-                    this.notifyAll();
+                    stateChanged.signalAll();
                 }
+            } finally {
+                lock.unlock();
             }
+            workQueue.wakeAll();
         }
     }
 
     /**
      * Called by ThreadPoolThreads when waiting for work.
+     *
+     * @param rng the calling Worker's generator, used to pick the transaction in unlimited-rate phases
      */
-    public SubmittedProcedure fetchWork() {
-        synchronized (this) {
-            if (currentPhase != null && currentPhase.isSerial()) {
+    public SubmittedProcedure fetchWork(Random rng) {
+        // Read the phase once, it becomes null when the last phase ends.
+        Phase phase = currentPhase;
+        if (phase != null && phase.isSerial()) {
+            lock.lock();
+            try {
                 ++workersWaiting;
                 while (getGlobalState() == State.LATENCY_COMPLETE) {
                     try {
-                        this.wait();
+                        stateChanged.await();
                     } catch (InterruptedException e) {
                         throw new RuntimeException(e);
                     }
@@ -118,50 +130,32 @@ public class WorkloadState {
                     return null;
                 }
 
-                ++workersWorking;
-                return new SubmittedProcedure(currentPhase.chooseTransaction(getGlobalState() == State.COLD_QUERY));
+                workersWorking.incrementAndGet();
+                return new SubmittedProcedure(phase.chooseTransaction(getGlobalState() == State.COLD_QUERY));
+            } finally {
+                lock.unlock();
             }
         }
 
         // Unlimited-rate phases don't use the work queue.
-        if (currentPhase != null && !currentPhase.isRateLimited()) {
-            synchronized (this) {
-                ++workersWorking;
-            }
-            return new SubmittedProcedure(currentPhase.chooseTransaction(getGlobalState() == State.COLD_QUERY));
+        if (phase != null && !phase.isRateLimited()) {
+            workersWorking.incrementAndGet();
+            return new SubmittedProcedure(phase.chooseTransaction(getGlobalState() == State.COLD_QUERY, rng));
         }
 
-        synchronized (this) {
-            // Sleep until work is available.
-            if (workQueue.peek() == null) {
-                workersWaiting += 1;
-                while (workQueue.peek() == null) {
-                    if (this.benchmarkState.getState() == State.EXIT
-                            || this.benchmarkState.getState() == State.DONE) {
-                        return null;
-                    }
-
-                    try {
-                        this.wait();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-                workersWaiting -= 1;
-            }
-
-
-            ++workersWorking;
-
-            return workQueue.remove();
+        // Sleep until work is available.
+        SubmittedProcedure proc = workQueue.take(() -> {
+            State state = this.benchmarkState.getState();
+            return state == State.EXIT || state == State.DONE;
+        });
+        if (proc != null) {
+            workersWorking.incrementAndGet();
         }
+        return proc;
     }
 
     public void finishedWork() {
-        synchronized (this) {
-
-            --workersWorking;
-        }
+        workersWorking.decrementAndGet();
     }
 
     public Phase getNextPhase() {
@@ -172,29 +166,31 @@ public class WorkloadState {
     }
 
     public Phase getCurrentPhase() {
-        synchronized (benchmarkState) {
-            return currentPhase;
-        }
+        return currentPhase;
     }
 
     /*
      * Called by workers to ask if they should stay awake in this phase
      */
     public void stayAwake() {
-        synchronized (this) {
+        lock.lock();
+        try {
             while (workerNeedSleep > 0) {
                 workerNeedSleep--;
                 try {
-                    this.wait();
+                    stateChanged.await();
                 } catch (InterruptedException e) {
                     LOG.error(e.getMessage(), e);
                 }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     public void switchToNextPhase() {
-        synchronized (this) {
+        lock.lock();
+        try {
             this.currentPhase = this.getNextPhase();
 
             // Clear the work from the previous phase.
@@ -222,8 +218,11 @@ public class WorkloadState {
             }
 
 
-            this.notifyAll();
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
         }
+        workQueue.wakeAll();
     }
 
     /**
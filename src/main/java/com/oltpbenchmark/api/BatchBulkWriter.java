@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * {@link BulkWriter} that binds each row to an INSERT PreparedStatement and
+ * executes the batch every batchSize rows.
+ */
+public final class BatchBulkWriter implements BulkWriter {
+
+    private final PreparedStatement stmt;
+    private final int batchSize;
+    private int pending = 0;
+
+    public BatchBulkWriter(PreparedStatement stmt, int batchSize) {
+        this.stmt = stmt;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Override
+    public void setInt(int index, int value) throws SQLException {
+        stmt.setInt(index, value);
+    }
+
+    @Override
+    public void setLong(int index, long value) throws SQLException {
+        stmt.setLong(index, value);
+    }
+
+    @Override
+    public void setDouble(int index, double value) throws SQLException {
+        stmt.setDouble(index, value);
+    }
+
+    @Override
+    public void setString(int index, String value) throws SQLException {
+        stmt.setString(index, value);
+    }
+
+    @Override
+    public void setDate(int index, Date value) throws SQLException {
+        stmt.setDate(index, value);
+    }
+
+    @Override
+    public void setTimestamp(int index, Timestamp value) throws SQLException {
+        stmt.setTimestamp(index, value);
+    }
+
+    @Override
+    public void setBytes(int index, byte[] value) throws SQLException {
+        stmt.setBytes(index, value);
+    }
+
+    @Override
+    public void setNull(int index, int sqlType) throws SQLException {
+        stmt.setNull(index, sqlType);
+    }
+
+    @Override
+    public void setObject(int index, Object value) throws SQLException {
+        stmt.setObject(index, value);
+    }
+
+    @Override
+    public void addRow() throws SQLException {
+        stmt.addBatch();
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (pending > 0) {
+            stmt.executeBatch();
+            stmt.clearBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        stmt.close();
+    }
+}
@@ -20,22 +20,25 @@ package com.oltpbenchmark.api;
 
 import com.oltpbenchmark.WorkloadConfiguration;
 import com.oltpbenchmark.catalog.AbstractCatalog;
+import com.oltpbenchmark.jdbc.ConnectionPool;
+import com.oltpbenchmark.jdbc.ConnectionProvider;
+import com.oltpbenchmark.jdbc.DriverConnectionProvider;
 import com.oltpbenchmark.types.DatabaseType;
 import com.oltpbenchmark.util.ClassUtil;
+import com.oltpbenchmark.util.RandomStreams;
 import com.oltpbenchmark.util.SQLUtil;
 import com.oltpbenchmark.util.ScriptRunner;
 import com.oltpbenchmark.util.ThreadUtil;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base class for all benchmark implementations
@@ -60,12 +63,26 @@ public abstract class BenchmarkModule {
     private final Set<Class<? extends Procedure>> supplementalProcedures = new HashSet<>();
 
     /**
-     * A single Random object that should be re-used by all a benchmark's components
+     * Index of the next "thread" stream handed to a thread that has no generator bound yet
      */
-    private static final ThreadLocal<Random> rng = new ThreadLocal<>();
+    private final AtomicLong threadStreams = new AtomicLong();
+
+    /**
+     * Index of the next "loader" stream. LoaderThreads are created in a fixed
+     * order by createLoaderThreads(), so each one gets the same stream every run.
+     */
+    private final AtomicLong loaderStreams = new AtomicLong();
 
     private AbstractCatalog catalog = null;
 
+    /**
+     * Where makeConnection() gets its connections from. Created on first use,
+     * and again if the configured URL changed since (featurebench's createdb
+     * switches to the new database after connecting to the old one).
+     */
+    private volatile ConnectionProvider connectionProvider = null;
+    private volatile String connectionProviderUrl = null;
+
     /**
      * Constructor!
      * @param workConf
@@ -80,15 +97,37 @@ public abstract class BenchmarkModule {
     // --------------------------------------------------------------------------
 
     public final Connection makeConnection() throws SQLException {
+        return getConnectionProvider().getConnection();
+    }
 
-        if (StringUtils.isEmpty(workConf.getUsername())) {
-            return DriverManager.getConnection(workConf.getUrl());
-        } else {
-            return DriverManager.getConnection(
-                    workConf.getUrl(),
-                    workConf.getUsername(),
-                    workConf.getPassword());
+    /**
+     * The provider behind makeConnection(): a pool if connectionPool is set,
+     * otherwise a new physical connection every time.
+     */
+    public final ConnectionProvider getConnectionProvider() {
+        ConnectionProvider provider = this.connectionProvider;
+        if (provider == null || !Objects.equals(this.connectionProviderUrl, workConf.getUrl())) {
+            synchronized (this) {
+                provider = this.connectionProvider;
+                if (provider != null && !Objects.equals(this.connectionProviderUrl, workConf.getUrl())) {
+                    LOG.debug("JDBC URL changed, closing the connections to {}", this.connectionProviderUrl);
+                    provider.close();
+                    provider = null;
+                }
+                if (provider == null) {
+                    DriverConnectionProvider driver = new DriverConnectionProvider(workConf.getUrl(), workConf.getUsername(), workConf.getPassword(),
+                            workConf.getMaxConcurrentConnects(), workConf.getConnectRate());
+                    if (workConf.getConnectionPoolSize() > 0) {
+                        provider = new ConnectionPool(driver, workConf.getConnectionPoolSize(), workConf.getMaxConnectionLifetime(), workConf.getConnectionValidationTimeout());
+                    } else {
+                        provider = driver;
+                    }
+                    this.connectionProviderUrl = workConf.getUrl();
+                    this.connectionProvider = provider;
+                }
+            }
         }
+        return provider;
     }
 
     // --------------------------------------------------------------------------
@@ -123,22 +162,26 @@ public abstract class BenchmarkModule {
 
     /**
      * Return the Random generator that should be used by all this benchmark's components.
-     * We are using ThreadLocal to make this support multiple threads better.
-     * This will set the seed if one is specified in the workload config file
+     * This is the generator bound to the current thread (see {@link RandomStreams#bind(Random)}),
+     * so Workers and LoaderThreads each draw from their own stream. Threads that
+     * have none yet get the next "thread" stream derived from the run seed.
      */
     public Random rng() {
-        Random ret = rng.get();
+        Random ret = RandomStreams.current();
         if (ret == null) {
-            if (this.workConf.getRandomSeed() != -1) {
-                ret = new Random(this.workConf.getRandomSeed());
-            } else {
-                ret = new Random();
-            }
-            rng.set(ret);
+            ret = this.workConf.getRandomStreams().stream("thread", this.threadStreams.getAndIncrement());
+            RandomStreams.bind(ret);
         }
         return ret;
     }
 
+    /**
+     * The generator for the next LoaderThread of this benchmark.
+     */
+    Random newLoaderRng() {
+        return this.workConf.getRandomStreams().stream("loader-" + this.getBenchmarkName(), this.loaderStreams.getAndIncrement());
+    }
+
     private String convertBenchmarkClassToBenchmarkName() {
         return convertBenchmarkClassToBenchmarkName(this.getClass());
     }
@@ -198,6 +241,18 @@ public abstract class BenchmarkModule {
         return (this.makeWorkersImpl());
     }
 
+    /**
+     * Whether a run of this benchmark can be split over several processes
+     * with --partition. The workers must then take their ids from
+     * {@link WorkloadConfiguration#getTerminalOffset()} and size whatever
+     * they divide among themselves by
+     * {@link WorkloadConfiguration#getTotalTerminals()}, so that the
+     * processes don't work on the same data.
+     */
+    public boolean supportsPartitioning() {
+        return false;
+    }
+
     public final void refreshCatalog() throws SQLException {
         if (this.catalog != null) {
             try {
@@ -365,6 +420,9 @@ public abstract class BenchmarkModule {
         if (id == TransactionType.INVALID_ID) {
             throw new RuntimeException(String.format("Procedure %s.%s cannot use the reserved id '%d' for %s", getBenchmarkName(), procName, id, TransactionType.INVALID.getClass().getSimpleName()));
         }
+        if (id < 0) {
+            throw new RuntimeException(String.format("Procedure %s.%s cannot use the negative id '%d'", getBenchmarkName(), procName, id));
+        }
 
         Package pkg = this.getProcedurePackageImpl();
 
@@ -388,6 +446,9 @@ public abstract class BenchmarkModule {
         if (id == TransactionType.INVALID_ID) {
             throw new RuntimeException(String.format("Procedure %s.%s cannot use the reserved id '%d' for %s", getBenchmarkName(), procName, id, TransactionType.INVALID.getClass().getSimpleName()));
         }
+        if (id < 0) {
+            throw new RuntimeException(String.format("Procedure %s.%s cannot use the negative id '%d'", getBenchmarkName(), procName, id));
+        }
 
         Package pkg = this.getProcedurePackageImpl();
 
@@ -406,15 +467,23 @@ public abstract class BenchmarkModule {
      *
      * @return
      */
-    public Map<TransactionType, Procedure> getProcedures() {
+    public synchronized Map<TransactionType, Procedure> getProcedures() {
         Map<TransactionType, Procedure> proc_xref = new HashMap<>();
         TransactionTypes txns = this.workConf.getTransTypes();
 
         if (txns != null) {
-            for (Class<? extends Procedure> procClass : this.supplementalProcedures) {
+            // Supplemental procedures are numbered after the configured
+            // types: ids index the per-type counters and histograms.
+            int nextId = 0;
+            for (TransactionType txn : txns) {
+                nextId = Math.max(nextId, txn.getId() + 1);
+            }
+            List<Class<? extends Procedure>> supplemental = new ArrayList<>(this.supplementalProcedures);
+            supplemental.sort(Comparator.comparing(Class::getName));
+            for (Class<? extends Procedure> procClass : supplemental) {
                 TransactionType txn = txns.getType(procClass);
                 if (txn == null) {
-                    txn = new TransactionType(procClass, procClass.hashCode(), true, 0, 0);
+                    txn = new TransactionType(procClass, nextId++, true, 0, 0);
                     txns.add(txn);
                 }
             }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.catalog.Column;
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+import com.oltpbenchmark.util.SQLUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams generated rows into a single table during the load phase.
+ * <p>
+ * The setters mirror {@link java.sql.PreparedStatement}: parameters are
+ * 1-based and must be set in column order, then {@link #addRow()} queues the
+ * row. Writers send rows to the database on their own as they accumulate;
+ * {@link #flush()} pushes whatever is still pending and must be called
+ * before {@link #close()}, which discards anything that was not flushed.
+ * <p>
+ * Not thread-safe. Each LoaderThread uses its own writer on its own Connection.
+ */
+public interface BulkWriter extends AutoCloseable {
+
+    enum Method {
+        /**
+         * COPY for the database types that speak the PostgreSQL COPY protocol, BATCH for everything else.
+         */
+        AUTO,
+        /**
+         * INSERT statements sent with JDBC addBatch/executeBatch.
+         */
+        BATCH,
+        /**
+         * COPY ... FROM STDIN in text format through the driver's CopyManager.
+         */
+        COPY,
+    }
+
+    /**
+     * Database types that accept COPY ... FROM STDIN through a PostgreSQL-compatible driver.
+     */
+    Set<DatabaseType> COPY_DATABASES = EnumSet.of(DatabaseType.POSTGRES, DatabaseType.YUGABYTE, DatabaseType.COCKROACHDB);
+
+    void setInt(int index, int value) throws SQLException;
+
+    void setLong(int index, long value) throws SQLException;
+
+    void setDouble(int index, double value) throws SQLException;
+
+    void setString(int index, String value) throws SQLException;
+
+    void setDate(int index, Date value) throws SQLException;
+
+    void setTimestamp(int index, Timestamp value) throws SQLException;
+
+    void setBytes(int index, byte[] value) throws SQLException;
+
+    void setNull(int index, int sqlType) throws SQLException;
+
+    void setObject(int index, Object value) throws SQLException;
+
+    /**
+     * Queue the row whose columns were just set.
+     */
+    void addRow() throws SQLException;
+
+    /**
+     * Send every queued row to the database.
+     */
+    void flush() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    /**
+     * Create a writer for every column of a catalog table, in catalog order.
+     */
+    static BulkWriter create(Connection conn, WorkloadConfiguration workConf, Table catalogTbl) throws SQLException {
+        DatabaseType dbType = workConf.getDatabaseType();
+        String insertSql = SQLUtil.getInsertSQL(catalogTbl, dbType);
+
+        boolean escapeNames = dbType.shouldEscapeNames();
+        List<String> columns = new ArrayList<>();
+        for (Column catalogCol : catalogTbl.getColumns()) {
+            columns.add(escapeNames ? catalogCol.getEscapedName() : catalogCol.getName());
+        }
+        String table = escapeNames ? catalogTbl.getEscapedName() : catalogTbl.getName();
+        return create(conn, workConf, insertSql, table, columns);
+    }
+
+    /**
+     * Create a writer for the given columns of a table. The i-th value
+     * expression (e.g., "?" or "?::JSON") is used for the i-th column when
+     * the rows are sent as INSERTs; COPY relies on the column types instead.
+     */
+    static BulkWriter create(Connection conn, WorkloadConfiguration workConf, String table,
+                             List<String> columns, List<String> valueExpressions) throws SQLException {
+        String insertSql = "INSERT INTO " + table + " (" + String.join(",", columns) + ") VALUES ("
+                + String.join(",", valueExpressions) + ")";
+        return create(conn, workConf, insertSql, table, columns);
+    }
+
+    private static BulkWriter create(Connection conn, WorkloadConfiguration workConf, String insertSql,
+                                     String table, List<String> columns) throws SQLException {
+        Method method = workConf.getBulkLoadMethod();
+        if (method == Method.AUTO) {
+            method = COPY_DATABASES.contains(workConf.getDatabaseType()) ? Method.COPY : Method.BATCH;
+        }
+
+        if (method == Method.COPY) {
+            String copySql = CopyBulkWriter.getCopySQL(table, columns);
+            Logger log = LoggerFactory.getLogger(BulkWriter.class);
+            try {
+                BulkWriter writer = CopyBulkWriter.open(conn, copySql, columns.size(), workConf.getBatchSize());
+                if (writer != null) {
+                    return writer;
+                }
+                log.warn("Connection {} does not support COPY, falling back to batched INSERTs",
+                        conn.getClass().getName());
+            } catch (SQLException ex) {
+                log.warn("Unable to start [{}], falling back to batched INSERTs: {}", copySql, ex.getMessage());
+            }
+        }
+        return new BatchBulkWriter(conn.prepareStatement(insertSql), workConf.getBatchSize());
+    }
+}
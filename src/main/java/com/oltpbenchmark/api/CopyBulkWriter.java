@@ -0,0 +1,414 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link BulkWriter} that streams rows through COPY ... FROM STDIN in
+ * PostgreSQL text format.
+ * <p>
+ * Each column is encoded straight into a reusable byte buffer (tab
+ * delimited, \N for NULL, backslash escapes) that is handed to the driver
+ * whenever it fills up, so no per-row String or statement is created.
+ * Integers, dates, timestamps and strings are written digit by digit and
+ * char by char; doubles go through {@link Double#toString(double)}.
+ * <p>
+ * A COPY is ended every batchSize rows, as often as {@link BatchBulkWriter}
+ * executes its batch, so that no COPY holds a whole table. The next row
+ * starts a new one. {@link #flush()} ends the last one.
+ */
+public final class CopyBulkWriter implements BulkWriter {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] NULL = {'\\', 'N'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    /**
+     * The driver side of one COPY ... FROM STDIN operation.
+     */
+    interface CopySink {
+        void write(byte[] buf, int off, int len) throws SQLException;
+
+        long end() throws SQLException;
+
+        void cancel() throws SQLException;
+
+        boolean isActive();
+    }
+
+    @FunctionalInterface
+    interface CopySinkFactory {
+        CopySink open() throws SQLException;
+    }
+
+    private final CopySinkFactory factory;
+    private final int columnCount;
+    private final int batchSize;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final byte[] digits = new byte[20];
+    private int pos = 0;
+    private int column = 0;
+    private CopySink sink = null;
+    private long rows = 0;
+    private int pending = 0;
+
+    CopyBulkWriter(CopySinkFactory factory, int columnCount, int batchSize) {
+        this.factory = factory;
+        this.columnCount = columnCount;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Start a COPY on the connection, or return null if its driver does not
+     * expose a PostgreSQL CopyManager.
+     */
+    static CopyBulkWriter open(Connection conn, String copySql, int columnCount, int batchSize) throws SQLException {
+        CopySinkFactory factory;
+        if (conn.isWrapperFor(org.postgresql.PGConnection.class)) {
+            org.postgresql.copy.CopyManager copyManager = conn.unwrap(org.postgresql.PGConnection.class).getCopyAPI();
+            factory = () -> postgresSink(copyManager.copyIn(copySql));
+        } else if (conn.isWrapperFor(com.yugabyte.PGConnection.class)) {
+            com.yugabyte.copy.CopyManager copyManager = conn.unwrap(com.yugabyte.PGConnection.class).getCopyAPI();
+            factory = () -> yugabyteSink(copyManager.copyIn(copySql));
+        } else {
+            return null;
+        }
+        CopyBulkWriter writer = new CopyBulkWriter(factory, columnCount, batchSize);
+        // Start right away so an unsupported COPY is noticed before any row is generated
+        writer.sink = factory.open();
+        return writer;
+    }
+
+    static String getCopySQL(String table, List<String> columns) {
+        return "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+    }
+
+    /**
+     * @return the number of rows handed to the driver by completed COPYs
+     */
+    public long getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public void setInt(int index, int value) throws SQLException {
+        setLong(index, value);
+    }
+
+    @Override
+    public void setLong(int index, long value) throws SQLException {
+        beginColumn(index);
+        ensure(digits.length);
+        if (value == Long.MIN_VALUE) {
+            put(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int n = digits.length;
+        do {
+            digits[--n] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        System.arraycopy(digits, n, buf, pos, digits.length - n);
+        pos += digits.length - n;
+    }
+
+    @Override
+    public void setDouble(int index, double value) throws SQLException {
+        beginColumn(index);
+        putAscii(Double.toString(value));
+    }
+
+    @Override
+    public void setString(int index, String value) throws SQLException {
+        beginColumn(index);
+        if (value == null) {
+            put(NULL);
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            ensure(4);
+            if (c < 0x80) {
+                switch (c) {
+                    case '\\' -> { buf[pos++] = '\\'; buf[pos++] = '\\'; }
+                    case '\t' -> { buf[pos++] = '\\'; buf[pos++] = 't'; }
+                    case '\n' -> { buf[pos++] = '\\'; buf[pos++] = 'n'; }
+                    case '\r' -> { buf[pos++] = '\\'; buf[pos++] = 'r'; }
+                    default -> buf[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, replaced the same way String.getBytes(UTF_8) does
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    @Override
+    public void setDate(int index, Date value) throws SQLException {
+        beginColumn(index);
+        if (value == null) {
+            put(NULL);
+            return;
+        }
+        LocalDate ld = value.toLocalDate();
+        ensure(10);
+        putDigits(ld.getYear(), 4);
+        buf[pos++] = '-';
+        putDigits(ld.getMonthValue(), 2);
+        buf[pos++] = '-';
+        putDigits(ld.getDayOfMonth(), 2);
+    }
+
+    @Override
+    public void setTimestamp(int index, Timestamp value) throws SQLException {
+        beginColumn(index);
+        if (value == null) {
+            put(NULL);
+            return;
+        }
+        // Local time without an offset, the same wall-clock value setTimestamp() binds
+        LocalDateTime ldt = value.toLocalDateTime();
+        ensure(32);
+        putDigits(ldt.getYear(), 4);
+        buf[pos++] = '-';
+        putDigits(ldt.getMonthValue(), 2);
+        buf[pos++] = '-';
+        putDigits(ldt.getDayOfMonth(), 2);
+        buf[pos++] = ' ';
+        putDigits(ldt.getHour(), 2);
+        buf[pos++] = ':';
+        putDigits(ldt.getMinute(), 2);
+        buf[pos++] = ':';
+        putDigits(ldt.getSecond(), 2);
+        buf[pos++] = '.';
+        putDigits(ldt.getNano(), 9);
+    }
+
+    @Override
+    public void setBytes(int index, byte[] value) throws SQLException {
+        beginColumn(index);
+        if (value == null) {
+            put(NULL);
+            return;
+        }
+        // bytea hex format; the backslash itself has to be escaped for COPY
+        ensure(3);
+        buf[pos++] = '\\';
+        buf[pos++] = '\\';
+        buf[pos++] = 'x';
+        for (byte b : value) {
+            ensure(2);
+            buf[pos++] = HEX[(b >> 4) & 0xF];
+            buf[pos++] = HEX[b & 0xF];
+        }
+    }
+
+    @Override
+    public void setNull(int index, int sqlType) throws SQLException {
+        beginColumn(index);
+        put(NULL);
+    }
+
+    @Override
+    public void setObject(int index, Object value) throws SQLException {
+        if (value == null) {
+            setNull(index, java.sql.Types.NULL);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            setLong(index, ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            setDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal decimal) {
+            beginColumn(index);
+            putAscii(decimal.toPlainString());
+        } else if (value instanceof Boolean bool) {
+            beginColumn(index);
+            ensure(1);
+            buf[pos++] = (byte) (bool ? 't' : 'f');
+        } else if (value instanceof Timestamp timestamp) {
+            setTimestamp(index, timestamp);
+        } else if (value instanceof Date date) {
+            setDate(index, date);
+        } else if (value instanceof byte[] bytes) {
+            setBytes(index, bytes);
+        } else {
+            setString(index, value.toString());
+        }
+    }
+
+    @Override
+    public void addRow() throws SQLException {
+        if (column != columnCount) {
+            throw new SQLException(String.format("COPY row has %d of %d columns set", column, columnCount));
+        }
+        ensure(1);
+        buf[pos++] = '\n';
+        column = 0;
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (column != 0) {
+            throw new SQLException("COPY flushed in the middle of a row");
+        }
+        if (pos == 0 && sink == null) {
+            return;
+        }
+        drain();
+        rows += sink.end();
+        sink = null;
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        pos = 0;
+        column = 0;
+        pending = 0;
+        if (sink != null && sink.isActive()) {
+            sink.cancel();
+        }
+        sink = null;
+    }
+
+    private void beginColumn(int index) throws SQLException {
+        if (index != column + 1) {
+            throw new SQLException(String.format("COPY columns must be set in order: expected %d but got %d", column + 1, index));
+        }
+        if (column++ > 0) {
+            ensure(1);
+            buf[pos++] = '\t';
+        }
+    }
+
+    private void ensure(int bytes) throws SQLException {
+        if (pos + bytes > buf.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws SQLException {
+        if (sink == null) {
+            sink = factory.open();
+        }
+        if (pos > 0) {
+            sink.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private void put(byte[] bytes) throws SQLException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void putAscii(String value) throws SQLException {
+        int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buf[pos++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void putDigits(int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        pos += width;
+    }
+
+    private static CopySink postgresSink(org.postgresql.copy.CopyIn copyIn) {
+        return new CopySink() {
+            @Override
+            public void write(byte[] buf, int off, int len) throws SQLException {
+                copyIn.writeToCopy(buf, off, len);
+            }
+
+            @Override
+            public long end() throws SQLException {
+                return copyIn.endCopy();
+            }
+
+            @Override
+            public void cancel() throws SQLException {
+                copyIn.cancelCopy();
+            }
+
+            @Override
+            public boolean isActive() {
+                return copyIn.isActive();
+            }
+        };
+    }
+
+    private static CopySink yugabyteSink(com.yugabyte.copy.CopyIn copyIn) {
+        return new CopySink() {
+            @Override
+            public void write(byte[] buf, int off, int len) throws SQLException {
+                copyIn.writeToCopy(buf, off, len);
+            }
+
+            @Override
+            public long end() throws SQLException {
+                return copyIn.endCopy();
+            }
+
+            @Override
+            public void cancel() throws SQLException {
+                copyIn.cancelCopy();
+            }
+
+            @Override
+            public boolean isActive() {
+                return copyIn.isActive();
+            }
+        };
+    }
+}
@@ -17,30 +17,55 @@
 
 package com.oltpbenchmark.api;
 
+import com.oltpbenchmark.util.RandomStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 /**
  * A LoaderThread is responsible for loading some portion of a
  * benchmark's database.
  * Note that each LoaderThread has its own database Connection handle.
+ * <p>
+ * A LoaderThread may declare the tables it loads and the tables it depends
+ * on. It is then only started once every LoaderThread that loads one of its
+ * dependencies has finished, instead of waiting on latches in beforeLoad().
  */
 public abstract class LoaderThread implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoaderThread.class);
 
     private final BenchmarkModule benchmarkModule;
+    private final Random rng;
+    private final List<String> tables;
+    private final List<String> dependencies;
 
     public LoaderThread(BenchmarkModule benchmarkModule) {
+        this(benchmarkModule, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * @param tables       the tables this thread loads, or loads a part of
+     * @param dependencies the tables that must be completely loaded before this thread starts
+     */
+    public LoaderThread(BenchmarkModule benchmarkModule, Collection<String> tables, Collection<String> dependencies) {
         this.benchmarkModule = benchmarkModule;
+        this.rng = benchmarkModule.newLoaderRng();
+        this.tables = List.copyOf(tables);
+        this.dependencies = List.copyOf(dependencies);
     }
 
     @Override
     public final void run() {
+        // Loader code reaches its generator through BenchmarkModule.rng()
+        RandomStreams.bind(this.rng);
         beforeLoad();
         try (Connection conn = benchmarkModule.makeConnection()) {
             load(conn);
@@ -65,6 +90,14 @@ public abstract class LoaderThread implements Runnable {
      */
     public abstract void load(Connection conn) throws SQLException, ClassNotFoundException, InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException;
 
+    public final List<String> getTables() {
+        return tables;
+    }
+
+    public final List<String> getTableDependencies() {
+        return dependencies;
+    }
+
     public void beforeLoad() {
         // useful for implementing waits for countdown latches, this ensures we open the connection right before its used to avoid stale connections
     }
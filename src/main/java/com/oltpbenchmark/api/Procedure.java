@@ -18,6 +18,7 @@
 package com.oltpbenchmark.api;
 
 import com.oltpbenchmark.jdbc.AutoIncrementPreparedStatement;
+import com.oltpbenchmark.jdbc.StatementCache;
 import com.oltpbenchmark.types.DatabaseType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +39,7 @@ public abstract class Procedure {
     private final String procName;
     private DatabaseType dbType;
     private Map<String, SQLStmt> name_stmt_xref;
+    private StatementCache statementCache;
 
     /**
      * Constructor
@@ -104,6 +106,13 @@ public abstract class Procedure {
      * @throws SQLException
      */
     public final PreparedStatement getPreparedStatementReturnKeys(Connection conn, SQLStmt stmt, int[] is) throws SQLException {
+        if (this.statementCache != null) {
+            return this.statementCache.get(conn, stmt, is, this::prepareStatement);
+        }
+        return this.prepareStatement(conn, stmt, is);
+    }
+
+    private PreparedStatement prepareStatement(Connection conn, SQLStmt stmt, int[] is) throws SQLException {
 
         PreparedStatement pStmt = null;
 
@@ -125,6 +134,16 @@ public abstract class Procedure {
         return (pStmt);
     }
 
+    /**
+     * Use the given Worker-owned cache for all PreparedStatements of this Procedure.
+     * Statements handed out by the cache go back to it when they are closed.
+     *
+     * @param statementCache the cache, or null to prepare a new statement on every call
+     */
+    final void setStatementCache(StatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+
     /**
      * Fetch the SQL from the dialect map
      *
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.types.TransactionStatus;
+import com.oltpbenchmark.util.Histogram;
+
+import java.util.Arrays;
+
+/**
+ * Per-Worker count of transaction outcomes, by status and transaction type.
+ * <p>
+ * Counts live in one primitive array indexed by the dense
+ * {@link TransactionType#getId()} and the status ordinal, so counting a
+ * transaction neither locks nor allocates. They are folded into the
+ * {@link Histogram}s of {@link com.oltpbenchmark.Results} once, after the
+ * Workers have finished.
+ * <p>
+ * Not thread-safe. Each Worker runs on exactly one thread.
+ */
+public final class TransactionCounters {
+
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private TransactionType[] types = new TransactionType[16];
+    private long[] counts = new long[types.length * STATUSES.length];
+
+    /**
+     * Count one transaction of the given type that finished with the given status.
+     */
+    public void increment(TransactionStatus status, TransactionType type) {
+        int id = type.getId();
+        if (id >= types.length) {
+            grow(id);
+        }
+        types[id] = type;
+        counts[id * STATUSES.length + status.ordinal()]++;
+    }
+
+    private void grow(int id) {
+        int length = Math.max(types.length * 2, id + 1);
+        types = Arrays.copyOf(types, length);
+        counts = Arrays.copyOf(counts, length * STATUSES.length);
+    }
+
+    public long get(TransactionStatus status, TransactionType type) {
+        int id = type.getId();
+        return id < types.length ? counts[id * STATUSES.length + status.ordinal()] : 0;
+    }
+
+    /**
+     * Add the counts for the given status to a histogram keyed by transaction type.
+     */
+    public void addTo(TransactionStatus status, Histogram<TransactionType> histogram) {
+        for (int id = 0; id < types.length; id++) {
+            long count = counts[id * STATUSES.length + status.ordinal()];
+            if (count > 0) {
+                histogram.put(types[id], Math.toIntExact(count));
+            }
+        }
+    }
+}
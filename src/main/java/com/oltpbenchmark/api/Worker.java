@@ -20,10 +20,12 @@ package com.oltpbenchmark.api;
 import com.oltpbenchmark.*;
 import com.oltpbenchmark.api.Procedure.UserAbortException;
 import com.oltpbenchmark.benchmarks.featurebench.FeaturebenchAdditionalResults;
+import com.oltpbenchmark.jdbc.StatementCache;
+import com.oltpbenchmark.metrics.IntervalRecorder;
 import com.oltpbenchmark.types.DatabaseType;
 import com.oltpbenchmark.types.State;
 import com.oltpbenchmark.types.TransactionStatus;
-import com.oltpbenchmark.util.Histogram;
+import com.oltpbenchmark.util.RandomStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.oltpbenchmark.types.State.MEASURE;
@@ -51,17 +54,19 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
     private final AtomicInteger intervalRequests = new AtomicInteger(0);
     private final int id;
     private final T benchmark;
-    private final Histogram<TransactionType> txnUnknown = new Histogram<>();
-    private final Histogram<TransactionType> txnSuccess = new Histogram<>();
-    private final Histogram<TransactionType> txnAbort = new Histogram<>();
-    private final Histogram<TransactionType> txnRetry = new Histogram<>();
-    private final Histogram<TransactionType> txnErrors = new Histogram<>();
-    private final Histogram<TransactionType> txnZeroRows = new Histogram<>();
-    private final Histogram<TransactionType> txtRetryDifferent = new Histogram<>();
+    private final TransactionCounters txnCounters = new TransactionCounters();
     protected Connection conn = null;
+    private final StatementCache statementCache;
+    private final Random rng;
     private WorkloadState workloadState;
     boolean isFeaturebenchWorkload = false;
     private LatencyRecord latencies;
+    private boolean keepLatencySamples;
+    private LatencyHistogramCollector latencyHistogramCollector;
+    private LatencyHistograms latencyHistograms;
+    private IntervalRecorder intervalRecorder;
+    private long latencyHistogramSecond;
+    private int requests;
     private boolean seenDone = false;
     public static final FeaturebenchAdditionalResults featurebenchAdditionalResults = new FeaturebenchAdditionalResults();
 
@@ -69,6 +74,7 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         this.id = id;
         this.benchmark = benchmark;
         this.configuration = this.benchmark.getWorkloadConfiguration();
+        this.rng = this.configuration.getRandomStreams().stream("worker", id);
         this.workloadState = this.configuration.getWorkloadState();
         this.currStatement = null;
         this.transactionTypes = this.configuration.getTransTypes();
@@ -88,10 +94,13 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
             }
         }
 
+        this.statementCache = this.configuration.getStatementCache() ? new StatementCache() : null;
+
         // Generate all the Procedures that we're going to need
         this.procedures.putAll(this.benchmark.getProcedures());
         for (Entry<TransactionType, Procedure> e : this.procedures.entrySet()) {
             Procedure proc = e.getValue();
+            proc.setStatementCache(this.statementCache);
             this.name_procedures.put(e.getKey().getName(), proc);
             this.class_procedures.put(proc.getClass(), proc);
         }
@@ -121,21 +130,36 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
     }
 
     public final Random rng() {
-        return (this.benchmark.rng());
+        return (this.rng);
     }
 
     public final int getRequests() {
-        return latencies.size();
+        return requests;
     }
 
     public final int getAndResetIntervalRequests() {
         return intervalRequests.getAndSet(0);
     }
 
-    public final Iterable<LatencyRecord.Sample> getLatencyRecords() {
+    /**
+     * @return the raw latency samples, empty if only histograms were kept
+     */
+    public final LatencyRecord getLatencyRecords() {
         return latencies;
     }
 
+    /**
+     * Record latencies into histograms merged by the given collector instead
+     * of keeping every sample, unless raw samples were asked for as well.
+     */
+    public final void setLatencyHistogramCollector(LatencyHistogramCollector latencyHistogramCollector) {
+        this.latencyHistogramCollector = latencyHistogramCollector;
+    }
+
+    public final void setIntervalRecorder(IntervalRecorder intervalRecorder) {
+        this.intervalRecorder = intervalRecorder;
+    }
+
     public final Procedure getProcedure(TransactionType type) {
         return (this.procedures.get(type));
     }
@@ -150,35 +174,25 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         return (P) (this.class_procedures.get(procClass));
     }
 
-    public final Histogram<TransactionType> getTransactionSuccessHistogram() {
-        return (this.txnSuccess);
-    }
-
-    public final Histogram<TransactionType> getTransactionUnknownHistogram() {
-        return (this.txnUnknown);
-    }
-
-    public final Histogram<TransactionType> getTransactionRetryHistogram() {
-        return (this.txnRetry);
-    }
-
-    public final Histogram<TransactionType> getTransactionAbortHistogram() {
-        return (this.txnAbort);
+    /**
+     * @return this worker's transaction outcome counts, by status and transaction type
+     */
+    public final TransactionCounters getTransactionCounters() {
+        return (this.txnCounters);
     }
 
-    public final Histogram<TransactionType> getTransactionErrorHistogram() {
-        return (this.txnErrors);
+    public final long getStatementCacheHits() {
+        return this.statementCache != null ? this.statementCache.getHits() : 0;
     }
 
-    public final Histogram<TransactionType> getTransactionRetryDifferentHistogram() {
-        return (this.txtRetryDifferent);
+    public final long getStatementCacheMisses() {
+        return this.statementCache != null ? this.statementCache.getMisses() : 0;
     }
 
-    public final Histogram<TransactionType> getTransactionZeroRowsHistogram() { return (this.txnZeroRows); }
     /**
      * Stop executing the current statement.
      */
-    synchronized public void cancelStatement() {
+    public void cancelStatement() {
         try {
             if (this.currStatement != null) {
                 this.currStatement.cancel();
@@ -192,9 +206,18 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
     public final void run() {
         Thread t = Thread.currentThread();
         t.setName(this.toString());
+        // So that BenchmarkModule.rng() and the featurebench utils use this Worker's stream
+        RandomStreams.bind(this.rng);
 
         // In case of reuse reset the measurements
+        requests = 0;
         latencies = new LatencyRecord(workloadState.getTestStartNs());
+        keepLatencySamples = latencyHistogramCollector == null || configuration.getRawLatencySamples();
+        latencyHistograms = null;
+        if (latencyHistogramCollector != null) {
+            latencyHistograms = new LatencyHistograms(latencyHistogramCollector.getSignificantDigits());
+            latencyHistogramSecond = -1;
+        }
 
         // Invoke initialize callback
         try {
@@ -237,7 +260,7 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
             // Grab some work and update the state, in case it changed while we
             // waited.
 
-            SubmittedProcedure pieceOfWork = workloadState.fetchWork();
+            SubmittedProcedure pieceOfWork = workloadState.fetchWork(this.rng);
 
             prePhase = workloadState.getCurrentPhase();
             if (prePhase == null) {
@@ -284,10 +307,18 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
 
                 long start = System.nanoTime();
 
+                // Rate-limited work carries the time it was scheduled to arrive; anything between that
+                // and now was spent waiting for a free worker. Pre-execution wait is not queue time.
+                long intendedStart = pieceOfWork.getStartTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, preExecutionWaitInMillis));
+
                 doWork(configuration.getDatabaseType(), transactionType);
 
                 long end = System.nanoTime();
 
+                if (intervalRecorder != null) {
+                    intervalRecorder.recordLatency(transactionType, (end - start + 500) / 1000);
+                }
+
                 // PART 4: Record results
 
                 State postState = workloadState.getGlobalState();
@@ -309,7 +340,7 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                             break;
                         }
                         if (preState == MEASURE && postPhase.getId() == prePhase.getId()) {
-                            latencies.addLatency(transactionType.getId(), start, end, this.id, prePhase.getId());
+                            recordLatency(transactionType.getId(), intendedStart, start, end, prePhase.getId());
                             intervalRequests.incrementAndGet();
                         }
                         if (prePhase.isLatencyRun()) {
@@ -345,6 +376,10 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
             workloadState.finishedWork();
         }
 
+        if (latencyHistograms != null) {
+            latencyHistogramCollector.merge(latencyHistogramSecond, latencyHistograms);
+            latencyHistograms = null;
+        }
 
         LOG.debug("worker calling teardown");
 
@@ -382,6 +417,25 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         return type;
     }
 
+    private void recordLatency(int transactionType, long intendedStart, long start, long end, int phaseId) {
+        requests++;
+        if (keepLatencySamples) {
+            latencies.addLatency(transactionType, intendedStart, start, end, this.id, phaseId);
+        }
+        if (latencyHistograms != null) {
+            long second = latencyHistogramCollector.secondOf(start);
+            if (second != latencyHistogramSecond) {
+                // Hand the finished second over and start a new one
+                latencyHistogramCollector.merge(latencyHistogramSecond, latencyHistograms);
+                latencyHistograms = new LatencyHistograms(latencyHistogramCollector.getSignificantDigits());
+                latencyHistogramSecond = second;
+            }
+            long latencyMicroseconds = (end - start + 500) / 1000;
+            long queueMicroseconds = Math.max(0, (start - intendedStart + 500) / 1000);
+            latencyHistograms.record(transactionType, latencyMicroseconds, queueMicroseconds);
+        }
+    }
+
     /**
      * Called in a loop in the thread to exercise the system under test. Each
      * implementing worker should return the TransactionType handle that was
@@ -407,6 +461,7 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                 TransactionStatus status = TransactionStatus.UNKNOWN;
 
                 if (this.conn == null || this.conn.isClosed()) {
+                    clearStatementCache();
                     try {
                         this.conn = this.benchmark.makeConnection();
                         this.conn.setAutoCommit(autoCommitVal);
@@ -470,7 +525,12 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                     }
 
                 } finally {
+                    if (this.statementCache != null) {
+                        this.statementCache.releaseAll();
+                    }
+
                     if (this.configuration.getNewConnectionPerTxn() && this.conn != null && !this.conn.isClosed()) {
+                        clearStatementCache();
                         try {
                             this.conn.close();
                             this.conn = null;
@@ -479,14 +539,9 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                         }
                     }
 
-                    switch (status) {
-                        case UNKNOWN -> this.txnUnknown.put(transactionType);
-                        case SUCCESS -> this.txnSuccess.put(transactionType);
-                        case USER_ABORTED -> this.txnAbort.put(transactionType);
-                        case RETRY -> this.txnRetry.put(transactionType);
-                        case RETRY_DIFFERENT -> this.txtRetryDifferent.put(transactionType);
-                        case ERROR -> this.txnErrors.put(transactionType);
-                        case ZERO_ROWS -> this.txnZeroRows.put(transactionType);
+                    this.txnCounters.increment(status, transactionType);
+                    if (this.intervalRecorder != null) {
+                        this.intervalRecorder.recordStatus(transactionType, status);
                     }
 
                 }
@@ -500,6 +555,15 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
 
     }
 
+    /**
+     * Close all cached PreparedStatements, e.g., because the connection they were prepared on is going away.
+     */
+    protected final void clearStatementCache() {
+        if (this.statementCache != null) {
+            this.statementCache.clear();
+        }
+    }
+
     private boolean isRetryable(SQLException ex) {
 
         String sqlState = ex.getSQLState();
@@ -555,6 +619,7 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
      * Called at the end of the test to do any clean up that may be required.
      */
     public void tearDown() {
+        clearStatementCache();
         if (!this.configuration.getNewConnectionPerTxn() && this.conn != null) {
             try {
                 conn.close();
@@ -38,10 +38,11 @@ public class AuctionMarkBenchmark extends BenchmarkModule {
     private static final Logger LOG = LoggerFactory.getLogger(AuctionMarkBenchmark.class);
 
 
-    private final RandomGenerator rng = new RandomGenerator((int) System.currentTimeMillis());
+    private final RandomGenerator rng;
 
     public AuctionMarkBenchmark(WorkloadConfiguration workConf) {
         super(workConf);
+        this.rng = new RandomGenerator((int) workConf.getRandomStreams().seed("auctionmark", 0));
 
         this.registerSupplementalProcedure(LoadConfig.class);
         this.registerSupplementalProcedure(CloseAuctions.class);
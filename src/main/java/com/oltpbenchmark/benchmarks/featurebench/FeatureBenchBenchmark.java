@@ -26,6 +26,7 @@ import com.oltpbenchmark.benchmarks.featurebench.helpers.UtilToMethod;
 import com.oltpbenchmark.benchmarks.featurebench.procedures.FeatureBench;
 import com.oltpbenchmark.benchmarks.featurebench.workerhelpers.ExecuteRule;
 import com.oltpbenchmark.benchmarks.featurebench.workerhelpers.Query;
+import com.oltpbenchmark.util.RandomStreams;
 import com.oltpbenchmark.util.TimeUtil;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.tree.ImmutableNode;
@@ -35,6 +36,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  *
@@ -55,17 +57,33 @@ public class FeatureBenchBenchmark extends BenchmarkModule {
         List<HierarchicalConfiguration<ImmutableNode>> confExecuteRules = conf.configurationsAt("properties/executeRules[" + workcount + "]/run");
         String workloadName = conf.getString("properties/executeRules[" + workcount + "]/workload") != null ? conf.getString("properties/executeRules[" + workcount + "]/workload") : TimeUtil.getCurrentTimeString();
 
-        for (int i = 0; i < workConf.getTerminals(); ++i) {
-            FeatureBenchWorker worker = new FeatureBenchWorker(this, i,
-                conf.getString("class"),
-                conf.configurationAt("properties"),
-                configToExecuteRules(confExecuteRules, i, workConf.getTerminals()),
-                workloadName);
-            workers.add(worker);
+        // The utils of each worker seed themselves from the generator bound here
+        Random previous = RandomStreams.current();
+        try {
+            // Utils such as PrimaryIntGen split their key range by the global
+            // worker id, so that partitions of a distributed run don't collide
+            int offset = workConf.getTerminalOffset();
+            for (int i = 0; i < workConf.getTerminals(); ++i) {
+                int workerId = offset + i;
+                RandomStreams.bind(workConf.getRandomStreams().stream("featurebench-" + workcount, i));
+                FeatureBenchWorker worker = new FeatureBenchWorker(this, workerId,
+                    conf.getString("class"),
+                    conf.configurationAt("properties"),
+                    configToExecuteRules(confExecuteRules, workerId, workConf.getTotalTerminals()),
+                    workloadName);
+                workers.add(worker);
+            }
+        } finally {
+            RandomStreams.bind(previous);
         }
         return workers;
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
     @Override
     protected List<Worker<? extends BenchmarkModule>> makeWorkersImpl() throws IOException {
         return null;
@@ -104,6 +122,7 @@ public class FeatureBenchBenchmark extends BenchmarkModule {
                 if (confquery.containsKey("count")) {
                     query.setCount(confquery.getInt("count"));
                 }
+                query.setBatch(confquery.getBoolean("batch", false));
 
                 int query_hint_index = querystmt.indexOf("*/");
                 String startWord = querystmt.substring(0, querystmt.indexOf(' ')).trim();
@@ -123,6 +142,7 @@ public class FeatureBenchBenchmark extends BenchmarkModule {
                 if (query_type.equalsIgnoreCase("update")) {
                     query.setUpdateQuery(true);
                 }
+                query.setKind(Query.classify(querystmt, query.isSelectQuery(), query.getCount(), query.isBatch()));
                 List<UtilToMethod> baseutils = new ArrayList<>();
                 for (HierarchicalConfiguration<ImmutableNode> bindingsList : confquery.configurationsAt("bindings")) {
                     if (bindingsList.containsKey("count")) {
@@ -17,16 +17,21 @@
 
 package com.oltpbenchmark.benchmarks.featurebench;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.featurebench.helpers.UtilToMethod;
+import com.oltpbenchmark.benchmarks.featurebench.utils.SequentialUtil;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
@@ -37,7 +42,18 @@ import java.util.*;
 
 public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
     private static final Logger LOG = LoggerFactory.getLogger(FeatureBenchLoader.class);
-    static int numberOfGeneratorFinished = 0;
+    /**
+     * Load rules are split into partitions of at least this many rows, up to
+     * one partition per loader thread, unless the rule sets "partitions".
+     */
+    private static final long MIN_ROWS_PER_PARTITION = 100000;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicInteger numberOfGeneratorFinished = new AtomicInteger();
+    private final AtomicLong totalRowsLoaded = new AtomicLong();
+    private final AtomicLong nextProgressNanos = new AtomicLong();
+    private long totalRows = 0;
+    private long loadStartNanos;
     public String workloadClass = null;
     public HierarchicalConfiguration<ImmutableNode> config = null;
     public YBMicroBenchmark ybm = null;
@@ -65,6 +81,8 @@ public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
                 loadRulesYaml(loaderThreads);
             }
             sizeOfLoadRule = loaderThreads.size();
+            loadStartNanos = System.nanoTime();
+            nextProgressNanos.set(loadStartNanos + PROGRESS_INTERVAL_NANOS);
             return loaderThreads;
         } catch (InstantiationException | IllegalAccessException |
                  InvocationTargetException | NoSuchMethodException |
@@ -119,24 +137,83 @@ public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
                 }
                 columns.add(column);
             }
+            long rows = loadRuleConfig.getLong("rows");
+            int partitions = loadRuleConfig.getInt("partitions", (int) Math.max(1,
+                Math.min(workConf.getLoaderThreads(), rows / MIN_ROWS_PER_PARTITION)));
             if (loadRuleConfig.containsKey("count")) {
                 for (int i = 0; i < loadRuleConfig.getInt("count"); i++) {
                     String[] tableNames = loadRuleConfig.getString("table").split(",");
                     for (String tableName : tableNames) {
-                        loaderThreads.add(new GeneratorYaml((tableName.strip()
-                            + String.valueOf(i + 1)), loadRuleConfig.getLong("rows"), columns));
+                        addPartitions(loaderThreads, tableName.strip() + String.valueOf(i + 1),
+                            rows, partitions, columns);
                     }
                 }
             } else {
                 String[] tableNames = loadRuleConfig.getString("table").split(",");
                 for (String tableName : tableNames) {
-                    loaderThreads.add(new GeneratorYaml(tableName.strip(),
-                        loadRuleConfig.getLong("rows"), columns));
+                    addPartitions(loaderThreads, tableName.strip(), rows, partitions, columns);
                 }
             }
         }
     }
 
+    /**
+     * Split a table into row ranges that are loaded concurrently, each by its
+     * own LoaderThread and connection.
+     */
+    private void addPartitions(ArrayList<LoaderThread> loaderThreads, String tableName, long rows,
+                               int partitions, List<Map<String, Object>> columns) {
+        TableProgress progress = new TableProgress(tableName, rows, partitions);
+        for (int p = 0; p < partitions; p++) {
+            long firstRow = rows * p / partitions;
+            long lastRow = rows * (p + 1) / partitions;
+            loaderThreads.add(new GeneratorYaml(tableName, firstRow, lastRow - firstRow, columns, progress));
+        }
+        totalRows += rows;
+        if (partitions > 1) {
+            LOG.info("Loading {} rows into {} with {} partitions", rows, tableName, partitions);
+        }
+    }
+
+    /**
+     * Called by the loader threads after each batch; logs the aggregate rate
+     * at most once per PROGRESS_INTERVAL_NANOS.
+     */
+    private void rowsLoaded(long rows) {
+        long loaded = totalRowsLoaded.addAndGet(rows);
+        long now = System.nanoTime();
+        long next = nextProgressNanos.get();
+        if (now >= next && nextProgressNanos.compareAndSet(next, now + PROGRESS_INTERVAL_NANOS)) {
+            LOG.info("Loaded {} of {} rows ({} rows/sec)", loaded, totalRows,
+                String.format("%.0f", loaded / ((now - loadStartNanos) / 1e9)));
+        }
+    }
+
+    private static final class TableProgress {
+        private final String tableName;
+        private final long rows;
+        private final AtomicInteger partitionsLeft;
+        private final AtomicLong startNanos = new AtomicLong();
+
+        private TableProgress(String tableName, long rows, int partitions) {
+            this.tableName = tableName;
+            this.rows = rows;
+            this.partitionsLeft = new AtomicInteger(partitions);
+        }
+
+        private void partitionStarted() {
+            startNanos.compareAndSet(0, System.nanoTime());
+        }
+
+        private void partitionDone() {
+            if (partitionsLeft.decrementAndGet() == 0) {
+                double seconds = (System.nanoTime() - startNanos.get()) / 1e9;
+                LOG.info("Loaded {} rows into {} in {} seconds ({} rows/sec)", rows, tableName,
+                    String.format("%.1f", seconds), String.format("%.0f", rows / seconds));
+            }
+        }
+    }
+
     private void afterLoadPhase() {
         try {
             if (ybm.afterLoadImplemented) {
@@ -155,13 +232,19 @@ public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
         private final String tableName;
         private final long numberOfRows;
         private final List<Map<String, Object>> columns;
+        private final TableProgress progress;
+        private boolean lastGenerator = false;
 
-        public GeneratorYaml(String tableName, long numberOfRows,
-                             List<Map<String, Object>> columns) {
+        /**
+         * Load rows [firstRow, firstRow + numberOfRows) of the table.
+         */
+        public GeneratorYaml(String tableName, long firstRow, long numberOfRows,
+                             List<Map<String, Object>> columns, TableProgress progress) {
             super(benchmark);
             this.tableName = tableName;
             this.numberOfRows = numberOfRows;
             this.columns = columns;
+            this.progress = progress;
             for (Map<String, Object> col : columns) {
                 // order is reserved keyword in postgres. While inserting, use "";
                 if (col.get("name").toString().equalsIgnoreCase("order"))
@@ -176,73 +259,65 @@ public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
                     this.baseutils.add(obj);
                 }
             }
+            for (UtilToMethod util : this.baseutils) {
+                if (util.getInstance() instanceof SequentialUtil sequential) {
+                    sequential.skip(firstRow);
+                }
+            }
         }
 
         @Override
         public void load(Connection conn) throws SQLException {
-
-            try {
-                int batchSize = workConf.getBatchSize();
-                StringBuilder columnString = new StringBuilder();
-                StringBuilder valueString = new StringBuilder();
-                for (int index=0; index < this.columns.size(); index++) {
-                    Map<String, Object> columnsDetails = this.columns.get(index);
-                    if (columnsDetails.containsKey("count")) {
-                        for (int i = 0; i < (int) columnsDetails.get("count"); i++) {
-                            columnString.append(columnsDetails.get("name") + String.valueOf(i + 1)).append(",");
-                            if (this.baseutils.get(index).getInstance().getClass().getName().
-                                toLowerCase().indexOf("json") >= 0)
-                                valueString.append("?::JSON,");
-                            else {
-                                valueString.append("?,");
-                            }
-                        }
-                    } else {
-                        columnString.append(columnsDetails.get("name")).append(",");
-                        if (this.baseutils.get(index).getInstance().getClass().getName().
-                            toLowerCase().indexOf("json") >= 0)
-                            valueString.append("?::JSON,");
-                        else {
-                            valueString.append("?,");
-                        }
+            progress.partitionStarted();
+            int batchSize = workConf.getBatchSize();
+            List<String> columnNames = new ArrayList<>();
+            List<String> valueExpressions = new ArrayList<>();
+            for (int index=0; index < this.columns.size(); index++) {
+                Map<String, Object> columnsDetails = this.columns.get(index);
+                String valueExpression = this.baseutils.get(index).getInstance().getClass().getName().
+                    toLowerCase().indexOf("json") >= 0 ? "?::JSON" : "?";
+                if (columnsDetails.containsKey("count")) {
+                    for (int i = 0; i < (int) columnsDetails.get("count"); i++) {
+                        columnNames.add(columnsDetails.get("name") + String.valueOf(i + 1));
+                        valueExpressions.add(valueExpression);
                     }
-
+                } else {
+                    columnNames.add(columnsDetails.get("name").toString());
+                    valueExpressions.add(valueExpression);
                 }
-                columnString.setLength(columnString.length() - 1);
-                valueString.setLength(valueString.length() - 1);
-                String insertStmt = "INSERT INTO " + this.tableName + " (" + columnString
-                    + ") VALUES " + "(" + valueString + ")";
-                PreparedStatement stmt = conn.prepareStatement(insertStmt);
+
+            }
+            try (BulkWriter writer = BulkWriter.create(conn, workConf, this.tableName, columnNames, valueExpressions)) {
                 int currentBatchSize = 0;
                 for (int i = 0; i < this.numberOfRows; i++) {
                     for (int j = 0; j < baseutils.size(); j++) {
-                        stmt.setObject(j + 1, this.baseutils.get(j).get());
+                        this.baseutils.get(j).write(writer, j + 1);
                     }
+                    writer.addRow();
                     currentBatchSize += 1;
-                    stmt.addBatch();
                     if (currentBatchSize == batchSize) {
-                        stmt.executeBatch();
+                        rowsLoaded(currentBatchSize);
                         currentBatchSize = 0;
                     }
                 }
+                writer.flush();
                 if (currentBatchSize != 0) {
-                    stmt.executeBatch();
+                    rowsLoaded(currentBatchSize);
                 }
-                stmt.close();
-
-            } catch (IllegalAccessException |
-                     InvocationTargetException e) {
-                e.printStackTrace();
-            } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException e) {
-                throw new RuntimeException(e);
             }
 
-            numberOfGeneratorFinished += 1;
+            progress.partitionDone();
+            lastGenerator = numberOfGeneratorFinished.incrementAndGet() == sizeOfLoadRule;
+            if (lastGenerator) {
+                double seconds = (System.nanoTime() - loadStartNanos) / 1e9;
+                LOG.info("Loaded {} rows in {} seconds ({} rows/sec)", totalRowsLoaded.get(),
+                    String.format("%.1f", seconds), String.format("%.0f", totalRowsLoaded.get() / seconds));
+            }
         }
 
         @Override
         public void afterLoad() {
-            if (numberOfGeneratorFinished != sizeOfLoadRule) return;
+            if (!lastGenerator) return;
             afterLoadPhaseYaml();
         }
     }
@@ -251,7 +326,8 @@ public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
         if (config.containsKey("afterLoad") && !isAfterLoadDone.get()) {
             try {
                 System.out.println("In after load");
-                Statement stmtObj = benchmark.makeConnection().createStatement();
+                Connection conn = benchmark.makeConnection();
+                Statement stmtObj = conn.createStatement();
                 List<String> afterLoadDDLs = config.getList(String.class, "afterLoad");
                 long afterLoadStart = System.currentTimeMillis();
                 for (String ddl : afterLoadDDLs) {
@@ -260,6 +336,7 @@ public class FeatureBenchLoader extends Loader<FeatureBenchBenchmark> {
                 long afterLoadEnd = System.currentTimeMillis();
                 LOG.info("Elapsed time in after load phase: {} milliseconds", afterLoadEnd - afterLoadStart);
                 stmtObj.close();
+                conn.close();
                 isAfterLoadDone.set(true);
             } catch (SQLException e) {
                 throw new RuntimeException(e);
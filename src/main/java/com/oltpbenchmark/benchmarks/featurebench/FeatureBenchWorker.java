@@ -34,7 +34,6 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -157,13 +156,7 @@ public class FeatureBenchWorker extends Worker<FeatureBenchBenchmark> {
                                 PreparedStatement stmt = conn.prepareStatement((query.isSelectQuery() ? explainSelect : explainUpdate) + querystmt);
                                 List<UtilToMethod> baseUtils = query.getBaseUtils();
                                 for (int j = 0; j < baseUtils.size(); j++) {
-                                    try {
-                                        stmt.setObject(j + 1, baseUtils.get(j).get());
-                                    } catch (SQLException | InvocationTargetException | IllegalAccessException |
-                                             ClassNotFoundException | NoSuchMethodException |
-                                             InstantiationException e) {
-                                        throw new RuntimeException(e);
-                                    }
+                                    baseUtils.get(j).bind(stmt, j + 1);
                                 }
                                 explainDDLMap.put(query.getQuery(), stmt);
                             } catch (SQLException e) {
@@ -247,51 +240,77 @@ public class FeatureBenchWorker extends Worker<FeatureBenchBenchmark> {
     @Override
     protected TransactionStatus executeWork(Connection conn, TransactionType txnType) throws
         UserAbortException, SQLException {
-        try {
-            if (config.containsKey("execute") && config.getBoolean("execute")) {
-                ybm.execute(conn);
-                return TransactionStatus.SUCCESS;
-            } else if (executeRules == null || executeRules.size() == 0) {
-                if (this.configuration.getWorkloadState().getGlobalState() == State.MEASURE) {
-                    ybm.executeOnce(conn, this.getBenchmark());
-                }
-                return TransactionStatus.SUCCESS;
+        if (config.containsKey("execute") && config.getBoolean("execute")) {
+            ybm.execute(conn);
+            return TransactionStatus.SUCCESS;
+        } else if (executeRules == null || executeRules.size() == 0) {
+            if (this.configuration.getWorkloadState().getGlobalState() == State.MEASURE) {
+                ybm.executeOnce(conn, this.getBenchmark());
             }
+            return TransactionStatus.SUCCESS;
+        }
 
-            int executeRuleIndex = txnType.getId() - 1;
-            ExecuteRule executeRule = executeRules.get(executeRuleIndex);
-            boolean zeroRowsTransaction = false;
-            for (Query query : executeRule.getQueries()) {
-                String queryStmt = query.getQuery();
-                PreparedStatement stmt = this.preparedStatementsPerQuery.get(queryStmt);
-                List<UtilToMethod> baseUtils = query.getBaseUtils();
-                int count = query.getCount();
-                for (int i = 0; i < count; i++) {
-                    for (int j = 0; j < baseUtils.size(); j++)
-                        stmt.setObject(j + 1, baseUtils.get(j).get());
-                    if (query.isSelectQuery() || stmt.toString().toUpperCase().contains(" RETURNING ")) {
-                        ResultSet rs = stmt.executeQuery();
-                        int countSet = 0;
-                        while (rs.next()) countSet++;
-                        if (countSet == 0) zeroRowsTransaction = true;
-                    } else {
+        int executeRuleIndex = txnType.getId() - 1;
+        ExecuteRule executeRule = executeRules.get(executeRuleIndex);
+        boolean zeroRowsTransaction = false;
+        for (Query query : executeRule.getQueries()) {
+            String queryStmt = query.getQuery();
+            PreparedStatement stmt = this.preparedStatementsPerQuery.get(queryStmt);
+            List<UtilToMethod> baseUtils = query.getBaseUtils();
+            int count = query.getCount();
+            switch (query.getKind()) {
+                case RESULT_SET -> {
+                    for (int i = 0; i < count; i++) {
+                        for (int j = 0; j < baseUtils.size(); j++)
+                            baseUtils.get(j).bind(stmt, j + 1);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            int countSet = 0;
+                            while (rs.next()) countSet++;
+                            if (countSet == 0) zeroRowsTransaction = true;
+                        }
+                    }
+                }
+                case UPDATE_COUNT -> {
+                    for (int i = 0; i < count; i++) {
+                        for (int j = 0; j < baseUtils.size(); j++)
+                            baseUtils.get(j).bind(stmt, j + 1);
                         int updatedRows = stmt.executeUpdate();
                         if (updatedRows == 0) zeroRowsTransaction = true;
                     }
                 }
+                case BATCHABLE -> {
+                    if (executeBatch(stmt, baseUtils, count)) zeroRowsTransaction = true;
+                }
             }
-            if (zeroRowsTransaction)
-                return TransactionStatus.ZERO_ROWS;
-
-        } catch (ClassNotFoundException | InvocationTargetException
-                 | InstantiationException | IllegalAccessException |
-                 NoSuchMethodException e) {
-            throw new RuntimeException(e);
         }
+        if (zeroRowsTransaction)
+            return TransactionStatus.ZERO_ROWS;
+
         return TransactionStatus.SUCCESS;
     }
 
 
+    /**
+     * Run a query count times as one JDBC batch.
+     *
+     * @return whether any of the statements updated no rows. Drivers that
+     * only report {@link Statement#SUCCESS_NO_INFO} say the statement
+     * succeeded without a row count, which is not taken as zero rows.
+     */
+    static boolean executeBatch(PreparedStatement stmt, List<UtilToMethod> baseUtils, int count) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < baseUtils.size(); j++)
+                baseUtils.get(j).bind(stmt, j + 1);
+            stmt.addBatch();
+        }
+        boolean zeroRows = false;
+        for (int updatedRows : stmt.executeBatch()) {
+            if (updatedRows == Statement.SUCCESS_NO_INFO) continue;
+            if (updatedRows == 0) zeroRows = true;
+        }
+        return zeroRows;
+    }
+
     @Override
     public void tearDown() {
         synchronized (FeatureBenchWorker.class) {
@@ -342,6 +361,7 @@ public class FeatureBenchWorker extends Worker<FeatureBenchBenchmark> {
 
             }
 
+            clearStatementCache();
             if (!this.configuration.getNewConnectionPerTxn() && this.conn != null) {
                 try {
                     conn.close();
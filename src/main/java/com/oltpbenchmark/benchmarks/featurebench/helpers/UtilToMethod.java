@@ -1,9 +1,12 @@
 package com.oltpbenchmark.benchmarks.featurebench.helpers;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.benchmarks.featurebench.utils.BaseUtil;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -52,6 +55,20 @@ public class UtilToMethod {
         }
     }
 
+    /**
+     * Bind the next value as parameter {@code index}, with a typed setter where the util supports one.
+     */
+    public void bind(PreparedStatement stmt, int index) throws SQLException {
+        this.clsInstance.bind(stmt, index);
+    }
+
+    /**
+     * Write the next value as column {@code index} of the writer's current row.
+     */
+    public void write(BulkWriter writer, int index) throws SQLException {
+        this.clsInstance.write(writer, index);
+    }
+
     public Object get() throws InvocationTargetException, IllegalAccessException,
         ClassNotFoundException, NoSuchMethodException, InstantiationException {
         return this.clsInstance.run();
@@ -1,10 +1,38 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.api.BulkWriter;
+
 import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 public interface BaseUtil {
 
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException;
 
+    /**
+     * Generate the next value and bind it as parameter {@code index} of the statement.
+     * Utils that implement one of the {@link TypedUtil} interfaces bind with the
+     * matching primitive setter instead of boxing through {@code setObject}.
+     */
+    default void bind(PreparedStatement stmt, int index) throws SQLException {
+        try {
+            stmt.setObject(index, run());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generate the next value and write it as column {@code index} of the loader's current row.
+     */
+    default void write(BulkWriter writer, int index) throws SQLException {
+        try {
+            writer.setObject(index, run());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
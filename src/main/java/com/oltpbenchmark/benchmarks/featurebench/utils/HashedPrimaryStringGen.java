@@ -17,7 +17,7 @@ String Numeric Primary keys generated :- "0aaaa","1aaaa","2aaaa","3aaaa",......
 Return type :- String (Numeric)
 */
 
-public class HashedPrimaryStringGen implements BaseUtil {
+public class HashedPrimaryStringGen implements SequentialUtil {
     private final int desiredLength;
     private final int startNumber;
     private int currentValue;
@@ -58,6 +58,11 @@ public class HashedPrimaryStringGen implements BaseUtil {
         return baseNumberStr.length() == desiredLength ? baseNumberStr : baseNumberStr.substring(0,desiredLength);
     }
 
+    @Override
+    public void skip(long rows) {
+        currentValue = Math.toIntExact(currentValue + rows);
+    }
+
     @Override
     public Object run() {
         currentValue++;
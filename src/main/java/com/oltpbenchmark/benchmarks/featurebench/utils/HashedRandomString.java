@@ -1,13 +1,16 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
 import com.oltpbenchmark.benchmarks.featurebench.helpers.MD5hash;
+import com.oltpbenchmark.util.RandomStreams;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
-public class HashedRandomString extends Random implements BaseUtil {
+public class HashedRandomString implements TypedUtil.OfString {
+
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
 
     /*
@@ -23,7 +26,6 @@ public class HashedRandomString extends Random implements BaseUtil {
     private int length;
 
     public HashedRandomString(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -36,7 +38,6 @@ public class HashedRandomString extends Random implements BaseUtil {
     }
 
     public HashedRandomString(List<Object> values, int workerId, int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -51,7 +52,7 @@ public class HashedRandomString extends Random implements BaseUtil {
     public int number(int minimum, int maximum) {
 
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
 
         return value;
@@ -60,7 +61,11 @@ public class HashedRandomString extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runString();
+    }
 
+    @Override
+    public String runString() {
         int curr = number(minimumNumber, maximumNumber);
         String md5HASHString= MD5hash.getMd5(String.valueOf(curr));
         int repeatCount = (int) Math.ceil((double) length /32);
@@ -1,12 +1,15 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class OneNumberFromArray implements BaseUtil {
     private List<Integer> listOfIntegers;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     public OneNumberFromArray(List<Object> values) {
         if (values.size() == 0) {
@@ -47,7 +50,7 @@ public class OneNumberFromArray implements BaseUtil {
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException {
         try {
-            return listOfIntegers.get(new Random().nextInt(listOfIntegers.size()));
+            return listOfIntegers.get(random.nextInt(listOfIntegers.size()));
         } catch (Exception ex) {
             ex.printStackTrace();
         }
@@ -1,5 +1,7 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
@@ -15,6 +17,7 @@ Return type (String) :- "abc" OR "hty" OR "iki" OR "pou" OR "qwe" (randomly chos
 
 public class OneStringFromArray implements BaseUtil {
     private List<String> str;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     public OneStringFromArray(List<Object> values) {
         if (values.size() == 0) {
@@ -40,7 +43,7 @@ public class OneStringFromArray implements BaseUtil {
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException {
         try {
-            return str.get(new Random().nextInt(str.size()));
+            return str.get(random.nextInt(str.size()));
         } catch (Exception ex) {
             ex.printStackTrace();
         }
@@ -1,9 +1,11 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 
@@ -20,6 +22,7 @@ Return type (UUID) :- (randomly chosen).
 
 public class OneUUIDFromArray implements BaseUtil {
     private List<String> str;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     public OneUUIDFromArray(List<Object> values) {
         if (values.size() == 0) {
@@ -45,7 +48,7 @@ public class OneUUIDFromArray implements BaseUtil {
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException {
         try {
-            return UUID.fromString(str.get(new Random().nextInt(str.size())));
+            return UUID.fromString(str.get(random.nextInt(str.size())));
         } catch (Exception ex) {
             ex.printStackTrace();
         }
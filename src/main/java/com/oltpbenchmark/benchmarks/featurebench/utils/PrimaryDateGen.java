@@ -15,7 +15,7 @@ Eg:-
 numberofDays:- 10
 Return type : (String):- 03-01-2023
 */
-public class PrimaryDateGen implements BaseUtil {
+public class PrimaryDateGen implements SequentialUtil {
     private final int numberofDays;
 
     private int offSet = 1;
@@ -70,6 +70,11 @@ public class PrimaryDateGen implements BaseUtil {
         return currentPlus++;
     }
 
+    @Override
+    public void skip(long rows) {
+        currentPlus = Math.toIntExact(currentPlus + rows);
+    }
+
     @Override
     public Object run() {
         int vv = findNextHigherValue();
@@ -2,7 +2,7 @@ package com.oltpbenchmark.benchmarks.featurebench.utils;
 
 import java.util.List;
 
-public class PrimaryFloatGen  implements BaseUtil{
+public class PrimaryFloatGen implements SequentialUtil {
 
     private int lowerBound;
     private final int upperBound;
@@ -46,6 +46,11 @@ public class PrimaryFloatGen  implements BaseUtil{
         return lowerBound++;
     }
 
+    @Override
+    public void skip(long rows) {
+        lowerBound = Math.toIntExact(lowerBound + rows);
+    }
+
     @Override
     public Object run() {
         int curr = findNextHigherValue();
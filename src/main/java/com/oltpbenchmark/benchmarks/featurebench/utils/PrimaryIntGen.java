@@ -15,7 +15,7 @@ lowerRange:- 10, upperRange: 20
 Return type (Integer) :- Any value between 10 and 20 including these bounds.
 */
 
-public class PrimaryIntGen implements BaseUtil {
+public class PrimaryIntGen implements TypedUtil.OfInt, SequentialUtil {
     private final int upperRange;
     private final int lowerRange;
     private int currentValue;
@@ -54,8 +54,18 @@ public class PrimaryIntGen implements BaseUtil {
         return currentValue;
     }
 
+    @Override
+    public void skip(long rows) {
+        currentValue = Math.toIntExact(currentValue + rows);
+    }
+
     @Override
     public Object run() {
+        return runInt();
+    }
+
+    @Override
+    public int runInt() {
         if (currentValue >= upperRange) {
             throw new RuntimeException("Out of bounds primary key access");
         }
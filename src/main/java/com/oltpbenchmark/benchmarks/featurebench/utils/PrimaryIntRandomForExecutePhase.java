@@ -1,16 +1,19 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
 
-public class PrimaryIntRandomForExecutePhase implements BaseUtil {
+public class PrimaryIntRandomForExecutePhase implements TypedUtil.OfInt {
     private static final Logger LOG = LoggerFactory.getLogger(PrimaryIntGen.class);
     private final int upperRange;
     private final int lowerRange;
     private int currentValue;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     public PrimaryIntRandomForExecutePhase(List<Object> values, int workerId, int totalWorkers) {
         if (values.size() != 2) {
@@ -35,6 +38,11 @@ public class PrimaryIntRandomForExecutePhase implements BaseUtil {
 
     @Override
     public Object run() {
-        return ThreadLocalRandom.current().nextInt(lowerRange, upperRange);
+        return runInt();
+    }
+
+    @Override
+    public int runInt() {
+        return random.nextInt(lowerRange, upperRange);
     }
 }
\ No newline at end of file
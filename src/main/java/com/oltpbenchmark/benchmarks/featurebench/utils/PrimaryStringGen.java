@@ -14,7 +14,7 @@ String Numeric Primary keys generated :- "0aaaa","1aaaa","2aaaa","3aaaa",......
 Return type :- String (Numeric)
 */
 
-public class PrimaryStringGen implements BaseUtil {
+public class PrimaryStringGen implements SequentialUtil {
     private final int desiredLength;
     private final int startNumber;
     private int currentValue;
@@ -56,6 +56,11 @@ public class PrimaryStringGen implements BaseUtil {
         return baseNumberStr.toString();
     }
 
+    @Override
+    public void skip(long rows) {
+        currentValue = Math.toIntExact(currentValue + rows);
+    }
+
     @Override
     public Object run() {
         currentValue++;
@@ -1,8 +1,10 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
      Description :- returns a random alphabetic string with length in range [minimumlength,maximumlength].
@@ -12,13 +14,14 @@ import java.util.Random;
      Return type:- String (Alphabetic)
 */
 
-public class RandomAString extends Random implements BaseUtil {
+public class RandomAString implements TypedUtil.OfString {
+
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private final int minimumLength;
     private final int maximumLength;
 
     public RandomAString(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -29,7 +32,6 @@ public class RandomAString extends Random implements BaseUtil {
             throw new RuntimeException("Please enter correct bounds for max and min length");
     }
     public RandomAString(List<Object> values,int workerId,int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -47,6 +49,11 @@ public class RandomAString extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runString();
+    }
+
+    @Override
+    public String runString() {
         return randomString(minimumLength, maximumLength, 'a', 26);
     }
 
@@ -63,7 +70,7 @@ public class RandomAString extends Random implements BaseUtil {
     public int number(int minimum, int maximum) {
 
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
 
         return value;
@@ -1,7 +1,9 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
  * Description :- Returns a random boolean value.
@@ -9,28 +11,23 @@ import java.util.Random;
  * Return type:- (boolean) True OR false
  * */
 public class RandomBoolean implements BaseUtil {
-    private Random rd;
+    private final SplittableRandom rd = RandomStreams.newSplittableRandom();
 
     public RandomBoolean(List<Object> values) {
         if (values.size() != 0) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
         }
-        Random rd = new Random();
     }
     public RandomBoolean(List<Object> values,int workerId,int totalWorkers) {
         if (values.size() != 0) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
         }
-        Random rd = new Random();
     }
 
     @Override
     public Object run() {
-        if (this.rd == null) {
-            this.rd = new Random();
-        }
         return rd.nextBoolean();
     }
 }
@@ -1,8 +1,10 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
      Description :- returns a random hexadecimal string with length in range [minimumlength,maximumlength].
@@ -12,13 +14,14 @@ import java.util.Random;
      Return type:- String (Hexadecimal)
 */
 
-public class RandomBytea extends Random implements BaseUtil {
+public class RandomBytea implements TypedUtil.OfBytes {
+
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private final int minimumLength;
     private final int maximumLength;
 
     public RandomBytea(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -29,7 +32,6 @@ public class RandomBytea extends Random implements BaseUtil {
             throw new RuntimeException("Please enter correct bounds for max and min length");
     }
     public RandomBytea(List<Object> values, int workerId, int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -46,19 +48,24 @@ public class RandomBytea extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runBytes();
+    }
+
+    @Override
+    public byte[] runBytes() {
         return randomByteArray(minimumLength, maximumLength);
     }
 
     private byte[] randomByteArray(int minimumLength, int maximumLength) {
         int length = number(minimumLength, maximumLength);
         byte[] bytes = new byte[length];
-        this.nextBytes(bytes);
+        random.nextBytes(bytes);
         return bytes;
     }
 
     public int number(int minimum, int maximum) {
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
         return value;
     }
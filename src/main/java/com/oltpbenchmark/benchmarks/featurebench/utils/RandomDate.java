@@ -1,8 +1,10 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
 Description :- Returns a random date which will lie between given number of days
@@ -19,7 +21,7 @@ public class RandomDate implements BaseUtil {
     private final int numberofDays;
     LocalDate startDate =  LocalDate.of(2023, 1, 1);
 
-    private final Random rd = new Random((int) System.nanoTime());
+    private final SplittableRandom rd = RandomStreams.newSplittableRandom();
 
 
     public RandomDate(List<Object> values) {
@@ -1,13 +1,17 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class RandomDateBtwYears implements BaseUtil {
 
     private final int yearLowerBound;
     private final int yearUpperBound;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
 
     public RandomDateBtwYears(List<Object> values) {
@@ -34,8 +38,8 @@ public class RandomDateBtwYears implements BaseUtil {
         }
     }
 
-    public static int createRandomIntBetween(int start, int end) {
-        return start + (int) Math.round(Math.random() * (end - start));
+    public int createRandomIntBetween(int start, int end) {
+        return start + (int) Math.round(random.nextDouble() * (end - start));
     }
 
     public LocalDate createRandomDate(int startYear, int endYear) {
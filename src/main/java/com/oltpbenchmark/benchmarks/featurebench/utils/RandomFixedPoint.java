@@ -1,8 +1,10 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
      Description :- returns a random double in the range[minimum,maximum] with fixed decimal places.
@@ -17,15 +19,15 @@ import java.util.Random;
      Return type:- (double) :- 4.301
 */
 
-public class RandomFixedPoint extends Random implements BaseUtil {
+public class RandomFixedPoint implements TypedUtil.OfDouble {
+
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private final int decimalPlaces;
     private final double minimum;
     private final double maximum;
 
     public RandomFixedPoint(List<Object> values) {
-
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -38,8 +40,6 @@ public class RandomFixedPoint extends Random implements BaseUtil {
     }
 
     public RandomFixedPoint(List<Object> values, int workerId, int totalWorkers) {
-
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -54,7 +54,7 @@ public class RandomFixedPoint extends Random implements BaseUtil {
     public int number(int minimum, int maximum) {
 
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
 
         return value;
@@ -63,6 +63,11 @@ public class RandomFixedPoint extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runDouble();
+    }
+
+    @Override
+    public double runDouble() {
         int multiplier = 1;
         for (int i = 0; i < decimalPlaces; ++i) {
             multiplier *= 10;
@@ -1,9 +1,13 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+public class RandomFloat implements TypedUtil.OfDouble {
 
-public class RandomFloat  extends Random implements BaseUtil{
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private int lowerBound;
     private final int upperBound;
@@ -12,7 +16,6 @@ public class RandomFloat  extends Random implements BaseUtil{
 
 
     public RandomFloat(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -28,7 +31,6 @@ public class RandomFloat  extends Random implements BaseUtil{
     }
 
     public RandomFloat(List<Object> values,int workerId, int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -48,8 +50,13 @@ public class RandomFloat  extends Random implements BaseUtil{
 
     @Override
     public Object run() {
+        return runDouble();
+    }
+
+    @Override
+    public double runDouble() {
         int range_size = upperBound - lowerBound + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += lowerBound;
         return  Math.round( Math.PI * value * denominator)/(denominator);
     }
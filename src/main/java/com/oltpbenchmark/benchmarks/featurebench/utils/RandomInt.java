@@ -1,8 +1,10 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /*
      Description :- Returns a random int value between minimum and maximum (inclusive).
@@ -15,13 +17,14 @@ import java.util.Random;
      Return type:- (int) :- 7
 */
 
-public class RandomInt extends Random implements BaseUtil {
+public class RandomInt implements TypedUtil.OfInt {
+
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private final int minimum;
     private final int maximum;
 
     public RandomInt(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -33,7 +36,6 @@ public class RandomInt extends Random implements BaseUtil {
     }
 
     public RandomInt(List<Object> values, int workerId, int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -47,8 +49,13 @@ public class RandomInt extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException {
+        return runInt();
+    }
+
+    @Override
+    public int runInt() {
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
         return value;
     }
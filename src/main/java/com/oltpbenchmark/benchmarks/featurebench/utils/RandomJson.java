@@ -1,17 +1,16 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
 
-import org.json.JSONObject;
-
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.List;
 
-public class RandomJson implements BaseUtil {
+public class RandomJson implements TypedUtil.OfString {
 
     protected int fields;
     protected int valueLength;
     protected int nestedness;
+    private final RandomStringAlphabets valueGenerator;
 
     public RandomJson(List<Object> values) {
         if (values.size() < 2) {
@@ -22,6 +21,7 @@ public class RandomJson implements BaseUtil {
         this.valueLength = (int)values.get(1);
         if (values.size() > 2)
             this.nestedness = (int)values.get(2);
+        this.valueGenerator = new RandomStringAlphabets(Collections.singletonList(valueLength));
     }
 
     public RandomJson(List<Object> values, int workerId, int totalWorkers) {
@@ -31,10 +31,23 @@ public class RandomJson implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException {
-        JSONObject outer = new JSONObject();
+        return runString();
+    }
+
+    /**
+     * Builds {"0":"...","1":"...",...} directly. Keys are digits and values are
+     * alphabetic, so nothing needs escaping.
+     */
+    @Override
+    public String runString() {
+        StringBuilder sb = new StringBuilder(2 + fields * (valueLength + 8));
+        sb.append('{');
         for (int i = 0; i < fields; i++) {
-            outer.put(Integer.toString(i), new RandomStringAlphabets(Collections.singletonList(valueLength)).run());
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(i).append("\":\"").append(valueGenerator.runString()).append('"');
         }
-        return outer.toString();
+        return sb.append('}').toString();
     }
 }
@@ -1,8 +1,10 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Returns a random long value between minimum and maximum (inclusive)
@@ -12,13 +14,14 @@ import java.util.Random;
  * @return
  */
 
-public class RandomLong extends Random implements BaseUtil {
+public class RandomLong implements TypedUtil.OfLong {
+
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private long minimum;
     private long maximum;
 
     public RandomLong(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -29,7 +32,6 @@ public class RandomLong extends Random implements BaseUtil {
             throw new RuntimeException("Please enter correct values for min and max");
     }
     public RandomLong(List<Object> values,int workerId,int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -43,12 +45,17 @@ public class RandomLong extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runLong();
+    }
+
+    @Override
+    public long runLong() {
         long range_size = (maximum - minimum) + 1;
 
         // error checking and 2^x checking removed for simplicity.
         long bits, val;
         do {
-            bits = (this.nextLong() << 1) >>> 1;
+            bits = (random.nextLong() << 1) >>> 1;
             val = bits % range_size;
         } while (bits - val + range_size < 0L);
         val += minimum;
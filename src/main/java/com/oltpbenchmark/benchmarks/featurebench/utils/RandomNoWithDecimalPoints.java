@@ -1,13 +1,16 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomNoWithDecimalPoints implements BaseUtil {
 
     private final int lowerBound;
     private final int upperBound;
     private final int decimalPoints;
+    private final SplittableRandom rnd = RandomStreams.newSplittableRandom();
 
     public RandomNoWithDecimalPoints(List<Object> values) {
         if (values.size() != 3) {
@@ -37,7 +40,6 @@ public class RandomNoWithDecimalPoints implements BaseUtil {
 
     @Override
     public Object run() {
-        Random rnd = new Random();
         double randomNo = lowerBound + (upperBound - lowerBound) * rnd.nextDouble();
         return (double) Math.round(randomNo * (Math.pow(10, decimalPoints))) / (Math.pow(10, decimalPoints));
     }
@@ -1,15 +1,18 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+public class RandomNstring implements TypedUtil.OfString {
 
-public class RandomNstring extends Random implements BaseUtil {
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
     private final int minimumLength;
     private final int maximumLength;
 
     public RandomNstring(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -21,7 +24,6 @@ public class RandomNstring extends Random implements BaseUtil {
     }
 
     public RandomNstring(List<Object> values, int workerId, int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 2) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -39,6 +41,11 @@ public class RandomNstring extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runString();
+    }
+
+    @Override
+    public String runString() {
         return randomString(minimumLength, maximumLength, '0', 10);
     }
 
@@ -55,7 +62,7 @@ public class RandomNstring extends Random implements BaseUtil {
     public int number(int minimum, int maximum) {
 
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
 
         return value;
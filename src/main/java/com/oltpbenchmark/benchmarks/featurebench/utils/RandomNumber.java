@@ -1,9 +1,13 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
+
+public class RandomNumber implements TypedUtil.OfInt {
 
-public class RandomNumber implements BaseUtil {
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     final private int minimum;
     final private int maximum;
@@ -27,6 +31,11 @@ public class RandomNumber implements BaseUtil {
 
     @Override
     public Object run() {
-        return ThreadLocalRandom.current().nextInt(minimum, maximum + 1);
+        return runInt();
+    }
+
+    @Override
+    public int runInt() {
+        return random.nextInt(minimum, maximum + 1);
     }
 }
@@ -1,7 +1,9 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
 
 /*
 
@@ -19,6 +21,7 @@ public class RandomPKString implements BaseUtil {
     private final int desiredLength;
     private final int startNumber;
     private final int endNumber;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     private String key;
 
@@ -59,7 +62,7 @@ public class RandomPKString implements BaseUtil {
 
     @Override
     public Object run() {
-        key = numberToIdString(ThreadLocalRandom.current().nextInt(startNumber, endNumber + 1));
+        key = numberToIdString(random.nextInt(startNumber, endNumber + 1));
         return key;
     }
 }
\ No newline at end of file
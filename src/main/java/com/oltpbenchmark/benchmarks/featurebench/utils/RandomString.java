@@ -1,10 +1,14 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+public class RandomString implements TypedUtil.OfString {
 
-public class RandomString extends Random implements BaseUtil {
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
 
     /*
@@ -20,7 +24,6 @@ public class RandomString extends Random implements BaseUtil {
     private int length;
 
     public RandomString(List<Object> values) {
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -33,7 +36,6 @@ public class RandomString extends Random implements BaseUtil {
     }
 
     public RandomString(List<Object> values, int workerId, int totalWorkers) {
-        super((int) System.nanoTime());
         if (values.size() != 3) {
             throw new RuntimeException("Incorrect number of parameters for util function "
                 + this.getClass());
@@ -48,7 +50,7 @@ public class RandomString extends Random implements BaseUtil {
     public int number(int minimum, int maximum) {
 
         int range_size = maximum - minimum + 1;
-        int value = this.nextInt(range_size);
+        int value = random.nextInt(range_size);
         value += minimum;
 
         return value;
@@ -57,6 +59,11 @@ public class RandomString extends Random implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException, NoSuchMethodException,
         InstantiationException, IllegalAccessException {
+        return runString();
+    }
+
+    @Override
+    public String runString() {
         StringBuilder baseNumberStr = new StringBuilder(String.valueOf(number(minimumNumber, maximumNumber)));
         while (baseNumberStr.length() < length) {
             baseNumberStr.append('a');
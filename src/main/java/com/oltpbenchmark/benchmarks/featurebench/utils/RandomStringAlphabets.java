@@ -1,9 +1,16 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.SplittableRandom;
+
+public class RandomStringAlphabets implements TypedUtil.OfString {
 
-public class RandomStringAlphabets implements BaseUtil {
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ" + "abcdefghijklmnopqrstuvxyz";
 
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
     protected int desiredLength;
 
     public RandomStringAlphabets(List<Object> values) {
@@ -27,13 +34,15 @@ public class RandomStringAlphabets implements BaseUtil {
 
     @Override
     public Object run() {
-        String AlphaString = "ABCDEFGHIJKLMNOPQRSTUVWXYZ" + "abcdefghijklmnopqrstuvxyz";
+        return runString();
+    }
 
-        StringBuilder sb = new StringBuilder(desiredLength);
+    @Override
+    public String runString() {
+        byte[] chars = new byte[desiredLength];
         for (int i = 0; i < desiredLength; i++) {
-            int index = (int) (AlphaString.length() * Math.random());
-            sb.append(AlphaString.charAt(index));
+            chars[i] = (byte) ALPHABET.charAt(random.nextInt(ALPHABET.length()));
         }
-        return sb.toString();
+        return new String(chars, StandardCharsets.US_ASCII);
     }
 }
@@ -1,8 +1,13 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.SplittableRandom;
 
-public class RandomStringNumeric implements BaseUtil {
+public class RandomStringNumeric implements TypedUtil.OfString {
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
     protected int desiredLength;
 
     public RandomStringNumeric(List<Object> values) {
@@ -28,13 +33,15 @@ public class RandomStringNumeric implements BaseUtil {
 
     @Override
     public Object run() {
-        String NumericString = "0123456789";
+        return runString();
+    }
 
-        StringBuilder sb = new StringBuilder(desiredLength);
+    @Override
+    public String runString() {
+        byte[] chars = new byte[desiredLength];
         for (int i = 0; i < desiredLength; i++) {
-            int index = (int) (NumericString.length() * Math.random());
-            sb.append(NumericString.charAt(index));
+            chars[i] = (byte) ('0' + random.nextInt(10));
         }
-        return sb.toString();
+        return new String(chars, StandardCharsets.US_ASCII);
     }
 }
@@ -1,17 +1,19 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
-public class RandomTimestamp implements BaseUtil{
+public class RandomTimestamp implements TypedUtil.OfTimestamp {
 
     private final int numberofTimestamp;
 
     long startepoch = 1672511400000L;
 
 
-    private final Random rd = new Random(System.currentTimeMillis());
+    private final SplittableRandom rd = RandomStreams.newSplittableRandom();
 
     public RandomTimestamp(List<Object> values) {
         if (values.isEmpty()) {
@@ -41,6 +43,11 @@ public class RandomTimestamp implements BaseUtil{
     }
     @Override
     public Object run() {
+        return runTimestamp();
+    }
+
+    @Override
+    public Timestamp runTimestamp() {
         int offset = rd.nextInt(numberofTimestamp);
         return new Timestamp(startepoch + offset* 10000000L);
     }
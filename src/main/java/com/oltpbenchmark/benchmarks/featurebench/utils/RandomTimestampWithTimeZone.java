@@ -1,16 +1,18 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomTimestampWithTimeZone implements BaseUtil {
 
     private final int numberOfTimestamps;
-    private final Random rd = new Random(System.currentTimeMillis());
+    private final SplittableRandom rd = RandomStreams.newSplittableRandom();
 
     // Adjust the start epoch as needed for your application
     private final long startEpoch = 1672511400000L;
@@ -1,17 +1,21 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.List;
+import java.util.SplittableRandom;
 
 
 public class RandomTimestampWithTimezoneBetweenDates implements BaseUtil {
 
     private final LocalDateTime startDate;
     private final LocalDateTime endDate;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     public RandomTimestampWithTimezoneBetweenDates(List<Object> values) {
         if (values.size() != 2) {
@@ -49,8 +53,8 @@ public class RandomTimestampWithTimezoneBetweenDates implements BaseUtil {
         }
     }
 
-    public static long createRandomLongBetween(long start, long end) {
-        return start + (long) (Math.random() * (end - start));
+    public long createRandomLongBetween(long start, long end) {
+        return start + (long) (random.nextDouble() * (end - start));
     }
 
     public Timestamp createRandomTimestamp(LocalDateTime startDate, LocalDateTime endDate) {
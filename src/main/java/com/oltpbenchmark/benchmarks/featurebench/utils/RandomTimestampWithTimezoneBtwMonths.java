@@ -1,15 +1,19 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class RandomTimestampWithTimezoneBtwMonths implements BaseUtil {
 
     private final int year;
     private final int monthLowerBound;
     private final int monthUpperBound;
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
 
     public RandomTimestampWithTimezoneBtwMonths(List<Object> values) {
         if (values.size() != 3) {
@@ -37,8 +41,8 @@ public class RandomTimestampWithTimezoneBtwMonths implements BaseUtil {
         }
     }
 
-    public static int createRandomIntBetween(int start, int end) {
-        return start + (int) Math.round(Math.random() * (end - start));
+    public int createRandomIntBetween(int start, int end) {
+        return start + (int) Math.round(random.nextDouble() * (end - start));
     }
 
     public Timestamp createRandomTimestamp(int year, int startMonth, int endMonth) {
@@ -1,10 +1,15 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 public class RandomUUID implements BaseUtil {
 
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
+
     public RandomUUID(List<Object> values) {
         if (values.size() != 0) {
             throw new RuntimeException("Incorrect number of parameters for util function "
@@ -18,7 +23,10 @@ public class RandomUUID implements BaseUtil {
 
     @Override
     public Object run() {
-        return UUID.randomUUID();
+        // Same layout as UUID.randomUUID(), without going through the shared SecureRandom
+        long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
     }
 }
 
@@ -1,11 +1,14 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
 
 
-public class RowRandomBoundedInt implements BaseUtil {
+public class RowRandomBoundedInt implements TypedUtil.OfInt {
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
     private final int lowValue;
     private final int highValue;
 
@@ -36,7 +39,12 @@ public class RowRandomBoundedInt implements BaseUtil {
     @Override
     public Object run() throws ClassNotFoundException, InvocationTargetException,
         NoSuchMethodException, InstantiationException, IllegalAccessException {
-        return ThreadLocalRandom.current().nextInt(lowValue, highValue + 1);
+        return runInt();
+    }
+
+    @Override
+    public int runInt() {
+        return random.nextInt(lowValue, highValue + 1);
     }
 }
 
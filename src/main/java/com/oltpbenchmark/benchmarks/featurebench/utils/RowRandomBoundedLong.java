@@ -1,10 +1,14 @@
 package com.oltpbenchmark.benchmarks.featurebench.utils;
 
 
+import com.oltpbenchmark.util.RandomStreams;
+
 import java.util.List;
+import java.util.SplittableRandom;
 
 
-public class RowRandomBoundedLong implements BaseUtil {
+public class RowRandomBoundedLong implements TypedUtil.OfLong {
+    private final SplittableRandom random = RandomStreams.newSplittableRandom();
     private final long lowValue;
     private final long highValue;
 
@@ -32,6 +36,11 @@ public class RowRandomBoundedLong implements BaseUtil {
 
     @Override
     public Object run() {
-        return lowValue + (long) (Math.random() * (highValue - lowValue));
+        return runLong();
+    }
+
+    @Override
+    public long runLong() {
+        return lowValue + (long) (random.nextDouble() * (highValue - lowValue));
     }
 }
@@ -0,0 +1,15 @@
+package com.oltpbenchmark.benchmarks.featurebench.utils;
+
+/**
+ * Utils whose n-th value depends only on n, like the Primary*Gen key
+ * generators. When a load rule is split into row-range partitions, each
+ * partition skips its own copy ahead to the first row of its range, so the
+ * partitions together produce exactly the values a single thread would.
+ */
+public interface SequentialUtil extends BaseUtil {
+
+    /**
+     * Advance as if {@link #run()} had been called {@code rows} times.
+     */
+    void skip(long rows);
+}
@@ -0,0 +1,104 @@
+package com.oltpbenchmark.benchmarks.featurebench.utils;
+
+import com.oltpbenchmark.api.BulkWriter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Utils that know the type of the values they generate. The worker binds them
+ * with the typed JDBC setter and the loader writes them with the typed
+ * {@link BulkWriter} setter, so no value is boxed per query or per loaded row.
+ * Implementations keep their own non-synchronized PRNG; each worker gets its
+ * own instances, built once when the config is loaded.
+ */
+public final class TypedUtil {
+
+    private TypedUtil() {
+    }
+
+    public interface OfInt extends BaseUtil {
+        int runInt();
+
+        @Override
+        default void bind(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setInt(index, runInt());
+        }
+
+        @Override
+        default void write(BulkWriter writer, int index) throws SQLException {
+            writer.setInt(index, runInt());
+        }
+    }
+
+    public interface OfLong extends BaseUtil {
+        long runLong();
+
+        @Override
+        default void bind(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setLong(index, runLong());
+        }
+
+        @Override
+        default void write(BulkWriter writer, int index) throws SQLException {
+            writer.setLong(index, runLong());
+        }
+    }
+
+    public interface OfDouble extends BaseUtil {
+        double runDouble();
+
+        @Override
+        default void bind(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setDouble(index, runDouble());
+        }
+
+        @Override
+        default void write(BulkWriter writer, int index) throws SQLException {
+            writer.setDouble(index, runDouble());
+        }
+    }
+
+    public interface OfString extends BaseUtil {
+        String runString();
+
+        @Override
+        default void bind(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setString(index, runString());
+        }
+
+        @Override
+        default void write(BulkWriter writer, int index) throws SQLException {
+            writer.setString(index, runString());
+        }
+    }
+
+    public interface OfBytes extends BaseUtil {
+        byte[] runBytes();
+
+        @Override
+        default void bind(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setBytes(index, runBytes());
+        }
+
+        @Override
+        default void write(BulkWriter writer, int index) throws SQLException {
+            writer.setBytes(index, runBytes());
+        }
+    }
+
+    public interface OfTimestamp extends BaseUtil {
+        Timestamp runTimestamp();
+
+        @Override
+        default void bind(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setTimestamp(index, runTimestamp());
+        }
+
+        @Override
+        default void write(BulkWriter writer, int index) throws SQLException {
+            writer.setTimestamp(index, runTimestamp());
+        }
+    }
+}
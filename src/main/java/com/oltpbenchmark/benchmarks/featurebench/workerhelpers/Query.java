@@ -4,16 +4,42 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.oltpbenchmark.benchmarks.featurebench.helpers.UtilToMethod;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class Query {
+
+    /**
+     * How the worker executes a query. Decided once when the workload is
+     * loaded so that executing a query is only binding and running it.
+     */
+    public enum Kind {
+        /**
+         * SELECT, or DML with a RETURNING clause: executeQuery and read all rows
+         */
+        RESULT_SET,
+        /**
+         * DML run once per transaction: executeUpdate
+         */
+        UPDATE_COUNT,
+        /**
+         * DML run count &gt; 1 times per transaction with batch: true: sent as one JDBC batch
+         */
+        BATCHABLE
+    }
+
+    private static final Pattern RETURNING = Pattern.compile("\\sRETURNING\\s", Pattern.CASE_INSENSITIVE);
+
     @JsonProperty("query")
     public String query;
     public int count = 1;
+    public boolean batch = false;
     public List<UtilToMethod> baseUtils;
     public boolean isSelectQuery = false;
 
     public boolean isUpdateQuery = false;
 
+    private Kind kind = Kind.UPDATE_COUNT;
+
     public List<UtilToMethod> getBaseUtils() {
         return baseUtils;
     }
@@ -38,6 +64,14 @@ public class Query {
         this.query = query;
     }
 
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+
     public boolean isSelectQuery() {
         return isSelectQuery;
     }
@@ -53,4 +87,24 @@ public class Query {
     public void setUpdateQuery(boolean updateQuery) {
         isUpdateQuery = updateQuery;
     }
-}
\ No newline at end of file
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Classify a query from its SQL text, whether it is a SELECT, how many
+     * times it runs per transaction and whether the workload asked for it to
+     * be batched. Batching is opt-in, as a batch changes what the server sees.
+     */
+    public static Kind classify(String sql, boolean selectQuery, int count, boolean batch) {
+        if (selectQuery || RETURNING.matcher(sql).find()) {
+            return Kind.RESULT_SET;
+        }
+        return batch && count > 1 ? Kind.BATCHABLE : Kind.UPDATE_COUNT;
+    }
+}
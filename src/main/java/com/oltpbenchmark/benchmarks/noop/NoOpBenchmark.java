@@ -53,6 +53,11 @@ public class NoOpBenchmark extends BenchmarkModule {
         return new NoOpLoader(this);
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
     @Override
     protected Package getProcedurePackageImpl() {
         return NoOp.class.getPackage();
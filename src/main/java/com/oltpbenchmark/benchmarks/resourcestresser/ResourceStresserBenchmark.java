@@ -36,6 +36,11 @@ public class ResourceStresserBenchmark extends BenchmarkModule {
         super(workConf);
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
     @Override
     protected Package getProcedurePackageImpl() {
         return CPU1.class.getPackage();
@@ -45,10 +50,12 @@ public class ResourceStresserBenchmark extends BenchmarkModule {
     protected List<Worker<? extends BenchmarkModule>> makeWorkersImpl() {
         List<Worker<? extends BenchmarkModule>> workers = new ArrayList<>();
         int numKeys = (int) (workConf.getScaleFactor() * ResourceStresserConstants.RECORD_COUNT);
-        int keyRange = numKeys / workConf.getTerminals();
+        int keyRange = numKeys / workConf.getTotalTerminals();
         LOG.warn("numkeys={}, keyRange={}", numKeys, keyRange);
+        // Worker ids pick the key range, so a partitioned run keeps to its own ranges
+        int offset = workConf.getTerminalOffset();
         for (int i = 0; i < workConf.getTerminals(); i++) {
-            workers.add(new ResourceStresserWorker(this, i, numKeys, keyRange));
+            workers.add(new ResourceStresserWorker(this, offset + i, numKeys, keyRange));
         }
 
         return workers;
@@ -31,10 +31,11 @@ import java.util.List;
 
 public class SEATSBenchmark extends BenchmarkModule {
 
-    private final RandomGenerator rng = new RandomGenerator((int) System.currentTimeMillis());
+    private final RandomGenerator rng;
 
     public SEATSBenchmark(WorkloadConfiguration workConf) {
         super(workConf);
+        this.rng = new RandomGenerator((int) workConf.getRandomStreams().seed("seats", 0));
         this.registerSupplementalProcedure(LoadConfig.class);
     }
 
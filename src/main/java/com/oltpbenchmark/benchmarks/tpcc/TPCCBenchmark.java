@@ -38,6 +38,11 @@ public class TPCCBenchmark extends BenchmarkModule {
         super(workConf);
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
     @Override
     protected Package getProcedurePackageImpl() {
         return (NewOrder.class.getPackage());
@@ -71,7 +76,12 @@ public class TPCCBenchmark extends BenchmarkModule {
             numWarehouses = 1;
         }
 
-        int numTerminals = workConf.getTerminals();
+        int numTerminals = workConf.getTotalTerminals();
+
+        // A partitioned run only creates its own range of the terminals, so
+        // that each process drives its own warehouses
+        int firstTerminalId = workConf.getTerminalOffset();
+        int lastTerminalId = firstTerminalId + terminals.length;
 
         // We distribute terminals evenly across the warehouses
         // Eg. if there are 10 terminals across 7 warehouses, they
@@ -96,7 +106,10 @@ public class TPCCBenchmark extends BenchmarkModule {
             }
 
             final double districtsPerTerminal = TPCCConfig.configDistPerWhse / (double) numWarehouseTerminals;
-            for (int terminalId = 0; terminalId < numWarehouseTerminals; terminalId++) {
+            for (int terminalId = 0; terminalId < numWarehouseTerminals; terminalId++, workerId++) {
+                if (workerId < firstTerminalId || workerId >= lastTerminalId) {
+                    continue;
+                }
                 int lowerDistrictId = (int) (terminalId * districtsPerTerminal);
                 int upperDistrictId = (int) ((terminalId + 1) * districtsPerTerminal);
                 if (terminalId + 1 == numWarehouseTerminals) {
@@ -104,8 +117,8 @@ public class TPCCBenchmark extends BenchmarkModule {
                 }
                 lowerDistrictId += 1;
 
-                TPCCWorker terminal = new TPCCWorker(this, workerId++, w_id, lowerDistrictId, upperDistrictId, numWarehouses);
-                terminals[lowerTerminalId + terminalId] = terminal;
+                TPCCWorker terminal = new TPCCWorker(this, workerId, w_id, lowerDistrictId, upperDistrictId, numWarehouses);
+                terminals[workerId - firstTerminalId] = terminal;
             }
 
         }
@@ -18,17 +18,16 @@
 
 package com.oltpbenchmark.benchmarks.tpcc;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.tpcc.pojo.*;
 import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * TPC-C Benchmark Loader
@@ -47,29 +46,26 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
     @Override
     public List<LoaderThread> createLoaderThreads() {
         List<LoaderThread> threads = new ArrayList<>();
-        final CountDownLatch itemLatch = new CountDownLatch(1);
 
         // ITEM
         // This will be invoked first and executed in a single thread.
-        threads.add(new LoaderThread(this.benchmark) {
+        threads.add(new LoaderThread(this.benchmark, List.of(TPCCConstants.TABLENAME_ITEM), List.of()) {
             @Override
             public void load(Connection conn) {
                 loadItems(conn, TPCCConfig.configItemCount);
             }
-
-            @Override
-            public void afterLoad() {
-                itemLatch.countDown();
-            }
         });
 
         // WAREHOUSES
         // We use a separate thread per warehouse. Each thread will load
         // all of the tables that depend on that warehouse. They all have
         // to wait until the ITEM table is loaded first though.
+        final List<String> warehouseTables = List.of(TPCCConstants.TABLENAME_WAREHOUSE, TPCCConstants.TABLENAME_STOCK,
+                TPCCConstants.TABLENAME_DISTRICT, TPCCConstants.TABLENAME_CUSTOMER, TPCCConstants.TABLENAME_HISTORY,
+                TPCCConstants.TABLENAME_OPENORDER, TPCCConstants.TABLENAME_NEWORDER, TPCCConstants.TABLENAME_ORDERLINE);
         for (int w = 1; w <= numWarehouses; w++) {
             final int w_id = w;
-            LoaderThread t = new LoaderThread(this.benchmark) {
+            LoaderThread t = new LoaderThread(this.benchmark, warehouseTables, List.of(TPCCConstants.TABLENAME_ITEM)) {
                 @Override
                 public void load(Connection conn) {
 
@@ -122,41 +118,27 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     loadOrderLines(conn, w_id, TPCCConfig.configDistPerWhse, TPCCConfig.configCustPerDist);
 
                 }
-
-                @Override
-                public void beforeLoad() {
-
-                    // Make sure that we load the ITEM table first
-
-                    try {
-                        itemLatch.await();
-                    } catch (InterruptedException ex) {
-                        throw new RuntimeException(ex);
-                    }
-                }
             };
             threads.add(t);
         }
         return (threads);
     }
 
-    private PreparedStatement getInsertStatement(Connection conn, String tableName) throws SQLException {
+    private BulkWriter getBulkWriter(Connection conn, String tableName) throws SQLException {
         Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        return conn.prepareStatement(sql);
+        return BulkWriter.create(conn, workConf, catalog_tbl);
     }
 
 
     protected void loadItems(Connection conn, int itemCount) {
 
-        try (PreparedStatement itemPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_ITEM)) {
+        try (BulkWriter itemPrepStmt = getBulkWriter(conn, TPCCConstants.TABLENAME_ITEM)) {
 
-            int batchSize = 0;
             for (int i = 1; i <= itemCount; i++) {
 
                 Item item = new Item();
                 item.i_id = i;
-                item.i_name = TPCCUtil.randomStr(TPCCUtil.randomNumber(14, 24, benchmark.rng()));
+                item.i_name = TPCCUtil.randomStr(TPCCUtil.randomNumber(14, 24, benchmark.rng()), benchmark.rng());
                 item.i_price = TPCCUtil.randomNumber(100, 10000, benchmark.rng()) / 100.0;
 
                 // i_data
@@ -164,12 +146,12 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 int len = TPCCUtil.randomNumber(26, 50, benchmark.rng());
                 if (randPct > 10) {
                     // 90% of time i_data isa random string of length [26 .. 50]
-                    item.i_data = TPCCUtil.randomStr(len);
+                    item.i_data = TPCCUtil.randomStr(len, benchmark.rng());
                 } else {
                     // 10% of time i_data has "ORIGINAL" crammed somewhere in
                     // middle
                     int startORIGINAL = TPCCUtil.randomNumber(2, (len - 8), benchmark.rng());
-                    item.i_data = TPCCUtil.randomStr(startORIGINAL - 1) + "ORIGINAL" + TPCCUtil.randomStr(len - startORIGINAL - 9);
+                    item.i_data = TPCCUtil.randomStr(startORIGINAL - 1, benchmark.rng()) + "ORIGINAL" + TPCCUtil.randomStr(len - startORIGINAL - 9, benchmark.rng());
                 }
 
                 item.i_im_id = TPCCUtil.randomNumber(1, 10000, benchmark.rng());
@@ -180,21 +162,10 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 itemPrepStmt.setDouble(idx++, item.i_price);
                 itemPrepStmt.setString(idx++, item.i_data);
                 itemPrepStmt.setLong(idx, item.i_im_id);
-                itemPrepStmt.addBatch();
-                batchSize++;
-
-                if (batchSize == workConf.getBatchSize()) {
-                    itemPrepStmt.executeBatch();
-                    itemPrepStmt.clearBatch();
-                    batchSize = 0;
-                }
+                itemPrepStmt.addRow();
             }
 
-
-            if (batchSize > 0) {
-                itemPrepStmt.executeBatch();
-                itemPrepStmt.clearBatch();
-            }
+            itemPrepStmt.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -205,7 +176,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadWarehouse(Connection conn, int w_id) {
 
-        try (PreparedStatement whsePrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_WAREHOUSE)) {
+        try (BulkWriter whsePrepStmt = getBulkWriter(conn, TPCCConstants.TABLENAME_WAREHOUSE)) {
             Warehouse warehouse = new Warehouse();
 
             warehouse.w_id = w_id;
@@ -213,11 +184,11 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
             // random within [0.0000 .. 0.2000]
             warehouse.w_tax = (TPCCUtil.randomNumber(0, 2000, benchmark.rng())) / 10000.0;
-            warehouse.w_name = TPCCUtil.randomStr(TPCCUtil.randomNumber(6, 10, benchmark.rng()));
-            warehouse.w_street_1 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-            warehouse.w_street_2 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-            warehouse.w_city = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-            warehouse.w_state = TPCCUtil.randomStr(3).toUpperCase();
+            warehouse.w_name = TPCCUtil.randomStr(TPCCUtil.randomNumber(6, 10, benchmark.rng()), benchmark.rng());
+            warehouse.w_street_1 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+            warehouse.w_street_2 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+            warehouse.w_city = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+            warehouse.w_state = TPCCUtil.randomStr(3, benchmark.rng()).toUpperCase();
             warehouse.w_zip = "123456789";
 
             int idx = 1;
@@ -230,7 +201,8 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
             whsePrepStmt.setString(idx++, warehouse.w_city);
             whsePrepStmt.setString(idx++, warehouse.w_state);
             whsePrepStmt.setString(idx, warehouse.w_zip);
-            whsePrepStmt.execute();
+            whsePrepStmt.addRow();
+            whsePrepStmt.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -240,9 +212,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadStock(Connection conn, int w_id, int numItems) {
 
-        int k = 0;
-
-        try (PreparedStatement stockPreparedStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_STOCK)) {
+        try (BulkWriter stockPreparedStatement = getBulkWriter(conn, TPCCConstants.TABLENAME_STOCK)) {
 
             for (int i = 1; i <= numItems; i++) {
                 Stock stock = new Stock();
@@ -259,12 +229,12 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 if (randPct > 10) {
                     // 90% of time i_data isa random string of length [26 ..
                     // 50]
-                    stock.s_data = TPCCUtil.randomStr(len);
+                    stock.s_data = TPCCUtil.randomStr(len, benchmark.rng());
                 } else {
                     // 10% of time i_data has "ORIGINAL" crammed somewhere
                     // in middle
                     int startORIGINAL = TPCCUtil.randomNumber(2, (len - 8), benchmark.rng());
-                    stock.s_data = TPCCUtil.randomStr(startORIGINAL - 1) + "ORIGINAL" + TPCCUtil.randomStr(len - startORIGINAL - 9);
+                    stock.s_data = TPCCUtil.randomStr(startORIGINAL - 1, benchmark.rng()) + "ORIGINAL" + TPCCUtil.randomStr(len - startORIGINAL - 9, benchmark.rng());
                 }
 
                 int idx = 1;
@@ -275,28 +245,20 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 stockPreparedStatement.setLong(idx++, stock.s_order_cnt);
                 stockPreparedStatement.setLong(idx++, stock.s_remote_cnt);
                 stockPreparedStatement.setString(idx++, stock.s_data);
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx, TPCCUtil.randomStr(24));
-                stockPreparedStatement.addBatch();
-
-                k++;
-
-                if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                    stockPreparedStatement.executeBatch();
-                    stockPreparedStatement.clearBatch();
-                }
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.setString(idx, TPCCUtil.randomStr(24, benchmark.rng()));
+                stockPreparedStatement.addRow();
             }
 
-            stockPreparedStatement.executeBatch();
-            stockPreparedStatement.clearBatch();
+            stockPreparedStatement.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -306,7 +268,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadDistricts(Connection conn, int w_id, int districtsPerWarehouse) {
 
-        try (PreparedStatement distPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_DISTRICT)) {
+        try (BulkWriter distPrepStmt = getBulkWriter(conn, TPCCConstants.TABLENAME_DISTRICT)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 District district = new District();
@@ -318,11 +280,11 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 district.d_tax = (float) ((TPCCUtil.randomNumber(0, 2000, benchmark.rng())) / 10000.0);
 
                 district.d_next_o_id = TPCCConfig.configCustPerDist + 1;
-                district.d_name = TPCCUtil.randomStr(TPCCUtil.randomNumber(6, 10, benchmark.rng()));
-                district.d_street_1 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-                district.d_street_2 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-                district.d_city = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-                district.d_state = TPCCUtil.randomStr(3).toUpperCase();
+                district.d_name = TPCCUtil.randomStr(TPCCUtil.randomNumber(6, 10, benchmark.rng()), benchmark.rng());
+                district.d_street_1 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+                district.d_street_2 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+                district.d_city = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+                district.d_state = TPCCUtil.randomStr(3, benchmark.rng()).toUpperCase();
                 district.d_zip = "123456789";
 
                 int idx = 1;
@@ -337,9 +299,11 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 distPrepStmt.setString(idx++, district.d_city);
                 distPrepStmt.setString(idx++, district.d_state);
                 distPrepStmt.setString(idx, district.d_zip);
-                distPrepStmt.executeUpdate();
+                distPrepStmt.addRow();
             }
 
+            distPrepStmt.flush();
+
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
@@ -348,9 +312,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadCustomers(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement custPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_CUSTOMER)) {
+        try (BulkWriter custPrepStmt = getBulkWriter(conn, TPCCConstants.TABLENAME_CUSTOMER)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 for (int c = 1; c <= customersPerDistrict; c++) {
@@ -374,7 +336,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     } else {
                         customer.c_last = TPCCUtil.getNonUniformRandomLastNameForLoad(benchmark.rng());
                     }
-                    customer.c_first = TPCCUtil.randomStr(TPCCUtil.randomNumber(8, 16, benchmark.rng()));
+                    customer.c_first = TPCCUtil.randomStr(TPCCUtil.randomNumber(8, 16, benchmark.rng()), benchmark.rng());
                     customer.c_credit_lim = 50000;
 
                     customer.c_balance = -10;
@@ -382,16 +344,16 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     customer.c_payment_cnt = 1;
                     customer.c_delivery_cnt = 0;
 
-                    customer.c_street_1 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-                    customer.c_street_2 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-                    customer.c_city = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()));
-                    customer.c_state = TPCCUtil.randomStr(3).toUpperCase();
+                    customer.c_street_1 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+                    customer.c_street_2 = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+                    customer.c_city = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 20, benchmark.rng()), benchmark.rng());
+                    customer.c_state = TPCCUtil.randomStr(3, benchmark.rng()).toUpperCase();
                     // TPC-C 4.3.2.7: 4 random digits + "11111"
-                    customer.c_zip = TPCCUtil.randomNStr(4) + "11111";
-                    customer.c_phone = TPCCUtil.randomNStr(16);
+                    customer.c_zip = TPCCUtil.randomNStr(4, benchmark.rng()) + "11111";
+                    customer.c_phone = TPCCUtil.randomNStr(16, benchmark.rng());
                     customer.c_since = sysdate;
                     customer.c_middle = "OE";
-                    customer.c_data = TPCCUtil.randomStr(TPCCUtil.randomNumber(300, 500, benchmark.rng()));
+                    customer.c_data = TPCCUtil.randomStr(TPCCUtil.randomNumber(300, 500, benchmark.rng()), benchmark.rng());
 
                     int idx = 1;
                     custPrepStmt.setLong(idx++, customer.c_w_id);
@@ -415,19 +377,11 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     custPrepStmt.setTimestamp(idx++, customer.c_since);
                     custPrepStmt.setString(idx++, customer.c_middle);
                     custPrepStmt.setString(idx, customer.c_data);
-                    custPrepStmt.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        custPrepStmt.executeBatch();
-                        custPrepStmt.clearBatch();
-                    }
+                    custPrepStmt.addRow();
                 }
             }
 
-            custPrepStmt.executeBatch();
-            custPrepStmt.clearBatch();
+            custPrepStmt.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -437,9 +391,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadCustomerHistory(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement histPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_HISTORY)) {
+        try (BulkWriter histPrepStmt = getBulkWriter(conn, TPCCConstants.TABLENAME_HISTORY)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 for (int c = 1; c <= customersPerDistrict; c++) {
@@ -453,7 +405,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     history.h_w_id = w_id;
                     history.h_date = sysdate;
                     history.h_amount = 10;
-                    history.h_data = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 24, benchmark.rng()));
+                    history.h_data = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 24, benchmark.rng()), benchmark.rng());
 
 
                     int idx = 1;
@@ -465,19 +417,11 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     histPrepStmt.setTimestamp(idx++, history.h_date);
                     histPrepStmt.setDouble(idx++, history.h_amount);
                     histPrepStmt.setString(idx, history.h_data);
-                    histPrepStmt.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        histPrepStmt.executeBatch();
-                        histPrepStmt.clearBatch();
-                    }
+                    histPrepStmt.addRow();
                 }
             }
 
-            histPrepStmt.executeBatch();
-            histPrepStmt.clearBatch();
+            histPrepStmt.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -487,9 +431,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadOpenOrders(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement openOrderStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_OPENORDER)) {
+        try (BulkWriter openOrderStatement = getBulkWriter(conn, TPCCConstants.TABLENAME_OPENORDER)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 // TPC-C 4.3.3.1: o_c_id must be a permutation of [1, 3000]
@@ -540,21 +482,13 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     openOrderStatement.setInt(idx++, oorder.o_ol_cnt);
                     openOrderStatement.setInt(idx++, oorder.o_all_local);
                     openOrderStatement.setTimestamp(idx, oorder.o_entry_d);
-                    openOrderStatement.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        openOrderStatement.executeBatch();
-                        openOrderStatement.clearBatch();
-                    }
+                    openOrderStatement.addRow();
 
                 }
 
             }
 
-            openOrderStatement.executeBatch();
-            openOrderStatement.clearBatch();
+            openOrderStatement.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
@@ -575,9 +509,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadNewOrders(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement newOrderStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_NEWORDER)) {
+        try (BulkWriter newOrderStatement = getBulkWriter(conn, TPCCConstants.TABLENAME_NEWORDER)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
 
@@ -596,22 +528,14 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                         newOrderStatement.setInt(idx++, new_order.no_w_id);
                         newOrderStatement.setInt(idx++, new_order.no_d_id);
                         newOrderStatement.setInt(idx, new_order.no_o_id);
-                        newOrderStatement.addBatch();
-
-                        k++;
-                    }
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        newOrderStatement.executeBatch();
-                        newOrderStatement.clearBatch();
+                        newOrderStatement.addRow();
                     }
 
                 }
 
             }
 
-            newOrderStatement.executeBatch();
-            newOrderStatement.clearBatch();
+            newOrderStatement.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
@@ -621,9 +545,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadOrderLines(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement orderLineStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_ORDERLINE)) {
+        try (BulkWriter orderLineStatement = getBulkWriter(conn, TPCCConstants.TABLENAME_ORDERLINE)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
 
@@ -648,7 +570,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                         }
                         order_line.ol_supply_w_id = order_line.ol_w_id;
                         order_line.ol_quantity = 5;
-                        order_line.ol_dist_info = TPCCUtil.randomStr(24);
+                        order_line.ol_dist_info = TPCCUtil.randomStr(24, benchmark.rng());
 
                         int idx = 1;
                         orderLineStatement.setInt(idx++, order_line.ol_w_id);
@@ -665,14 +587,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                         orderLineStatement.setLong(idx++, order_line.ol_supply_w_id);
                         orderLineStatement.setDouble(idx++, order_line.ol_quantity);
                         orderLineStatement.setString(idx, order_line.ol_dist_info);
-                        orderLineStatement.addBatch();
-
-                        k++;
-
-                        if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                            orderLineStatement.executeBatch();
-                            orderLineStatement.clearBatch();
-                        }
+                        orderLineStatement.addRow();
 
                     }
 
@@ -680,8 +595,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
             }
 
-            orderLineStatement.executeBatch();
-            orderLineStatement.clearBatch();
+            orderLineStatement.flush();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
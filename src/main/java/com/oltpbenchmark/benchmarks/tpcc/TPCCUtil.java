@@ -19,8 +19,8 @@
 package com.oltpbenchmark.benchmarks.tpcc;
 
 import com.oltpbenchmark.benchmarks.tpcc.pojo.Customer;
-import com.oltpbenchmark.util.RandomGenerator;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Random;
@@ -59,22 +59,29 @@ public class TPCCUtil {
         return c;
     }
 
-    private static final RandomGenerator ran = new RandomGenerator(0);
+    /**
+     * @return a random lowercase string of strLen - 1 characters
+     */
+    public static String randomStr(int strLen, Random r) {
+        return randomString(strLen - 1, 'a', 26, r);
+    }
 
-    public static String randomStr(int strLen) {
-        if (strLen > 1) {
-            return ran.astring(strLen - 1, strLen - 1);
-        } else {
-            return "";
-        }
+    /**
+     * @return a random numeric string of stringLength characters
+     */
+    public static String randomNStr(int stringLength, Random r) {
+        return randomString(stringLength, '0', 10, r);
     }
 
-    public static String randomNStr(int stringLength) {
-        if (stringLength > 0) {
-            return ran.nstring(stringLength, stringLength);
-        } else {
+    private static String randomString(int length, char base, int numCharacters, Random r) {
+        if (length <= 0) {
             return "";
         }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte) (base + r.nextInt(numCharacters));
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
     }
 
     public static String getCurrentTime() {
@@ -17,24 +17,30 @@
 
 package com.oltpbenchmark.benchmarks.tpcds;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
+import com.oltpbenchmark.util.DelimitedFileReader;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.oltpbenchmark.benchmarks.tpcds.TPCDSConstants.*;
 
 public class TPCDSLoader extends Loader<TPCDSBenchmark> {
+
+    /**
+     * Files are split into one part per loader thread, but no part is smaller than this.
+     */
+    private static final long MIN_PART_BYTES = 32L * 1024 * 1024;
+
     public TPCDSLoader(TPCDSBenchmark benchmark) {
         super(benchmark);
     }
@@ -42,389 +48,85 @@ public class TPCDSLoader extends Loader<TPCDSBenchmark> {
     @Override
     public List<LoaderThread> createLoaderThreads() {
         List<LoaderThread> threads = new ArrayList<>();
-        final CountDownLatch custAddrLatch = new CountDownLatch(1);
-        final CountDownLatch custDemLatch = new CountDownLatch(1);
-        final CountDownLatch dateLatch = new CountDownLatch(1);
-        final CountDownLatch incomeLatch = new CountDownLatch(1);
-        final CountDownLatch itemLatch = new CountDownLatch(1);
-        final CountDownLatch reasonLatch = new CountDownLatch(1);
-        final CountDownLatch shipModeLatch = new CountDownLatch(1);
-        final CountDownLatch timeLatch = new CountDownLatch(1);
-        final CountDownLatch warehouseLatch = new CountDownLatch(1);
-        final CountDownLatch promoLatch = new CountDownLatch(1);
-        final CountDownLatch householdLatch = new CountDownLatch(1);
-        final CountDownLatch storeLatch = new CountDownLatch(1);
-        final CountDownLatch customerLatch = new CountDownLatch(1);
-        final CountDownLatch webPageLatch = new CountDownLatch(1);
-        final CountDownLatch webSiteLatch = new CountDownLatch(1);
-        final CountDownLatch callCenterLatch = new CountDownLatch(1);
-        final CountDownLatch catalogPageLatch = new CountDownLatch(1);
-        final CountDownLatch storeSalesLatch = new CountDownLatch(1);
-        final CountDownLatch catalogSalesLatch = new CountDownLatch(1);
-        final CountDownLatch webSalesLatch = new CountDownLatch(1);
-
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_CALLCENTER, TPCDSConstants.callcenterTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    callCenterLatch.countDown();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_CATALOGPAGE, TPCDSConstants.catalogpageTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    catalogPageLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_STORE, TPCDSConstants.storeTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    storeLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBSITE, TPCDSConstants.websiteTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    webSiteLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.householddemTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    incomeLatch.await();
-                    householdLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_PROMOTION, TPCDSConstants.promotionTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    itemLatch.await();
-                    promoLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_INVENTORY, TPCDSConstants.inventoryTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    itemLatch.await();
-                    warehouseLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.customerTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    householdLatch.await();
-                    customerLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBPAGE, TPCDSConstants.webpageTypes);
-            }
 
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    customerLatch.await();
-                    webPageLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_STORESALES, TPCDSConstants.storesalesTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    promoLatch.await();
-                    timeLatch.await();
-                    storeLatch.await();
-                    storeSalesLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_STORERETURNS, TPCDSConstants.storereturnsTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    reasonLatch.await();
-                    timeLatch.await();
-                    storeLatch.await();
-                    storeSalesLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBSALES, TPCDSConstants.websalesTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    promoLatch.await();
-                    timeLatch.await();
-                    webPageLatch.await();
-                    shipModeLatch.await();
-                    warehouseLatch.await();
-                    webSiteLatch.await();
-                    webSalesLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBRETURNS, TPCDSConstants.webreturnsTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    reasonLatch.await();
-                    timeLatch.await();
-                    webPageLatch.await();
-                    webSalesLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                loadTable(conn, TPCDSConstants.TABLENAME_CATALOGSALES, TPCDSConstants.catalogsalesTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    callCenterLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    promoLatch.await();
-                    timeLatch.await();
-                    shipModeLatch.await();
-                    warehouseLatch.await();
-                    catalogPageLatch.await();
-                    catalogSalesLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                loadTable(conn, TPCDSConstants.TABLENAME_CATALOGRETURNS, TPCDSConstants.catalogreturnsTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    callCenterLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    reasonLatch.await();
-                    timeLatch.await();
-                    shipModeLatch.await();
-                    warehouseLatch.await();
-                    catalogPageLatch.await();
-                    catalogSalesLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
+        addTableThreads(threads, TABLENAME_DATEDIM, datedimTypes);
+        addTableThreads(threads, TABLENAME_TIMEDIM, timedimTypes);
+        addTableThreads(threads, TABLENAME_INCOMEBAND, incomebandTypes);
+        addTableThreads(threads, TABLENAME_REASON, reasonTypes);
+        addTableThreads(threads, TABLENAME_SHIPMODE, shipmodeTypes);
+        addTableThreads(threads, TABLENAME_WAREHOUSE, warehouseTypes);
+        addTableThreads(threads, TABLENAME_CUSTOMERADDRESS, customeraddressTypes);
+        addTableThreads(threads, TABLENAME_CUSTOMERDEM, customerdemTypes);
+        addTableThreads(threads, TABLENAME_ITEM, itemTypes);
+
+        addTableThreads(threads, TABLENAME_CALLCENTER, callcenterTypes,
+                TABLENAME_DATEDIM);
+        addTableThreads(threads, TABLENAME_CATALOGPAGE, catalogpageTypes,
+                TABLENAME_DATEDIM);
+        addTableThreads(threads, TABLENAME_STORE, storeTypes,
+                TABLENAME_DATEDIM);
+        addTableThreads(threads, TABLENAME_WEBSITE, websiteTypes,
+                TABLENAME_DATEDIM);
+        addTableThreads(threads, TABLENAME_HOUSEHOLDDEM, householddemTypes,
+                TABLENAME_INCOMEBAND);
+        addTableThreads(threads, TABLENAME_PROMOTION, promotionTypes,
+                TABLENAME_DATEDIM, TABLENAME_ITEM);
+        addTableThreads(threads, TABLENAME_INVENTORY, inventoryTypes,
+                TABLENAME_DATEDIM, TABLENAME_ITEM, TABLENAME_WAREHOUSE);
+        addTableThreads(threads, TABLENAME_CUSTOMER, customerTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_HOUSEHOLDDEM);
+        addTableThreads(threads, TABLENAME_WEBPAGE, webpageTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMER);
+
+        addTableThreads(threads, TABLENAME_STORESALES, storesalesTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_CUSTOMER,
+                TABLENAME_HOUSEHOLDDEM, TABLENAME_ITEM, TABLENAME_PROMOTION, TABLENAME_TIMEDIM, TABLENAME_STORE);
+        addTableThreads(threads, TABLENAME_CATALOGSALES, catalogsalesTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_CUSTOMER,
+                TABLENAME_CALLCENTER, TABLENAME_HOUSEHOLDDEM, TABLENAME_ITEM, TABLENAME_PROMOTION, TABLENAME_TIMEDIM,
+                TABLENAME_SHIPMODE, TABLENAME_WAREHOUSE, TABLENAME_CATALOGPAGE);
+        addTableThreads(threads, TABLENAME_WEBSALES, websalesTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_CUSTOMER,
+                TABLENAME_HOUSEHOLDDEM, TABLENAME_ITEM, TABLENAME_PROMOTION, TABLENAME_TIMEDIM, TABLENAME_WEBPAGE,
+                TABLENAME_SHIPMODE, TABLENAME_WAREHOUSE, TABLENAME_WEBSITE);
+
+        addTableThreads(threads, TABLENAME_STORERETURNS, storereturnsTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_CUSTOMER,
+                TABLENAME_HOUSEHOLDDEM, TABLENAME_ITEM, TABLENAME_REASON, TABLENAME_TIMEDIM, TABLENAME_STORE,
+                TABLENAME_STORESALES);
+        addTableThreads(threads, TABLENAME_CATALOGRETURNS, catalogreturnsTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_CUSTOMER,
+                TABLENAME_CALLCENTER, TABLENAME_HOUSEHOLDDEM, TABLENAME_ITEM, TABLENAME_REASON, TABLENAME_TIMEDIM,
+                TABLENAME_SHIPMODE, TABLENAME_WAREHOUSE, TABLENAME_CATALOGPAGE, TABLENAME_CATALOGSALES);
+        addTableThreads(threads, TABLENAME_WEBRETURNS, webreturnsTypes,
+                TABLENAME_DATEDIM, TABLENAME_CUSTOMERADDRESS, TABLENAME_CUSTOMERDEM, TABLENAME_CUSTOMER,
+                TABLENAME_HOUSEHOLDDEM, TABLENAME_ITEM, TABLENAME_REASON, TABLENAME_TIMEDIM, TABLENAME_WEBPAGE,
+                TABLENAME_WEBSALES);
 
         return threads;
     }
 
+    /**
+     * Add one LoaderThread per part of the table's file. Each is started once
+     * every part of the tables it depends on has been loaded.
+     */
+    private void addTableThreads(List<LoaderThread> threads, String tableName, CastTypes[] types,
+            String... dependencies) {
+        final File file = getFile(tableName);
+        final int partCount = getPartCount(file);
+        final TableProgress progress = new TableProgress(tableName, partCount);
+
+        for (int p = 0; p < partCount; p++) {
+            final int part = p;
+            threads.add(new LoaderThread(this.benchmark, List.of(tableName), List.of(dependencies)) {
+                @Override
+                public void load(Connection conn) throws SQLException {
+                    loadPart(conn, tableName, types, file, part, partCount, progress);
+                }
+            });
+        }
+    }
+
     private String getFileFormat() {
         String format = workConf.getXmlConfig().getString("fileFormat");
             /*
@@ -442,143 +144,62 @@ public class TPCDSLoader extends Loader<TPCDSBenchmark> {
         return format;
     }
 
-    private Pattern getFormatPattern(String format) {
-
-        if ("csv".equals(format)) {
-            // The following pattern parses the lines by commas, except for
-            // ones surrounded by double-quotes. Further, strings that are
-            // double-quoted have the quotes dropped (we don't need them).
-            return Pattern.compile("\\s*(\"[^\"]*\"|[^,]*)\\s*,?");
-        } else {
-            return Pattern.compile("[^\\|]*\\|");
-        }
+    private File getFile(String tableName) {
+        return new File(workConf.getDataDir(), tableName + "." + getFileFormat());
     }
 
-    private int getFormatGroup(String format) {
-        if ("csv".equals(format)) {
-            return 1;
-        } else {
-            return 0;
-        }
+    private int getPartCount(File file) {
+        return (int) Math.max(1, Math.min(workConf.getLoaderThreads(), file.length() / MIN_PART_BYTES));
     }
 
-
-    private void loadData(Connection conn, String table, PreparedStatement ps, TPCDSConstants.CastTypes[] types) {
-
-        int batchSize = 0;
-        String line = "";
-        String field = "";
-        String format = getFileFormat();
-        File file = new File(workConf.getDataDir()
-                , table + "."
-                + format);
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            Pattern pattern = getFormatPattern(format);
-            int group = getFormatGroup(format);
-            Matcher matcher;
-            while ((line = br.readLine()) != null) {
-                matcher = pattern.matcher(line);
-                try {
-                    for (int i = 0; i < types.length; ++i) {
-                        matcher.find();
-                        field = matcher.group(group);
-                        if (field.charAt(0) == '\"') {
-                            field = field.substring(1, field.length() - 1);
-                        }
-
-                        if (group == 0) {
-                            field = field.substring(0, field.length() - 1);
-                        }
-                        //LOG.error(field + " " + i);
-                        switch (types[i]) {
-                            case DOUBLE:
-                                if ("".equals(field)) {
-                                    ps.setDouble(i + 1, Double.NaN);
-                                } else {
-                                    ps.setDouble(i + 1, Double.parseDouble(field));
-                                }
-                                break;
-                            case LONG:
-                                if ("".equals(field)) {
-                                    ps.setLong(i + 1, Long.MIN_VALUE);
-                                } else {
-                                    ps.setLong(i + 1, Long.parseLong(field));
-                                }
-                                break;
-                            case STRING:
-                                ps.setString(i + 1, field);
-                                break;
-                            case DATE:
-                                // Four possible formats for date
-                                // yyyy-mm-dd
-                                Pattern isoFmt = Pattern.compile("^\\s*(\\d{4})-(\\d{2})-(\\d{2})\\s*$");
-                                Matcher isoMatcher = isoFmt.matcher(field);
-                                // yyyymmdd
-                                Pattern nondelimFmt = Pattern.compile("^\\s*(\\d{4})(\\d{2})(\\d{2})\\s*$");
-                                Matcher nondelimMatcher = nondelimFmt.matcher(field);
-                                // mm/dd/yyyy
-                                Pattern usaFmt = Pattern.compile("^\\s*(\\d{2})/(\\d{2})/(\\d{4})\\s*$");
-                                Matcher usaMatcher = usaFmt.matcher(field);
-                                // dd.mm.yyyy
-                                Pattern eurFmt = Pattern.compile("^\\s*(\\d{2})\\.(\\d{2})\\.(\\d{4})\\s*$");
-                                Matcher eurMatcher = eurFmt.matcher(field);
-
-                                String isoFmtDate = "";
-                                java.sql.Date fieldAsDate;
-                                if (isoMatcher.find()) {
-                                    isoFmtDate = field;
-                                } else if (nondelimMatcher.find()) {
-                                    isoFmtDate = nondelimMatcher.group(1) + "-"
-                                            + nondelimMatcher.group(2) + "-"
-                                            + nondelimMatcher.group(3);
-                                } else if (usaMatcher.find()) {
-                                    isoFmtDate = usaMatcher.group(3) + "-"
-                                            + usaMatcher.group(1) + "-"
-                                            + usaMatcher.group(2);
-                                } else if (eurMatcher.find()) {
-                                    isoFmtDate = eurMatcher.group(3) + "-"
-                                            + eurMatcher.group(2) + "-"
-                                            + eurMatcher.group(1);
-                                } else if (!"".equals(field)) {
-                                    throw new RuntimeException("Unrecognized date \""
-                                            + field + "\" in file: "
-                                            + file.getPath());
-                                }
-                                fieldAsDate = "".equals(field) ? null : java.sql.Date.valueOf(isoFmtDate);
-                                ps.setDate(i + 1, fieldAsDate, null);
-                                break;
-                            default:
-                                throw new RuntimeException("Unrecognized type for prepared statement");
-                        }
-
+    private void loadPart(Connection conn, String tableName, CastTypes[] types, File file,
+            int part, int partCount, TableProgress progress) throws SQLException {
+        Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
+        DelimitedFileReader.Format format = "csv".equals(getFileFormat())
+                ? DelimitedFileReader.Format.CSV : DelimitedFileReader.Format.PIPE;
+
+        progress.partStarted();
+        long rows = 0;
+        long bytes = 0;
+        try (BulkWriter writer = BulkWriter.create(conn, workConf, catalog_tbl);
+             DelimitedFileReader reader = DelimitedFileReader.open(file.toPath(), format, part, partCount)) {
+            while (reader.next()) {
+                if (reader.getFieldCount() < types.length) {
+                    LOG.error("Invalid line at offset {} of file: {}", reader.getLineOffset(), file.getPath());
+                    continue;
+                }
+                for (int i = 0; i < types.length; ++i) {
+                    // dsdgen writes NULL as an empty field
+                    if (types[i] != CastTypes.STRING && reader.isEmpty(i)) {
+                        writer.setNull(i + 1, types[i] == CastTypes.DATE ? Types.DATE : Types.NUMERIC);
+                        continue;
                     }
-
-                    ps.addBatch();
-                    if (++batchSize % workConf.getBatchSize() == 0) {
-                        ps.executeBatch();
-                        ps.clearBatch();
-                        this.addToTableCount(table, batchSize);
-                        batchSize = 0;
+                    switch (types[i]) {
+                        case DOUBLE:
+                            writer.setDouble(i + 1, reader.getDouble(i));
+                            break;
+                        case LONG:
+                            writer.setLong(i + 1, reader.getLong(i));
+                            break;
+                        case STRING:
+                            writer.setString(i + 1, reader.getString(i));
+                            break;
+                        case DATE:
+                            writer.setDate(i + 1, reader.getDate(i));
+                            break;
+                        default:
+                            throw new RuntimeException("Unrecognized type for prepared statement");
                     }
-
-                } catch (IllegalStateException e) {
-                    // This happens if there wasn't a match against the regex.
-                    LOG.error("Invalid file: {}", file.getPath());
                 }
+                writer.addRow();
+                rows++;
             }
-
-            if (batchSize > 0) {
-                this.addToTableCount(table, batchSize);
-                ps.executeBatch();
-                ps.clearBatch();
-            }
-            ps.close();
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("{} loaded", table);
-            }
+            writer.flush();
+            bytes = reader.getBytesRead();
+            this.addToTableCount(tableName, (int) rows);
 
         } catch (SQLException se) {
-            LOG.error("Failed to load data for TPC-DS: {}, LINE {}", field, line, se);
+            LOG.error("Failed to load data for TPC-DS: {}, part {}/{}", tableName, part + 1, partCount, se);
             se = se.getNextException();
             if (se != null) {
                 LOG.error("{} Cause => {}", se.getClass().getSimpleName(), se.getMessage());
@@ -586,14 +207,37 @@ public class TPCDSLoader extends Loader<TPCDSBenchmark> {
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
         }
+        progress.partDone(rows, bytes);
     }
 
-    private void loadTable(Connection conn, String tableName, TPCDSConstants.CastTypes[] types) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
+    /**
+     * Adds up the parts of a table and logs its ingest rate once the last part is done.
+     */
+    private static final class TableProgress {
+        private final String tableName;
+        private final AtomicInteger remaining;
+        private final AtomicLong startNanos = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        TableProgress(String tableName, int partCount) {
+            this.tableName = tableName;
+            this.remaining = new AtomicInteger(partCount);
+        }
 
+        void partStarted() {
+            this.startNanos.compareAndSet(0, System.nanoTime());
+        }
 
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        PreparedStatement prepStmt = conn.prepareStatement(sql);
-        loadData(conn, tableName, prepStmt, types);
+        void partDone(long rows, long bytes) {
+            this.rows.addAndGet(rows);
+            this.bytes.addAndGet(bytes);
+            if (this.remaining.decrementAndGet() == 0) {
+                double seconds = Math.max(System.nanoTime() - this.startNanos.get(), 1) / 1e9;
+                double mb = this.bytes.get() / (1024.0 * 1024.0);
+                LOG.info(String.format("Loaded %s: %,d rows, %.1f MB in %.2f s (%.1f MB/s, %,.0f rows/s)",
+                        this.tableName, this.rows.get(), mb, seconds, mb / seconds, this.rows.get() / seconds));
+            }
+        }
     }
 }
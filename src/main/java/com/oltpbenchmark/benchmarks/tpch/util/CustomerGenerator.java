@@ -15,10 +15,9 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import java.sql.SQLException;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateRowCount;
@@ -26,7 +25,7 @@ import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateStar
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
-public class CustomerGenerator implements Iterable<List<Object>> {
+public class CustomerGenerator implements TableGenerator {
     public static final int SCALE_BASE = 150_000;
     private static final int ACCOUNT_BALANCE_MIN = -99999;
     private static final int ACCOUNT_BALANCE_MAX = 999999;
@@ -55,7 +54,7 @@ public class CustomerGenerator implements Iterable<List<Object>> {
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new CustomerGeneratorIterator(
                 distributions,
                 textPool,
@@ -64,7 +63,7 @@ public class CustomerGenerator implements Iterable<List<Object>> {
     }
 
     private static class CustomerGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final TPCHRandomAlphaNumeric addressRandom = new TPCHRandomAlphaNumeric(881155353L,
                 ADDRESS_AVERAGE_LENGTH);
         private final RowRandomBoundedInt nationKeyRandom;
@@ -102,8 +101,8 @@ public class CustomerGenerator implements Iterable<List<Object>> {
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> customer = makeCustomer(startIndex + index + 1);
+        public void writeNext(BulkWriter writer) throws SQLException {
+            makeCustomer(writer, startIndex + index + 1);
 
             addressRandom.rowFinished();
             nationKeyRandom.rowFinished();
@@ -113,25 +112,21 @@ public class CustomerGenerator implements Iterable<List<Object>> {
             commentRandom.rowFinished();
 
             index++;
-
-            return customer;
         }
 
-        private List<Object> makeCustomer(long customerKey) {
+        private void makeCustomer(BulkWriter writer, long customerKey) throws SQLException {
             long nationKey = nationKeyRandom.nextValue();
 
-            List<Object> customer = new ArrayList<>();
-
-            customer.add(customerKey);
-            customer.add(String.format(ENGLISH, "Customer#%09d", customerKey));
-            customer.add(addressRandom.nextValue());
-            customer.add(nationKey);
-            customer.add(phoneRandom.nextValue(nationKey));
-            customer.add((double) accountBalanceRandom.nextValue() / 100.);
-            customer.add(marketSegmentRandom.nextValue());
-            customer.add(commentRandom.nextValue());
+            int idx = 1;
 
-            return customer;
+            writer.setLong(idx++, customerKey);
+            writer.setString(idx++, String.format(ENGLISH, "Customer#%09d", customerKey));
+            writer.setString(idx++, addressRandom.nextValue());
+            writer.setLong(idx++, nationKey);
+            writer.setString(idx++, phoneRandom.nextValue(nationKey));
+            writer.setDouble(idx++, (double) accountBalanceRandom.nextValue() / 100.);
+            writer.setString(idx++, marketSegmentRandom.nextValue());
+            writer.setString(idx, commentRandom.nextValue());
         }
     }
 }
@@ -15,10 +15,9 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import java.sql.SQLException;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 import com.oltpbenchmark.util.RowRandomBoundedLong;
 
@@ -33,7 +32,7 @@ import static com.oltpbenchmark.benchmarks.tpch.util.PartSupplierGenerator.selec
 import static java.util.Objects.requireNonNull;
 
 public class LineItemGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     private static final int QUANTITY_MIN = 1;
     private static final int QUANTITY_MAX = 50;
     private static final int TAX_MIN = 0;
@@ -75,7 +74,7 @@ public class LineItemGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new LineItemGeneratorIterator(
                 distributions,
                 textPool,
@@ -85,7 +84,7 @@ public class LineItemGenerator
     }
 
     private static class LineItemGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final RowRandomBoundedInt orderDateRandom = createOrderDateRandom();
         private final RowRandomBoundedInt lineCountRandom = createLineCountRandom();
 
@@ -166,8 +165,8 @@ public class LineItemGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> lineitem = makeLineitem(startIndex + index + 1);
+        public void writeNext(BulkWriter writer) throws SQLException {
+            makeLineitem(writer, startIndex + index + 1);
             lineNumber++;
 
             // advance next row only when all lines for the order have been produced
@@ -200,11 +199,9 @@ public class LineItemGenerator
                 orderDate = orderDateRandom.nextValue();
                 lineNumber = 0;
             }
-
-            return lineitem;
         }
 
-        private List<Object> makeLineitem(long orderIndex) {
+        private void makeLineitem(BulkWriter writer, long orderIndex) throws SQLException {
             long orderKey = makeOrderKey(orderIndex);
 
             int quantity = quantityRandom.nextValue();
@@ -244,25 +241,23 @@ public class LineItemGenerator
             String shipMode = shipModeRandom.nextValue();
             String comment = commentRandom.nextValue();
 
-            List<Object> lineItem = new ArrayList<>();
-            lineItem.add(orderKey);
-            lineItem.add(partKey);
-            lineItem.add(supplierKey);
-            lineItem.add((long) (lineNumber + 1));
-            lineItem.add((double) quantity);
-            lineItem.add((double) extendedPrice / 100.);
-            lineItem.add((double) discount / 100.);
-            lineItem.add((double) tax / 100.);
-            lineItem.add(returnedFlag);
-            lineItem.add(status);
-            lineItem.add(toEpochDate(shipDate));
-            lineItem.add(toEpochDate(commitDate));
-            lineItem.add(toEpochDate(receiptDate));
-            lineItem.add(shipInstructions);
-            lineItem.add(shipMode);
-            lineItem.add(comment);
-
-            return lineItem;
+            int idx = 1;
+            writer.setLong(idx++, orderKey);
+            writer.setLong(idx++, partKey);
+            writer.setLong(idx++, supplierKey);
+            writer.setLong(idx++, (long) (lineNumber + 1));
+            writer.setDouble(idx++, (double) quantity);
+            writer.setDouble(idx++, (double) extendedPrice / 100.);
+            writer.setDouble(idx++, (double) discount / 100.);
+            writer.setDouble(idx++, (double) tax / 100.);
+            writer.setString(idx++, returnedFlag);
+            writer.setString(idx++, status);
+            writer.setDate(idx++, toEpochDate(shipDate));
+            writer.setDate(idx++, toEpochDate(commitDate));
+            writer.setDate(idx++, toEpochDate(receiptDate));
+            writer.setString(idx++, shipInstructions);
+            writer.setString(idx++, shipMode);
+            writer.setString(idx, comment);
         }
     }
 
@@ -15,14 +15,14 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import com.oltpbenchmark.api.BulkWriter;
+
+import java.sql.SQLException;
 
 import static java.util.Objects.requireNonNull;
 
 public class NationGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     private static final int COMMENT_AVERAGE_LENGTH = 72;
 
     private final Distributions distributions;
@@ -38,12 +38,12 @@ public class NationGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new NationGeneratorIterator(distributions.getNations(), textPool);
     }
 
     private static class NationGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final Distribution nations;
         private final TPCHRandomText commentRandom;
 
@@ -60,17 +60,15 @@ public class NationGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> nation = new ArrayList<>();
-            nation.add((long) index);
-            nation.add(nations.getValue(index));
-            nation.add((long) nations.getWeight(index));
-            nation.add(commentRandom.nextValue());
+        public void writeNext(BulkWriter writer) throws SQLException {
+            int idx = 1;
+            writer.setLong(idx++, (long) index);
+            writer.setString(idx++, nations.getValue(index));
+            writer.setLong(idx++, (long) nations.getWeight(index));
+            writer.setString(idx, commentRandom.nextValue());
 
             commentRandom.rowFinished();
             index++;
-
-            return nation;
         }
     }
 }
@@ -15,10 +15,9 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import java.sql.SQLException;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 import com.oltpbenchmark.util.RowRandomBoundedLong;
 
@@ -38,7 +37,7 @@ import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
 public class OrderGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     public static final int SCALE_BASE = 1_500_000;
 
     // portion with have no orders
@@ -77,7 +76,7 @@ public class OrderGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new OrderGeneratorIterator(
                 distributions,
                 textPool,
@@ -87,7 +86,7 @@ public class OrderGenerator
     }
 
     private static class OrderGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final RowRandomBoundedInt orderDateRandom = createOrderDateRandom();
         private final RowRandomBoundedInt lineCountRandom = createLineCountRandom();
         private final RowRandomBoundedLong customerKeyRandom;
@@ -144,8 +143,8 @@ public class OrderGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> order = makeOrder(startIndex + index + 1);
+        public void writeNext(BulkWriter writer) throws SQLException {
+            makeOrder(writer, startIndex + index + 1);
 
             orderDateRandom.rowFinished();
             lineCountRandom.rowFinished();
@@ -161,11 +160,9 @@ public class OrderGenerator
             linePartKeyRandom.rowFinished();
 
             index++;
-
-            return order;
         }
 
-        private List<Object> makeOrder(long index) {
+        private void makeOrder(BulkWriter writer, long index) throws SQLException {
             long orderKey = makeOrderKey(index);
 
             int orderDate = orderDateRandom.nextValue();
@@ -211,18 +208,16 @@ public class OrderGenerator
                 orderStatus = 'O';
             }
 
-            List<Object> order = new ArrayList<>();
-            order.add(orderKey);
-            order.add(customerKey);
-            order.add(Character.valueOf(orderStatus).toString());
-            order.add((double) totalPrice / 100.);
-            order.add(toEpochDate(orderDate));
-            order.add(orderPriorityRandom.nextValue());
-            order.add(String.format(ENGLISH, "Clerk#%09d", clerkRandom.nextValue()));
-            order.add(0L);
-            order.add(commentRandom.nextValue());
-
-            return order;
+            int idx = 1;
+            writer.setLong(idx++, orderKey);
+            writer.setLong(idx++, customerKey);
+            writer.setString(idx++, String.valueOf(orderStatus));
+            writer.setDouble(idx++, (double) totalPrice / 100.);
+            writer.setDate(idx++, toEpochDate(orderDate));
+            writer.setString(idx++, orderPriorityRandom.nextValue());
+            writer.setString(idx++, String.format(ENGLISH, "Clerk#%09d", clerkRandom.nextValue()));
+            writer.setLong(idx++, 0L);
+            writer.setString(idx, commentRandom.nextValue());
         }
     }
 
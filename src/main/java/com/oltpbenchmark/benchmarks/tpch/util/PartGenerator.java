@@ -15,10 +15,9 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import java.sql.SQLException;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateRowCount;
@@ -27,7 +26,7 @@ import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
 public class PartGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     public static final int SCALE_BASE = 200_000;
 
     private static final int NAME_WORDS = 5;
@@ -60,7 +59,7 @@ public class PartGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new PartGeneratorIterator(
                 distributions,
                 textPool,
@@ -69,7 +68,7 @@ public class PartGenerator
     }
 
     private static class PartGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final TPCHRandomStringSequence nameRandom;
         private final RowRandomBoundedInt manufacturerRandom;
         private final RowRandomBoundedInt brandRandom;
@@ -110,8 +109,8 @@ public class PartGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> part = makePart(startIndex + index + 1);
+        public void writeNext(BulkWriter writer) throws SQLException {
+            makePart(writer, startIndex + index + 1);
 
             nameRandom.rowFinished();
             manufacturerRandom.rowFinished();
@@ -122,28 +121,24 @@ public class PartGenerator
             commentRandom.rowFinished();
 
             index++;
-
-            return part;
         }
 
-        private List<Object> makePart(long partKey) {
+        private void makePart(BulkWriter writer, long partKey) throws SQLException {
             String name = nameRandom.nextValue();
 
             int manufacturer = manufacturerRandom.nextValue();
             int brand = manufacturer * 10 + brandRandom.nextValue();
 
-            List<Object> part = new ArrayList<Object>();
-            part.add(partKey);
-            part.add(name);
-            part.add(String.format(ENGLISH, "Manufacturer#%d", manufacturer));
-            part.add(String.format(ENGLISH, "Brand#%d", brand));
-            part.add(typeRandom.nextValue());
-            part.add((long) sizeRandom.nextValue());
-            part.add(containerRandom.nextValue());
-            part.add((double) calculatePartPrice(partKey) / 100.);
-            part.add(commentRandom.nextValue());
-
-            return part;
+            int idx = 1;
+            writer.setLong(idx++, partKey);
+            writer.setString(idx++, name);
+            writer.setString(idx++, String.format(ENGLISH, "Manufacturer#%d", manufacturer));
+            writer.setString(idx++, String.format(ENGLISH, "Brand#%d", brand));
+            writer.setString(idx++, typeRandom.nextValue());
+            writer.setLong(idx++, (long) sizeRandom.nextValue());
+            writer.setString(idx++, containerRandom.nextValue());
+            writer.setDouble(idx++, (double) calculatePartPrice(partKey) / 100.);
+            writer.setString(idx, commentRandom.nextValue());
         }
     }
 
@@ -15,10 +15,9 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import java.sql.SQLException;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateRowCount;
@@ -26,7 +25,7 @@ import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateStar
 import static java.util.Objects.requireNonNull;
 
 public class PartSupplierGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     private static final int SUPPLIERS_PER_PART = 4;
 
     private static final int AVAILABLE_QUANTITY_MIN = 1;
@@ -56,7 +55,7 @@ public class PartSupplierGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new PartSupplierGeneratorIterator(
                 textPool,
                 scaleFactor,
@@ -65,7 +64,7 @@ public class PartSupplierGenerator
     }
 
     private static class PartSupplierGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final double scaleFactor;
         private final long startIndex;
         private final long rowCount;
@@ -99,8 +98,8 @@ public class PartSupplierGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> partSupplier = makePartSupplier(startIndex + index + 1);
+        public void writeNext(BulkWriter writer) throws SQLException {
+            makePartSupplier(writer, startIndex + index + 1);
             partSupplierNumber++;
 
             // advance next row only when all lines for the order have been produced
@@ -112,18 +111,15 @@ public class PartSupplierGenerator
                 index++;
                 partSupplierNumber = 0;
             }
-
-            return partSupplier;
         }
 
-        private List<Object> makePartSupplier(long partKey) {
-            List<Object> partSupplier = new ArrayList<>();
-            partSupplier.add(partKey);
-            partSupplier.add(selectPartSupplier(partKey, partSupplierNumber, scaleFactor));
-            partSupplier.add((long) availableQuantityRandom.nextValue());
-            partSupplier.add((double) supplyCostRandom.nextValue() / 100.);
-            partSupplier.add(commentRandom.nextValue());
-            return partSupplier;
+        private void makePartSupplier(BulkWriter writer, long partKey) throws SQLException {
+            int idx = 1;
+            writer.setLong(idx++, partKey);
+            writer.setLong(idx++, selectPartSupplier(partKey, partSupplierNumber, scaleFactor));
+            writer.setLong(idx++, (long) availableQuantityRandom.nextValue());
+            writer.setDouble(idx++, (double) supplyCostRandom.nextValue() / 100.);
+            writer.setString(idx, commentRandom.nextValue());
         }
     }
 
@@ -15,14 +15,14 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import com.oltpbenchmark.api.BulkWriter;
+
+import java.sql.SQLException;
 
 import static java.util.Objects.requireNonNull;
 
 public class RegionGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     private static final int COMMENT_AVERAGE_LENGTH = 72;
 
     private final Distributions distributions;
@@ -38,12 +38,12 @@ public class RegionGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new RegionGeneratorIterator(distributions.getRegions(), textPool);
     }
 
     private static class RegionGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final Distribution regions;
         private final TPCHRandomText commentRandom;
 
@@ -60,16 +60,14 @@ public class RegionGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> region = new ArrayList<>();
-            region.add((long) index);
-            region.add(regions.getValue(index));
-            region.add(commentRandom.nextValue());
+        public void writeNext(BulkWriter writer) throws SQLException {
+            int idx = 1;
+            writer.setLong(idx++, (long) index);
+            writer.setString(idx++, regions.getValue(index));
+            writer.setString(idx, commentRandom.nextValue());
 
             commentRandom.rowFinished();
             index++;
-
-            return region;
         }
     }
 }
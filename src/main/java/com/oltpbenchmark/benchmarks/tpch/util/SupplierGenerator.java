@@ -15,10 +15,9 @@
  */
 package com.oltpbenchmark.benchmarks.tpch.util;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
+import java.sql.SQLException;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 import com.oltpbenchmark.util.RowRandomInt;
 
@@ -28,7 +27,7 @@ import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
 public class SupplierGenerator
-        implements Iterable<List<Object>> {
+        implements TableGenerator {
     public static final int SCALE_BASE = 10_000;
 
     private static final int ACCOUNT_BALANCE_MIN = -99999;
@@ -65,7 +64,7 @@ public class SupplierGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public RowIterator iterator() {
         return new SupplierGeneratorIterator(
                 distributions,
                 textPool,
@@ -74,7 +73,7 @@ public class SupplierGenerator
     }
 
     private static class SupplierGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements RowIterator {
         private final TPCHRandomAlphaNumeric addressRandom = new TPCHRandomAlphaNumeric(706178559L,
                 ADDRESS_AVERAGE_LENGTH);
         private final RowRandomBoundedInt nationKeyRandom;
@@ -117,8 +116,8 @@ public class SupplierGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> supplier = makeSupplier(startIndex + index + 1);
+        public void writeNext(BulkWriter writer) throws SQLException {
+            makeSupplier(writer, startIndex + index + 1);
 
             addressRandom.rowFinished();
             nationKeyRandom.rowFinished();
@@ -131,11 +130,9 @@ public class SupplierGenerator
             bbbTypeRandom.rowFinished();
 
             index++;
-
-            return supplier;
         }
 
-        private List<Object> makeSupplier(long supplierKey) {
+        private void makeSupplier(BulkWriter writer, long supplierKey) throws SQLException {
             String comment = commentRandom.nextValue();
 
             // Add supplier complaints or commendation to the comment
@@ -169,16 +166,14 @@ public class SupplierGenerator
 
             long nationKey = nationKeyRandom.nextValue();
 
-            List<Object> supplier = new ArrayList<Object>();
-            supplier.add(supplierKey);
-            supplier.add(String.format(ENGLISH, "Supplier#%09d", supplierKey));
-            supplier.add(addressRandom.nextValue());
-            supplier.add(nationKey);
-            supplier.add(phoneRandom.nextValue(nationKey));
-            supplier.add((double) accountBalanceRandom.nextValue() / 100.);
-            supplier.add(comment);
-
-            return supplier;
+            int idx = 1;
+            writer.setLong(idx++, supplierKey);
+            writer.setString(idx++, String.format(ENGLISH, "Supplier#%09d", supplierKey));
+            writer.setString(idx++, addressRandom.nextValue());
+            writer.setLong(idx++, nationKey);
+            writer.setString(idx++, phoneRandom.nextValue(nationKey));
+            writer.setDouble(idx++, (double) accountBalanceRandom.nextValue() / 100.);
+            writer.setString(idx, comment);
         }
     }
 }
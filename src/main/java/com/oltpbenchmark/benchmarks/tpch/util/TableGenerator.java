@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.tpch.util;
+
+import com.oltpbenchmark.api.BulkWriter;
+
+import java.sql.SQLException;
+
+/**
+ * Generates one part of a TPC-H table. Each row is written field by field
+ * with the typed {@link BulkWriter} setters, so no per-row List is built.
+ */
+public interface TableGenerator {
+
+    RowIterator iterator();
+
+    interface RowIterator {
+        boolean hasNext();
+
+        /**
+         * Set every column of the next row on the writer. The caller adds the row.
+         */
+        void writeNext(BulkWriter writer) throws SQLException;
+    }
+}
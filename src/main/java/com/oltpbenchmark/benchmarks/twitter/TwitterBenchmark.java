@@ -26,13 +26,13 @@ import com.oltpbenchmark.api.Worker;
 import com.oltpbenchmark.benchmarks.twitter.procedures.GetFollowers;
 import com.oltpbenchmark.benchmarks.twitter.util.TraceTransactionGenerator;
 import com.oltpbenchmark.benchmarks.twitter.util.TwitterOperation;
-import org.apache.commons.io.FileUtils;
+import com.oltpbenchmark.benchmarks.twitter.util.TwitterTrace;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TwitterBenchmark extends BenchmarkModule {
 
@@ -50,26 +50,25 @@ public class TwitterBenchmark extends BenchmarkModule {
 
     @Override
     protected List<Worker<? extends BenchmarkModule>> makeWorkersImpl() throws IOException {
-        List<String> tweetIds = FileUtils.readLines(new File(twitterConf.getTracefile()), Charset.defaultCharset());
-        List<String> userIds = FileUtils.readLines(new File(twitterConf.getTracefile2()), Charset.defaultCharset());
-
-        if (tweetIds.size() != userIds.size()) {
-            throw new RuntimeException(String.format("there was a problem reading files, sizes don't match.  tweets %d, userids %d", tweetIds.size(), userIds.size()));
-        }
-
-        List<TwitterOperation> trace = new ArrayList<>();
-        for (int i = 0; i < tweetIds.size(); i++) {
-            trace.add(new TwitterOperation(Integer.parseInt(tweetIds.get(i)), Integer.parseInt(userIds.get(i))));
-        }
+        TwitterTrace trace = TwitterTrace.open(Paths.get(twitterConf.getTracefile()), Paths.get(twitterConf.getTracefile2()));
+        AtomicLong cursor = new AtomicLong();
 
         List<Worker<? extends BenchmarkModule>> workers = new ArrayList<>();
+        int offset = workConf.getTerminalOffset();
         for (int i = 0; i < workConf.getTerminals(); ++i) {
-            TransactionGenerator<TwitterOperation> generator = new TraceTransactionGenerator(trace);
-            workers.add(new TwitterWorker(this, i, generator));
+            TransactionGenerator<TwitterOperation> generator = twitterConf.getStridedTrace()
+                    ? TraceTransactionGenerator.strided(trace, offset + i, workConf.getTotalTerminals())
+                    : TraceTransactionGenerator.shared(trace, cursor, workConf.getPartition(), workConf.getPartitionCount());
+            workers.add(new TwitterWorker(this, offset + i, generator));
         }
         return workers;
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
     @Override
     protected Loader<TwitterBenchmark> makeLoaderImpl() {
         return new TwitterLoader(this);
@@ -35,4 +35,11 @@ public class TwitterConfiguration {
     public String getTracefile2() {
         return xmlConfig.getString("tracefile2", null);
     }
+
+    /**
+     * @return true if each Worker replays its own stride of the trace instead of all Workers sharing one cursor
+     */
+    public boolean getStridedTrace() {
+        return xmlConfig.getString("traceIteration", "shared").equalsIgnoreCase("strided");
+    }
 }
@@ -15,33 +15,69 @@
  *
  */
 
-
 package com.oltpbenchmark.benchmarks.twitter.util;
 
 import com.oltpbenchmark.api.TransactionGenerator;
-import com.oltpbenchmark.distributions.CounterGenerator;
 
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Replays a {@link TwitterTrace}, starting over once the end is reached.
+ * <p>
+ * Generators created with {@link #shared} hand out the trace in order across
+ * all the Workers through one atomic cursor, so the trace is replayed once
+ * per pass as a whole. Generators created with {@link #strided} need no
+ * coordination at all: Worker i of n replays records i, i + n, i + 2n, ...
+ * When the run is split over several processes, process k of n shares the
+ * records k, k + n, k + 2n, ... among its Workers.
+ */
 public class TraceTransactionGenerator implements TransactionGenerator<TwitterOperation> {
-    private static CounterGenerator nextInTrace;
-    private final List<TwitterOperation> transactions;
+    private final TwitterTrace trace;
+    private final AtomicLong sharedCursor;
+    private final long start;
+    private final long stride;
+    private long next;
+
+    private TraceTransactionGenerator(TwitterTrace trace, AtomicLong sharedCursor, long start, long stride) {
+        this.trace = trace;
+        this.sharedCursor = sharedCursor;
+        this.start = start % trace.size();
+        this.next = this.start;
+        this.stride = stride % trace.size();
+    }
+
+    /**
+     * @param cursor the cursor shared by the generators of all Workers
+     */
+    public static TraceTransactionGenerator shared(TwitterTrace trace, AtomicLong cursor) {
+        return shared(trace, cursor, 0, 1);
+    }
 
     /**
-     * @param transactions a list of transactions shared between threads.
+     * @param cursor     the cursor shared by the generators of all Workers of this process
+     * @param partition  the index of this process among the processes of the run
+     * @param partitions the number of processes of the run
      */
-    public TraceTransactionGenerator(List<TwitterOperation> transactions) {
-        this.transactions = transactions;
-        nextInTrace = new CounterGenerator(transactions.size());
+    public static TraceTransactionGenerator shared(TwitterTrace trace, AtomicLong cursor, int partition, int partitions) {
+        return new TraceTransactionGenerator(trace, cursor, partition, partitions);
+    }
+
+    public static TraceTransactionGenerator strided(TwitterTrace trace, int worker, int workers) {
+        return new TraceTransactionGenerator(trace, null, worker, workers);
     }
 
     @Override
     public TwitterOperation nextTransaction() {
-        try {
-            return transactions.get(nextInTrace.nextInt());
-        } catch (IndexOutOfBoundsException id) {
-            nextInTrace.reset();
-            return transactions.get(nextInTrace.nextInt());
+        long index;
+        if (this.sharedCursor != null) {
+            index = Long.remainderUnsigned(this.start + this.sharedCursor.getAndIncrement() * this.stride, this.trace.size());
+        } else {
+            index = this.next;
+            this.next += this.stride;
+            if (this.next >= this.trace.size()) {
+                this.next -= this.trace.size();
+            }
         }
+        return new TwitterOperation(this.trace.getTweetId(index), this.trace.getUserId(index));
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.twitter.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Twitter request trace as (tweet id, user id) pairs of ints, memory
+ * mapped from a binary file so that traces of any size cost no heap.
+ * <p>
+ * The binary file is converted once from the two text trace files (one id
+ * per line) and cached next to them as {@code <tracefile>.bin}, or in the
+ * temp directory if that is not writable. Its header records the size and
+ * modification time of both text files, so an edited trace is converted again.
+ * <p>
+ * Thread-safe: a TwitterTrace is read-only once opened.
+ */
+public final class TwitterTrace {
+    private static final Logger LOG = LoggerFactory.getLogger(TwitterTrace.class);
+
+    private static final long MAGIC = 0x54574954545243L; // "TWITTRC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 8;
+
+    /**
+     * Each mapping covers 2^CHUNK_SHIFT records, 1 GiB by default, as a
+     * single MappedByteBuffer cannot be larger than 2 GiB.
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 27;
+
+    private final long size;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final MappedByteBuffer[] chunks;
+
+    private TwitterTrace(FileChannel channel, long size, int chunkShift) throws IOException {
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        int count = (int) ((size + this.chunkMask) >>> chunkShift);
+        this.chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long first = (long) i << chunkShift;
+            long records = Math.min(size - first, 1L << chunkShift);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * RECORD_BYTES, records * RECORD_BYTES);
+            chunk.order(ByteOrder.nativeOrder());
+            this.chunks[i] = chunk;
+        }
+    }
+
+    /**
+     * Open the trace of the two text files, converting them if there is no up-to-date binary copy yet.
+     */
+    public static TwitterTrace open(Path tweetIds, Path userIds) throws IOException {
+        return open(tweetIds, userIds, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static TwitterTrace open(Path tweetIds, Path userIds, int chunkShift) throws IOException {
+        ByteBuffer expected = header(tweetIds, userIds, -1);
+
+        Path cache = tweetIds.resolveSibling(tweetIds.getFileName() + ".bin");
+        if (!Files.isWritable(cache.toAbsolutePath().getParent()) && !isCurrent(cache, expected)) {
+            cache = Paths.get(System.getProperty("java.io.tmpdir"), tweetIds.getFileName() + "." + Integer.toHexString(tweetIds.toAbsolutePath().hashCode()) + ".bin");
+        }
+        if (!isCurrent(cache, expected)) {
+            convert(tweetIds, userIds, cache);
+        }
+
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            long size = header.getLong(12);
+            return new TwitterTrace(channel, size, chunkShift);
+        }
+    }
+
+    /**
+     * @param size the number of records, or -1 when only used to compare the source files
+     */
+    private static ByteBuffer header(Path tweetIds, Path userIds, long size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putLong(0, MAGIC);
+        header.putInt(8, VERSION);
+        header.putLong(12, size);
+        header.putLong(20, Files.size(tweetIds));
+        header.putLong(28, Files.getLastModifiedTime(tweetIds).toMillis());
+        header.putLong(36, Files.size(userIds));
+        header.putLong(44, Files.getLastModifiedTime(userIds).toMillis());
+        return header;
+    }
+
+    private static boolean isCurrent(Path cache, ByteBuffer expected) throws IOException {
+        if (!Files.isRegularFile(cache)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            long size = header.getLong(12);
+            // Everything but the record count has to match
+            header.putLong(12, -1);
+            return header.rewind().equals(expected.rewind()) && channel.size() == HEADER_BYTES + size * RECORD_BYTES;
+        }
+    }
+
+    private static void convert(Path tweetIds, Path userIds, Path cache) throws IOException {
+        long start = System.nanoTime();
+        Path tmp = cache.resolveSibling(cache.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        long size = 0;
+        try (BufferedReader tweets = Files.newBufferedReader(tweetIds, StandardCharsets.UTF_8);
+             BufferedReader users = Files.newBufferedReader(userIds, StandardCharsets.UTF_8);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.nativeOrder());
+            out.position(HEADER_BYTES);
+            String tweet;
+            String user;
+            while (true) {
+                tweet = tweets.readLine();
+                user = users.readLine();
+                if (tweet == null || user == null) {
+                    break;
+                }
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                buffer.putInt(Integer.parseInt(tweet.trim()));
+                buffer.putInt(Integer.parseInt(user.trim()));
+                size++;
+            }
+            if (tweet != null || user != null) {
+                throw new IOException(String.format("there was a problem reading files, sizes don't match.  %s has more lines than %s",
+                        tweet != null ? tweetIds : userIds, tweet != null ? userIds : tweetIds));
+            }
+            if (size == 0) {
+                throw new IOException("Trace " + tweetIds + " is empty");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            // Write the header last so that an interrupted conversion is never mistaken for a complete one
+            ByteBuffer header = header(tweetIds, userIds, size);
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+            out.force(false);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOG.info("Converted {} trace records to {} in {} ms", size, cache, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @return the number of records in the trace, at least one
+     */
+    public long size() {
+        return this.size;
+    }
+
+    public int getTweetId(long index) {
+        return this.chunks[(int) (index >>> this.chunkShift)].getInt((int) (index & this.chunkMask) * RECORD_BYTES);
+    }
+
+    public int getUserId(long index) {
+        return this.chunks[(int) (index >>> this.chunkShift)].getInt((int) (index & this.chunkMask) * RECORD_BYTES + 4);
+    }
+}
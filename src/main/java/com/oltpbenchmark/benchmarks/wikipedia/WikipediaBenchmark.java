@@ -23,7 +23,7 @@ import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.Worker;
 import com.oltpbenchmark.benchmarks.wikipedia.data.RevisionHistograms;
 import com.oltpbenchmark.benchmarks.wikipedia.procedures.AddWatchList;
-import com.oltpbenchmark.util.RandomDistribution.FlatHistogram;
+import com.oltpbenchmark.util.AliasTable;
 import com.oltpbenchmark.util.TextGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,9 +34,10 @@ import java.util.List;
 public class WikipediaBenchmark extends BenchmarkModule {
     private static final Logger LOG = LoggerFactory.getLogger(WikipediaBenchmark.class);
 
-    protected final FlatHistogram<Integer> commentLength;
-    protected final FlatHistogram<Integer> minorEdit;
-    private final FlatHistogram<Integer>[] revisionDeltas;
+    // Shared by all threads, each samples them with its own rng()
+    protected final AliasTable<Integer> commentLength;
+    protected final AliasTable<Integer> minorEdit;
+    private final AliasTable<Integer>[] revisionDeltas;
 
     protected final int num_users;
     protected final int num_pages;
@@ -45,11 +46,11 @@ public class WikipediaBenchmark extends BenchmarkModule {
     public WikipediaBenchmark(WorkloadConfiguration workConf) {
         super(workConf);
 
-        this.commentLength = new FlatHistogram<>(this.rng(), RevisionHistograms.COMMENT_LENGTH);
-        this.minorEdit = new FlatHistogram<>(this.rng(), RevisionHistograms.MINOR_EDIT);
-        this.revisionDeltas = new FlatHistogram[RevisionHistograms.REVISION_DELTA_SIZES.length];
+        this.commentLength = new AliasTable<>(RevisionHistograms.COMMENT_LENGTH);
+        this.minorEdit = new AliasTable<>(RevisionHistograms.MINOR_EDIT);
+        this.revisionDeltas = new AliasTable[RevisionHistograms.REVISION_DELTA_SIZES.length];
         for (int i = 0; i < this.revisionDeltas.length; i++) {
-            this.revisionDeltas[i] = new FlatHistogram<>(this.rng(), RevisionHistograms.REVISION_DELTAS[i]);
+            this.revisionDeltas[i] = new AliasTable<>(RevisionHistograms.REVISION_DELTAS[i]);
         }
 
         this.num_users = (int) Math.ceil(WikipediaConstants.USERS * this.getWorkloadConfiguration().getScaleFactor());
@@ -72,7 +73,7 @@ public class WikipediaBenchmark extends BenchmarkModule {
         // Where is your god now?
         // There is probably some sort of minimal size that we should adhere to,
         // but it's 12:30am and I simply don't feel like dealing with that now
-        FlatHistogram<Integer> h = null;
+        AliasTable<Integer> h = null;
         for (int i = 0; i < this.revisionDeltas.length - 1; i++) {
             if (orig_text.length <= RevisionHistograms.REVISION_DELTA_SIZES[i]) {
                 h = this.revisionDeltas[i];
@@ -83,7 +84,7 @@ public class WikipediaBenchmark extends BenchmarkModule {
         }
 
 
-        int delta = h.nextValue();
+        int delta = h.nextInt(this.rng());
         if (orig_text.length + delta <= 0) {
             delta = -1 * (int) Math.round(orig_text.length / 1.5);
             if (Math.abs(delta) == orig_text.length && delta < 0) {
@@ -37,7 +37,6 @@ import java.sql.JDBCType;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * Synthetic Wikipedia Data Loader
@@ -93,10 +92,11 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
         final int numUserThreads = (int) Math.ceil((double) this.benchmark.num_users / itemsPerThread);
         final int numPageThreads = (int) Math.ceil((double) this.benchmark.num_pages / itemsPerThread);
 
-        final CountDownLatch userPageLatch = new CountDownLatch(numUserThreads + numPageThreads);
+        final List<String> userTables = List.of(WikipediaConstants.TABLENAME_USER);
+        final List<String> pageTables = List.of(WikipediaConstants.TABLENAME_PAGE);
+        final List<String> userPageTables = List.of(WikipediaConstants.TABLENAME_USER, WikipediaConstants.TABLENAME_PAGE);
 
-        final CountDownLatch anonUserLatch = new CountDownLatch(1);
-        threads.add(new LoaderThread(this.benchmark) {
+        threads.add(new LoaderThread(this.benchmark, userTables, List.of()) {
             @Override
             public void load(Connection conn) throws SQLException {
                 Table catalog_tbl = benchmark.getCatalog().getTable(WikipediaConstants.TABLENAME_USER);
@@ -126,11 +126,6 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                 }
 
             }
-
-            @Override
-            public void afterLoad() {
-                anonUserLatch.countDown();
-            }
         });
 
 
@@ -140,27 +135,12 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
             final int lo = i * itemsPerThread + 1;
             final int hi = Math.min(this.benchmark.num_users, (i + 1) * itemsPerThread);
 
-            threads.add(new LoaderThread(this.benchmark) {
+            threads.add(new LoaderThread(this.benchmark, userTables, List.of()) {
                 @Override
                 public void load(Connection conn) throws SQLException {
                     loadUsers(conn, lo, hi);
 
                 }
-
-                @Override
-                public void afterLoad() {
-                    userPageLatch.countDown();
-                }
-
-                @Override
-                public void beforeLoad() {
-                    try {
-                        anonUserLatch.await();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-
-                }
             });
         }
 
@@ -170,65 +150,30 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
             final int lo = i * itemsPerThread + 1;
             final int hi = Math.min(this.benchmark.num_pages, (i + 1) * itemsPerThread);
 
-            threads.add(new LoaderThread(this.benchmark) {
+            threads.add(new LoaderThread(this.benchmark, pageTables, List.of()) {
                 @Override
                 public void load(Connection conn) throws SQLException {
                     loadPages(conn, lo, hi);
                 }
-
-                @Override
-                public void afterLoad() {
-                    userPageLatch.countDown();
-                }
-
-                @Override
-                public void beforeLoad() {
-                    try {
-                        anonUserLatch.await();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-
-                }
             });
         }
 
         // WATCHLIST and REVISIONS depends on USERS and PAGES
 
         // WATCHLIST
-        threads.add(new LoaderThread(this.benchmark) {
+        threads.add(new LoaderThread(this.benchmark, List.of(WikipediaConstants.TABLENAME_WATCHLIST), userPageTables) {
             @Override
             public void load(Connection conn) throws SQLException {
                 loadWatchlist(conn);
             }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    userPageLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-
-            }
         });
 
         // REVISIONS
-        threads.add(new LoaderThread(this.benchmark) {
+        threads.add(new LoaderThread(this.benchmark, List.of(WikipediaConstants.TABLENAME_TEXT, WikipediaConstants.TABLENAME_REVISION), userPageTables) {
             @Override
             public void load(Connection conn) throws SQLException {
                 loadRevision(conn);
             }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    userPageLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-
-            }
         });
 
         return threads;
@@ -481,8 +426,8 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
         int batchSize = 1;
         Zipf h_users = new Zipf(rng(), 1, this.benchmark.num_users, WikipediaConstants.REVISION_USER_SIGMA);
         FlatHistogram<Integer> h_textLength = new FlatHistogram<>(rng(), TextHistograms.TEXT_LENGTH);
-        FlatHistogram<Integer> h_commentLength = b.commentLength;
-        FlatHistogram<Integer> h_minorEdit = b.minorEdit;
+        FlatHistogram<Integer> h_commentLength = new FlatHistogram<>(rng(), b.commentLength);
+        FlatHistogram<Integer> h_minorEdit = new FlatHistogram<>(rng(), b.minorEdit);
         FlatHistogram<Integer> h_nameLength = new FlatHistogram<>(rng(), UserHistograms.NAME_LENGTH);
         FlatHistogram<Integer> h_numRevisions = new FlatHistogram<>(rng(), PageHistograms.REVISIONS_PER_PAGE);
 
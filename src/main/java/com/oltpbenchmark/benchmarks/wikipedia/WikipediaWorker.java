@@ -156,9 +156,9 @@ public class WikipediaWorker extends Worker<WikipediaBenchmark> {
         }
 
         WikipediaBenchmark b = this.getBenchmark();
-        int revCommentLen = b.commentLength.nextValue();
+        int revCommentLen = b.commentLength.nextInt(this.rng());
         String revComment = TextGenerator.randomStr(this.rng(), revCommentLen + 1);
-        int revMinorEdit = b.minorEdit.nextValue();
+        int revMinorEdit = b.minorEdit.nextInt(this.rng());
 
         // Permute the original text of the article
         // Important: We have to make sure that we fill in the entire array
@@ -18,24 +18,25 @@
 package com.oltpbenchmark.benchmarks.wikipedia.util;
 
 import com.oltpbenchmark.benchmarks.wikipedia.data.PageHistograms;
-import com.oltpbenchmark.util.RandomDistribution.FlatHistogram;
+import com.oltpbenchmark.util.AliasTable;
 import com.oltpbenchmark.util.TextGenerator;
 
 import java.util.Random;
 
 public abstract class WikipediaUtil {
 
+    private static final AliasTable<Integer> TITLE_LENGTH = new AliasTable<>(PageHistograms.TITLE_LENGTH);
+    private static final AliasTable<Integer> NAMESPACE = new AliasTable<>(PageHistograms.NAMESPACE);
+
     public static String generatePageTitle(Random rand, int page_id) {
-        FlatHistogram<Integer> h_titleLength = new FlatHistogram<>(rand, PageHistograms.TITLE_LENGTH);
         // HACK: Always append the page id to the title
         // so that it's guaranteed to be unique.
         // Otherwise we can get collisions with larger scale factors.
-        int titleLength = h_titleLength.nextValue();
+        int titleLength = TITLE_LENGTH.nextInt(rand);
         return TextGenerator.randomStr(rand, titleLength) + " [" + page_id + "]";
     }
 
     public static int generatePageNamespace(Random rand, int page_id) {
-        FlatHistogram<Integer> h_namespace = new FlatHistogram<>(rand, PageHistograms.NAMESPACE);
-        return h_namespace.nextInt();
+        return NAMESPACE.nextInt(rand);
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.BenchmarkState;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.WorkloadConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One of the benchbase processes of a distributed run, see {@link Coordinator}.
+ * <p>
+ * An agent gets its command line and configuration file from the
+ * coordinator, runs its partition of the workload like a local run would,
+ * waits for the coordinator at every {@link BenchmarkState.Barrier} point and
+ * reports its results to the coordinator instead of writing them.
+ */
+public final class Agent implements BenchmarkState.Barrier, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(Agent.class);
+
+    /**
+     * How long to keep trying to reach a coordinator that is not up yet
+     */
+    private static final long CONNECT_TIMEOUT_MS = 60000;
+    private static final long CONNECT_RETRY_MS = 500;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final String[] args;
+
+    private Agent(Socket socket, String token) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        Protocol.write(out, Protocol.HELLO, String.valueOf(Protocol.VERSION), token.getBytes(StandardCharsets.UTF_8));
+        Protocol.Message assign = Protocol.read(-1, in);
+        if (assign.type() == Protocol.ABORT) {
+            throw new IOException("Coordinator refused the agent: " + assign.text());
+        } else if (assign.type() != Protocol.ASSIGN) {
+            throw new IOException("Unexpected message " + assign.type() + " from the coordinator");
+        }
+
+        try (DataInputStream assignment = new DataInputStream(new ByteArrayInputStream(assign.payload()))) {
+            String configName = Protocol.readString(assignment);
+            byte[] config = new byte[assignment.readInt()];
+            assignment.readFully(config);
+            List<String> args = new ArrayList<>();
+            for (int i = assignment.readInt(); i > 0; i--) {
+                args.add(Protocol.readString(assignment));
+            }
+
+            Path configFile = Files.createTempFile("benchbase-agent-", "-" + configName);
+            configFile.toFile().deleteOnExit();
+            Files.write(configFile, config);
+            args.add("-c");
+            args.add(configFile.toString());
+            this.args = args.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Connect to the coordinator at host:port and wait for the assignment.
+     * Retries for a while if the coordinator is not listening yet.
+     *
+     * @param token the coordinator's agent token
+     */
+    public static Agent connect(String address, String token) throws IOException {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Coordinator address must be host:port, got " + address);
+        }
+        String host = address.substring(0, colon);
+        int port = Integer.parseInt(address.substring(colon + 1));
+
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+        while (true) {
+            try {
+                Socket socket = new Socket(host, port);
+                socket.setTcpNoDelay(true);
+                LOG.info("Connected to coordinator {}, waiting for the assignment", address);
+                return new Agent(socket, token);
+            } catch (ConnectException ex) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw ex;
+                }
+                try {
+                    Thread.sleep(CONNECT_RETRY_MS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the command line to run, including the configuration file and partition
+     */
+    public String[] getArgs() {
+        return args;
+    }
+
+    @Override
+    public void await(String point) {
+        try {
+            Protocol.write(out, Protocol.BARRIER, point);
+            Protocol.Message message = Protocol.read(-1, in);
+            if (message.type() == Protocol.ABORT) {
+                throw new RuntimeException("Coordinator aborted the run: " + message.text());
+            } else if (message.type() != Protocol.RELEASE || !message.text().equals(point)) {
+                throw new RuntimeException(String.format("Expected release of %s, got message %d %s", point, message.type(), message.text()));
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Lost the coordinator", ex);
+        }
+    }
+
+    /**
+     * Report the results of one workload run, which must have latency histograms.
+     */
+    public void sendResults(Results results, List<WorkloadConfiguration> workConfs) throws IOException {
+        Protocol.write(out, Protocol.RESULTS, "", ResultsCodec.encode(results, workConfs));
+    }
+
+    /**
+     * Tell the coordinator why this agent gives up.
+     */
+    public void abort(String reason) {
+        try {
+            Protocol.write(out, Protocol.ABORT, reason);
+        } catch (IOException ex) {
+            LOG.warn("Failed to tell the coordinator that the run is aborted: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.WorkloadConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Runs one benchmark on several benchbase processes, the {@link Agent}s, when
+ * a single client is not enough to saturate the database.
+ * <p>
+ * The coordinator waits for all agents to connect and hands each of them the
+ * configuration file, the command line and its partition, i.e., its share of
+ * the terminals, the rate and, for benchmarks that partition by terminal,
+ * the warehouses or key ranges. During the run it releases every
+ * {@link com.oltpbenchmark.BenchmarkState.Barrier} point, such as the end of
+ * the warmup, only once all agents have reached it, so all agents measure
+ * the same window. Finally it merges the agents' latency histograms and
+ * outcome counters into one {@link Results}.
+ * <p>
+ * The coordinator itself does not run any workers. Each call of
+ * {@link #runWorkload(List)} matches one workload run on every agent.
+ * <p>
+ * Only clients that send the agent token get an assignment; others are
+ * turned away and not counted as agents. The connection is not encrypted,
+ * so the coordinator should only listen on trusted networks.
+ */
+public final class Coordinator implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(Coordinator.class);
+
+    /**
+     * How long a client may take to say HELLO, and how long that may be
+     */
+    private static final int HELLO_TIMEOUT_MS = 10000;
+    private static final int HELLO_LIMIT = 1024;
+
+    private record Connection(Socket socket, DataOutputStream out) {
+    }
+
+    private final ServerSocket server;
+    private final int agentCount;
+    private final byte[] token;
+    private final List<String> agentArgs;
+    private final Path configFile;
+    private final List<Connection> agents = new ArrayList<>();
+    private final BlockingQueue<Protocol.Message> inbox = new LinkedBlockingQueue<>();
+    /**
+     * Messages of agents that already moved on to the next run
+     */
+    private final List<Protocol.Message> early = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    /**
+     * @param bindAddress address to listen on for agents
+     * @param port        port to listen on for agents, or 0 for any free port
+     * @param agentCount  number of agents the run is split over
+     * @param token       secret the agents must send to get their assignment
+     * @param agentArgs   command line for the agents, without the configuration file
+     * @param configFile  configuration file sent to the agents
+     */
+    public Coordinator(InetAddress bindAddress, int port, int agentCount, String token, List<String> agentArgs, Path configFile) throws IOException {
+        if (agentCount < 1) {
+            throw new IllegalArgumentException("A distributed run needs at least one agent");
+        }
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("A distributed run needs an agent token");
+        }
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(bindAddress, port));
+        this.agentCount = agentCount;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.agentArgs = agentArgs;
+        this.configFile = configFile;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    /**
+     * Wait for all agents to connect and send them their assignment. Agents
+     * only start to build their workers once they got it, so this is done
+     * when the first workload is about to run, after the database was loaded.
+     */
+    public synchronized void awaitAgents() throws IOException {
+        if (!agents.isEmpty()) {
+            return;
+        }
+        LOG.info("Waiting for {} agents on {}", agentCount, server.getLocalSocketAddress());
+        byte[] config = Files.readAllBytes(configFile);
+        while (agents.size() < agentCount) {
+            int i = agents.size();
+            Socket socket = server.accept();
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            Protocol.Message hello;
+            try {
+                socket.setSoTimeout(HELLO_TIMEOUT_MS);
+                hello = Protocol.read(i, in, HELLO_LIMIT);
+                socket.setSoTimeout(0);
+            } catch (IOException ex) {
+                LOG.warn("Ignoring client at {}: {}", socket.getRemoteSocketAddress(), ex.getMessage());
+                socket.close();
+                continue;
+            }
+            if (hello.type() != Protocol.HELLO || !MessageDigest.isEqual(token, hello.payload())) {
+                LOG.warn("Refusing client at {}: it did not send the agent token", socket.getRemoteSocketAddress());
+                refuse(socket, out, "Wrong agent token");
+                continue;
+            }
+            if (!hello.text().equals(String.valueOf(Protocol.VERSION))) {
+                refuse(socket, out, "Expected protocol version " + Protocol.VERSION);
+                throw new IOException("Agent at " + socket.getRemoteSocketAddress() + " speaks another protocol: " + hello.text());
+            }
+
+            List<String> args = new ArrayList<>(agentArgs);
+            args.add("--partition");
+            args.add((i + 1) + "/" + agentCount);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream assignment = new DataOutputStream(bytes)) {
+                Protocol.writeString(assignment, configFile.getFileName().toString());
+                assignment.writeInt(config.length);
+                assignment.write(config);
+                assignment.writeInt(args.size());
+                for (String arg : args) {
+                    Protocol.writeString(assignment, arg);
+                }
+            }
+            Protocol.write(out, Protocol.ASSIGN, "", bytes.toByteArray());
+
+            agents.add(new Connection(socket, out));
+            startReader(i, in);
+            LOG.info("Agent {} of {} connected from {}", i + 1, agentCount, socket.getRemoteSocketAddress());
+        }
+    }
+
+    private static void refuse(Socket socket, DataOutputStream out, String reason) {
+        try {
+            Protocol.write(out, Protocol.ABORT, reason);
+        } catch (IOException ex) {
+            // It is turned away anyway
+        }
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            LOG.debug("Failed to close the connection of a refused client", ex);
+        }
+    }
+
+    /**
+     * Coordinate one run of the given workloads on all agents.
+     *
+     * @return the merged results of all agents
+     */
+    public Results runWorkload(List<WorkloadConfiguration> workConfs) throws IOException {
+        awaitAgents();
+
+        String[] points = new String[agentCount];
+        Results[] results = new Results[agentCount];
+        int waiting = 0;
+        int reported = 0;
+        Deque<Protocol.Message> pending = new ArrayDeque<>(early);
+        early.clear();
+        while (reported < agentCount) {
+            Protocol.Message message;
+            try {
+                message = pending.isEmpty() ? inbox.take() : pending.poll();
+            } catch (InterruptedException ex) {
+                abort("Coordinator was interrupted");
+                throw new RuntimeException(ex);
+            }
+            int agent = message.agent();
+            if (results[agent] != null) {
+                // Done with this run, e.g., waiting for the next one or exiting
+                early.add(message);
+                continue;
+            }
+            switch (message.type()) {
+                case Protocol.BARRIER -> {
+                    if (points[agent] != null) {
+                        throw abort(String.format("Agent %d reached %s out of step", agent + 1, message.text()));
+                    }
+                    points[agent] = message.text();
+                    if (++waiting == agentCount) {
+                        String point = points[0];
+                        for (String p : points) {
+                            if (!p.equals(point)) {
+                                throw abort("Agents are out of step: " + Arrays.toString(points));
+                            }
+                        }
+                        for (Connection a : agents) {
+                            Protocol.write(a.out(), Protocol.RELEASE, point);
+                        }
+                        LOG.debug("All agents reached {}", point);
+                        Arrays.fill(points, null);
+                        waiting = 0;
+                    }
+                }
+                case Protocol.RESULTS -> {
+                    if (waiting > 0) {
+                        throw abort(String.format("Agent %d sent results out of step", agent + 1));
+                    }
+                    results[agent] = ResultsCodec.decode(message.payload(), workConfs);
+                    reported++;
+                    LOG.info("Agent {}: {}", agent + 1, results[agent]);
+                }
+                case Protocol.ABORT -> throw abort(String.format("Agent %d gave up: %s", agent + 1, message.text()));
+                default -> throw abort(String.format("Unexpected message %d from agent %d", message.type(), agent + 1));
+            }
+        }
+        return ResultsCodec.merge(Arrays.asList(results), workConfs.get(0).getLatencyHistogramDigits());
+    }
+
+    /**
+     * Tell all agents to give up the run.
+     *
+     * @return an exception to throw
+     */
+    private RuntimeException abort(String reason) {
+        LOG.error("Aborting distributed run: {}", reason);
+        for (Connection a : agents) {
+            try {
+                Protocol.write(a.out(), Protocol.ABORT, reason);
+            } catch (IOException ex) {
+                // It may be the one that is gone
+            }
+        }
+        return new RuntimeException(reason);
+    }
+
+    private void startReader(int agent, DataInputStream in) {
+        Thread reader = new Thread(() -> {
+            try {
+                while (true) {
+                    inbox.add(Protocol.read(agent, in));
+                }
+            } catch (IOException ex) {
+                if (!closed) {
+                    inbox.add(new Protocol.Message(agent, Protocol.ABORT, "disconnected (" + Objects.toString(ex.getMessage(), ex.toString()) + ")", new byte[0]));
+                }
+            }
+        }, "coordinator-agent-" + (agent + 1));
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        for (Connection a : agents) {
+            a.socket().close();
+        }
+        server.close();
+    }
+}
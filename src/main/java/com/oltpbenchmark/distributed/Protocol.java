@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributed;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Messages between the {@link Coordinator} and its {@link Agent}s. Every
+ * message is a type byte, a text and a binary payload:
+ * <pre>
+ * HELLO    agent       -> coordinator  protocol version, the agent token as payload
+ * ASSIGN   coordinator -> agent        partition, arguments and configuration file
+ * BARRIER  agent       -> coordinator  the agent waits at this point
+ * RELEASE  coordinator -> agent        all agents reached this point
+ * RESULTS  agent       -> coordinator  the agent's Results, see {@link ResultsCodec}
+ * ABORT    either way                  why the run is given up
+ * </pre>
+ * The messages are neither encrypted nor signed. The agent token only keeps
+ * other clients from getting an assignment, which includes the database
+ * credentials of the configuration file.
+ */
+final class Protocol {
+
+    static final int VERSION = 2;
+
+    static final byte HELLO = 1;
+    static final byte ASSIGN = 2;
+    static final byte BARRIER = 3;
+    static final byte RELEASE = 4;
+    static final byte RESULTS = 5;
+    static final byte ABORT = 6;
+
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    /**
+     * @param agent index of the agent that sent the message, or -1 on the agent side
+     */
+    record Message(int agent, byte type, String text, byte[] payload) {
+    }
+
+    private Protocol() {
+    }
+
+    static void write(DataOutputStream out, byte type, String text) throws IOException {
+        write(out, type, text, NO_PAYLOAD);
+    }
+
+    static void write(DataOutputStream out, byte type, String text, byte[] payload) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            writeString(out, text);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    static Message read(int agent, DataInputStream in) throws IOException {
+        return read(agent, in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit longest text and payload to accept, for messages of
+     *              clients that are not known to be agents yet
+     */
+    static Message read(int agent, DataInputStream in, int limit) throws IOException {
+        byte type = in.readByte();
+        String text = new String(readBytes(in, limit), StandardCharsets.UTF_8);
+        byte[] payload = readBytes(in, limit);
+        return new Message(agent, type, text, payload);
+    }
+
+    /**
+     * Unlike writeUTF, not limited to 64KB.
+     */
+    static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return new String(readBytes(in, Integer.MAX_VALUE), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInput in, int limit) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > limit) {
+            throw new IOException("Message field of " + length + " bytes, at most " + limit + " expected");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.LatencyHistograms;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.util.Histogram;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Ships the mergeable part of an agent's {@link Results} to the coordinator:
+ * the latency histograms of the run and, if kept, of every second, the outcome counters and the
+ * statement cache and worker thread counts. Transaction types are resolved
+ * against the coordinator's own configuration.
+ * Raw latency samples, offered load and connection statistics stay with the agent.
+ */
+final class ResultsCodec {
+
+    private ResultsCodec() {
+    }
+
+    static byte[] encode(Results results, List<WorkloadConfiguration> workConfs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, results, workConfs);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Results decode(byte[] data, List<WorkloadConfiguration> workConfs) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return read(in, workConfs);
+        }
+    }
+
+    /**
+     * Combine the results of all agents. Counts are added up, the latency
+     * histograms of the run and of the same second are merged and the
+     * measured time is the longest of the agents, which were kept in step by
+     * the barriers. The seconds are only kept if every agent kept them.
+     */
+    static Results merge(List<Results> parts, int significantDigits) {
+        long nanoseconds = 0;
+        int measuredRequests = 0;
+        LatencyHistograms total = new LatencyHistograms(significantDigits);
+        SortedMap<Long, LatencyHistograms> seconds = new TreeMap<>();
+        for (Results part : parts) {
+            nanoseconds = Math.max(nanoseconds, part.getNanoseconds());
+            measuredRequests += part.getMeasuredRequests();
+            total.add(part.getLatencyHistogramTotal());
+            if (seconds != null && part.getLatencyHistograms() != null) {
+                for (Map.Entry<Long, LatencyHistograms> e : part.getLatencyHistograms().entrySet()) {
+                    seconds.computeIfAbsent(e.getKey(), k -> new LatencyHistograms(significantDigits)).add(e.getValue());
+                }
+            } else {
+                seconds = null;
+            }
+        }
+        Results merged = Results.fromLatencyHistograms(nanoseconds, measuredRequests, total, seconds, null);
+
+        List<Histogram<TransactionType>> counters = counters(merged);
+        boolean virtualThreads = false;
+        int workerThreads = 0;
+        int carrierThreads = 0;
+        double utilization = 0;
+        int utilizations = 0;
+        for (Results part : parts) {
+            List<Histogram<TransactionType>> theirs = counters(part);
+            for (int i = 0; i < counters.size(); i++) {
+                counters.get(i).putAll(theirs.get(i).values(), 0);
+                counters.get(i).putHistogram(theirs.get(i));
+            }
+            merged.addStatementCacheCounts(part.getStatementCacheHits(), part.getStatementCacheMisses());
+            virtualThreads |= part.getVirtualThreads();
+            workerThreads += part.getWorkerThreads();
+            carrierThreads += part.getCarrierThreads();
+            if (part.getCarrierUtilization() >= 0) {
+                utilization += part.getCarrierUtilization();
+                utilizations++;
+            }
+        }
+        merged.setWorkerThreads(virtualThreads, workerThreads, carrierThreads, utilizations == 0 ? -1 : utilization / utilizations);
+
+        for (String workload : parts.get(0).getWorkloadResults().keySet()) {
+            List<Results> workloadParts = new ArrayList<>(parts.size());
+            for (Results part : parts) {
+                workloadParts.add(part.getWorkloadResults().get(workload));
+            }
+            merged.getWorkloadResults().put(workload, merge(workloadParts, significantDigits));
+        }
+        return merged;
+    }
+
+    private static void write(DataOutputStream out, Results results, List<WorkloadConfiguration> workConfs) throws IOException {
+        LatencyHistograms total = results.getLatencyHistogramTotal();
+        if (total == null) {
+            throw new IllegalArgumentException("Only results with latency histograms can be merged");
+        }
+        out.writeLong(results.getNanoseconds());
+        out.writeInt(results.getMeasuredRequests());
+        total.writeTo(out);
+        SortedMap<Long, LatencyHistograms> seconds = results.getLatencyHistograms();
+        // -1 if only the total was kept
+        out.writeInt(seconds == null ? -1 : seconds.size());
+        if (seconds != null) {
+            for (Map.Entry<Long, LatencyHistograms> e : seconds.entrySet()) {
+                out.writeLong(e.getKey());
+                e.getValue().writeTo(out);
+            }
+        }
+
+        for (Histogram<TransactionType> counter : counters(results)) {
+            out.writeInt(counter.values().size());
+            for (TransactionType type : counter.values()) {
+                writeType(out, type, workConfs);
+                out.writeInt(counter.get(type));
+            }
+        }
+        out.writeLong(results.getStatementCacheHits());
+        out.writeLong(results.getStatementCacheMisses());
+        out.writeBoolean(results.getVirtualThreads());
+        out.writeInt(results.getWorkerThreads());
+        out.writeInt(results.getCarrierThreads());
+        out.writeDouble(results.getCarrierUtilization());
+
+        // ThreadBench adds the results of concurrent workloads in the order of workConfs
+        out.writeInt(results.getWorkloadResults().size());
+        int index = 0;
+        for (Map.Entry<String, Results> e : results.getWorkloadResults().entrySet()) {
+            Protocol.writeString(out, e.getKey());
+            out.writeInt(index);
+            write(out, e.getValue(), List.of(workConfs.get(index)));
+            index++;
+        }
+    }
+
+    private static Results read(DataInputStream in, List<WorkloadConfiguration> workConfs) throws IOException {
+        long nanoseconds = in.readLong();
+        int measuredRequests = in.readInt();
+        LatencyHistograms total = LatencyHistograms.readFrom(in);
+        int count = in.readInt();
+        SortedMap<Long, LatencyHistograms> seconds = count < 0 ? null : new TreeMap<>();
+        for (int i = count; i > 0; i--) {
+            long second = in.readLong();
+            seconds.put(second, LatencyHistograms.readFrom(in));
+        }
+        Results results = Results.fromLatencyHistograms(nanoseconds, measuredRequests, total, seconds, null);
+
+        for (Histogram<TransactionType> counter : counters(results)) {
+            for (int i = in.readInt(); i > 0; i--) {
+                TransactionType type = readType(in, workConfs);
+                counter.put(type, in.readInt());
+            }
+        }
+        results.addStatementCacheCounts(in.readLong(), in.readLong());
+        results.setWorkerThreads(in.readBoolean(), in.readInt(), in.readInt(), in.readDouble());
+
+        for (int i = in.readInt(); i > 0; i--) {
+            String workload = Protocol.readString(in);
+            int index = in.readInt();
+            results.getWorkloadResults().put(workload, read(in, List.of(workConfs.get(index))));
+        }
+        return results;
+    }
+
+    /**
+     * Types are sent as their workload and position, as featurebench's are not told apart by name.
+     */
+    private static void writeType(DataOutputStream out, TransactionType type, List<WorkloadConfiguration> workConfs) throws IOException {
+        for (int i = 0; i < workConfs.size(); i++) {
+            int position = 0;
+            for (TransactionType t : workConfs.get(i).getTransTypes()) {
+                if (t.equals(type)) {
+                    out.writeInt(i);
+                    out.writeInt(position);
+                    return;
+                }
+                position++;
+            }
+        }
+        throw new IllegalArgumentException("Transaction type " + type + " is not part of the workload");
+    }
+
+    private static TransactionType readType(DataInputStream in, List<WorkloadConfiguration> workConfs) throws IOException {
+        int index = in.readInt();
+        int position = in.readInt();
+        int i = 0;
+        for (TransactionType t : workConfs.get(index).getTransTypes()) {
+            if (i++ == position) {
+                return t;
+            }
+        }
+        throw new IOException("Unknown transaction type " + position + " of workload " + index);
+    }
+
+    private static List<Histogram<TransactionType>> counters(Results results) {
+        return List.of(results.getUnknown(), results.getSuccess(), results.getAbort(), results.getRetry(),
+                results.getError(), results.getRetryDifferent(), results.getZeroRows());
+    }
+}
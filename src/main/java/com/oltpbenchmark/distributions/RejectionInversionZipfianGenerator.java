@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributions;
+
+import java.util.Random;
+
+/**
+ * A generator of a zipfian distribution over the items min to max (inclusive), where the
+ * probability of the k-th most popular item is proportional to 1 / k^theta. As with
+ * {@link ZipfianGenerator}, min is the most popular item, min+1 the next most popular, etc.
+ * <p>
+ * Unlike ZipfianGenerator, it never needs zeta: construction takes constant time for any number
+ * of items, and each sample takes a couple of log/exp calls with a rejection rate that is
+ * small for any theta. It is also exact for every theta > 0, including theta >= 1, whereas
+ * ZipfianGenerator's inversion formula is an approximation that is only meant for theta < 1.
+ * <p>
+ * The algorithm is from "Rejection-Inversion to Generate Variates from Monotone Discrete
+ * Distributions", Wolfgang Hörmann and Gerhard Derflinger, ACM TOMACS 6(3), 1996.
+ * <p>
+ * Not thread-safe, as the Random it is given usually is not either.
+ */
+public class RejectionInversionZipfianGenerator extends IntegerGenerator {
+
+    final Random rng;
+
+    /**
+     * Min item to generate.
+     */
+    final long base;
+
+    /**
+     * Number of items.
+     */
+    final long items;
+
+    /**
+     * The zipfian constant to use.
+     */
+    final double theta;
+
+    /**
+     * Computed parameters for generating the distribution.
+     */
+    private final double hIntegralX1, hIntegralItems, s;
+
+    /**
+     * Whether theta is far enough from 1 for 1 + t in {@link #hIntegralInverse(double)} to keep its precision.
+     */
+    private final boolean usePow;
+    private final double inverseOneMinusTheta;
+
+    /**
+     * Create a zipfian generator for the specified number of items.
+     */
+    public RejectionInversionZipfianGenerator(Random rng, long _items) {
+        this(rng, 0, _items - 1, ZipfianGenerator.ZIPFIAN_CONSTANT);
+    }
+
+    /**
+     * Create a zipfian generator for the specified number of items using the specified zipfian constant.
+     */
+    public RejectionInversionZipfianGenerator(Random rng, long _items, double _zipfianconstant) {
+        this(rng, 0, _items - 1, _zipfianconstant);
+    }
+
+    /**
+     * Create a zipfian generator for items between min and max (inclusive) for the specified zipfian constant.
+     *
+     * @param min              The smallest integer to generate in the sequence.
+     * @param max              The largest integer to generate in the sequence.
+     * @param _zipfianconstant The zipfian constant to use, which must be positive.
+     */
+    public RejectionInversionZipfianGenerator(Random rng, long min, long max, double _zipfianconstant) {
+        if (max < min) {
+            throw new IllegalArgumentException(String.format("Invalid range [%d, %d]", min, max));
+        }
+        if (!(_zipfianconstant > 0)) {
+            throw new IllegalArgumentException("Zipfian constant must be positive: " + _zipfianconstant);
+        }
+        this.rng = rng;
+        this.base = min;
+        this.items = max - min + 1;
+        this.theta = _zipfianconstant;
+        this.usePow = Math.abs(1 - this.theta) >= 1e-3;
+        this.inverseOneMinusTheta = 1 / (1 - this.theta);
+
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralItems = hIntegral(this.items + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Return the next value as a long.
+     */
+    public long nextLong() {
+        while (true) {
+            double u = this.hIntegralItems + this.rng.nextDouble() * (this.hIntegralX1 - this.hIntegralItems);
+            double x = hIntegralInverse(u);
+            long k = (long) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > this.items) {
+                k = this.items;
+            }
+            // Accept right away if k is close enough to x, else check that u falls under the histogram bar of k
+            if (k - x <= this.s || u >= hIntegral(k + 0.5) - h(k)) {
+                long ret = this.base + k - 1;
+                setLastInt((int) ret);
+                return ret;
+            }
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) nextLong();
+    }
+
+    /**
+     * The k-th item (from 1) has probability k^-theta / zeta(items, theta), so the mean rank is
+     * zeta(items, theta - 1) / zeta(items, theta), and item k is base + k - 1.
+     */
+    @Override
+    public double mean() {
+        return this.base + ZetaCache.zeta(this.items, this.theta - 1) / ZetaCache.zeta(this.items, this.theta) - 1;
+    }
+
+    /**
+     * h(x) = 1 / x^theta, the density that the item probabilities are taken from.
+     */
+    private double h(double x) {
+        return Math.exp(-this.theta * Math.log(x));
+    }
+
+    /**
+     * An antiderivative of h, (x^(1 - theta) - 1) / (1 - theta), which is log(x) for theta = 1.
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - this.theta) * logX) * logX;
+    }
+
+    /**
+     * The inverse of {@link #hIntegral(double)}.
+     */
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - this.theta);
+        if (t < -1) {
+            // Only possible through rounding errors
+            t = -1;
+        }
+        if (this.usePow) {
+            // (1 + t)^(1 / (1 - theta)), one intrinsic instead of log1p and exp
+            return Math.pow(1 + t, this.inverseOneMinusTheta);
+        }
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    /**
+     * log(1 + x) / x, also for x close to 0.
+     */
+    private static double log1pOverX(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    /**
+     * (exp(x) - 1) / x, also for x close to 0.
+     */
+    private static double expm1OverX(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x / 3.0 * (1 + 0.25 * x));
+    }
+}
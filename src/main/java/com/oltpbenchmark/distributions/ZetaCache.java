@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the zeta constants used by {@link ZipfianGenerator}, keyed by (n, theta).
+ * <p>
+ * Every Worker of a YCSB run builds its own ZipfianGenerator over the same keyspace, and each one
+ * used to sum n terms in its constructor. Now the first one computes zeta and the rest look it up.
+ * <p>
+ * Computing it is cheap as well: the first {@link #EXACT_TERMS} terms are summed directly and the
+ * rest of the sum is the Euler-Maclaurin expansion of the integral of x^-theta, whose error at
+ * that point is far below a double's precision. So zeta for 10 billion items takes about as long
+ * as for 65 thousand, and for n up to EXACT_TERMS the result is the same as the plain loop.
+ */
+public final class ZetaCache {
+
+    /**
+     * Number of leading terms that are summed one by one.
+     */
+    static final long EXACT_TERMS = 1L << 16;
+
+    private record Key(long n, double theta) {
+    }
+
+    private static final Map<Key, Double> CACHE = new ConcurrentHashMap<>();
+
+    private ZetaCache() {
+    }
+
+    /**
+     * @return the sum of 1 / i^theta for i from 1 to n, computed once per process
+     */
+    public static double zeta(long n, double theta) {
+        return CACHE.computeIfAbsent(new Key(n, theta), k -> compute(k.n, k.theta));
+    }
+
+    /**
+     * @return the sum of 1 / i^theta for i from 1 to n, without going through the cache
+     */
+    static double compute(long n, double theta) {
+        if (n <= EXACT_TERMS) {
+            return ZipfianGenerator.zetastatic(0, n, theta, 0);
+        }
+        double m = EXACT_TERMS;
+        double x = n;
+        double head = ZipfianGenerator.zetastatic(0, EXACT_TERMS, theta, 0);
+
+        // Integral of x^-theta from m to n, written to stay accurate as theta approaches 1
+        double log = Math.log(x / m);
+        double t = (1 - theta) * log;
+        double integral = Math.pow(m, 1 - theta) * log * (Math.abs(t) > 1e-8 ? Math.expm1(t) / t : 1 + t / 2);
+
+        // Euler-Maclaurin for the terms m..n, with the Bernoulli numbers B2 and B4.
+        // The head already includes the term for m, so it is taken out once.
+        double fm = Math.pow(m, -theta);
+        double fn = Math.pow(x, -theta);
+        double d1 = -theta * (Math.pow(x, -theta - 1) - Math.pow(m, -theta - 1)) / 12;
+        double d3 = theta * (theta + 1) * (theta + 2) * (Math.pow(x, -theta - 3) - Math.pow(m, -theta - 3)) / 720;
+        return head - fm + integral + (fm + fn) / 2 + d1 + d3;
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+}
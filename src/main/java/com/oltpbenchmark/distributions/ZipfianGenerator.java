@@ -32,11 +32,12 @@ import java.util.Random;
  * popular, min+1 the next most popular, etc.) If you don't want this clustering, and instead want the popular items scattered throughout the
  * item space, then use ScrambledZipfianGenerator instead.
  * <p>
- * Be aware: initializing this generator may take a long time if there are lots of items to choose from (e.g. over a minute
- * for 100 million objects). This is because certain mathematical values need to be computed to properly generate a zipfian skew, and one of those
- * values (zeta) is a sum sequence from 1 to n, where n is the itemcount. Note that if you increase the number of items in the set, we can compute
- * a new zeta incrementally, so it should be fast unless you have added millions of items. However, if you decrease the number of items, we recompute
- * zeta from scratch, so this can take a long time.
+ * Certain mathematical values need to be computed to properly generate a zipfian skew, and one of those values (zeta) is a sum
+ * sequence from 1 to n, where n is the itemcount. The constructors get it from {@link ZetaCache}, which computes it in constant time
+ * for large n and only once per (n, theta) in the process, so creating a generator per worker over a large keyspace is cheap. If you
+ * increase the number of items in the set, zeta is computed incrementally; if you decrease it, zeta is recomputed.
+ * <p>
+ * For an exact zipfian distribution whose setup cost does not depend on n at all, see {@link RejectionInversionZipfianGenerator}.
  * <p>
  * The algorithm used here is from "Quickly Generating Billion-Record Synthetic Databases", Jim Gray et al, SIGMOD 1994.
  */
@@ -119,7 +120,7 @@ public class ZipfianGenerator extends IntegerGenerator {
      * @param _zipfianconstant The zipfian constant to use.
      */
     public ZipfianGenerator(Random rng, long min, long max, double _zipfianconstant) {
-        this(rng, min, max, _zipfianconstant, zetastatic(max - min + 1, _zipfianconstant));
+        this(rng, min, max, _zipfianconstant, ZetaCache.zeta(max - min + 1, _zipfianconstant));
     }
 
     /**
@@ -162,7 +163,7 @@ public class ZipfianGenerator extends IntegerGenerator {
      */
     double zeta(long n, double theta) {
         countforzeta = n;
-        return zetastatic(n, theta);
+        return ZetaCache.compute(n, theta);
     }
 
     /**
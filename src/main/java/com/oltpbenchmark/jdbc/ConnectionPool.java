@@ -0,0 +1,272 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small connection pool in front of a {@link DriverConnectionProvider}.
+ * <p>
+ * The pool never makes a caller wait for another caller: when no idle
+ * connection is available a new physical one is opened (subject to the
+ * driver provider's connect throttle), and a returned connection is kept
+ * only while fewer than size connections are idle. Idle connections are
+ * handed out most recently used first, validated with
+ * {@link Connection#isValid(int)} if they sat idle for a second or more, and
+ * closed once they are older than maxLifetime.
+ */
+public final class ConnectionPool implements ConnectionProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /**
+     * Connections idle for less than this are handed out without a validity check.
+     */
+    static final long VALIDATE_AFTER_IDLE_NS = TimeUnit.SECONDS.toNanos(1);
+
+    static final class Entry {
+        final Connection conn;
+        final long createdNs;
+        long releasedNs;
+
+        /**
+         * Session settings of the freshly opened connection, restored on release.
+         */
+        final boolean initialAutoCommit;
+        final int initialIsolation;
+        final boolean initialReadOnly;
+
+        /**
+         * Current settings as set through {@link PooledConnection}, so that
+         * release only talks to the server if they changed.
+         */
+        int isolation;
+        boolean readOnly;
+
+        Entry(Connection conn, long createdNs) throws SQLException {
+            this.conn = conn;
+            this.createdNs = createdNs;
+            this.releasedNs = createdNs;
+            this.initialAutoCommit = conn.getAutoCommit();
+            this.initialIsolation = conn.getTransactionIsolation();
+            this.initialReadOnly = conn.isReadOnly();
+            this.isolation = this.initialIsolation;
+            this.readOnly = this.initialReadOnly;
+        }
+
+        /**
+         * Undo what the last holder did to the session: roll back an open
+         * transaction and restore auto-commit, isolation and read-only.
+         */
+        void reset() throws SQLException {
+            boolean autoCommit = this.conn.getAutoCommit();
+            if (!autoCommit) {
+                this.conn.rollback();
+            }
+            if (autoCommit != this.initialAutoCommit) {
+                this.conn.setAutoCommit(this.initialAutoCommit);
+            }
+            if (this.isolation != this.initialIsolation) {
+                this.conn.setTransactionIsolation(this.initialIsolation);
+                this.isolation = this.initialIsolation;
+            }
+            if (this.readOnly != this.initialReadOnly) {
+                this.conn.setReadOnly(this.initialReadOnly);
+                this.readOnly = this.initialReadOnly;
+            }
+        }
+    }
+
+    private final DriverConnectionProvider driver;
+    private final int size;
+    private final long maxLifetimeNs;
+    private final int validationTimeout;
+    private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+
+    /**
+     * @param size              maximum number of idle connections kept
+     * @param maxLifetimeMillis connections older than this are not reused, or 0 for no limit
+     * @param validationTimeout isValid timeout in seconds, or 0 to never validate
+     */
+    public ConnectionPool(DriverConnectionProvider driver, int size, long maxLifetimeMillis, int validationTimeout) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Connection pool size must be at least one");
+        }
+        this.driver = driver;
+        this.size = size;
+        this.maxLifetimeNs = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+        this.validationTimeout = validationTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Entry entry;
+        boolean reused = false;
+        while ((entry = this.poll()) != null) {
+            if (this.usable(entry, start)) {
+                reused = true;
+                break;
+            }
+            closeQuietly(entry);
+        }
+        if (entry == null) {
+            entry = this.open();
+        }
+        this.getStatistics().recordAcquire(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), reused);
+        return new PooledConnection(this, entry);
+    }
+
+    /**
+     * Fill the pool up to its size.
+     */
+    @Override
+    public void warmUp() throws SQLException {
+        List<Entry> opened = new ArrayList<>();
+        synchronized (this.idle) {
+            int missing = this.size - this.idle.size();
+            for (int i = 0; i < missing; i++) {
+                opened.add(this.open());
+            }
+        }
+        for (Entry entry : opened) {
+            this.release(entry, false);
+        }
+        LOG.debug("Warmed up {} connections", opened.size());
+    }
+
+    private Entry open() throws SQLException {
+        Connection conn = this.driver.connect();
+        try {
+            return new Entry(conn, System.nanoTime());
+        } catch (SQLException ex) {
+            try {
+                conn.close();
+            } catch (SQLException inner) {
+                ex.addSuppressed(inner);
+            }
+            throw ex;
+        }
+    }
+
+    private Entry poll() {
+        synchronized (this.idle) {
+            return this.idle.pollFirst();
+        }
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return this.maxLifetimeNs > 0 && now - entry.createdNs >= this.maxLifetimeNs;
+    }
+
+    private boolean usable(Entry entry, long now) {
+        if (this.expired(entry, now)) {
+            this.getStatistics().recordExpired();
+            return false;
+        }
+        if (this.validationTimeout > 0 && now - entry.releasedNs >= VALIDATE_AFTER_IDLE_NS) {
+            boolean valid;
+            try {
+                valid = entry.conn.isValid(this.validationTimeout);
+            } catch (SQLException ex) {
+                valid = false;
+            }
+            if (!valid) {
+                this.getStatistics().recordValidationFailure();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Take a connection back from a {@link PooledConnection}.
+     *
+     * @param broken if true the connection is closed instead of kept
+     */
+    void release(Entry entry, boolean broken) {
+        if (!broken) {
+            try {
+                // Don't hand a half-finished transaction or changed session to the next caller
+                if (entry.conn.isClosed()) {
+                    broken = true;
+                } else {
+                    entry.reset();
+                }
+            } catch (SQLException ex) {
+                LOG.debug("Discarding pooled connection: {}", ex.getMessage());
+                broken = true;
+            }
+        }
+        long now = System.nanoTime();
+        if (!broken && this.expired(entry, now)) {
+            this.getStatistics().recordExpired();
+            broken = true;
+        }
+        if (!broken) {
+            synchronized (this.idle) {
+                if (this.idle.size() < this.size) {
+                    entry.releasedNs = now;
+                    this.idle.offerFirst(entry);
+                    return;
+                }
+            }
+        }
+        closeQuietly(entry);
+    }
+
+    private static void closeQuietly(Entry entry) {
+        try {
+            entry.conn.close();
+        } catch (SQLException ex) {
+            LOG.debug("Failed to close pooled connection: {}", ex.getMessage());
+        }
+    }
+
+    public int getIdle() {
+        synchronized (this.idle) {
+            return this.idle.size();
+        }
+    }
+
+    @Override
+    public ConnectionStatistics getStatistics() {
+        return this.driver.getStatistics();
+    }
+
+    /**
+     * Close the idle connections. The pool stays usable, e.g., for the next
+     * workload of the same benchmark.
+     */
+    @Override
+    public void close() {
+        List<Entry> entries;
+        synchronized (this.idle) {
+            entries = new ArrayList<>(this.idle);
+            this.idle.clear();
+        }
+        entries.forEach(ConnectionPool::closeQuietly);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of the Connections used by Workers and loaders. A provider either
+ * opens a physical connection on every call ({@link DriverConnectionProvider})
+ * or hands out logical connections from a pool ({@link ConnectionPool}); in
+ * both cases the caller closes the Connection when done with it.
+ * <p>
+ * Implementations are thread-safe.
+ */
+public interface ConnectionProvider extends AutoCloseable {
+
+    Connection getConnection() throws SQLException;
+
+    /**
+     * Open connections ahead of time so that the first transactions don't pay for them.
+     */
+    default void warmUp() throws SQLException {
+        // The default is to do nothing
+    }
+
+    /**
+     * Connect and hand-out latencies since this provider was created.
+     */
+    ConnectionStatistics getStatistics();
+
+    /**
+     * Close any connections held by the provider itself. Connections that are
+     * still in use are closed when their holder closes them.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Connection overhead of a run, kept apart from transaction latency.
+ * Connect is the time to open a physical connection, throttling included;
+ * Acquire is the time a caller waited for {@link ConnectionProvider#getConnection()},
+ * which for a pool is mostly the cost of a logical reconnect. Both in microseconds.
+ */
+public final class ConnectionStatistics {
+
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private long reused = 0;
+    private long validationFailures = 0;
+    private long expired = 0;
+
+    synchronized void recordConnect(long micros) {
+        this.connect.record(micros);
+    }
+
+    synchronized void recordAcquire(long micros, boolean reused) {
+        this.acquire.record(micros);
+        if (reused) {
+            this.reused++;
+        }
+    }
+
+    synchronized void recordValidationFailure() {
+        this.validationFailures++;
+    }
+
+    synchronized void recordExpired() {
+        this.expired++;
+    }
+
+    /**
+     * Forget everything recorded so far, e.g., the connects of the load phase.
+     */
+    public synchronized void reset() {
+        this.connect.reset();
+        this.acquire.reset();
+        this.reused = 0;
+        this.validationFailures = 0;
+        this.expired = 0;
+    }
+
+    public synchronized void add(ConnectionStatistics other) {
+        ConnectionStatistics copy = other.copy();
+        this.connect.add(copy.connect);
+        this.acquire.add(copy.acquire);
+        this.reused += copy.reused;
+        this.validationFailures += copy.validationFailures;
+        this.expired += copy.expired;
+    }
+
+    private synchronized ConnectionStatistics copy() {
+        ConnectionStatistics copy = new ConnectionStatistics();
+        copy.connect.add(this.connect);
+        copy.acquire.add(this.acquire);
+        copy.reused = this.reused;
+        copy.validationFailures = this.validationFailures;
+        copy.expired = this.expired;
+        return copy;
+    }
+
+    public synchronized long getConnects() {
+        return this.connect.getTotalCount();
+    }
+
+    public synchronized long getAcquires() {
+        return this.acquire.getTotalCount();
+    }
+
+    public synchronized long getReused() {
+        return this.reused;
+    }
+
+    public synchronized long getValidationFailures() {
+        return this.validationFailures;
+    }
+
+    public synchronized long getExpired() {
+        return this.expired;
+    }
+
+    public synchronized DistributionStatistics getConnectStatistics() {
+        return DistributionStatistics.computeStatistics(this.connect);
+    }
+
+    public synchronized DistributionStatistics getAcquireStatistics() {
+        return DistributionStatistics.computeStatistics(this.acquire);
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new TreeMap<>();
+        map.put("Physical Connects", getConnects());
+        map.put("Acquires", getAcquires());
+        map.put("Reused", this.reused);
+        map.put("Validation Failures", this.validationFailures);
+        map.put("Expired", this.expired);
+        if (getConnects() > 0) {
+            map.put("Connect Latency", getConnectStatistics().toMap("Connect Latency"));
+        }
+        if (getAcquires() > 0) {
+            map.put("Acquire Latency", getAcquireStatistics().toMap("Acquire Latency"));
+        }
+        return map;
+    }
+}
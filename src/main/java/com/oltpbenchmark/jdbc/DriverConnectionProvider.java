@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opens a physical connection through the DriverManager on every call.
+ * <p>
+ * Connects can be throttled so that hundreds of terminals starting at once
+ * (or reconnecting after a failover) don't overwhelm the server: at most
+ * maxConcurrent connects are in flight and they are started at most
+ * ratePerSecond times per second. Waiting for the throttle is part of the
+ * recorded connect latency.
+ */
+public final class DriverConnectionProvider implements ConnectionProvider {
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Semaphore concurrent;
+    private final long intervalNs;
+    private final AtomicLong nextConnectNs = new AtomicLong(Long.MIN_VALUE);
+    private final ConnectionStatistics statistics = new ConnectionStatistics();
+
+    /**
+     * @param maxConcurrent maximum connects in flight, or 0 for no limit
+     * @param ratePerSecond maximum connects started per second, or 0 for no limit
+     */
+    public DriverConnectionProvider(String url, String username, String password, int maxConcurrent, double ratePerSecond) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.concurrent = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        this.intervalNs = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = connect();
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        this.statistics.recordAcquire(micros, false);
+        return conn;
+    }
+
+    /**
+     * Open a physical connection, recording only its connect latency.
+     */
+    Connection connect() throws SQLException {
+        long start = System.nanoTime();
+        if (this.concurrent != null) {
+            try {
+                this.concurrent.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting to connect", ex);
+            }
+        }
+        try {
+            awaitConnectSlot();
+            Connection conn;
+            if (StringUtils.isEmpty(this.username)) {
+                conn = DriverManager.getConnection(this.url);
+            } else {
+                conn = DriverManager.getConnection(this.url, this.username, this.password);
+            }
+            this.statistics.recordConnect(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            return conn;
+        } finally {
+            if (this.concurrent != null) {
+                this.concurrent.release();
+            }
+        }
+    }
+
+    private void awaitConnectSlot() {
+        if (this.intervalNs == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot;
+        long prev;
+        do {
+            prev = this.nextConnectNs.get();
+            slot = prev == Long.MIN_VALUE ? now : Math.max(now, prev);
+        } while (!this.nextConnectNs.compareAndSet(prev, slot + this.intervalNs));
+
+        long wait;
+        while ((wait = slot - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    @Override
+    public ConnectionStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    @Override
+    public void close() {
+        // Nothing is held here
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import com.oltpbenchmark.api.SQLStmt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-Worker cache of PreparedStatements keyed by (Connection, SQLStmt, return-keys mode).
+ * <p>
+ * Every Procedure owned by a Worker shares that Worker's cache, so a statement
+ * is prepared once per connection instead of once per transaction. The cache
+ * is bound to a single Connection at a time: asking for a statement on a
+ * different Connection closes everything prepared on the old one.
+ * <p>
+ * Not thread-safe. Each Worker runs on exactly one thread.
+ */
+public final class StatementCache {
+    private static final Logger LOG = LoggerFactory.getLogger(StatementCache.class);
+
+    /**
+     * Builds the driver statement on a cache miss.
+     */
+    @FunctionalInterface
+    public interface StatementFactory {
+        PreparedStatement prepare(Connection conn, SQLStmt stmt, int[] returnKeys) throws SQLException;
+    }
+
+    private record Key(SQLStmt stmt, String returnKeys) {
+    }
+
+    private final Map<Key, CachedPreparedStatement> statements = new HashMap<>();
+    private Connection conn = null;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Return a PreparedStatement for the given SQLStmt on this connection,
+     * preparing it with the factory only if it is not cached yet. If the
+     * cached statement is still held by the caller (e.g., the same SQLStmt is
+     * used in a nested loop), a fresh uncached statement is returned instead.
+     */
+    public PreparedStatement get(Connection conn, SQLStmt stmt, int[] returnKeys, StatementFactory factory) throws SQLException {
+        if (conn != this.conn) {
+            this.clear();
+            this.conn = conn;
+        }
+
+        Key key = new Key(stmt, returnKeys == null ? null : Arrays.toString(returnKeys));
+        CachedPreparedStatement cached = this.statements.get(key);
+
+        if (cached != null && !cached.isLeased()) {
+            this.hits++;
+            cached.lease();
+            return cached;
+        }
+
+        this.misses++;
+        if (cached != null) {
+            // Already in use by the caller, so don't hand out the same handle twice
+            return factory.prepare(conn, stmt, returnKeys);
+        }
+
+        cached = new CachedPreparedStatement(factory.prepare(conn, stmt, returnKeys));
+        cached.lease();
+        this.statements.put(key, cached);
+        return cached;
+    }
+
+    /**
+     * Reclaim every statement that a Procedure forgot to close.
+     * Called by the Worker after each transaction.
+     */
+    public void releaseAll() {
+        for (CachedPreparedStatement cached : this.statements.values()) {
+            try {
+                cached.close();
+            } catch (SQLException ex) {
+                LOG.debug("Failed to reset cached statement: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Close all cached statements and unbind the cache from its Connection.
+     */
+    public void clear() {
+        for (CachedPreparedStatement cached : this.statements.values()) {
+            try {
+                cached.closeStatement();
+            } catch (SQLException ex) {
+                LOG.debug("Failed to close cached statement: {}", ex.getMessage());
+            }
+        }
+        this.statements.clear();
+        this.conn = null;
+    }
+
+    public int size() {
+        return this.statements.size();
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.metrics;
+
+import com.oltpbenchmark.LatencyHistogram;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.types.TransactionStatus;
+
+import java.util.Arrays;
+
+/**
+ * Transaction outcomes and latencies recorded by one Worker during one
+ * interval, indexed by transaction type id.
+ * <p>
+ * Not thread-safe, see {@link IntervalRecorder}.
+ */
+final class IntervalMetrics {
+
+    static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final int significantDigits;
+    private TransactionType[] types = new TransactionType[16];
+    private long[] counts = new long[types.length * STATUSES.length];
+    private LatencyHistogram[] latencies = new LatencyHistogram[types.length];
+
+    IntervalMetrics(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    void recordStatus(TransactionType type, TransactionStatus status) {
+        int id = slot(type);
+        counts[id * STATUSES.length + status.ordinal()]++;
+    }
+
+    void recordLatency(TransactionType type, long latencyMicroseconds) {
+        int id = slot(type);
+        LatencyHistogram histogram = latencies[id];
+        if (histogram == null) {
+            histogram = latencies[id] = new LatencyHistogram(significantDigits);
+        }
+        histogram.record(latencyMicroseconds);
+    }
+
+    private int slot(TransactionType type) {
+        int id = type.getId();
+        if (id >= types.length) {
+            int length = Math.max(types.length * 2, id + 1);
+            types = Arrays.copyOf(types, length);
+            counts = Arrays.copyOf(counts, length * STATUSES.length);
+            latencies = Arrays.copyOf(latencies, length);
+        }
+        types[id] = type;
+        return id;
+    }
+
+    /**
+     * @return the highest transaction type id plus one
+     */
+    int size() {
+        return types.length;
+    }
+
+    /**
+     * @return the transaction type with this id, or null if nothing was recorded for it
+     */
+    TransactionType getType(int id) {
+        return types[id];
+    }
+
+    long getCount(int id, TransactionStatus status) {
+        return counts[id * STATUSES.length + status.ordinal()];
+    }
+
+    /**
+     * @return the latencies of this transaction type, or null if none were recorded
+     */
+    LatencyHistogram getLatency(int id) {
+        return latencies[id];
+    }
+
+    /**
+     * Clear the counts but keep the type slots and histograms for reuse.
+     */
+    void reset() {
+        Arrays.fill(counts, 0);
+        for (LatencyHistogram histogram : latencies) {
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+    }
+}
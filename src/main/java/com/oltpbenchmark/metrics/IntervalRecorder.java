@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.metrics;
+
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.types.TransactionStatus;
+
+/**
+ * Double-buffered interval metrics for a single Worker.
+ * <p>
+ * The Worker records into the active buffer without locks or CAS. The
+ * collector swaps in the other buffer and then waits until the Worker is no
+ * longer inside a record call, after which the old buffer is quiescent and
+ * can be read. The Worker bumps a sequence number to odd before it reads the
+ * active buffer and back to even once it is done; because both sides write
+ * one volatile and then read the other, either the Worker sees the new
+ * buffer or the collector sees the odd sequence number.
+ * <p>
+ * There must be exactly one writer (the Worker thread) and one reader (the
+ * collector thread).
+ */
+public final class IntervalRecorder {
+
+    private final IntervalMetrics[] buffers;
+    private volatile IntervalMetrics active;
+    private volatile long writerSequence = 0;
+
+    IntervalRecorder(int significantDigits) {
+        this.buffers = new IntervalMetrics[]{new IntervalMetrics(significantDigits), new IntervalMetrics(significantDigits)};
+        this.active = buffers[0];
+    }
+
+    /**
+     * Count one attempt of a transaction that finished with the given status.
+     */
+    public void recordStatus(TransactionType type, TransactionStatus status) {
+        writerSequence++;
+        active.recordStatus(type, status);
+        writerSequence++;
+    }
+
+    /**
+     * Record how long one transaction took, retries included.
+     */
+    public void recordLatency(TransactionType type, long latencyMicroseconds) {
+        writerSequence++;
+        active.recordLatency(type, latencyMicroseconds);
+        writerSequence++;
+    }
+
+    /**
+     * Start a new interval and return the metrics of the one that ended. The
+     * returned buffer is only valid until the next call.
+     */
+    IntervalMetrics swap() {
+        IntervalMetrics previous = active;
+        IntervalMetrics next = previous == buffers[0] ? buffers[1] : buffers[0];
+        next.reset();
+        active = next;
+
+        long sequence = writerSequence;
+        if ((sequence & 1) != 0) {
+            // The Worker may still be writing into the previous buffer
+            while (writerSequence == sequence) {
+                Thread.yield();
+            }
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oltpbenchmark.LatencyHistogram;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.types.TransactionStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes per-transaction-type throughput, outcome counts and latency
+ * percentiles while a benchmark runs.
+ * <p>
+ * Every Worker records into its own {@link IntervalRecorder}. A collector
+ * thread swaps all recorders once per interval, merges them and publishes
+ * the result in the Prometheus text format over HTTP (GET /metrics) and,
+ * optionally, as one JSON object per line appended to a file. Percentiles
+ * and throughput cover the last interval only; outcome counts and the
+ * latency sum and count are totals since the start of the run, as
+ * Prometheus expects for counters and summaries.
+ */
+public final class LiveMetrics implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(LiveMetrics.class);
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private record Source(String benchmark, IntervalRecorder recorder) {
+    }
+
+    /**
+     * Everything published for one (benchmark, transaction type).
+     */
+    private static final class Series {
+        private final String benchmark;
+        private final String transaction;
+        private final long[] intervalCounts = new long[IntervalMetrics.STATUSES.length];
+        private final long[] totalCounts = new long[IntervalMetrics.STATUSES.length];
+        private final LatencyHistogram intervalLatency;
+        private long totalLatencyCount = 0;
+        private double totalLatencySum = 0;
+
+        Series(String benchmark, String transaction, int significantDigits) {
+            this.benchmark = benchmark;
+            this.transaction = transaction;
+            this.intervalLatency = new LatencyHistogram(significantDigits);
+        }
+    }
+
+    private final int intervalMs;
+    private final int port;
+    private final String jsonFile;
+    private final int significantDigits;
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private final Map<String, Series> series = new TreeMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private volatile String exposition = "";
+    private HttpServer server = null;
+    private PrintStream jsonOut = null;
+    private Thread collector = null;
+    private long startNs;
+    private long lastCollectNs;
+
+    /**
+     * @param intervalMs how often to publish, in milliseconds
+     * @param port       HTTP port for /metrics, or 0 for no endpoint
+     * @param jsonFile   file to append one JSON line per interval to, or null
+     */
+    public LiveMetrics(int intervalMs, int port, String jsonFile, int significantDigits) {
+        this.intervalMs = intervalMs;
+        this.port = port;
+        this.jsonFile = jsonFile;
+        this.significantDigits = significantDigits;
+    }
+
+    /**
+     * Create the recorder for one Worker.
+     */
+    public IntervalRecorder register(String benchmark) {
+        IntervalRecorder recorder = new IntervalRecorder(significantDigits);
+        sources.add(new Source(benchmark, recorder));
+        return recorder;
+    }
+
+    public void start() throws IOException {
+        if (port > 0) {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/metrics", this::handle);
+            server.start();
+            LOG.info("Serving live metrics on http://localhost:{}/metrics", server.getAddress().getPort());
+        }
+        if (jsonFile != null) {
+            jsonOut = new PrintStream(jsonFile, StandardCharsets.UTF_8);
+            LOG.info("Writing live metrics to {}", jsonFile);
+        }
+
+        startNs = lastCollectNs = System.nanoTime();
+        collector = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                collect();
+            }
+        }, "LiveMetrics");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    /**
+     * @return the port the endpoint is bound to, or 0 if there is none
+     */
+    public int getPort() {
+        return server == null ? 0 : server.getAddress().getPort();
+    }
+
+    /**
+     * @return the latest metrics in the Prometheus text format
+     */
+    public String getExposition() {
+        return exposition;
+    }
+
+    /**
+     * Close the interval in progress and publish it.
+     */
+    synchronized void collect() {
+        long now = System.nanoTime();
+        double seconds = (now - lastCollectNs) / 1000000000.;
+        lastCollectNs = now;
+
+        for (Series s : series.values()) {
+            Arrays.fill(s.intervalCounts, 0);
+            s.intervalLatency.reset();
+        }
+        for (Source source : sources) {
+            IntervalMetrics metrics = source.recorder().swap();
+            for (int id = 0; id < metrics.size(); id++) {
+                TransactionType type = metrics.getType(id);
+                if (type == null) {
+                    continue;
+                }
+                Series s = series(source.benchmark(), type);
+                for (TransactionStatus status : IntervalMetrics.STATUSES) {
+                    long count = metrics.getCount(id, status);
+                    s.intervalCounts[status.ordinal()] += count;
+                    s.totalCounts[status.ordinal()] += count;
+                }
+                LatencyHistogram latency = metrics.getLatency(id);
+                if (latency != null && latency.getTotalCount() > 0) {
+                    s.intervalLatency.add(latency);
+                    s.totalLatencyCount += latency.getTotalCount();
+                    s.totalLatencySum += latency.getMean() * latency.getTotalCount();
+                }
+            }
+        }
+
+        exposition = toPrometheus(seconds);
+        if (jsonOut != null) {
+            jsonOut.println(toJson(now, seconds));
+            jsonOut.flush();
+        }
+    }
+
+    private Series series(String benchmark, TransactionType type) {
+        String name = type.getTransactionName() != null ? type.getTransactionName() : type.getName();
+        return series.computeIfAbsent(benchmark + '\0' + name, k -> new Series(benchmark, name, significantDigits));
+    }
+
+    private String toPrometheus(double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# HELP benchbase_transactions_total Transaction attempts by outcome since the start of the run.\n");
+        sb.append("# TYPE benchbase_transactions_total counter\n");
+        for (Series s : series.values()) {
+            for (TransactionStatus status : IntervalMetrics.STATUSES) {
+                sb.append("benchbase_transactions_total");
+                labels(sb, s, "status", status.name().toLowerCase());
+                sb.append(' ').append(s.totalCounts[status.ordinal()]).append('\n');
+            }
+        }
+
+        sb.append("# HELP benchbase_throughput Completed transactions per second over the last interval.\n");
+        sb.append("# TYPE benchbase_throughput gauge\n");
+        for (Series s : series.values()) {
+            sb.append("benchbase_throughput");
+            labels(sb, s, null, null);
+            sb.append(' ').append(throughput(s, seconds)).append('\n');
+        }
+
+        sb.append("# HELP benchbase_latency_microseconds Transaction latency; quantiles cover the last interval.\n");
+        sb.append("# TYPE benchbase_latency_microseconds summary\n");
+        for (Series s : series.values()) {
+            for (double quantile : QUANTILES) {
+                sb.append("benchbase_latency_microseconds");
+                labels(sb, s, "quantile", Double.toString(quantile));
+                sb.append(' ').append(s.intervalLatency.getValueAtPercentile(quantile)).append('\n');
+            }
+            sb.append("benchbase_latency_microseconds_sum");
+            labels(sb, s, null, null);
+            sb.append(' ').append(s.totalLatencySum).append('\n');
+            sb.append("benchbase_latency_microseconds_count");
+            labels(sb, s, null, null);
+            sb.append(' ').append(s.totalLatencyCount).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void labels(StringBuilder sb, Series s, String extraName, String extraValue) {
+        sb.append("{benchmark=\"");
+        escape(sb, s.benchmark);
+        sb.append("\",transaction=\"");
+        escape(sb, s.transaction);
+        sb.append('"');
+        if (extraName != null) {
+            sb.append(',').append(extraName).append("=\"");
+            escape(sb, extraValue);
+            sb.append('"');
+        }
+        sb.append('}');
+    }
+
+    private static void escape(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private static double throughput(Series s, double seconds) {
+        return seconds > 0 ? s.intervalLatency.getTotalCount() / seconds : 0;
+    }
+
+    private String toJson(long nowNs, double seconds) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("time", System.currentTimeMillis());
+        line.put("elapsed", (nowNs - startNs) / 1000000000.);
+        line.put("interval", seconds);
+        List<Map<String, Object>> transactions = new ArrayList<>();
+        for (Series s : series.values()) {
+            Map<String, Object> txn = new LinkedHashMap<>();
+            txn.put("benchmark", s.benchmark);
+            txn.put("transaction", s.transaction);
+            txn.put("throughput", throughput(s, seconds));
+            for (TransactionStatus status : IntervalMetrics.STATUSES) {
+                txn.put(status.name().toLowerCase(), s.intervalCounts[status.ordinal()]);
+            }
+            txn.put("p50", s.intervalLatency.getValueAtPercentile(0.5));
+            txn.put("p95", s.intervalLatency.getValueAtPercentile(0.95));
+            txn.put("p99", s.intervalLatency.getValueAtPercentile(0.99));
+            transactions.add(txn);
+        }
+        line.put("transactions", transactions);
+        try {
+            return mapper.writeValueAsString(line);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = exposition.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Publish the last partial interval and shut everything down.
+     */
+    @Override
+    public void close() {
+        if (collector != null) {
+            collector.interrupt();
+            try {
+                collector.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            collect();
+            collector = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (jsonOut != null) {
+            jsonOut.close();
+            jsonOut = null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import java.util.Random;
+
+/**
+ * An immutable Walker/Vose alias table over the values of a Histogram: each
+ * value is drawn with probability count / sample count in O(1), with a
+ * single random double and two array reads.
+ * <p>
+ * A table is built once and is safe to share between threads. Each thread
+ * samples it with its own Random, e.g., through a
+ * {@link RandomDistribution.FlatHistogram}. {@link #nextInt} and
+ * {@link #nextLong} return Integer and Long values without unboxing them.
+ */
+public final class AliasTable<T extends Comparable<T>> {
+
+    private final Object[] values;
+    private final long[] longValues;
+    private final double[] probability;
+    private final int[] alias;
+    private final int sampleCount;
+
+    public AliasTable(Histogram<T> histogram) {
+        int n = histogram.getValueCount();
+        if (n == 0) {
+            throw new IllegalArgumentException("Cannot sample an empty histogram");
+        }
+        this.values = new Object[n];
+        long[] weights = new long[n];
+        long[] longValues = new long[n];
+        boolean integral = true;
+        long total = 0;
+        int i = 0;
+        for (T value : histogram.values()) {
+            this.values[i] = value;
+            weights[i] = histogram.get(value);
+            total += weights[i];
+            if (value instanceof Integer || value instanceof Long) {
+                longValues[i] = ((Number) value).longValue();
+            } else {
+                integral = false;
+            }
+            i++;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Cannot sample a histogram without samples");
+        }
+        this.longValues = integral ? longValues : null;
+        this.sampleCount = histogram.getSampleCount();
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Vose: pair each value below the average weight with one above it
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (i = 0; i < n; i++) {
+            scaled[i] = (double) weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            this.probability[less] = scaled[less];
+            this.alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1.0 up to rounding error
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            this.probability[more] = 1.0;
+            this.alias[more] = more;
+        }
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            this.probability[less] = 1.0;
+            this.alias[less] = less;
+        }
+    }
+
+    /**
+     * The number of distinct values.
+     */
+    public int size() {
+        return this.values.length;
+    }
+
+    /**
+     * The sum of the counts of the histogram the table was built from.
+     */
+    public int getSampleCount() {
+        return this.sampleCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getValue(int index) {
+        return (T) this.values[index];
+    }
+
+    /**
+     * The probability that {@link #nextIndex} returns index.
+     */
+    double getProbability(int index) {
+        double p = this.probability[index];
+        for (int i = 0; i < this.alias.length; i++) {
+            if (i != index && this.alias[i] == index) {
+                p += 1.0 - this.probability[i];
+            }
+        }
+        return p / this.values.length;
+    }
+
+    /**
+     * @return the index of the value drawn
+     */
+    public int nextIndex(Random rng) {
+        // The integer part picks the column, the fraction picks between it and its alias
+        double u = rng.nextDouble() * this.values.length;
+        int column = (int) u;
+        if (column >= this.values.length) {
+            column = this.values.length - 1;
+        }
+        return (u - column < this.probability[column]) ? column : this.alias[column];
+    }
+
+    public T nextValue(Random rng) {
+        return getValue(nextIndex(rng));
+    }
+
+    /**
+     * @throws ClassCastException unless every value is an Integer or a Long
+     */
+    public long nextLong(Random rng) {
+        if (this.longValues == null) {
+            throw new ClassCastException("Histogram values are not all Integers or Longs");
+        }
+        return this.longValues[nextIndex(rng)];
+    }
+
+    /**
+     * @throws ClassCastException unless every value is an Integer or a Long
+     */
+    public int nextInt(Random rng) {
+        return (int) nextLong(rng);
+    }
+}
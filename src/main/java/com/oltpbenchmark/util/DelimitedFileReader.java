@@ -0,0 +1,434 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Reads the records of a delimited text file (TPC-DS/TPC-H .dat and .tbl, or
+ * simple .csv) straight from a memory-mapped window of the file. It uses no
+ * regex and allocates no String per field.
+ * <p>
+ * A reader covers one part of the file. Parts are split at line boundaries,
+ * so the {@code partCount} readers of a file return every line exactly once
+ * between them. {@link #getLong}, {@link #getDouble} and {@link #getDate}
+ * decode fields directly from the mapped bytes. Only {@link #getString}
+ * builds a String.
+ * <p>
+ * Not thread-safe. Each loader thread opens its own reader.
+ */
+public final class DelimitedFileReader implements AutoCloseable {
+
+    public enum Format {
+        /**
+         * Comma-separated. Leading blanks are skipped, and a field may be wrapped in double quotes, which are dropped.
+         */
+        CSV,
+        /**
+         * Every field is terminated by a '|', as written by dsdgen and dbgen.
+         */
+        PIPE,
+    }
+
+    /**
+     * Each mapping covers at most 1 GiB of the file, as a single
+     * MappedByteBuffer cannot be larger than 2 GiB. A line must fit in one window.
+     */
+    static final int DEFAULT_WINDOW_BYTES = 1 << 30;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Path file;
+    private final Format format;
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+    private final int windowBytes;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int pos = 0;
+    private long lineOffset = -1;
+    private long rowCount = 0;
+
+    private int fieldCount = 0;
+    private int[] fieldStart = new int[32];
+    private int[] fieldEnd = new int[32];
+
+    private byte[] scratch = new byte[256];
+    private int lastDateKey = -1;
+    private Date lastDate = null;
+
+    DelimitedFileReader(Path file, Format format, int part, int partCount, int windowBytes) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.windowBytes = windowBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = this.channel.size();
+            this.start = lineStart(this.channel, size, size / partCount * part + size % partCount * part / partCount);
+            this.end = part == partCount - 1 ? size : lineStart(this.channel, size, size / partCount * (part + 1) + size % partCount * (part + 1) / partCount);
+            map(this.start);
+        } catch (IOException | RuntimeException ex) {
+            this.channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Open the whole file.
+     */
+    public static DelimitedFileReader open(Path file, Format format) throws IOException {
+        return open(file, format, 0, 1);
+    }
+
+    /**
+     * Open part {@code part} (0-based) of the file split into {@code partCount} parts of about the same size.
+     */
+    public static DelimitedFileReader open(Path file, Format format, int part, int partCount) throws IOException {
+        if (part < 0 || part >= partCount) {
+            throw new IllegalArgumentException("Invalid part " + part + " of " + partCount);
+        }
+        return new DelimitedFileReader(file, format, part, partCount, DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * The offset of the first line that starts at or after {@code offset}.
+     */
+    private static long lineStart(FileChannel channel, long size, long offset) throws IOException {
+        if (offset <= 0) {
+            return 0;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        // The line starts at offset if the byte before it ends the previous line
+        long at = offset - 1;
+        while (at < size) {
+            buf.clear();
+            int n = channel.read(buf, at);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return at + i + 1;
+                }
+            }
+            at += n;
+        }
+        return size;
+    }
+
+    private void map(long offset) throws IOException {
+        this.windowStart = offset;
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(this.windowBytes, this.end - offset));
+        this.pos = 0;
+    }
+
+    /**
+     * Move to the next non-blank line of this part.
+     *
+     * @return false once the part has no more lines
+     */
+    public boolean next() throws IOException {
+        while (this.windowStart + this.pos < this.end) {
+            int limit = this.window.limit();
+            int eol = this.pos;
+            while (eol < limit && this.window.get(eol) != '\n') {
+                eol++;
+            }
+            if (eol == limit && this.windowStart + limit < this.end) {
+                // The line runs past this window
+                if (this.pos == 0) {
+                    throw new IOException(String.format("Line at offset %d of %s is longer than %d bytes",
+                            this.windowStart, this.file, this.windowBytes));
+                }
+                map(this.windowStart + this.pos);
+                continue;
+            }
+
+            int lineEnd = eol;
+            if (lineEnd > this.pos && this.window.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            int lineStart = this.pos;
+            this.pos = eol + 1;
+            if (lineEnd == lineStart) {
+                continue;
+            }
+
+            this.lineOffset = this.windowStart + lineStart;
+            if (this.format == Format.CSV) {
+                splitCsv(lineStart, lineEnd);
+            } else {
+                splitPipe(lineStart, lineEnd);
+            }
+            this.rowCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private void splitPipe(int from, int to) {
+        int n = 0;
+        int fieldFrom = from;
+        for (int i = from; i < to; i++) {
+            if (this.window.get(i) == '|') {
+                addField(n++, fieldFrom, i);
+                fieldFrom = i + 1;
+            }
+        }
+        if (fieldFrom < to) {
+            addField(n++, fieldFrom, to);
+        }
+        this.fieldCount = n;
+    }
+
+    private void splitCsv(int from, int to) {
+        int n = 0;
+        int i = from;
+        while (true) {
+            while (i < to && isBlank(this.window.get(i))) {
+                i++;
+            }
+            if (i < to && this.window.get(i) == '"') {
+                int close = i + 1;
+                while (close < to && this.window.get(close) != '"') {
+                    close++;
+                }
+                addField(n++, i + 1, close);
+                i = close;
+                while (i < to && this.window.get(i) != ',') {
+                    i++;
+                }
+            } else {
+                int fieldFrom = i;
+                while (i < to && this.window.get(i) != ',') {
+                    i++;
+                }
+                addField(n++, fieldFrom, i);
+            }
+            if (i >= to) {
+                break;
+            }
+            i++;
+        }
+        this.fieldCount = n;
+    }
+
+    private void addField(int index, int from, int to) {
+        if (index == this.fieldStart.length) {
+            this.fieldStart = Arrays.copyOf(this.fieldStart, index * 2);
+            this.fieldEnd = Arrays.copyOf(this.fieldEnd, index * 2);
+        }
+        this.fieldStart[index] = from;
+        this.fieldEnd[index] = to;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    public int getFieldCount() {
+        return this.fieldCount;
+    }
+
+    public boolean isEmpty(int field) {
+        return this.fieldStart[field] == this.fieldEnd[field];
+    }
+
+    public String getString(int field) {
+        int from = this.fieldStart[field];
+        int len = this.fieldEnd[field] - from;
+        if (len > this.scratch.length) {
+            this.scratch = new byte[Math.max(len, this.scratch.length * 2)];
+        }
+        this.window.get(from, this.scratch, 0, len);
+        return new String(this.scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @throws NumberFormatException if the field is not a long
+     */
+    public long getLong(int field) {
+        int i = this.fieldStart[field];
+        int to = this.fieldEnd[field];
+        boolean negative = false;
+        if (i < to && (this.window.get(i) == '-' || this.window.get(i) == '+')) {
+            negative = this.window.get(i) == '-';
+            i++;
+        }
+        // Anything unusual, including overflow, is left to Long.parseLong
+        if (i == to || to - i > 18) {
+            return Long.parseLong(getString(field).trim());
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = this.window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(getString(field).trim());
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Plain decimals of up to 15 digits are decoded as digits / 10^scale,
+     * which is exact in both operands and so rounds exactly like
+     * Double.parseDouble. Anything else goes through Double.parseDouble.
+     *
+     * @throws NumberFormatException if the field is not a double
+     */
+    public double getDouble(int field) {
+        int i = this.fieldStart[field];
+        int to = this.fieldEnd[field];
+        boolean negative = false;
+        if (i < to && (this.window.get(i) == '-' || this.window.get(i) == '+')) {
+            negative = this.window.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < to; i++) {
+            byte b = this.window.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(getString(field));
+            }
+        }
+        if (digits == 0 || digits > 15 || scale >= POW10.length) {
+            return Double.parseDouble(getString(field));
+        }
+        double value = scale > 0 ? mantissa / POW10[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Accepts yyyy-mm-dd, yyyymmdd, mm/dd/yyyy and dd.mm.yyyy, with optional
+     * surrounding blanks. The returned Date may be shared with the previous
+     * call and must not be modified.
+     *
+     * @return null for an empty field
+     * @throws IllegalArgumentException if the field is not a date in one of these layouts
+     */
+    public Date getDate(int field) {
+        int from = this.fieldStart[field];
+        int to = this.fieldEnd[field];
+        while (from < to && isBlank(this.window.get(from))) {
+            from++;
+        }
+        while (to > from && isBlank(this.window.get(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            return null;
+        }
+
+        int year = -1;
+        int month = -1;
+        int day = -1;
+        if (to - from == 10) {
+            if (this.window.get(from + 4) == '-' && this.window.get(from + 7) == '-') {
+                year = digits(from, 4);
+                month = digits(from + 5, 2);
+                day = digits(from + 8, 2);
+            } else if (this.window.get(from + 2) == '/' && this.window.get(from + 5) == '/') {
+                month = digits(from, 2);
+                day = digits(from + 3, 2);
+                year = digits(from + 6, 4);
+            } else if (this.window.get(from + 2) == '.' && this.window.get(from + 5) == '.') {
+                day = digits(from, 2);
+                month = digits(from + 3, 2);
+                year = digits(from + 6, 4);
+            }
+        } else if (to - from == 8) {
+            year = digits(from, 4);
+            month = digits(from + 4, 2);
+            day = digits(from + 6, 2);
+        }
+        if (year < 0 || month < 0 || day < 0) {
+            throw new IllegalArgumentException("Unrecognized date \"" + getString(field) + "\" in file: " + this.file);
+        }
+
+        // Fact tables repeat the same date on consecutive rows
+        int key = (year * 100 + month) * 100 + day;
+        if (key != this.lastDateKey) {
+            this.lastDate = Date.valueOf(LocalDate.of(year, month, day));
+            this.lastDateKey = key;
+        }
+        return this.lastDate;
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = this.window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * The file offset of the current line.
+     */
+    public long getLineOffset() {
+        return this.lineOffset;
+    }
+
+    /**
+     * The number of lines returned by {@link #next()} so far.
+     */
+    public long getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * The number of bytes of this part consumed so far.
+     */
+    public long getBytesRead() {
+        return Math.min(this.windowStart + this.pos, this.end) - this.start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.channel.close();
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs loader tasks on a fixed pool of threads in the order given by the
+ * tables they declare.
+ * <p>
+ * A task that declares dependencies is only handed to the pool once every
+ * task that loads one of those tables has finished, so it never occupies a
+ * pool thread while it waits. Of the tasks that are ready, the one with the
+ * longest chain of tasks still depending on it goes first; ties keep the order
+ * of createLoaderThreads(). Tasks without declarations are always ready, so
+ * loaders that still order themselves with latches in beforeLoad() run in the
+ * same order as before.
+ * <p>
+ * Once the load is done, the time spent per table and the measured critical
+ * path are logged.
+ */
+final class LoaderScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(LoaderScheduler.class);
+
+    private static final Comparator<Task> READY_ORDER =
+            Comparator.comparingInt((Task t) -> -t.chainLength).thenComparingInt(t -> t.index);
+
+    static final class Task {
+        private final Runnable runnable;
+        private final Set<String> tables;
+        private final Set<String> dependencies;
+        private final Set<Task> prerequisites = new LinkedHashSet<>();
+        private final List<Task> dependents = new ArrayList<>();
+        private int index;
+        private int waitingFor;
+        private int chainLength;
+        private long startNanos;
+        private long endNanos;
+
+        /**
+         * @param tables       the tables the runnable loads, or loads a part of
+         * @param dependencies the tables that must be completely loaded before it starts
+         */
+        Task(Runnable runnable, Collection<String> tables, Collection<String> dependencies) {
+            this.runnable = runnable;
+            this.tables = new LinkedHashSet<>(tables);
+            this.dependencies = new LinkedHashSet<>(dependencies);
+        }
+
+        String getName() {
+            return this.tables.isEmpty() ? "(undeclared)" : String.join(",", this.tables);
+        }
+
+        long getNanos() {
+            return this.endNanos - this.startNanos;
+        }
+    }
+
+    private final List<Task> tasks;
+    private final List<Task> topologicalOrder;
+    private final PriorityQueue<Task> ready = new PriorityQueue<>(READY_ORDER);
+
+    private ExecutorService service;
+    private int poolSize;
+    private int running = 0;
+    private int finished = 0;
+
+    LoaderScheduler(List<Task> tasks) {
+        this.tasks = tasks;
+
+        Map<String, List<Task>> loaders = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.index = i;
+            for (String table : task.tables) {
+                loaders.computeIfAbsent(table, k -> new ArrayList<>()).add(task);
+            }
+        }
+        for (Task task : tasks) {
+            for (String table : task.dependencies) {
+                List<Task> prerequisites = loaders.get(table);
+                if (prerequisites == null) {
+                    LOG.warn("No loader thread loads table {}, which {} depends on", table, task.getName());
+                    continue;
+                }
+                for (Task prerequisite : prerequisites) {
+                    if (prerequisite != task && task.prerequisites.add(prerequisite)) {
+                        prerequisite.dependents.add(task);
+                    }
+                }
+            }
+            task.waitingFor = task.prerequisites.size();
+        }
+
+        this.topologicalOrder = topologicalOrder(tasks);
+
+        // Number of tasks on the longest chain that starts with each task
+        for (int i = this.topologicalOrder.size() - 1; i >= 0; i--) {
+            Task task = this.topologicalOrder.get(i);
+            int longest = 0;
+            for (Task dependent : task.dependents) {
+                longest = Math.max(longest, dependent.chainLength);
+            }
+            task.chainLength = longest + 1;
+        }
+    }
+
+    private static List<Task> topologicalOrder(List<Task> tasks) {
+        int[] waitingFor = new int[tasks.size()];
+        Deque<Task> next = new ArrayDeque<>();
+        for (Task task : tasks) {
+            waitingFor[task.index] = task.prerequisites.size();
+            if (waitingFor[task.index] == 0) {
+                next.add(task);
+            }
+        }
+        List<Task> order = new ArrayList<>(tasks.size());
+        while (!next.isEmpty()) {
+            Task task = next.poll();
+            order.add(task);
+            for (Task dependent : task.dependents) {
+                if (--waitingFor[dependent.index] == 0) {
+                    next.add(dependent);
+                }
+            }
+        }
+        if (order.size() < tasks.size()) {
+            Set<String> cycle = new TreeSet<>();
+            for (Task task : tasks) {
+                if (waitingFor[task.index] > 0) {
+                    cycle.add(task.getName());
+                }
+            }
+            throw new IllegalStateException("Loader threads have a dependency cycle among " + cycle);
+        }
+        return order;
+    }
+
+    /**
+     * Run every task, at most poolSize at a time, and return once they have all completed.
+     */
+    void run(int poolSize) throws InterruptedException {
+        this.poolSize = Math.max(1, poolSize);
+        this.service = Executors.newFixedThreadPool(this.poolSize, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return (t);
+        });
+
+        final long start = System.nanoTime();
+        try {
+            synchronized (this) {
+                for (Task task : this.tasks) {
+                    if (task.waitingFor == 0) {
+                        this.ready.add(task);
+                    }
+                }
+                dispatch();
+                while (this.finished < this.tasks.size()) {
+                    wait();
+                }
+            }
+        } finally {
+            this.service.shutdown();
+            if (!this.service.awaitTermination(5, TimeUnit.MINUTES)) {
+                LOG.warn("Pool shut down after termination timeout expired. Will force shutdown now.");
+                this.service.shutdownNow();
+            }
+        }
+        report(System.nanoTime() - start);
+    }
+
+    private synchronized void dispatch() {
+        while (this.running < this.poolSize && !this.ready.isEmpty()) {
+            Task task = this.ready.poll();
+            this.running++;
+            this.service.execute(() -> execute(task));
+        }
+    }
+
+    private void execute(Task task) {
+        task.startNanos = System.nanoTime();
+        try {
+            task.runnable.run();
+        } catch (Exception e) {
+            LOG.error(String.format("Exception in Loader Thread for %s with message: [%s]; exiting :(", task.getName(), e.getMessage()), e);
+            System.exit(1);
+        } finally {
+            task.endNanos = System.nanoTime();
+            synchronized (this) {
+                this.running--;
+                this.finished++;
+                for (Task dependent : task.dependents) {
+                    if (--dependent.waitingFor == 0) {
+                        this.ready.add(dependent);
+                    }
+                }
+                dispatch();
+                notifyAll();
+            }
+        }
+    }
+
+    private void report(long wallNanos) {
+        long first = Long.MAX_VALUE;
+        long busy = 0;
+        for (Task task : this.tasks) {
+            first = Math.min(first, task.startNanos);
+            busy += task.getNanos();
+        }
+
+        Map<String, long[]> tables = new LinkedHashMap<>();
+        for (Task task : this.tasks) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(String.format("Loader task #%d %s: started at %.2fs, took %.2fs",
+                        task.index, task.getName(), (task.startNanos - first) / 1e9, task.getNanos() / 1e9));
+            }
+            long[] table = tables.computeIfAbsent(task.getName(), k -> new long[]{0, 0, Long.MAX_VALUE, 0});
+            table[0]++;
+            table[1] += task.getNanos();
+            table[2] = Math.min(table[2], task.startNanos);
+            table[3] = Math.max(table[3], task.endNanos);
+        }
+        for (Map.Entry<String, long[]> e : tables.entrySet()) {
+            long[] table = e.getValue();
+            LOG.info(String.format("Loaded %s in %d task(s): %.2fs busy, from %.2fs to %.2fs",
+                    e.getKey(), table[0], table[1] / 1e9, (table[2] - first) / 1e9, (table[3] - first) / 1e9));
+        }
+
+        // Longest chain of measured task times through the dependency graph
+        Map<Task, Long> finish = new HashMap<>();
+        Map<Task, Task> previous = new HashMap<>();
+        Task last = null;
+        for (Task task : this.topologicalOrder) {
+            long before = 0;
+            for (Task prerequisite : task.prerequisites) {
+                if (finish.get(prerequisite) > before) {
+                    before = finish.get(prerequisite);
+                    previous.put(task, prerequisite);
+                }
+            }
+            finish.put(task, before + task.getNanos());
+            if (last == null || finish.get(task) > finish.get(last)) {
+                last = task;
+            }
+        }
+        if (last == null) {
+            return;
+        }
+        LinkedList<String> path = new LinkedList<>();
+        for (Task task = last; task != null; task = previous.get(task)) {
+            path.addFirst(task.getName());
+        }
+        LOG.info(String.format("Loader critical path %.2fs of %.2fs [%s]; %d thread(s) %.0f%% busy",
+                finish.get(last) / 1e9, wallNanos / 1e9, String.join(" -> ", path),
+                this.poolSize, 100.0 * busy / ((double) wallNanos * this.poolSize)));
+    }
+}
@@ -179,27 +179,28 @@ public class RandomDistribution {
     }
 
     /**
-     * P(i)=1/(max-min)
+     * Draws the values of a histogram in proportion to their counts.
+     * <p>
+     * Sampling goes through an {@link AliasTable}, which takes constant time
+     * however many values the histogram has. Build the table once and give each
+     * thread its own FlatHistogram over it with {@link #FlatHistogram(Random, AliasTable)}.
      */
     public static class FlatHistogram<T extends Comparable<T>> extends DiscreteRNG {
         private static final long serialVersionUID = 1L;
-        private final Flat inner;
-        private final SortedMap<Long, T> value_rle = new TreeMap<>();
+        private final AliasTable<T> table;
         private Histogram<T> history;
 
-        /**
-         * Generate a run-length of the values of the histogram
-         */
         public FlatHistogram(Random random, Histogram<T> histogram) {
-            super(random, 0, histogram.getSampleCount());
-            this.inner = new Flat(random, 0, histogram.getSampleCount());
-
-            long total = 0;
-            for (T k : histogram.values()) {
-                long v = histogram.get(k);
-                total += v;
-                this.value_rle.put(total, k);
-            }
+            this(random, new AliasTable<>(histogram));
+        }
+
+        public FlatHistogram(Random random, AliasTable<T> table) {
+            super(random, 0, table.getSampleCount());
+            this.table = table;
+        }
+
+        public AliasTable<T> getTable() {
+            return (this.table);
         }
 
         @Override
@@ -216,15 +217,11 @@ public class RandomDistribution {
         }
 
         public T nextValue() {
-            int idx = this.inner.nextInt();
-            Long total = this.value_rle.tailMap((long) idx).firstKey();
-            T val = this.value_rle.get(total);
+            T val = this.table.nextValue(this.random);
             if (this.history != null) {
                 this.history.put(val);
             }
             return (val);
-//            assert(false) : "Went beyond our expected total '" + idx + "'";
-//            return (null);
         }
 
         /**
@@ -232,11 +229,10 @@ public class RandomDistribution {
          */
         @Override
         protected long nextLongImpl() {
-            Object val = this.nextValue();
-            if (val instanceof Integer) {
-                return ((Integer) val);
+            if (this.history != null) {
+                return ((Number) this.nextValue()).longValue();
             }
-            return ((Long) val);
+            return (this.table.nextLong(this.random));
         }
     }
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Hands out the random number generators of a run. Every generator is a
+ * {@link SplitMixRandom} whose seed is derived from the run seed, a stream
+ * name and an index, e.g., ("worker", 7), so each Worker and LoaderThread
+ * draws from its own generator and a run with the same randomSeed replays
+ * the same values no matter how the threads are scheduled.
+ * <p>
+ * The generator of the current thread is kept here as well, so that code
+ * without a handle on its Worker (e.g., {@link com.oltpbenchmark.api.BenchmarkModule#rng()}
+ * or the featurebench utils) uses the stream of whoever runs it.
+ */
+public final class RandomStreams {
+
+    private static final ThreadLocal<Random> CURRENT = new ThreadLocal<>();
+
+    private final long runSeed;
+
+    public RandomStreams(long runSeed) {
+        this.runSeed = runSeed;
+    }
+
+    /**
+     * A run seed for runs that don't set one. Printed at startup so the run can be replayed.
+     */
+    public static int newRunSeed() {
+        return new SecureRandom().nextInt(Integer.MAX_VALUE);
+    }
+
+    public long getRunSeed() {
+        return this.runSeed;
+    }
+
+    /**
+     * The seed of the index-th generator of the given stream.
+     */
+    public long seed(String stream, long index) {
+        long h = this.runSeed;
+        for (byte b : stream.getBytes(StandardCharsets.UTF_8)) {
+            h = SplitMixRandom.mix64(h ^ b);
+        }
+        return SplitMixRandom.mix64(h + SplitMixRandom.mix64(index));
+    }
+
+    public SplitMixRandom stream(String stream, long index) {
+        return new SplitMixRandom(seed(stream, index));
+    }
+
+    /**
+     * Make the given generator the current thread's one.
+     *
+     * @return the previous one, or null
+     */
+    public static Random bind(Random random) {
+        Random previous = CURRENT.get();
+        if (random == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(random);
+        }
+        return previous;
+    }
+
+    /**
+     * @return the current thread's generator, or null if none was bound
+     */
+    public static Random current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * A SplittableRandom seeded from the current thread's generator, or an
+     * unseeded one if the thread has none.
+     */
+    public static SplittableRandom newSplittableRandom() {
+        Random current = CURRENT.get();
+        return current == null ? new SplittableRandom() : new SplittableRandom(current.nextLong());
+    }
+}
@@ -18,9 +18,12 @@
 package com.oltpbenchmark.util;
 
 import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyHistogram;
+import com.oltpbenchmark.LatencyHistograms;
 import com.oltpbenchmark.LatencyRecord;
+import com.oltpbenchmark.OfferedLoad;
 import com.oltpbenchmark.Results;
-import com.oltpbenchmark.ThreadBench;
+import com.oltpbenchmark.WindowedStatistics;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.api.collectors.DBParameterCollector;
 import com.oltpbenchmark.api.collectors.DBParameterCollectorGen;
@@ -38,6 +41,12 @@ public class ResultWriter {
 
     public static final double MILLISECONDS_FACTOR = 1e3;
 
+    /**
+     * Precision of the histograms built from raw samples. Values below 1024
+     * microseconds are exact and larger ones are within 0.1%.
+     */
+    private static final int SAMPLE_HISTOGRAM_DIGITS = 3;
+
 
     private static final String[] IGNORE_CONF = {
             "type",
@@ -58,6 +67,8 @@ public class ResultWriter {
     private final Results results;
     private final DatabaseType dbType;
     private final String benchType;
+    private final int windowSize;
+    private WindowedStatistics windows = null;
 
 
     public ResultWriter(Results r, XMLConfiguration conf, CommandLine argsLine) {
@@ -65,6 +76,7 @@ public class ResultWriter {
         this.results = r;
         this.dbType = DatabaseType.valueOf(expConf.getString("type").toUpperCase());
         this.benchType = argsLine.getOptionValue("b");
+        this.windowSize = Integer.parseInt(argsLine.getOptionValue("s", "5"));
 
         String dbUrl = expConf.getString("url");
         String username = expConf.getString("username");
@@ -132,12 +144,24 @@ public class ResultWriter {
                 "95th Percentile Latency (millisecond)",
                 "99th Percentile Latency (millisecond)",
                 "Maximum Latency (millisecond)",
-                "tp (req/s) scaled"
+                "tp (req/s) scaled",
+                "Average Queue Time (millisecond)",
+                "95th Percentile Queue Time (millisecond)",
+                "99th Percentile Queue Time (millisecond)",
+                "Maximum Queue Time (millisecond)",
+                "Average Response Time (millisecond)",
+                "95th Percentile Response Time (millisecond)",
+                "99th Percentile Response Time (millisecond)",
+                "Maximum Response Time (millisecond)"
         };
         out.println(StringUtil.join(",", header));
         int i = 0;
-        for (DistributionStatistics s : new ThreadBench.TimeBucketIterable(results.getLatencySamples(), windowSizeSeconds, txType)) {
-            out.printf("%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
+        Iterator<DistributionStatistics> queue = windows(windowSizeSeconds, txType, LatencyHistograms.Metric.QUEUE).iterator();
+        Iterator<DistributionStatistics> response = windows(windowSizeSeconds, txType, LatencyHistograms.Metric.RESPONSE).iterator();
+        for (DistributionStatistics s : windows(windowSizeSeconds, txType, LatencyHistograms.Metric.LATENCY)) {
+            DistributionStatistics q = queue.next();
+            DistributionStatistics r = response.next();
+            out.printf("%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
                     i * windowSizeSeconds,
                     (double) s.getCount() / windowSizeSeconds,
                     s.getAverage() / MILLISECONDS_FACTOR,
@@ -149,11 +173,50 @@ public class ResultWriter {
                     s.get95thPercentile() / MILLISECONDS_FACTOR,
                     s.get99thPercentile() / MILLISECONDS_FACTOR,
                     s.getMaximum() / MILLISECONDS_FACTOR,
-                    MILLISECONDS_FACTOR / s.getAverage());
+                    MILLISECONDS_FACTOR / s.getAverage(),
+                    q.getAverage() / MILLISECONDS_FACTOR,
+                    q.get95thPercentile() / MILLISECONDS_FACTOR,
+                    q.get99thPercentile() / MILLISECONDS_FACTOR,
+                    q.getMaximum() / MILLISECONDS_FACTOR,
+                    r.getAverage() / MILLISECONDS_FACTOR,
+                    r.get95thPercentile() / MILLISECONDS_FACTOR,
+                    r.get99thPercentile() / MILLISECONDS_FACTOR,
+                    r.getMaximum() / MILLISECONDS_FACTOR);
             i += 1;
         }
     }
 
+    /**
+     * @return whether per-second latencies were kept, which the samples and
+     * windowed results are built from
+     */
+    public boolean hasTimeSeries() {
+        return results.getLatencyHistograms() != null || results.getLatencySamples() != null;
+    }
+
+    public boolean hasOfferedLoad() {
+        OfferedLoad load = results.getOfferedLoad();
+        return load != null && load.getTotalOffered() > 0;
+    }
+
+    /**
+     * Per second target, offered and enqueued arrival rates of the rate
+     * limited phases, counted from the start of the benchmark.
+     */
+    public void writeOfferedLoad(PrintStream out) {
+        String[] header = {
+                "Time (seconds)",
+                "Target Rate (requests/second)",
+                "Offered Rate (requests/second)",
+                "Enqueued Rate (requests/second)"
+        };
+        out.println(StringUtil.join(",", header));
+        OfferedLoad load = results.getOfferedLoad();
+        for (int i = 0; i < load.getSeconds(); i++) {
+            out.printf("%d,%.3f,%d,%d\n", i, load.getTarget(i), load.getOffered(i), load.getEnqueued(i));
+        }
+    }
+
     public void writeSamples(PrintStream out) {
         writeSamples(1, out, TransactionType.INVALID);
     }
@@ -171,12 +234,24 @@ public class ResultWriter {
                 "90th Percentile Latency (microseconds)",
                 "95th Percentile Latency (microseconds)",
                 "99th Percentile Latency (microseconds)",
-                "Maximum Latency (microseconds)"
+                "Maximum Latency (microseconds)",
+                "Average Queue Time (microseconds)",
+                "95th Percentile Queue Time (microseconds)",
+                "99th Percentile Queue Time (microseconds)",
+                "Maximum Queue Time (microseconds)",
+                "Average Response Time (microseconds)",
+                "95th Percentile Response Time (microseconds)",
+                "99th Percentile Response Time (microseconds)",
+                "Maximum Response Time (microseconds)"
         };
         out.println(StringUtil.join(",", header));
         int i = 0;
-        for (DistributionStatistics s : new ThreadBench.TimeBucketIterable(results.getLatencySamples(), windowSizeSeconds, txType)) {
-            out.printf("%d,%d,%.3f,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
+        Iterator<DistributionStatistics> queue = windows(windowSizeSeconds, txType, LatencyHistograms.Metric.QUEUE).iterator();
+        Iterator<DistributionStatistics> response = windows(windowSizeSeconds, txType, LatencyHistograms.Metric.RESPONSE).iterator();
+        for (DistributionStatistics s : windows(windowSizeSeconds, txType, LatencyHistograms.Metric.LATENCY)) {
+            DistributionStatistics q = queue.next();
+            DistributionStatistics r = response.next();
+            out.printf("%d,%d,%.3f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
                     i * windowSizeSeconds,
                     s.getCount(),
                     (double) s.getCount() / windowSizeSeconds,
@@ -188,11 +263,36 @@ public class ResultWriter {
                     (int) s.get90thPercentile(),
                     (int) s.get95thPercentile(),
                     (int) s.get99thPercentile(),
-                    (int) s.getMaximum());
+                    (int) s.getMaximum(),
+                    (int) q.getAverage(),
+                    (int) q.get95thPercentile(),
+                    (int) q.get99thPercentile(),
+                    (int) q.getMaximum(),
+                    (int) r.getAverage(),
+                    (int) r.get95thPercentile(),
+                    (int) r.get99thPercentile(),
+                    (int) r.getMaximum());
             i += 1;
         }
     }
 
+    /**
+     * Statistics of one metric per time window. All window sizes the output
+     * needs are built together in one pass over the samples or the recorded
+     * histograms, the first time any of them is asked for.
+     */
+    private List<DistributionStatistics> windows(int windowSizeSeconds, TransactionType txType, LatencyHistograms.Metric metric) {
+        if (windows == null || !windows.hasWindowSize(windowSizeSeconds)) {
+            SortedMap<Long, LatencyHistograms> seconds = results.getLatencyHistograms();
+            if (seconds != null) {
+                windows = WindowedStatistics.fromHistograms(seconds, 1, windowSize, windowSizeSeconds);
+            } else {
+                windows = WindowedStatistics.fromSamples(results.getLatencySamples(), SAMPLE_HISTOGRAM_DIGITS, 1, windowSize, windowSizeSeconds);
+            }
+        }
+        return windows.get(windowSizeSeconds, txType.getId(), metric);
+    }
+
     public void writeRaw(List<TransactionType> activeTXTypes, PrintStream out) {
 
         // This is needed because nanTime does not guarantee offset... we
@@ -208,7 +308,9 @@ public class ResultWriter {
                 "Start Time (microseconds)",
                 "Latency (microseconds)",
                 "Worker Id (start number)",
-                "Phase Id (index in config file)"
+                "Phase Id (index in config file)",
+                "Queue Time (microseconds)",
+                "Response Time (microseconds)"
         };
         out.println(StringUtil.join(",", header));
         for (LatencyRecord.Sample s : results.getLatencySamples()) {
@@ -222,6 +324,8 @@ public class ResultWriter {
                     Integer.toString(s.getLatencyMicrosecond()),
                     Integer.toString(s.getWorkerId()),
                     Integer.toString(s.getPhaseId()),
+                    Integer.toString(s.getQueueMicrosecond()),
+                    Integer.toString(s.getResponseMicrosecond()),
             };
             out.println(StringUtil.join(",", row));
         }
@@ -259,9 +363,46 @@ public class ResultWriter {
         return transactionsMap;
     }
 
+    public static Map<String, Object> statementCacheMap(Results results) {
+        Map<String, Object> cacheMap = new TreeMap<>();
+        long hits = results.getStatementCacheHits();
+        long misses = results.getStatementCacheMisses();
+        cacheMap.put("Hits", hits);
+        cacheMap.put("Misses", misses);
+        cacheMap.put("Hit Ratio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return cacheMap;
+    }
+
+    public static Map<String, Object> offeredLoadMap(Results results) {
+        Map<String, Object> loadMap = new TreeMap<>();
+        OfferedLoad load = results.getOfferedLoad();
+        if (load != null && load.getElapsedSeconds() > 0) {
+            double seconds = load.getElapsedSeconds();
+            loadMap.put("Target Rate (requests/second)", load.getTotalTarget() / seconds);
+            loadMap.put("Offered Rate (requests/second)", load.getTotalOffered() / seconds);
+            loadMap.put("Enqueued Rate (requests/second)", load.getTotalEnqueued() / seconds);
+            loadMap.put("Dropped", load.getTotalOffered() - load.getTotalEnqueued());
+        }
+        return loadMap;
+    }
+
+    public static Map<String, Object> workerThreadsMap(Results results) {
+        Map<String, Object> threadsMap = new TreeMap<>();
+        threadsMap.put("Mode", results.getVirtualThreads() ? "virtual" : "platform");
+        threadsMap.put("Workers", results.getWorkerThreads());
+        if (results.getVirtualThreads()) {
+            threadsMap.put("Carrier Threads", results.getCarrierThreads());
+            threadsMap.put("Carrier Utilization", results.getCarrierUtilization());
+        }
+        return threadsMap;
+    }
+
     public static Map<String, Object> help() {
         Map<String, Object> help = new TreeMap<>();
         help.put("Various Latencies", "Latency of transactions during the measure phase. Includes the time taken for retries.");
+        help.put("Queue Time Distribution", "Time between when a transaction was scheduled to start and when a worker started it. Always close to zero unless the phase is rate limited.");
+        help.put("Latency Histograms", "With latencyHistograms enabled, latencies are recorded in histograms with latencyHistogramDigits significant digits; percentiles are accurate to that precision and raw samples are only kept with --raw true.");
+        help.put("Response Time Distribution", "Queue time plus latency: time from when a transaction was scheduled to start until it finished. Not affected by coordinated omission.");
         help.put("Completed Transactions", "Success transactions both in warmup, measure and cool-down phases.");
         help.put("Aborted Transactions", "Total aborted transactions in warmup, measure and cool-down phases");
         help.put("Rejected Transactions (Server Retry)", "Total retries in warmup, measure and cool-down phases. The retries are done with different bind variables as of now.");
@@ -272,6 +413,10 @@ public class ResultWriter {
         help.put("Total measured requests", "Total transactions during the measure phase (multiple retries are counted as 1)");
         help.put("Throughput (requests/second)", "(Total measured requests/Measure(Execute) phase time)");
         help.put("Goodput (requests/second)", "(Completed Transactions / Measure(Execute) phase time). Don't refer. Derived from benchbase.");
+        help.put("Statement Cache", "PreparedStatement lookups served from (Hits) or prepared on (Misses) the per-worker statement cache over the whole run.");
+        help.put("Offered Load", "Arrivals of the rate limited phases over the whole run, warmup included. Target is the configured arrival process, Offered is what the driver generated and Enqueued is what the work queues accepted; the difference is Dropped because the workers fell behind. Per second values are in the .offered.csv file.");
+        help.put("Connections", "Connections opened and handed out during the measured run, not counted in transaction latency. Connect Latency is the time to open a physical connection, connect throttling (maxConcurrentConnects, connectRate) included. Acquire Latency is the time Workers waited for a connection; with connectionPool it is a logical reconnect and Reused counts connections taken from the pool. Latencies are in microseconds.");
+        help.put("Worker Threads", "Whether Workers ran on platform or virtual threads (virtualThreads). For virtual threads, Carrier Utilization is the JVM's CPU time divided by wall time times the number of carrier threads over the whole run; it includes GC and JIT time, so treat it as an upper bound.");
 
         return help;
     }
@@ -285,8 +430,18 @@ public class ResultWriter {
         summaryMap.put("DBMS Version", collector.collectVersion());
         summaryMap.put("Benchmark Type", benchType);
         summaryMap.put("Latency Distribution", results.getDistributionStatistics().toMap());
+        if (results.getQueueDistributionStatistics() != null) {
+            summaryMap.put("Queue Time Distribution", results.getQueueDistributionStatistics().toMap("Queue Time"));
+        }
+        if (results.getResponseDistributionStatistics() != null) {
+            summaryMap.put("Response Time Distribution", results.getResponseDistributionStatistics().toMap("Response Time"));
+        }
         summaryMap.put("Throughput (requests/second)", results.requestsPerSecondThroughput());
         summaryMap.put("Goodput (requests/second)", results.requestsPerSecondGoodput());
+        summaryMap.put("Statement Cache", statementCacheMap(results));
+        summaryMap.put("Offered Load", offeredLoadMap(results));
+        summaryMap.put("Worker Threads", workerThreadsMap(results));
+        summaryMap.put("Connections", results.getConnectionStatistics().toMap());
         return summaryMap;
     }
 
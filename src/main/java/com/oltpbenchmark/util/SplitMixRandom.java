@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import java.util.Random;
+
+/**
+ * A {@link Random} backed by the SplitMix64 generator instead of Random's
+ * shared 48-bit seed. Random updates its seed with a compare-and-set on
+ * every call, which turns a generator shared by many threads into a
+ * contended cache line; this one is a plain field update.
+ * <p>
+ * Not thread-safe. Give every thread its own instance, e.g., from
+ * {@link RandomStreams}, or {@link #split()} one off for another thread.
+ */
+public class SplitMixRandom extends Random {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    // No initializer: Random's constructor sets it through setSeed()
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * The SplitMix64 finalizer, a bijective mix of all 64 bits.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = seed;
+    }
+
+    /**
+     * A new generator whose sequence is independent of this one's.
+     */
+    public SplitMixRandom split() {
+        return new SplitMixRandom(mix64(nextLong()));
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(this.state += GOLDEN_GAMMA);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public float nextFloat() {
+        return next(24) / ((float) (1 << 24));
+    }
+}
@@ -48,26 +48,86 @@ import com.oltpbenchmark.api.LoaderThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.*;
 
 public abstract class ThreadUtil {
     private static final Logger LOG = LoggerFactory.getLogger(ThreadUtil.class);
 
+    /**
+     * Thread.ofVirtual() and Thread.Builder.unstarted(Runnable), looked up
+     * reflectively so that the build does not require a JDK with virtual
+     * threads. Null if this JVM does not have them.
+     */
+    private static final Method OF_VIRTUAL;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException ex) {
+            // Virtual threads need JDK 21 (or 19/20 with --enable-preview)
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
     public static int availableProcessors() {
         return Math.max(1, Runtime.getRuntime().availableProcessors());
     }
 
+    /**
+     * @return an unstarted virtual thread that runs r, or null if this JVM
+     * cannot create virtual threads
+     */
+    public static Thread newVirtualThread(Runnable r) {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            return (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), r);
+        } catch (ReflectiveOperationException ex) {
+            // e.g., a preview API that was not enabled
+            LOG.debug("Unable to create a virtual thread: {}", ex.toString());
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of platform threads that virtual threads are scheduled on
+     */
+    public static int virtualThreadCarriers() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", availableProcessors());
+    }
+
+    /**
+     * @return CPU time used by the whole JVM so far, or -1 if the platform does not report it
+     */
+    public static long processCpuTimeNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getProcessCpuTime();
+        }
+        return -1;
+    }
+
 
     /**
-     * For a given list of threads, execute them all (up to max_concurrent at a
-     * time) and return once they have completed. If max_concurrent is null,
-     * then all threads will be fired off at the same time
+     * For a given list of threads, execute them all (up to maxConcurrent at a
+     * time) and return once they have completed. Threads that declare the
+     * tables they depend on are only started once those tables are loaded.
      *
      * @param loaderThreads
      * @param maxConcurrent
-     * @throws Exception
+     * @throws InterruptedException
+     * @see LoaderScheduler
      */
     public static void runLoaderThreads(final Collection<LoaderThread> loaderThreads, int maxConcurrent) throws InterruptedException {
 
@@ -81,75 +141,20 @@ public abstract class ThreadUtil {
             LOG.info("Creating a Thread Pool with a size of {} to run {} Loader Threads.  {} threads will be queued.", poolSize, loaderThreadSize, threadOverflow);
         }
 
-        ExecutorService service = Executors.newFixedThreadPool(poolSize, factory);
+        List<LoaderScheduler.Task> tasks = new ArrayList<>(loaderThreadSize);
+        for (LoaderThread loaderThread : loaderThreads) {
+            tasks.add(new LoaderScheduler.Task(loaderThread, loaderThread.getTables(), loaderThread.getTableDependencies()));
+        }
 
         final long start = System.currentTimeMillis();
-
-        final CountDownLatch latch = new CountDownLatch(loaderThreadSize);
-
         try {
-            for (LoaderThread loaderThread : loaderThreads) {
-                service.execute(new LatchRunnable(loaderThread, latch));
-            }
-
-            LOG.trace("All Loader Threads executed; waiting on latches...");
-            latch.await();
-
+            new LoaderScheduler(tasks).run(poolSize);
         } finally {
-
-            LOG.trace("Attempting to shutdown the pool...");
-
-            service.shutdown();
-
-            boolean cleanTermination = service.awaitTermination(5, TimeUnit.MINUTES);
-
-            if (cleanTermination) {
-                LOG.trace("Pool shut down cleanly!");
-            } else {
-                LOG.warn("Pool shut down after termination timeout expired.  Likely caused by an unhandled exception in a Loader Thread causing latch count down.  Will force shutdown now.");
-
-                List<Runnable> notStarted = service.shutdownNow();
-
-                LOG.warn("{} Loader Threads were terminated before starting.", notStarted.size());
-            }
-
             if (LOG.isInfoEnabled()) {
                 final long stop = System.currentTimeMillis();
                 LOG.info(String.format("Finished executing %d Loader Threads [time=%.02fs]", loaderThreadSize, (stop - start) / 1000d));
             }
         }
-
-    }
-
-    private static final ThreadFactory factory = new ThreadFactory() {
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r);
-            t.setDaemon(true);
-            return (t);
-        }
-    };
-
-    private static class LatchRunnable implements Runnable {
-        private final LoaderThread loaderThread;
-        private final CountDownLatch latch;
-
-        public LatchRunnable(LoaderThread loaderThread, CountDownLatch latch) {
-            this.loaderThread = loaderThread;
-            this.latch = latch;
-        }
-
-        @Override
-        public void run() {
-            try {
-                this.loaderThread.run();
-            } catch (Exception e) {
-                LOG.error(String.format("Exception in Loader Thread with message: [%s]; will count down latch with count %d and then exit :(", e.getMessage(), this.latch.getCount()), e);
-                System.exit(1);
-            } finally {
-                this.latch.countDown();
-            }
-        }
     }
 
 }
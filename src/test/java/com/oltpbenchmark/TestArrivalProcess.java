@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class TestArrivalProcess extends TestCase {
+
+    private static final long SECOND = 1000000000L;
+
+    /**
+     * testRegularHasNoDrift
+     */
+    public void testRegularHasNoDrift() {
+        ArrivalProcess process = ArrivalProcess.regular(3);
+        assertEquals(0, process.next());
+        assertEquals(333333333, process.next());
+        assertEquals(666666667, process.next());
+        assertEquals(SECOND, process.next());
+        for (int i = 4; i < 3000; i++) {
+            process.next();
+        }
+        assertEquals(1000 * SECOND, process.next());
+        assertEquals(3.0, process.expected(0, SECOND), 1e-9);
+    }
+
+    /**
+     * testPoissonRate
+     */
+    public void testPoissonRate() {
+        ArrivalProcess process = ArrivalProcess.poisson(100000, new Random(1));
+        int count = 0;
+        long last = 0;
+        long t;
+        while ((t = process.next()) < 10 * SECOND) {
+            assertTrue(t >= last);
+            last = t;
+            count++;
+        }
+        assertEquals(1000000, count, 5000);
+    }
+
+    /**
+     * testBursty
+     */
+    public void testBursty() {
+        ArrivalProcess process = ArrivalProcess.bursty(0, 10000, 10 * SECOND, SECOND, new Random(2));
+        int inBurst = 0;
+        long t;
+        while ((t = process.next()) < 100 * SECOND) {
+            assertTrue(t % (10 * SECOND) < SECOND);
+            inBurst++;
+        }
+        assertEquals(100000, inBurst, 1500);
+        assertEquals(10000.0, process.expected(0, SECOND), 1e-6);
+        assertEquals(0.0, process.expected(2 * SECOND, 3 * SECOND), 1e-6);
+    }
+
+    /**
+     * testDiurnalRamp
+     */
+    public void testDiurnalRamp() {
+        ArrivalProcess process = ArrivalProcess.diurnal(1000, 1.0, 100 * SECOND, new Random(3));
+        int[] perTenSeconds = new int[10];
+        long t;
+        while ((t = process.next()) < 100 * SECOND) {
+            perTenSeconds[(int) (t / (10 * SECOND))]++;
+        }
+        // The rate starts at zero, peaks halfway through the period and falls again
+        assertTrue(perTenSeconds[0] < perTenSeconds[2]);
+        assertTrue(perTenSeconds[2] < perTenSeconds[4]);
+        assertTrue(perTenSeconds[5] > perTenSeconds[7]);
+        assertTrue(perTenSeconds[7] > perTenSeconds[9]);
+        int total = 0;
+        for (int c : perTenSeconds) {
+            total += c;
+        }
+        assertEquals(100000, total, 2000);
+    }
+
+    /**
+     * testTraceReplay
+     */
+    public void testTraceReplay() throws Exception {
+        Path file = Files.createTempFile("arrivals", ".txt");
+        try {
+            Files.writeString(file, "# seconds\n10.5\n10.0\n\n11.0\n");
+            long[] offsets = ArrivalProcess.readTrace(file);
+            assertEquals(3, offsets.length);
+            assertEquals(0, offsets[0]);
+            assertEquals(SECOND / 2, offsets[1]);
+            assertEquals(SECOND, offsets[2]);
+
+            ArrivalProcess process = ArrivalProcess.trace(offsets);
+            assertEquals(0, process.next());
+            assertEquals(SECOND / 2, process.next());
+            assertEquals(SECOND, process.next());
+            // Replays after one average gap
+            assertEquals(3 * SECOND / 2, process.next());
+            assertEquals(2 * SECOND, process.next());
+
+            assertEquals(3.0, process.expected(0, 3 * SECOND / 2), 1e-9);
+            assertEquals(2.0, process.expected(SECOND, 2 * SECOND), 1e-9);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class TestArrivalScheduler extends TestCase {
+
+    private static final long MS = 1000000L;
+
+    private WorkloadState newWorkload(int rate, boolean rateLimited) {
+        Phase phase = new Phase("test", 1, 10, 0, rate, List.of(100.0), rateLimited, false, false, true, 1, Phase.Arrival.REGULAR);
+        WorkloadState state = new WorkloadState(new BenchmarkState(1), List.of(phase), 1);
+        state.switchToNextPhase();
+        return state;
+    }
+
+    /**
+     * testIndependentStreams
+     */
+    public void testIndependentStreams() {
+        long origin = 1000 * MS;
+        ArrivalScheduler scheduler = new ArrivalScheduler(List.of(newWorkload(1000, true), newWorkload(300, true)), origin);
+        scheduler.startPhase(origin);
+        assertEquals(origin, scheduler.nextArrivalNs());
+
+        scheduler.dispatch(origin + 10 * MS);
+        OfferedLoad load = scheduler.getOfferedLoad();
+        // 0..10ms inclusive at 1000/s, 0 and 3.3ms and 6.7ms at 300/s
+        assertEquals(11 + 4, load.getTotalOffered());
+        assertEquals(load.getTotalOffered(), load.getTotalEnqueued());
+        assertEquals(origin + 10 * MS + MS, scheduler.nextArrivalNs());
+
+        // A late wake-up still offers every arrival that fell due
+        scheduler.dispatch(origin + 1000 * MS - 1);
+        assertEquals(1000 + 300, load.getTotalOffered());
+        assertEquals(1000 + 300, load.getOffered(0));
+        assertEquals(1300.0, load.getTarget(0), 1.0);
+    }
+
+    /**
+     * testUnlimitedPhaseHasNoStream
+     */
+    public void testUnlimitedPhaseHasNoStream() {
+        ArrivalScheduler scheduler = new ArrivalScheduler(List.of(newWorkload(1, false)), 0);
+        scheduler.startPhase(0);
+        scheduler.dispatch(100 * MS);
+        assertEquals(Long.MAX_VALUE, scheduler.nextArrivalNs());
+        assertEquals(0, scheduler.getOfferedLoad().getTotalOffered());
+    }
+
+    /**
+     * testAwaitUntil
+     */
+    public void testAwaitUntil() {
+        long deadline = System.nanoTime() + 5 * MS;
+        ArrivalScheduler.awaitUntil(deadline);
+        assertTrue(System.nanoTime() >= deadline);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Random;
+
+public class TestLatencyHistogram extends TestCase {
+
+    private static final int NUM_VALUES = 200000;
+
+    private int[] values(long seed) {
+        Random rand = new Random(seed);
+        int[] values = new int[NUM_VALUES];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal-ish latencies from a few microseconds to seconds
+            values[i] = (int) Math.min(Integer.MAX_VALUE, Math.exp(6 + 2 * rand.nextGaussian()));
+        }
+        return values;
+    }
+
+    private void checkPrecision(int digits) {
+        int[] values = values(digits);
+        LatencyHistogram histogram = new LatencyHistogram(digits);
+        for (int v : values) {
+            histogram.record(v);
+        }
+        DistributionStatistics fromHistogram = DistributionStatistics.computeStatistics(histogram);
+        DistributionStatistics exact = DistributionStatistics.computeStatistics(values.clone());
+
+        double tolerance = Math.pow(10, -digits);
+        assertEquals(exact.getCount(), fromHistogram.getCount());
+        assertEquals(exact.getMinimum(), fromHistogram.getMinimum());
+        assertEquals(exact.getMaximum(), fromHistogram.getMaximum());
+        assertEquals(exact.getAverage(), fromHistogram.getAverage(), 1e-6 * exact.getAverage());
+        assertEquals(exact.getStandardDeviation(), fromHistogram.getStandardDeviation(), 1e-6 * exact.getStandardDeviation());
+        assertEquals(exact.getMedian(), fromHistogram.getMedian(), tolerance * exact.getMedian() + 1);
+        assertEquals(exact.get99thPercentile(), fromHistogram.get99thPercentile(), tolerance * exact.get99thPercentile() + 1);
+        assertEquals(exact.get99_9thPercentile(), fromHistogram.get99_9thPercentile(), tolerance * exact.get99_9thPercentile() + 1);
+        assertEquals(exact.get99_999thPercentile(), fromHistogram.get99_999thPercentile(), tolerance * exact.get99_999thPercentile() + 1);
+    }
+
+    /**
+     * testTwoDigits
+     */
+    public void testTwoDigits() {
+        checkPrecision(2);
+    }
+
+    /**
+     * testThreeDigits
+     */
+    public void testThreeDigits() {
+        checkPrecision(3);
+    }
+
+    /**
+     * testSmallValuesAreExact
+     */
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram(2);
+        for (int v = 0; v < 100; v++) {
+            histogram.record(v);
+        }
+        assertEquals(50, histogram.getValueAtPercentile(0.5));
+        assertEquals(90, histogram.getValueAtPercentile(0.9));
+        assertEquals(99, histogram.getValueAtPercentile(1.0));
+    }
+
+    /**
+     * testMerge
+     */
+    public void testMerge() {
+        int[] values = values(42);
+        LatencyHistogram all = new LatencyHistogram(3);
+        LatencyHistogram even = new LatencyHistogram(3);
+        LatencyHistogram odd = new LatencyHistogram(3);
+        for (int i = 0; i < values.length; i++) {
+            all.record(values[i]);
+            (i % 2 == 0 ? even : odd).record(values[i]);
+        }
+        even.add(odd);
+        assertEquals(all.getTotalCount(), even.getTotalCount());
+        assertEquals(all.getMin(), even.getMin());
+        assertEquals(all.getMax(), even.getMax());
+        for (double p : new double[]{0.1, 0.5, 0.9, 0.99, 0.999, 0.99999}) {
+            assertEquals(all.getValueAtPercentile(p), even.getValueAtPercentile(p));
+        }
+    }
+
+    /**
+     * testEmpty
+     */
+    public void testEmpty() {
+        DistributionStatistics stats = DistributionStatistics.computeStatistics(new LatencyHistogram());
+        assertEquals(0, stats.getCount());
+        assertEquals(-1.0, stats.getMedian());
+    }
+
+    /**
+     * testHistogramsByTypeAndMetric
+     */
+    public void testHistogramsByTypeAndMetric() {
+        LatencyHistograms histograms = new LatencyHistograms(2);
+        histograms.record(1, 100, 0);
+        histograms.record(3, 200, 50);
+
+        assertNull(histograms.get(LatencyHistograms.Metric.LATENCY, 2));
+        assertEquals(100, histograms.get(LatencyHistograms.Metric.LATENCY, 1).getMax());
+        assertEquals(250, histograms.get(LatencyHistograms.Metric.RESPONSE, 3).getMax());
+        assertEquals(2, histograms.getTotal(LatencyHistograms.Metric.QUEUE).getTotalCount());
+
+        LatencyHistogramCollector collector = new LatencyHistogramCollector(0, 2, true);
+        LatencyHistogramCollector cumulative = new LatencyHistogramCollector(0, 2, false);
+        LatencyHistograms other = new LatencyHistograms(2);
+        other.record(1, 300, 0);
+        for (LatencyHistogramCollector c : List.of(cumulative, collector)) {
+            c.merge(4, histograms);
+            c.merge(4, other);
+            c.merge(5, new LatencyHistograms(2));
+            c.merge(7, other);
+            assertEquals(4, c.getTotal().getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+            assertEquals(300, c.getTotal().get(LatencyHistograms.Metric.LATENCY, 1).getMax());
+        }
+
+        // Only asked for, as the seconds grow with the run
+        assertNull(cumulative.getSeconds());
+        assertEquals(2, collector.getSeconds().size());
+        assertEquals(3, collector.getSeconds().get(4L).getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+        assertEquals(1, collector.getSeconds().get(7L).getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+        assertEquals(4, collector.secondOf(4_500_000_000L));
+    }
+
+    /**
+     * testSerialization
+     */
+    public void testSerialization() throws Exception {
+        LatencyHistograms histograms = new LatencyHistograms(3);
+        for (int value : values(7)) {
+            histograms.record(value % 4 == 0 ? 0 : 2, value, value / 10);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histograms.writeTo(new DataOutputStream(bytes));
+        LatencyHistograms copy = LatencyHistograms.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(histograms.size(), copy.size());
+        assertNull(copy.get(LatencyHistograms.Metric.LATENCY, 1));
+        for (LatencyHistograms.Metric metric : LatencyHistograms.Metric.values()) {
+            LatencyHistogram expected = histograms.getTotal(metric);
+            LatencyHistogram actual = copy.getTotal(metric);
+            assertEquals(expected.getTotalCount(), actual.getTotalCount());
+            assertEquals(expected.getMin(), actual.getMin());
+            assertEquals(expected.getMax(), actual.getMax());
+            assertEquals(expected.getMean(), actual.getMean(), 0.0);
+            assertEquals(expected.getStdDeviation(), actual.getStdDeviation(), 0.0);
+            for (double p : new double[]{0.25, 0.5, 0.9, 0.99, 0.999}) {
+                assertEquals(expected.getValueAtPercentile(p), actual.getValueAtPercentile(p));
+            }
+        }
+
+        // A copy merges like the original
+        copy.add(histograms);
+        assertEquals(2 * NUM_VALUES, copy.getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+    }
+}
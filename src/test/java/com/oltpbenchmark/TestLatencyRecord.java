@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TestLatencyRecord extends TestCase {
+
+    private static final long BASE = 1_000_000_000L;
+
+    /**
+     * testQueueAndResponseTime
+     */
+    public void testQueueAndResponseTime() {
+        LatencyRecord record = new LatencyRecord(BASE);
+        // Scheduled at +1ms, started at +4ms, finished at +6ms
+        record.addLatency(1, BASE + 1_000_000, BASE + 4_000_000, BASE + 6_000_000, 7, 0);
+        // No intended start: no queue time
+        record.addLatency(2, BASE + 5_000_000, BASE + 8_000_000, 7, 0);
+
+        Iterator<LatencyRecord.Sample> it = record.iterator();
+        LatencyRecord.Sample first = it.next();
+        assertEquals(BASE + 4_000_000, first.getStartNanosecond(), 1000);
+        assertEquals(2000, first.getLatencyMicrosecond());
+        assertEquals(3000, first.getQueueMicrosecond());
+        assertEquals(5000, first.getResponseMicrosecond());
+
+        LatencyRecord.Sample second = it.next();
+        assertEquals(3000, second.getLatencyMicrosecond());
+        assertEquals(0, second.getQueueMicrosecond());
+        assertEquals(3000, second.getResponseMicrosecond());
+        assertFalse(it.hasNext());
+    }
+
+    /**
+     * testEarlyStartIsNotNegative
+     */
+    public void testEarlyStartIsNotNegative() {
+        LatencyRecord record = new LatencyRecord(BASE);
+        record.addLatency(1, BASE + 2_000_000, BASE + 1_000_000, BASE + 3_000_000, 0, 0);
+        LatencyRecord.Sample sample = record.iterator().next();
+        assertEquals(0, sample.getQueueMicrosecond());
+        assertEquals(2000, sample.getResponseMicrosecond());
+    }
+
+    /**
+     * testManyChunks
+     */
+    public void testManyChunks() {
+        LatencyRecord record = new LatencyRecord(BASE);
+        int count = LatencyRecord.ALLOC_SIZE + 12345;
+        for (int i = 0; i < count; i++) {
+            long start = BASE + i * 1000L;
+            record.addLatency(i % 3, start, start + i, 0, 0);
+        }
+        // A sample more than 35 minutes after the chunk base starts a new chunk
+        long late = BASE + TimeUnit.HOURS.toNanos(1);
+        record.addLatency(1, late, late + 5_000, 0, 0);
+        assertEquals(count + 1, record.size());
+
+        int i = 0;
+        LatencyRecord.Sample last = null;
+        for (LatencyRecord.Sample sample : record) {
+            if (i < count) {
+                assertEquals(BASE + i * 1000L, sample.getStartNanosecond());
+                assertEquals(i % 3, sample.getTransactionType());
+            }
+            last = sample;
+            i++;
+        }
+        assertEquals(count + 1, i);
+        assertEquals(late, last.getStartNanosecond());
+        assertEquals(5, last.getLatencyMicrosecond());
+    }
+
+    /**
+     * testMerge
+     */
+    public void testMerge() {
+        List<LatencyRecord> records = new ArrayList<>();
+        for (int worker = 0; worker < 4; worker++) {
+            LatencyRecord record = new LatencyRecord(BASE);
+            for (int i = 0; i < 1000; i++) {
+                long start = BASE + (i * 4L + (3 - worker)) * 1000L;
+                record.addLatency(1, start, start + 1000, worker, 0);
+            }
+            records.add(record);
+        }
+        records.add(new LatencyRecord(BASE));
+
+        long previous = Long.MIN_VALUE;
+        int count = 0;
+        for (LatencyRecord.Sample sample : LatencyRecord.merge(records)) {
+            assertTrue(sample.getStartNanosecond() >= previous);
+            assertEquals(3 - (count % 4), sample.getWorkerId());
+            previous = sample.getStartNanosecond();
+            count++;
+        }
+        assertEquals(4000, count);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.api.BenchmarkModule;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.api.TransactionTypes;
+import com.oltpbenchmark.api.Worker;
+import com.oltpbenchmark.benchmarks.noop.NoOpBenchmark;
+import com.oltpbenchmark.types.DatabaseType;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TestThreadBench extends TestCase {
+
+    private static final int SECONDS = 2;
+
+    private final List<BenchmarkModule> benchmarks = new ArrayList<>();
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (BenchmarkModule bench : this.benchmarks) {
+            bench.getConnectionProvider().close();
+        }
+        super.tearDown();
+    }
+
+    /**
+     * A noop workload whose only transaction type has id 1, as featurebench numbers each workload's types from 1
+     */
+    private WorkloadConfiguration workload(String name, int rate, List<Worker<? extends BenchmarkModule>> workers) throws Exception {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setBenchmarkName("noop");
+        workConf.setWorkloadName(name);
+        workConf.setDatabaseType(DatabaseType.HSQLDB);
+        workConf.setUrl("jdbc:hsqldb:mem:threadbench");
+        workConf.setUsername("SA");
+        workConf.setPassword("");
+        workConf.setTerminals(1);
+        workConf.setMaxRetries(1);
+        workConf.setLatencyHistograms(true);
+        workConf.setLatencyHistogramsPerSecond(true);
+
+        BenchmarkModule bench = new NoOpBenchmark(workConf);
+        this.benchmarks.add(bench);
+        TransactionType noop = bench.initTransactionType("NoOp", 1, 0, 0);
+        workConf.setTransTypes(new TransactionTypes(new ArrayList<>(List.of(TransactionType.INVALID, noop))));
+        workConf.addPhase(1, SECONDS, 0, rate, List.of(100.0), true, false, false, true, 1, Phase.Arrival.REGULAR);
+        workers.addAll(bench.makeWorkers());
+        return workConf;
+    }
+
+    private static long count(Map<Long, LatencyHistograms> seconds, int transactionType) {
+        long count = 0;
+        for (LatencyHistograms second : seconds.values()) {
+            LatencyHistogram h = transactionType == TransactionType.INVALID_ID
+                    ? second.getTotal(LatencyHistograms.Metric.LATENCY)
+                    : second.get(LatencyHistograms.Metric.LATENCY, transactionType);
+            count += h == null ? 0 : h.getTotalCount();
+        }
+        return count;
+    }
+
+    /**
+     * testConcurrentWorkloads
+     */
+    public void testConcurrentWorkloads() throws Exception {
+        List<Worker<? extends BenchmarkModule>> workers = new ArrayList<>();
+        WorkloadConfiguration first = workload("first", 100, workers);
+        WorkloadConfiguration second = workload("second", 20, workers);
+
+        Results results = ThreadBench.runRateLimitedBenchmark(workers, List.of(first, second), 0);
+
+        assertEquals(List.of("first", "second"), new ArrayList<>(results.getWorkloadResults().keySet()));
+        long total = 0;
+        for (WorkloadConfiguration workConf : List.of(first, second)) {
+            Results workload = results.getWorkloadResults().get(workConf.getWorkloadName());
+            Map<Long, LatencyHistograms> seconds = workload.getLatencyHistograms();
+            long measured = workload.getMeasuredRequests();
+            assertTrue(measured > 0);
+            // Each workload keeps its own per-type histograms
+            assertEquals(measured, count(seconds, 1));
+            assertEquals(measured, count(seconds, TransactionType.INVALID_ID));
+            // The counters also take the transaction that ran past the end of the phase
+            assertEquals(measured, workload.getSuccess().get(workConf.getTransTypes().getType(1)), 1.0);
+            total += measured;
+        }
+        assertTrue(results.getWorkloadResults().get("first").getMeasuredRequests() > results.getWorkloadResults().get("second").getMeasuredRequests());
+
+        // The combined histograms only hold totals, as type 1 of one workload is not type 1 of the other
+        assertEquals(total, results.getMeasuredRequests());
+        assertEquals(total, count(results.getLatencyHistograms(), TransactionType.INVALID_ID));
+        assertEquals(0, count(results.getLatencyHistograms(), 1));
+        assertEquals(total, results.getLatencyHistogramTotal().getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+        assertNull(results.getLatencyHistogramTotal().get(LatencyHistograms.Metric.LATENCY, 1));
+        assertEquals(total, results.getDistributionStatistics().getCount());
+    }
+}
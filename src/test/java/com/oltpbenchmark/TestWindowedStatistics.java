@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.TreeMap;
+
+public class TestWindowedStatistics extends TestCase {
+
+    private static final long BASE = 7_000_000_000L;
+
+    private LatencyRecord record() {
+        LatencyRecord record = new LatencyRecord(BASE);
+        for (int i = 0; i < 3000; i++) {
+            long start = BASE + i * 1_000_000L;
+            // Skip the third second entirely to get an empty window
+            if (i >= 2000 && i < 2500) {
+                continue;
+            }
+            record.addLatency(1 + i % 2, start - 10_000, start, start + (i % 1000) * 1000L, 0, 0);
+        }
+        return record;
+    }
+
+    /**
+     * testSamplesMatchExactStatistics
+     */
+    public void testSamplesMatchExactStatistics() {
+        WindowedStatistics stats = WindowedStatistics.fromSamples(record(), 3, 1, 2);
+
+        List<DistributionStatistics> total = stats.get(1, 0, LatencyHistograms.Metric.LATENCY);
+        assertEquals(3, total.size());
+        assertEquals(1000, total.get(0).getCount());
+        assertEquals(500, total.get(2).getCount());
+
+        // Values below 1024 are exact, so the percentiles match sorting the samples
+        int[] type2 = new int[500];
+        for (int i = 0; i < 500; i++) {
+            type2[i] = 2 * i + 1;
+        }
+        DistributionStatistics exact = DistributionStatistics.computeStatistics(type2);
+        DistributionStatistics first = stats.get(1, 2, LatencyHistograms.Metric.LATENCY).get(0);
+        assertEquals(exact.getCount(), first.getCount());
+        assertEquals(exact.getMedian(), first.getMedian());
+        assertEquals(exact.get99thPercentile(), first.get99thPercentile());
+        assertEquals(exact.getMaximum(), first.getMaximum());
+        assertEquals(10.0, stats.get(1, 1, LatencyHistograms.Metric.QUEUE).get(1).getMaximum());
+
+        List<DistributionStatistics> twoSeconds = stats.get(2, 0, LatencyHistograms.Metric.RESPONSE);
+        assertEquals(2, twoSeconds.size());
+        assertEquals(2000, twoSeconds.get(0).getCount());
+        assertEquals(500, twoSeconds.get(1).getCount());
+    }
+
+    /**
+     * testEmptyWindowsAndUnknownTypes
+     */
+    public void testEmptyWindowsAndUnknownTypes() {
+        LatencyRecord record = new LatencyRecord(BASE);
+        record.addLatency(1, BASE, BASE + 1000, 0, 0);
+        record.addLatency(1, BASE + 3_000_000_000L, BASE + 3_000_001_000L, 0, 0);
+
+        WindowedStatistics stats = WindowedStatistics.fromSamples(record, 3, 1);
+        List<DistributionStatistics> windows = stats.get(1, 0, LatencyHistograms.Metric.LATENCY);
+        assertEquals(4, windows.size());
+        assertEquals(0, windows.get(1).getCount());
+        assertEquals(0, windows.get(2).getCount());
+        assertEquals(1, windows.get(3).getCount());
+        assertEquals(0, stats.get(1, 9, LatencyHistograms.Metric.LATENCY).get(0).getCount());
+
+        assertEquals(0, WindowedStatistics.fromSamples(new LatencyRecord(BASE), 3, 1).get(1, 0, LatencyHistograms.Metric.LATENCY).size());
+    }
+
+    /**
+     * testFromHistograms
+     */
+    public void testFromHistograms() {
+        TreeMap<Long, LatencyHistograms> seconds = new TreeMap<>();
+        for (long second = 10; second < 15; second++) {
+            LatencyHistograms h = new LatencyHistograms(2);
+            h.record(1, second, 0);
+            seconds.put(second, h);
+        }
+        WindowedStatistics stats = WindowedStatistics.fromHistograms(seconds, 5, 2);
+        assertEquals(List.of(5), stats.get(5, 1, LatencyHistograms.Metric.LATENCY).stream().map(DistributionStatistics::getCount).toList());
+        assertEquals(List.of(2, 2, 1), stats.get(2, 1, LatencyHistograms.Metric.LATENCY).stream().map(DistributionStatistics::getCount).toList());
+        assertFalse(stats.hasWindowSize(1));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestWorkQueue extends TestCase {
+
+    private static final int LIMIT = 100;
+
+    /**
+     * testLimit
+     */
+    public void testLimit() {
+        for (WorkQueue.Type type : WorkQueue.Type.values()) {
+            WorkQueue queue = WorkQueue.create(type, LIMIT);
+            assertEquals(type.name(), LIMIT + 1, queue.offer(LIMIT * 2, () -> new SubmittedProcedure(1)));
+            assertEquals(type.name(), LIMIT + 1, queue.size());
+            assertEquals(type.name(), 0, queue.offer(1, () -> new SubmittedProcedure(1)));
+            queue.clear();
+            assertEquals(type.name(), 0, queue.size());
+            assertNull(type.name(), queue.take(() -> true));
+        }
+    }
+
+    /**
+     * testFifo
+     */
+    public void testFifo() {
+        for (WorkQueue.Type type : WorkQueue.Type.values()) {
+            WorkQueue queue = WorkQueue.create(type, LIMIT);
+            AtomicInteger next = new AtomicInteger();
+            queue.offer(10, () -> new SubmittedProcedure(next.getAndIncrement()));
+            for (int i = 0; i < 10; i++) {
+                assertEquals(type.name(), i, queue.take(() -> false).getType());
+            }
+        }
+    }
+
+    /**
+     * testConcurrentDispatch
+     */
+    public void testConcurrentDispatch() throws Exception {
+        final int workers = 32;
+        final int total = 50000;
+        for (WorkQueue.Type type : WorkQueue.Type.values()) {
+            WorkQueue queue = WorkQueue.create(type, LIMIT);
+            AtomicInteger consumed = new AtomicInteger();
+            AtomicInteger sum = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Thread t = new Thread(() -> {
+                    SubmittedProcedure proc;
+                    while ((proc = queue.take(() -> consumed.get() >= total)) != null) {
+                        sum.addAndGet(proc.getType());
+                        consumed.incrementAndGet();
+                    }
+                });
+                t.start();
+                threads.add(t);
+            }
+
+            int added = 0;
+            while (added < total) {
+                added += queue.offer(Math.min(17, total - added), () -> new SubmittedProcedure(1));
+            }
+            while (consumed.get() < total) {
+                Thread.sleep(1);
+            }
+            queue.wakeAll();
+            for (Thread t : threads) {
+                t.join(10000);
+                assertFalse(type.name(), t.isAlive());
+            }
+            assertEquals(type.name(), total, sum.get());
+        }
+    }
+}
@@ -20,13 +20,16 @@ package com.oltpbenchmark.api;
 import com.oltpbenchmark.catalog.AbstractCatalog;
 import com.oltpbenchmark.catalog.Table;
 import com.oltpbenchmark.types.DatabaseType;
+import com.oltpbenchmark.types.TransactionStatus;
 import com.oltpbenchmark.util.ClassUtil;
 
 import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -86,6 +89,23 @@ public abstract class AbstractTestBenchmarkModule<T extends BenchmarkModule> ext
     }
 
 
+    /**
+     * testGetProcedures
+     */
+    public void testGetProcedures() {
+        Map<TransactionType, Procedure> procs = this.benchmark.getProcedures();
+        TransactionCounters counters = new TransactionCounters();
+        Set<Integer> ids = new HashSet<>();
+        for (TransactionType txnType : procs.keySet()) {
+            // Supplemental procedures get dense ids too, they index the per-type counters
+            assertTrue(txnType.toString(), txnType.getId() >= 0 && txnType.getId() < procs.size() + 1);
+            assertTrue(txnType.toString(), ids.add(txnType.getId()));
+            counters.increment(TransactionStatus.SUCCESS, txnType);
+            assertEquals(1, counters.get(TransactionStatus.SUCCESS, txnType));
+        }
+    }
+
+
     /**
      * testGetSQLDialectPath
      */
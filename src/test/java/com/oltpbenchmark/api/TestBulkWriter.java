@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.types.DatabaseType;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestBulkWriter extends TestCase {
+
+    /**
+     * Collects everything a CopyBulkWriter sends, one entry per COPY.
+     */
+    private static class CapturingSink implements CopyBulkWriter.CopySink {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean active = true;
+        int writes = 0;
+
+        @Override
+        public void write(byte[] buf, int off, int len) {
+            assertTrue(active);
+            out.write(buf, off, len);
+            writes++;
+        }
+
+        @Override
+        public long end() {
+            active = false;
+            return new String(out.toByteArray(), StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count();
+        }
+
+        @Override
+        public void cancel() {
+            active = false;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        String text() {
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * testCopyEncoding
+     */
+    public void testCopyEncoding() throws Exception {
+        CapturingSink sink = new CapturingSink();
+        CopyBulkWriter writer = new CopyBulkWriter(() -> sink, 6, 1000);
+
+        writer.setInt(1, 42);
+        writer.setLong(2, -1234567890123L);
+        writer.setString(3, "a\tb\nc\\d\re héllo ☃ 😀");
+        writer.setTimestamp(4, Timestamp.valueOf("2022-03-04 05:06:07.089"));
+        writer.setBytes(5, new byte[]{0x00, 0x7f, (byte) 0xff});
+        writer.setNull(6, Types.INTEGER);
+        writer.addRow();
+
+        writer.setLong(1, Long.MIN_VALUE);
+        writer.setDouble(2, 1.5);
+        writer.setString(3, null);
+        writer.setObject(4, null);
+        writer.setObject(5, true);
+        writer.setObject(6, "x");
+        writer.addRow();
+        writer.flush();
+
+        assertEquals("42\t-1234567890123\ta\\tb\\nc\\\\d\\re héllo ☃ 😀\t2022-03-04 05:06:07.089000000\t\\\\x007fff\t\\N\n"
+                + "-9223372036854775808\t1.5\t\\N\t\\N\tt\tx\n", sink.text());
+        assertEquals(2, writer.getRowCount());
+        writer.close();
+    }
+
+    /**
+     * testCopyBufferSpills
+     */
+    public void testCopyBufferSpills() throws Exception {
+        CapturingSink sink = new CapturingSink();
+        CopyBulkWriter writer = new CopyBulkWriter(() -> sink, 2, 1000);
+        String value = "é".repeat(1000);
+        int rows = 200;
+        for (int i = 0; i < rows; i++) {
+            writer.setInt(1, i);
+            writer.setString(2, value);
+            writer.addRow();
+        }
+        writer.flush();
+
+        assertTrue(sink.writes > 1);
+        String[] lines = sink.text().split("\n");
+        assertEquals(rows, lines.length);
+        for (int i = 0; i < rows; i++) {
+            assertEquals(i + "\t" + value, lines[i]);
+        }
+    }
+
+    /**
+     * testCopyEndsEveryBatch
+     */
+    public void testCopyEndsEveryBatch() throws Exception {
+        List<CapturingSink> sinks = new ArrayList<>();
+        CopyBulkWriter writer = new CopyBulkWriter(() -> {
+            CapturingSink sink = new CapturingSink();
+            sinks.add(sink);
+            return sink;
+        }, 1, 4);
+        for (int i = 0; i < 10; i++) {
+            writer.setInt(1, i);
+            writer.addRow();
+            // Each COPY is ended as soon as it holds a batch
+            assertEquals((i + 1) / 4 * 4, writer.getRowCount());
+        }
+        writer.flush();
+        writer.close();
+
+        assertEquals(10, writer.getRowCount());
+        assertEquals(3, sinks.size());
+        assertEquals("0\n1\n2\n3\n", sinks.get(0).text());
+        assertEquals("4\n5\n6\n7\n", sinks.get(1).text());
+        assertEquals("8\n9\n", sinks.get(2).text());
+        for (CapturingSink sink : sinks) {
+            assertFalse(sink.isActive());
+        }
+    }
+
+    /**
+     * testCopyColumnOrder
+     */
+    public void testCopyColumnOrder() throws Exception {
+        CapturingSink sink = new CapturingSink();
+        try (CopyBulkWriter writer = new CopyBulkWriter(() -> sink, 2, 1000)) {
+            writer.setInt(1, 1);
+            try {
+                writer.setInt(3, 3);
+                fail("Expected an out of order column to be rejected");
+            } catch (SQLException ex) {
+                // expected
+            }
+            try {
+                writer.addRow();
+                fail("Expected an incomplete row to be rejected");
+            } catch (SQLException ex) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * testBatchFallback
+     */
+    public void testBatchFallback() throws Exception {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setDatabaseType(DatabaseType.HSQLDB);
+        workConf.setBatchSize(3);
+        workConf.setBulkLoadMethod(BulkWriter.Method.COPY);
+
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:bulkwriter", "SA", "")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE bulk (id INT, name VARCHAR(16), ts TIMESTAMP)");
+            }
+
+            try (BulkWriter writer = BulkWriter.create(conn, workConf, "bulk", List.of("id", "name", "ts"), List.of("?", "?", "?"))) {
+                // HSQLDB has no CopyManager, so the writer falls back to INSERTs
+                assertTrue(writer instanceof BatchBulkWriter);
+                for (int i = 0; i < 10; i++) {
+                    writer.setInt(1, i);
+                    writer.setString(2, "row" + i);
+                    writer.setNull(3, Types.TIMESTAMP);
+                    writer.addRow();
+                }
+                writer.flush();
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*), SUM(id) FROM bulk WHERE ts IS NULL")) {
+                assertTrue(rs.next());
+                assertEquals(10, rs.getInt(1));
+                assertEquals(45, rs.getInt(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.types.TransactionStatus;
+import com.oltpbenchmark.util.Histogram;
+import junit.framework.TestCase;
+
+public class TestTransactionCounters extends TestCase {
+
+    private final TransactionType first = new TransactionType(Procedure.class, 1, false, 0, 0);
+    private final TransactionType high = new TransactionType(Procedure.class, 100, false, 0, 0);
+
+    /**
+     * testIncrement
+     */
+    public void testIncrement() {
+        TransactionCounters counters = new TransactionCounters();
+        counters.increment(TransactionStatus.SUCCESS, first);
+        counters.increment(TransactionStatus.SUCCESS, first);
+        counters.increment(TransactionStatus.ERROR, first);
+        // Ids beyond the initial capacity grow the arrays
+        counters.increment(TransactionStatus.SUCCESS, high);
+
+        assertEquals(2, counters.get(TransactionStatus.SUCCESS, first));
+        assertEquals(1, counters.get(TransactionStatus.ERROR, first));
+        assertEquals(0, counters.get(TransactionStatus.RETRY, first));
+        assertEquals(1, counters.get(TransactionStatus.SUCCESS, high));
+        assertEquals(0, counters.get(TransactionStatus.SUCCESS, new TransactionType(Procedure.class, 500, false, 0, 0)));
+    }
+
+    /**
+     * testAddTo
+     */
+    public void testAddTo() {
+        TransactionCounters a = new TransactionCounters();
+        TransactionCounters b = new TransactionCounters();
+        for (int i = 0; i < 5; i++) {
+            a.increment(TransactionStatus.SUCCESS, first);
+        }
+        b.increment(TransactionStatus.SUCCESS, first);
+        b.increment(TransactionStatus.SUCCESS, high);
+        b.increment(TransactionStatus.USER_ABORTED, high);
+
+        Histogram<TransactionType> success = new Histogram<>(true);
+        a.addTo(TransactionStatus.SUCCESS, success);
+        b.addTo(TransactionStatus.SUCCESS, success);
+        assertEquals(6, success.get(first).intValue());
+        assertEquals(1, success.get(high).intValue());
+        assertEquals(7, success.getSampleCount());
+
+        Histogram<TransactionType> abort = new Histogram<>(false);
+        a.addTo(TransactionStatus.USER_ABORTED, abort);
+        assertTrue(abort.isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.benchmarks.featurebench;
+
+import com.oltpbenchmark.benchmarks.featurebench.helpers.UtilToMethod;
+import com.oltpbenchmark.benchmarks.featurebench.workerhelpers.Query;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+public class TestFeatureBenchQuery extends TestCase {
+
+    private Connection conn;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.conn = DriverManager.getConnection("jdbc:hsqldb:mem:featurebenchquery", "SA", "");
+        try (Statement stmt = this.conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (id INT PRIMARY KEY, v INT)");
+            stmt.execute("INSERT INTO t VALUES (1, 0), (2, 0), (3, 0)");
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Statement stmt = this.conn.createStatement()) {
+            stmt.execute("DROP TABLE t");
+        }
+        this.conn.close();
+    }
+
+    /**
+     * A statement whose batch only reports the given update counts
+     */
+    private static PreparedStatement batchReturning(int... updateCounts) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> method.getName().equals("executeBatch") ? updateCounts : null);
+    }
+
+    /**
+     * testClassify
+     */
+    public void testClassify() throws Exception {
+        assertEquals(Query.Kind.RESULT_SET, Query.classify("SELECT v FROM t WHERE id = ?", true, 5, true));
+        assertEquals(Query.Kind.RESULT_SET, Query.classify("INSERT INTO t VALUES (?, ?) RETURNING id", false, 5, true));
+        assertEquals(Query.Kind.UPDATE_COUNT, Query.classify("UPDATE t SET v = v + 1 WHERE id = ?", false, 1, false));
+        assertEquals(Query.Kind.UPDATE_COUNT, Query.classify("UPDATE t SET v = v + 1 WHERE id = ?", false, 1, true));
+        // Batching is opt-in
+        assertEquals(Query.Kind.UPDATE_COUNT, Query.classify("UPDATE t SET v = v + 1 WHERE id = ?", false, 5, false));
+        assertEquals(Query.Kind.BATCHABLE, Query.classify("UPDATE t SET v = v + 1 WHERE id = ?", false, 5, true));
+    }
+
+    /**
+     * testExecuteBatch
+     */
+    public void testExecuteBatch() throws Exception {
+        try (PreparedStatement stmt = this.conn.prepareStatement("UPDATE t SET v = v + 1 WHERE id = ?")) {
+            List<UtilToMethod> ids = List.of(new UtilToMethod("PrimaryIntGen", List.of(1, 4)));
+            assertFalse(FeatureBenchWorker.executeBatch(stmt, ids, 3));
+
+            // Id 4 does not exist
+            ids = List.of(new UtilToMethod("PrimaryIntGen", List.of(1, 4)));
+            assertTrue(FeatureBenchWorker.executeBatch(stmt, ids, 4));
+        }
+        try (Statement stmt = this.conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT SUM(v) FROM t")) {
+            assertTrue(rs.next());
+            assertEquals(6, rs.getInt(1));
+        }
+    }
+
+    /**
+     * testExecuteBatchWithoutCounts
+     */
+    public void testExecuteBatchWithoutCounts() throws Exception {
+        assertFalse(FeatureBenchWorker.executeBatch(batchReturning(Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO), List.of(), 2));
+        assertFalse(FeatureBenchWorker.executeBatch(batchReturning(1, Statement.SUCCESS_NO_INFO), List.of(), 2));
+        assertTrue(FeatureBenchWorker.executeBatch(batchReturning(Statement.SUCCESS_NO_INFO, 0), List.of(), 2));
+    }
+}
@@ -17,8 +17,11 @@
 package com.oltpbenchmark.benchmarks.tpch;
 
 import com.oltpbenchmark.api.AbstractTestLoader;
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Procedure;
+import com.oltpbenchmark.benchmarks.tpch.util.*;
 
+import java.sql.*;
 import java.util.List;
 
 public class TestTPCHLoader extends AbstractTestLoader<TPCHBenchmark> {
@@ -33,4 +36,97 @@ public class TestTPCHLoader extends AbstractTestLoader<TPCHBenchmark> {
         return TPCHBenchmark.class;
     }
 
+    /**
+     * testPartitionedLoad
+     */
+    public void testPartitionedLoad() throws Exception {
+        this.workConf.setLoaderThreads(3);
+        this.benchmark.loadDatabase();
+
+        double sf = this.workConf.getScaleFactor();
+        assertEquals(5, countRows(TPCHConstants.TABLENAME_REGION));
+        assertEquals(25, countRows(TPCHConstants.TABLENAME_NATION));
+        assertEquals((long) (PartGenerator.SCALE_BASE * sf), countRows(TPCHConstants.TABLENAME_PART));
+        assertEquals((long) (SupplierGenerator.SCALE_BASE * sf), countRows(TPCHConstants.TABLENAME_SUPPLIER));
+        assertEquals((long) (CustomerGenerator.SCALE_BASE * sf), countRows(TPCHConstants.TABLENAME_CUSTOMER));
+        assertEquals((long) (OrderGenerator.SCALE_BASE * sf), countRows(TPCHConstants.TABLENAME_ORDER));
+        assertEquals((long) (PartGenerator.SCALE_BASE * sf) * 4, countRows(TPCHConstants.TABLENAME_PARTSUPP));
+
+        // The parts must add up to exactly the rows of an unpartitioned generator
+        long lineItems = 0;
+        NullWriter writer = new NullWriter();
+        TableGenerator.RowIterator rows = new LineItemGenerator(sf, 1, 1).iterator();
+        while (rows.hasNext()) {
+            rows.writeNext(writer);
+            lineItems++;
+        }
+        assertEquals(lineItems, countRows(TPCHConstants.TABLENAME_LINEITEM));
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM (SELECT DISTINCT l_orderkey, l_linenumber FROM "
+                     + TPCHConstants.TABLENAME_LINEITEM + ") t")) {
+            assertTrue(rs.next());
+            assertEquals(lineItems, rs.getLong(1));
+        }
+    }
+
+    private long countRows(String tableName) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Discards every field; only used to drive a generator.
+     */
+    private static class NullWriter implements BulkWriter {
+        @Override
+        public void setInt(int index, int value) {
+        }
+
+        @Override
+        public void setLong(int index, long value) {
+        }
+
+        @Override
+        public void setDouble(int index, double value) {
+        }
+
+        @Override
+        public void setString(int index, String value) {
+        }
+
+        @Override
+        public void setDate(int index, Date value) {
+        }
+
+        @Override
+        public void setTimestamp(int index, Timestamp value) {
+        }
+
+        @Override
+        public void setBytes(int index, byte[] value) {
+        }
+
+        @Override
+        public void setNull(int index, int sqlType) {
+        }
+
+        @Override
+        public void setObject(int index, Object value) {
+        }
+
+        @Override
+        public void addRow() {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.twitter.util;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestTwitterTrace extends TestCase {
+
+    private static final int RECORDS = 1000;
+
+    private Path dir;
+    private Path tweets;
+    private Path users;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.dir = Files.createTempDirectory("twittertrace");
+        this.tweets = this.dir.resolve("tweetids.txt");
+        this.users = this.dir.resolve("userids.txt");
+        write(RECORDS, 0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (var files = Files.list(this.dir)) {
+            for (Path p : files.toList()) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(this.dir);
+    }
+
+    private void write(int records, int offset) throws IOException {
+        List<String> t = new ArrayList<>();
+        List<String> u = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            t.add(Integer.toString(i + offset));
+            u.add(" " + (2 * i + offset) + " ");
+        }
+        Files.write(this.tweets, t);
+        Files.write(this.users, u);
+    }
+
+    /**
+     * testReadAcrossChunks
+     */
+    public void testReadAcrossChunks() throws Exception {
+        // 64 records per mapping
+        TwitterTrace trace = TwitterTrace.open(this.tweets, this.users, 6);
+        assertEquals(RECORDS, trace.size());
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals(i, trace.getTweetId(i));
+            assertEquals(2 * i, trace.getUserId(i));
+        }
+    }
+
+    /**
+     * testCacheIsReused
+     */
+    public void testCacheIsReused() throws Exception {
+        TwitterTrace.open(this.tweets, this.users);
+        Path cache = this.dir.resolve("tweetids.txt.bin");
+        assertTrue(Files.exists(cache));
+        FileTime converted = Files.getLastModifiedTime(cache);
+        Files.setLastModifiedTime(cache, FileTime.fromMillis(converted.toMillis() - 10_000));
+        FileTime marked = Files.getLastModifiedTime(cache);
+
+        TwitterTrace.open(this.tweets, this.users);
+        assertEquals(marked, Files.getLastModifiedTime(cache));
+    }
+
+    /**
+     * testBareFileName
+     */
+    public void testBareFileName() throws Exception {
+        // Files in the working directory, named without any parent
+        Path tweets = Files.createTempFile(Paths.get(""), "tweetids", ".txt");
+        Path users = Files.createTempFile(Paths.get(""), "userids", ".txt");
+        Path cache = Paths.get(tweets.getFileName() + ".bin");
+        try {
+            assertNull(tweets.getParent());
+            Files.copy(this.tweets, tweets, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(this.users, users, StandardCopyOption.REPLACE_EXISTING);
+            TwitterTrace trace = TwitterTrace.open(tweets, users);
+            assertEquals(RECORDS, trace.size());
+            assertTrue(Files.exists(cache));
+        } finally {
+            Files.deleteIfExists(tweets);
+            Files.deleteIfExists(users);
+            Files.deleteIfExists(cache);
+        }
+    }
+
+    /**
+     * testStaleCacheIsConverted
+     */
+    public void testStaleCacheIsConverted() throws Exception {
+        TwitterTrace.open(this.tweets, this.users);
+        write(RECORDS + 10, 5);
+        Files.setLastModifiedTime(this.tweets, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        TwitterTrace trace = TwitterTrace.open(this.tweets, this.users);
+        assertEquals(RECORDS + 10, trace.size());
+        assertEquals(5, trace.getTweetId(0));
+    }
+
+    /**
+     * testMismatchedFiles
+     */
+    public void testMismatchedFiles() throws Exception {
+        Files.write(this.users, List.of("1", "2"));
+        try {
+            TwitterTrace.open(this.tweets, this.users);
+            fail("Trace files with different line counts must be rejected");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("sizes don't match"));
+        }
+        try (var files = Files.list(this.dir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    /**
+     * testSharedCursorWrapsAround
+     */
+    public void testSharedCursorWrapsAround() throws Exception {
+        TwitterTrace trace = TwitterTrace.open(this.tweets, this.users);
+        AtomicLong cursor = new AtomicLong();
+        TraceTransactionGenerator a = TraceTransactionGenerator.shared(trace, cursor);
+        TraceTransactionGenerator b = TraceTransactionGenerator.shared(trace, cursor);
+        for (int i = 0; i < 2 * RECORDS + 3; i++) {
+            TwitterOperation op = (i % 2 == 0 ? a : b).nextTransaction();
+            assertEquals(i % RECORDS, op.tweetid);
+        }
+    }
+
+    /**
+     * testSharedCursorPartitions
+     */
+    public void testSharedCursorPartitions() throws Exception {
+        TwitterTrace trace = TwitterTrace.open(this.tweets, this.users);
+        int partitions = 2;
+        Set<Integer> seen = new HashSet<>();
+        for (int p = 0; p < partitions; p++) {
+            // Each process has its own cursor
+            TraceTransactionGenerator generator = TraceTransactionGenerator.shared(trace, new AtomicLong(), p, partitions);
+            for (int i = 0; i < RECORDS / partitions; i++) {
+                TwitterOperation op = generator.nextTransaction();
+                assertEquals(p + i * partitions, op.tweetid);
+                assertTrue(seen.add(op.tweetid));
+            }
+        }
+        assertEquals(RECORDS, seen.size());
+    }
+
+    /**
+     * testStridedCoversTrace
+     */
+    public void testStridedCoversTrace() throws Exception {
+        TwitterTrace trace = TwitterTrace.open(this.tweets, this.users);
+        int workers = 3;
+        Set<Integer> seen = new HashSet<>();
+        for (int w = 0; w < workers; w++) {
+            TraceTransactionGenerator generator = TraceTransactionGenerator.strided(trace, w, workers);
+            for (int i = 0; i < RECORDS; i++) {
+                TwitterOperation op = generator.nextTransaction();
+                if (i < (RECORDS - w + workers - 1) / workers) {
+                    assertEquals(w + i * workers, op.tweetid);
+                }
+                seen.add(op.tweetid);
+            }
+        }
+        assertEquals(RECORDS, seen.size());
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.LatencyHistograms;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.api.Procedure;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.api.TransactionTypes;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestCoordinator extends TestCase {
+
+    private static final int AGENTS = 3;
+    private static final int SECONDS = 3;
+    private static final int PER_SECOND = 100;
+    private static final String TOKEN = "secret";
+
+    public static class Payment extends Procedure {
+    }
+
+    public static class NewOrder extends Procedure {
+    }
+
+    private static final TransactionType PAYMENT = new TransactionType(Payment.class, 1, false, 0, 0) {
+    };
+    private static final TransactionType NEW_ORDER = new TransactionType(NewOrder.class, 2, false, 0, 0) {
+    };
+
+    private Path config;
+    private ExecutorService pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.config = Files.createTempFile("coordinator", ".xml");
+        Files.writeString(this.config, "<parameters><terminals>10</terminals></parameters>");
+        this.pool = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.pool.shutdownNow();
+        Files.deleteIfExists(this.config);
+        super.tearDown();
+    }
+
+    private static List<WorkloadConfiguration> workConfs() {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setTransTypes(new TransactionTypes(new ArrayList<>(List.of(PAYMENT, NEW_ORDER))));
+        return List.of(workConf);
+    }
+
+    /**
+     * What an agent with the given partition reports: its latencies grow with the partition
+     */
+    private static Results agentResults(int partition) {
+        SortedMap<Long, LatencyHistograms> seconds = new TreeMap<>();
+        for (long second = 0; second < SECONDS; second++) {
+            LatencyHistograms histograms = new LatencyHistograms(2);
+            for (int i = 0; i < PER_SECOND; i++) {
+                histograms.record(i % 2 == 0 ? PAYMENT.getId() : NEW_ORDER.getId(), 1000L * (partition + 1) + i, 10);
+            }
+            seconds.put(second, histograms);
+        }
+        Results results = Results.fromLatencyHistograms(3_000_000_000L + partition, SECONDS * PER_SECOND, 2, seconds, null);
+        results.getSuccess().put(PAYMENT, 140);
+        results.getSuccess().put(NEW_ORDER, 150);
+        results.getAbort().put(PAYMENT, 10);
+        results.addStatementCacheCounts(5, 1);
+        results.setWorkerThreads(false, 4, 0, -1);
+        return results;
+    }
+
+    private static String option(String[] args, String name) {
+        int i = Arrays.asList(args).indexOf(name);
+        assertTrue(name + " in " + Arrays.toString(args), i >= 0 && i + 1 < args.length);
+        return args[i + 1];
+    }
+
+    /**
+     * testBarriersAndMerge
+     */
+    public void testBarriersAndMerge() throws Exception {
+        Map<String, Long> lastArrivals = new ConcurrentHashMap<>();
+        AtomicInteger earlyReleases = new AtomicInteger();
+        List<Future<String[]>> agents = new ArrayList<>();
+
+        try (Coordinator coordinator = new Coordinator(InetAddress.getLoopbackAddress(), 0, AGENTS, TOKEN, List.of("--bench", "tpcc", "--execute", "true"), this.config)) {
+            for (int i = 0; i < AGENTS; i++) {
+                agents.add(this.pool.submit(() -> {
+                    try (Agent agent = Agent.connect("localhost:" + coordinator.getPort(), TOKEN)) {
+                        String[] args = agent.getArgs();
+                        int partition = Integer.parseInt(option(args, "--partition").split("/")[0]) - 1;
+                        for (String point : List.of("workload", "start", "MEASURE", "DONE")) {
+                            if (partition == AGENTS - 1) {
+                                // The last agent is always late
+                                Thread.sleep(50);
+                                lastArrivals.put(point, System.nanoTime());
+                            }
+                            agent.await(point);
+                            if (!lastArrivals.containsKey(point)) {
+                                earlyReleases.incrementAndGet();
+                            }
+                        }
+                        agent.sendResults(agentResults(partition), workConfs());
+                        return args;
+                    }
+                }));
+            }
+
+            List<WorkloadConfiguration> workConfs = workConfs();
+            Results merged = coordinator.runWorkload(workConfs);
+
+            Set<String> partitions = new HashSet<>();
+            for (Future<String[]> agent : agents) {
+                String[] args = agent.get();
+                assertEquals("tpcc", option(args, "--bench"));
+                assertEquals(Files.readString(this.config), Files.readString(Paths.get(option(args, "-c"))));
+                partitions.add(option(args, "--partition"));
+            }
+            assertEquals(Set.of("1/3", "2/3", "3/3"), partitions);
+            assertEquals(0, earlyReleases.get());
+
+            TransactionType payment = workConfs.get(0).getTransTypes().getType("Payment");
+            TransactionType newOrder = workConfs.get(0).getTransTypes().getType("NewOrder");
+            assertEquals(AGENTS * SECONDS * PER_SECOND, merged.getMeasuredRequests());
+            assertEquals(3_000_000_000L + AGENTS - 1, merged.getNanoseconds());
+            assertEquals(AGENTS * 140, (int) merged.getSuccess().get(payment));
+            assertEquals(AGENTS * 150, (int) merged.getSuccess().get(newOrder));
+            assertEquals(AGENTS * 10, (int) merged.getAbort().get(payment));
+            assertEquals(AGENTS * 5, merged.getStatementCacheHits());
+            assertEquals(AGENTS * 4, merged.getWorkerThreads());
+
+            assertEquals(SECONDS, merged.getLatencyHistograms().size());
+            for (LatencyHistograms second : merged.getLatencyHistograms().values()) {
+                assertEquals(AGENTS * PER_SECOND, second.getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+                assertEquals(AGENTS * PER_SECOND / 2, second.get(LatencyHistograms.Metric.LATENCY, PAYMENT.getId()).getTotalCount());
+            }
+            assertEquals(AGENTS * SECONDS * PER_SECOND, merged.getDistributionStatistics().getCount());
+            assertEquals(1000.0, merged.getDistributionStatistics().getMinimum());
+            assertEquals(1000.0 * AGENTS + PER_SECOND - 1, merged.getDistributionStatistics().getMaximum());
+        }
+    }
+
+    /**
+     * testCumulativeOnlyMerge
+     */
+    public void testCumulativeOnlyMerge() throws Exception {
+        List<WorkloadConfiguration> workConfs = workConfs();
+        List<Results> parts = new ArrayList<>();
+        for (int partition = 0; partition < AGENTS; partition++) {
+            Results full = agentResults(partition);
+            Results cumulative = Results.fromLatencyHistograms(full.getNanoseconds(), full.getMeasuredRequests(), full.getLatencyHistogramTotal(), null, null);
+            cumulative.getSuccess().putHistogram(full.getSuccess());
+            parts.add(ResultsCodec.decode(ResultsCodec.encode(cumulative, workConfs), workConfs));
+        }
+        // One agent that kept its seconds does not make the merge have them
+        parts.set(0, ResultsCodec.decode(ResultsCodec.encode(agentResults(0), workConfs), workConfs));
+
+        Results merged = ResultsCodec.merge(parts, 2);
+        assertNull(merged.getLatencyHistograms());
+        assertEquals(AGENTS * SECONDS * PER_SECOND, merged.getLatencyHistogramTotal().getTotal(LatencyHistograms.Metric.LATENCY).getTotalCount());
+        assertEquals(AGENTS * SECONDS * PER_SECOND / 2, merged.getLatencyHistogramTotal().get(LatencyHistograms.Metric.LATENCY, PAYMENT.getId()).getTotalCount());
+        assertEquals(AGENTS * SECONDS * PER_SECOND, merged.getDistributionStatistics().getCount());
+        assertEquals(AGENTS * 140, (int) merged.getSuccess().get(workConfs.get(0).getTransTypes().getType("Payment")));
+    }
+
+    /**
+     * testAgentAbort
+     */
+    public void testAgentAbort() throws Exception {
+        try (Coordinator coordinator = new Coordinator(InetAddress.getLoopbackAddress(), 0, 2, TOKEN, List.of(), this.config)) {
+            List<Future<?>> agents = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                agents.add(this.pool.submit(() -> {
+                    try (Agent agent = Agent.connect("localhost:" + coordinator.getPort(), TOKEN)) {
+                        if (option(agent.getArgs(), "--partition").equals("2/2")) {
+                            agent.abort("out of connections");
+                        } else {
+                            agent.await("start");
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            try {
+                coordinator.runWorkload(workConfs());
+                fail("Expected the run to be aborted");
+            } catch (RuntimeException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().contains("out of connections"));
+            }
+
+            int aborted = 0;
+            for (Future<?> agent : agents) {
+                try {
+                    agent.get();
+                } catch (Exception ex) {
+                    assertTrue(ex.getMessage(), ex.getMessage().contains("out of connections"));
+                    aborted++;
+                }
+            }
+            assertEquals(1, aborted);
+        }
+    }
+
+    /**
+     * testWrongToken
+     */
+    public void testWrongToken() throws Exception {
+        try (Coordinator coordinator = new Coordinator(InetAddress.getLoopbackAddress(), 0, 1, TOKEN, List.of(), this.config)) {
+            Future<?> awaited = this.pool.submit(() -> {
+                coordinator.awaitAgents();
+                return null;
+            });
+
+            try {
+                Agent.connect("localhost:" + coordinator.getPort(), "guess");
+                fail("Expected the agent to be refused");
+            } catch (IOException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().contains("Wrong agent token"));
+            }
+
+            // The refused client does not take the only agent's place
+            try (Agent agent = Agent.connect("localhost:" + coordinator.getPort(), TOKEN)) {
+                assertEquals("1/1", option(agent.getArgs(), "--partition"));
+            }
+            awaited.get();
+        }
+    }
+
+    /**
+     * testPartitions
+     */
+    public void testPartitions() throws Exception {
+        int next = 0;
+        int total = 0;
+        for (int partition = 0; partition < AGENTS; partition++) {
+            WorkloadConfiguration workConf = new WorkloadConfiguration();
+            workConf.setTerminals(10);
+            workConf.setRandomSeed(42);
+            workConf.setPartition(partition, AGENTS);
+
+            assertEquals(10, workConf.getTotalTerminals());
+            assertEquals(next, workConf.getTerminalOffset());
+            assertEquals(partition == 0 ? 4 : 3, workConf.getTerminals());
+            next += workConf.getTerminals();
+            total += workConf.partitionShare(1000);
+
+            WorkloadConfiguration other = new WorkloadConfiguration();
+            other.setRandomSeed(42);
+            assertFalse(workConf.getRandomStreams().seed("worker", 0) == other.getRandomStreams().seed("worker", 0));
+        }
+        assertEquals(10, next);
+        assertEquals(1000, total);
+
+        try {
+            new WorkloadConfiguration().setPartition(3, 3);
+            fail("Expected an invalid partition");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+}
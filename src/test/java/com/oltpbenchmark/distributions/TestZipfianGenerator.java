@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.distributions;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestZipfianGenerator extends TestCase {
+
+    private static final double[] THETAS = {0.5, 0.99, 1.0, 1.75};
+
+    /**
+     * testZetaMatchesSum
+     */
+    public void testZetaMatchesSum() throws Exception {
+        long[] sizes = {ZetaCache.EXACT_TERMS + 1, 1_000_000L, 10_000_000L};
+        for (double theta : THETAS) {
+            for (long n : sizes) {
+                double expected = ZipfianGenerator.zetastatic(n, theta);
+                double actual = ZetaCache.compute(n, theta);
+                assertEquals("n=" + n + " theta=" + theta, expected, actual, expected * 1e-12);
+            }
+            // Small n is the plain loop
+            assertEquals(ZipfianGenerator.zetastatic(1000, theta), ZetaCache.compute(1000, theta));
+        }
+    }
+
+    /**
+     * testScrambledZetan
+     */
+    public void testScrambledZetan() throws Exception {
+        // ScrambledZipfianGenerator's precomputed constant for items 0 to ITEM_COUNT
+        double zetan = ZetaCache.compute(ScrambledZipfianGenerator.ITEM_COUNT + 1, ScrambledZipfianGenerator.USED_ZIPFIAN_CONSTANT);
+        assertEquals(ScrambledZipfianGenerator.ZETAN, zetan, 1e-9);
+    }
+
+    /**
+     * testZetaIsCached
+     */
+    public void testZetaIsCached() throws Exception {
+        ZetaCache.clear();
+        Random rng = new Random(1);
+        ZipfianGenerator first = new ZipfianGenerator(rng, 100_000_000L);
+        ZipfianGenerator second = new ZipfianGenerator(rng, 100_000_000L);
+        assertEquals(1, ZetaCache.size());
+        assertEquals(first.zetan, second.zetan);
+        new ZipfianGenerator(rng, 100_000_000L, 0.5);
+        assertEquals(2, ZetaCache.size());
+    }
+
+    /**
+     * testRejectionInversionFrequencies
+     */
+    public void testRejectionInversionFrequencies() throws Exception {
+        int items = 10;
+        int samples = 200_000;
+        for (double theta : THETAS) {
+            RejectionInversionZipfianGenerator gen = new RejectionInversionZipfianGenerator(new Random(theta > 1 ? 2 : 3), 5, 5 + items - 1, theta);
+            int[] counts = new int[items];
+            for (int i = 0; i < samples; i++) {
+                long value = gen.nextLong();
+                assertTrue(value >= 5 && value < 5 + items);
+                assertEquals(value, gen.lastInt());
+                counts[(int) (value - 5)]++;
+            }
+            double zeta = ZipfianGenerator.zetastatic(items, theta);
+            for (int k = 0; k < items; k++) {
+                double expected = 1 / Math.pow(k + 1, theta) / zeta;
+                assertEquals("theta=" + theta + " k=" + k, expected, counts[k] / (double) samples, 0.005);
+            }
+        }
+    }
+
+    /**
+     * testRejectionInversionLargeRange
+     */
+    public void testRejectionInversionLargeRange() throws Exception {
+        long items = 1_000_000_000_000L;
+        RejectionInversionZipfianGenerator gen = new RejectionInversionZipfianGenerator(new Random(4), items);
+        int head = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long value = gen.nextLong();
+            assertTrue(value >= 0 && value < items);
+            if (value == 0) {
+                head++;
+            }
+        }
+        // P(0) = 1 / zeta(items, 0.99), about 3.5%
+        double expected = 1 / ZetaCache.zeta(items, ZipfianGenerator.ZIPFIAN_CONSTANT);
+        assertEquals(expected, head / 100_000.0, 0.005);
+    }
+
+    /**
+     * testRejectionInversionMean
+     */
+    public void testRejectionInversionMean() throws Exception {
+        int samples = 500_000;
+        for (double theta : THETAS) {
+            for (long items : new long[]{10, 1000, 100_000}) {
+                RejectionInversionZipfianGenerator gen = new RejectionInversionZipfianGenerator(new Random(5), 7, 7 + items - 1, theta);
+                double sum = 0;
+                double sumSquares = 0;
+                for (int i = 0; i < samples; i++) {
+                    long value = gen.nextLong() - 7;
+                    sum += value;
+                    sumSquares += (double) value * value;
+                }
+                double mean = sum / samples;
+                double stddev = Math.sqrt(sumSquares / samples - mean * mean);
+                // Five standard errors of the empirical mean, plus a little for the zeta approximation
+                double delta = 5 * stddev / Math.sqrt(samples) + 1e-9 * items;
+                assertEquals("theta=" + theta + " items=" + items, 7 + mean, gen.mean(), delta);
+            }
+        }
+    }
+
+    /**
+     * testInvalidArguments
+     */
+    public void testInvalidArguments() throws Exception {
+        try {
+            new RejectionInversionZipfianGenerator(new Random(), 10, 5, 0.99);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new RejectionInversionZipfianGenerator(new Random(), 10, 0.0);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+}
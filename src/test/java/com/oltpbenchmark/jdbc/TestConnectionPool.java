@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+public class TestConnectionPool extends TestCase {
+
+    private static final String URL = "jdbc:hsqldb:mem:connectionpool";
+
+    private DriverConnectionProvider driver;
+    private ConnectionPool pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.driver = new DriverConnectionProvider(URL, "SA", "", 0, 0);
+        this.pool = new ConnectionPool(this.driver, 2, 0, 5);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.pool.close();
+    }
+
+    private static Connection physical(Connection conn) {
+        return ((PooledConnection) conn).getPhysicalConnection();
+    }
+
+    /**
+     * testLogicalReconnect
+     */
+    public void testLogicalReconnect() throws Exception {
+        Connection first = this.pool.getConnection();
+        Connection physical = physical(first);
+        first.close();
+        assertTrue(first.isClosed());
+        assertFalse(physical.isClosed());
+
+        Connection second = this.pool.getConnection();
+        assertNotSame(first, second);
+        assertSame(physical, physical(second));
+        second.close();
+
+        ConnectionStatistics stats = this.pool.getStatistics();
+        assertEquals(1, stats.getConnects());
+        assertEquals(2, stats.getAcquires());
+        assertEquals(1, stats.getReused());
+    }
+
+    /**
+     * testClosedHandleIsUnusable
+     */
+    public void testClosedHandleIsUnusable() throws Exception {
+        Connection conn = this.pool.getConnection();
+        conn.close();
+        conn.close();
+        try {
+            conn.createStatement();
+            fail("Closed handle must not reach the pooled connection");
+        } catch (SQLException ex) {
+            assertEquals("08003", ex.getSQLState());
+        }
+        assertEquals(1, this.pool.getIdle());
+    }
+
+    /**
+     * testUncommittedWorkIsRolledBack
+     */
+    public void testUncommittedWorkIsRolledBack() throws Exception {
+        try (Connection conn = this.pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS pooled (id INT)");
+            stmt.execute("DELETE FROM pooled");
+        }
+        try (Connection conn = this.pool.getConnection(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("INSERT INTO pooled VALUES (1)");
+        }
+        try (Connection conn = this.pool.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pooled")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    /**
+     * testSessionIsRestored
+     */
+    public void testSessionIsRestored() throws Exception {
+        int isolation;
+        Statement leaked;
+        try (Connection conn = this.pool.getConnection()) {
+            isolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(isolation == Connection.TRANSACTION_SERIALIZABLE
+                    ? Connection.TRANSACTION_READ_COMMITTED : Connection.TRANSACTION_SERIALIZABLE);
+            conn.setReadOnly(true);
+            leaked = conn.prepareStatement("VALUES (1)");
+        }
+        assertTrue(leaked.isClosed());
+
+        try (Connection conn = this.pool.getConnection()) {
+            assertEquals(1, this.pool.getStatistics().getReused());
+            assertTrue(conn.getAutoCommit());
+            assertEquals(isolation, conn.getTransactionIsolation());
+            assertFalse(conn.isReadOnly());
+        }
+    }
+
+    /**
+     * testIdleLimit
+     */
+    public void testIdleLimit() throws Exception {
+        Connection a = this.pool.getConnection();
+        Connection b = this.pool.getConnection();
+        Connection c = this.pool.getConnection();
+        Connection physicalC = physical(c);
+        a.close();
+        b.close();
+        c.close();
+        assertEquals(2, this.pool.getIdle());
+        assertTrue(physicalC.isClosed());
+        assertEquals(3, this.pool.getStatistics().getConnects());
+    }
+
+    /**
+     * testMaxLifetime
+     */
+    public void testMaxLifetime() throws Exception {
+        ConnectionPool shortLived = new ConnectionPool(this.driver, 2, 1, 5);
+        Connection conn = shortLived.getConnection();
+        Connection physical = physical(conn);
+        TimeUnit.MILLISECONDS.sleep(5);
+        conn.close();
+        assertTrue(physical.isClosed());
+        assertEquals(0, shortLived.getIdle());
+        assertEquals(1, this.driver.getStatistics().getExpired());
+        shortLived.close();
+    }
+
+    /**
+     * testWarmUp
+     */
+    public void testWarmUp() throws Exception {
+        this.pool.warmUp();
+        assertEquals(2, this.pool.getIdle());
+        assertEquals(2, this.pool.getStatistics().getConnects());
+        this.pool.getConnection().close();
+        assertEquals(1, this.pool.getStatistics().getReused());
+        assertEquals(2, this.pool.getStatistics().getConnects());
+    }
+
+    /**
+     * testConnectRate
+     */
+    public void testConnectRate() throws Exception {
+        DriverConnectionProvider throttled = new DriverConnectionProvider(URL, "SA", "", 1, 100);
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            throttled.getConnection().close();
+        }
+        // The first connect goes right away, the other five are 10ms apart
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(6, throttled.getStatistics().getConnects());
+        assertTrue(throttled.getStatistics().getConnectStatistics().getMaximum() >= 5000);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import com.oltpbenchmark.api.SQLStmt;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+public class TestStatementCache extends TestCase {
+
+    private static final StatementCache.StatementFactory FACTORY = (conn, stmt, keys) -> conn.prepareStatement(stmt.getSQL());
+
+    private final SQLStmt select = new SQLStmt("SELECT ? FROM (VALUES(0))");
+
+    private Connection conn;
+    private StatementCache cache;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.conn = DriverManager.getConnection("jdbc:hsqldb:mem:statementcache", "SA", "");
+        this.cache = new StatementCache();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.cache.clear();
+        this.conn.close();
+    }
+
+    /**
+     * testReuseAfterClose
+     */
+    public void testReuseAfterClose() throws Exception {
+        PreparedStatement first;
+        try (PreparedStatement stmt = this.cache.get(this.conn, this.select, null, FACTORY)) {
+            stmt.setInt(1, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+            first = stmt;
+        }
+        assertTrue(first.isClosed());
+
+        PreparedStatement second = this.cache.get(this.conn, this.select, null, FACTORY);
+        assertSame(first, second);
+        assertFalse(second.isClosed());
+        second.close();
+
+        assertEquals(1, this.cache.getHits());
+        assertEquals(1, this.cache.getMisses());
+        assertEquals(1, this.cache.size());
+    }
+
+    /**
+     * testNestedUseIsNotShared
+     */
+    public void testNestedUseIsNotShared() throws Exception {
+        try (PreparedStatement outer = this.cache.get(this.conn, this.select, null, FACTORY);
+             PreparedStatement inner = this.cache.get(this.conn, this.select, null, FACTORY)) {
+            assertNotSame(outer, inner);
+        }
+        assertEquals(2, this.cache.getMisses());
+        assertEquals(1, this.cache.size());
+    }
+
+    /**
+     * testReturnKeysModeIsSeparate
+     */
+    public void testReturnKeysModeIsSeparate() throws Exception {
+        this.cache.get(this.conn, this.select, null, FACTORY).close();
+        this.cache.get(this.conn, this.select, new int[]{1}, FACTORY).close();
+        assertEquals(2, this.cache.size());
+        assertEquals(0, this.cache.getHits());
+    }
+
+    /**
+     * testReleaseAll
+     */
+    public void testReleaseAll() throws Exception {
+        PreparedStatement leaked = this.cache.get(this.conn, this.select, null, FACTORY);
+        this.cache.releaseAll();
+        assertSame(leaked, this.cache.get(this.conn, this.select, null, FACTORY));
+        assertEquals(1, this.cache.getHits());
+    }
+
+    /**
+     * testSettingsAreReset
+     */
+    public void testSettingsAreReset() throws Exception {
+        PreparedStatement stmt = this.cache.get(this.conn, this.select, null, FACTORY);
+        int maxRows = stmt.getMaxRows();
+        int queryTimeout = stmt.getQueryTimeout();
+        int fetchSize = stmt.getFetchSize();
+        int fetchDirection = stmt.getFetchDirection();
+        stmt.setMaxRows(maxRows + 1);
+        stmt.setQueryTimeout(queryTimeout + 1);
+        stmt.setFetchSize(fetchSize + 1);
+        stmt.setFetchDirection(ResultSet.FETCH_REVERSE);
+        stmt.closeOnCompletion();
+        stmt.setInt(1, 1);
+        stmt.executeQuery().close();
+        stmt.close();
+
+        PreparedStatement again = this.cache.get(this.conn, this.select, null, FACTORY);
+        assertSame(stmt, again);
+        assertFalse(again.isClosed());
+        assertEquals(maxRows, again.getMaxRows());
+        assertEquals(queryTimeout, again.getQueryTimeout());
+        assertEquals(fetchSize, again.getFetchSize());
+        assertEquals(fetchDirection, again.getFetchDirection());
+        again.close();
+    }
+
+    /**
+     * testNewConnectionClearsCache
+     */
+    public void testNewConnectionClearsCache() throws Exception {
+        this.cache.get(this.conn, this.select, null, FACTORY).close();
+        try (Connection other = DriverManager.getConnection("jdbc:hsqldb:mem:statementcache", "SA", "")) {
+            this.cache.get(other, this.select, null, FACTORY).close();
+            assertEquals(2, this.cache.getMisses());
+            assertEquals(1, this.cache.size());
+            this.cache.clear();
+        }
+        assertEquals(0, this.cache.size());
+    }
+}
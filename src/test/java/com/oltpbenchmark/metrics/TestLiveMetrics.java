@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.metrics;
+
+import com.oltpbenchmark.api.Procedure;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.types.TransactionStatus;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class TestLiveMetrics extends TestCase {
+
+    public static class Payment extends Procedure {
+    }
+
+    private static final TransactionType PAYMENT = new TransactionType(Payment.class, 1, false, 0, 0) {
+    };
+
+    /**
+     * testSwapLosesNothing
+     */
+    public void testSwapLosesNothing() throws Exception {
+        final int total = 200000;
+        IntervalRecorder recorder = new IntervalRecorder(2);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                recorder.recordStatus(PAYMENT, TransactionStatus.SUCCESS);
+                recorder.recordLatency(PAYMENT, i % 1000);
+            }
+        });
+        writer.start();
+
+        long successes = 0;
+        long latencies = 0;
+        while (writer.isAlive()) {
+            IntervalMetrics metrics = recorder.swap();
+            if (metrics.size() > PAYMENT.getId() && metrics.getType(PAYMENT.getId()) != null) {
+                successes += metrics.getCount(PAYMENT.getId(), TransactionStatus.SUCCESS);
+                if (metrics.getLatency(PAYMENT.getId()) != null) {
+                    latencies += metrics.getLatency(PAYMENT.getId()).getTotalCount();
+                }
+            }
+        }
+        writer.join();
+        IntervalMetrics last = recorder.swap();
+        successes += last.getCount(PAYMENT.getId(), TransactionStatus.SUCCESS);
+        latencies += last.getLatency(PAYMENT.getId()).getTotalCount();
+
+        assertEquals(total, successes);
+        assertEquals(total, latencies);
+    }
+
+    /**
+     * testExpositionAndJsonLines
+     */
+    public void testExpositionAndJsonLines() throws Exception {
+        Path file = Files.createTempFile("live", ".jsonl");
+        try (LiveMetrics live = new LiveMetrics(60000, 0, file.toString(), 2)) {
+            IntervalRecorder recorder = live.register("bench\"mark");
+            live.start();
+            for (int i = 1; i <= 100; i++) {
+                recorder.recordStatus(PAYMENT, i <= 90 ? TransactionStatus.SUCCESS : TransactionStatus.USER_ABORTED);
+                recorder.recordLatency(PAYMENT, i);
+            }
+            live.collect();
+
+            String text = live.getExposition();
+            String labels = "benchmark=\"bench\\\"mark\",transaction=\"Payment\"";
+            assertTrue(text, text.contains("benchbase_transactions_total{" + labels + ",status=\"success\"} 90\n"));
+            assertTrue(text, text.contains("benchbase_transactions_total{" + labels + ",status=\"user_aborted\"} 10\n"));
+            assertTrue(text, text.contains("benchbase_latency_microseconds{" + labels + ",quantile=\"0.5\"} 51\n"));
+            assertTrue(text, text.contains("benchbase_latency_microseconds{" + labels + ",quantile=\"0.99\"} 100\n"));
+            assertTrue(text, text.contains("benchbase_latency_microseconds_count{" + labels + "} 100\n"));
+
+            // The next interval is empty but the totals carry over
+            live.collect();
+            text = live.getExposition();
+            assertTrue(text, text.contains("benchbase_transactions_total{" + labels + ",status=\"success\"} 90\n"));
+            assertTrue(text, text.contains("benchbase_throughput{" + labels + "} 0.0\n"));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        Files.delete(file);
+        // Two explicit intervals plus the one published on close
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0), lines.get(0).contains("\"success\":90"));
+        assertTrue(lines.get(0), lines.get(0).contains("\"p99\":100"));
+        assertTrue(lines.get(1), lines.get(1).contains("\"success\":0"));
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestDelimitedFileReader extends TestCase {
+
+    private Path file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.file = Files.createTempFile("delimited", ".dat");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(this.file);
+        super.tearDown();
+    }
+
+    private void write(String contents) throws IOException {
+        Files.write(this.file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * testPipe
+     */
+    public void testPipe() throws Exception {
+        write("1|AAAAAAAABAAAAAAA|1997-03-13||-12.50|Ünïcode|\n2|x|20011231|7|3|\r\n\n3|y");
+        try (DelimitedFileReader reader = DelimitedFileReader.open(this.file, DelimitedFileReader.Format.PIPE)) {
+            assertTrue(reader.next());
+            assertEquals(6, reader.getFieldCount());
+            assertEquals(1L, reader.getLong(0));
+            assertEquals("AAAAAAAABAAAAAAA", reader.getString(1));
+            assertEquals(Date.valueOf("1997-03-13"), reader.getDate(2));
+            assertTrue(reader.isEmpty(3));
+            assertNull(reader.getDate(3));
+            assertEquals(-12.5, reader.getDouble(4));
+            assertEquals("Ünïcode", reader.getString(5));
+
+            assertTrue(reader.next());
+            assertEquals(5, reader.getFieldCount());
+            assertEquals(Date.valueOf("2001-12-31"), reader.getDate(2));
+            assertEquals(3.0, reader.getDouble(4));
+
+            // Blank lines are skipped, the last line needs neither '|' nor '\n'
+            assertTrue(reader.next());
+            assertEquals(2, reader.getFieldCount());
+            assertEquals("y", reader.getString(1));
+            assertFalse(reader.next());
+            assertEquals(3, reader.getRowCount());
+            assertEquals(Files.size(this.file), reader.getBytesRead());
+        }
+    }
+
+    /**
+     * testCsv
+     */
+    public void testCsv() throws Exception {
+        write("1, \"a, b\" ,12/31/1999,31.12.1999,\n");
+        try (DelimitedFileReader reader = DelimitedFileReader.open(this.file, DelimitedFileReader.Format.CSV)) {
+            assertTrue(reader.next());
+            assertEquals(5, reader.getFieldCount());
+            assertEquals(1L, reader.getLong(0));
+            assertEquals("a, b", reader.getString(1));
+            assertEquals(Date.valueOf("1999-12-31"), reader.getDate(2));
+            assertEquals(Date.valueOf("1999-12-31"), reader.getDate(3));
+            assertTrue(reader.isEmpty(4));
+            assertFalse(reader.next());
+        }
+    }
+
+    /**
+     * testInvalidValues
+     */
+    public void testInvalidValues() throws Exception {
+        write("12a|1999-13-01|1999/01/01|99999999999999999999|\n");
+        try (DelimitedFileReader reader = DelimitedFileReader.open(this.file, DelimitedFileReader.Format.PIPE)) {
+            assertTrue(reader.next());
+            try {
+                reader.getLong(0);
+                fail();
+            } catch (NumberFormatException ex) {
+                // expected
+            }
+            try {
+                reader.getDate(1);
+                fail();
+            } catch (RuntimeException ex) {
+                // expected
+            }
+            try {
+                reader.getDate(2);
+                fail();
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+            try {
+                reader.getLong(3);
+                fail();
+            } catch (NumberFormatException ex) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * testNumbersMatchParse
+     */
+    public void testNumbersMatchParse() throws Exception {
+        Random rng = new Random(1);
+        List<String> values = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            String value;
+            switch (i % 4) {
+                case 0:
+                    value = String.format("%.2f", (rng.nextDouble() - 0.5) * 1e6);
+                    break;
+                case 1:
+                    value = Double.toString(rng.nextDouble() * Math.pow(10, rng.nextInt(30) - 10));
+                    break;
+                case 2:
+                    value = Long.toString(rng.nextLong());
+                    break;
+                default:
+                    value = rng.nextInt(1000) + "." + rng.nextInt(1000000000);
+                    break;
+            }
+            values.add(value);
+            sb.append(value).append("|\n");
+        }
+        write(sb.toString());
+
+        try (DelimitedFileReader reader = DelimitedFileReader.open(this.file, DelimitedFileReader.Format.PIPE)) {
+            for (int i = 0; i < values.size(); i++) {
+                assertTrue(reader.next());
+                assertEquals(values.get(i), Double.parseDouble(values.get(i)), reader.getDouble(0), 0.0);
+                if (i % 4 == 2) {
+                    assertEquals(Long.parseLong(values.get(i)), reader.getLong(0));
+                }
+            }
+        }
+    }
+
+    /**
+     * testPartsCoverEveryLineOnce
+     */
+    public void testPartsCoverEveryLineOnce() throws Exception {
+        int lines = 5000;
+        StringBuilder sb = new StringBuilder();
+        Random rng = new Random(2);
+        for (int i = 0; i < lines; i++) {
+            sb.append(i).append('|').append("x".repeat(rng.nextInt(100))).append("|\n");
+        }
+        write(sb.toString());
+        long size = Files.size(this.file);
+
+        for (int partCount : new int[]{1, 2, 3, 7, 64}) {
+            boolean[] seen = new boolean[lines];
+            long bytes = 0;
+            for (int part = 0; part < partCount; part++) {
+                // A small window makes the reader remap in the middle of lines
+                try (DelimitedFileReader reader = new DelimitedFileReader(this.file, DelimitedFileReader.Format.PIPE, part, partCount, 512)) {
+                    while (reader.next()) {
+                        int id = (int) reader.getLong(0);
+                        assertFalse(seen[id]);
+                        seen[id] = true;
+                    }
+                    bytes += reader.getBytesRead();
+                }
+            }
+            for (int i = 0; i < lines; i++) {
+                assertTrue("line " + i + " of " + partCount + " parts", seen[i]);
+            }
+            assertEquals(size, bytes);
+        }
+    }
+
+    /**
+     * testLineLongerThanWindow
+     */
+    public void testLineLongerThanWindow() throws Exception {
+        write("1|short|\n2|" + "x".repeat(1000) + "|\n");
+        try (DelimitedFileReader reader = new DelimitedFileReader(this.file, DelimitedFileReader.Format.PIPE, 0, 1, 512)) {
+            assertTrue(reader.next());
+            try {
+                reader.next();
+                fail();
+            } catch (IOException ex) {
+                // expected
+            }
+        }
+    }
+}
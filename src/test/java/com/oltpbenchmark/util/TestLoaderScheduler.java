@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestLoaderScheduler extends TestCase {
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> finished = Collections.synchronizedList(new ArrayList<>());
+
+    private LoaderScheduler.Task task(String name, List<String> dependencies) {
+        return new LoaderScheduler.Task(() -> {
+            started.add(name);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            finished.add(name);
+        }, List.of(name.replaceAll("[0-9]+$", "")), dependencies);
+    }
+
+    /**
+     * testDependenciesFinishFirst
+     */
+    public void testDependenciesFinishFirst() throws Exception {
+        List<LoaderScheduler.Task> tasks = new ArrayList<>();
+        // Dependents are listed before the tables they need
+        for (int i = 0; i < 4; i++) {
+            tasks.add(task("lineitem" + i, List.of("orders", "partsupp")));
+        }
+        for (int i = 0; i < 4; i++) {
+            tasks.add(task("orders" + i, List.of("customer")));
+            tasks.add(task("partsupp" + i, List.of()));
+        }
+        tasks.add(task("customer", List.of()));
+
+        // A single thread would never get to the tables if dependents waited on a latch
+        for (int poolSize : new int[]{1, 3}) {
+            started.clear();
+            finished.clear();
+            new LoaderScheduler(tasks).run(poolSize);
+            assertEquals(tasks.size(), finished.size());
+
+            for (String task : started) {
+                int start = started.indexOf(task);
+                if (task.startsWith("lineitem")) {
+                    for (int i = 0; i < 4; i++) {
+                        assertTrue(finished.indexOf("orders" + i) >= 0);
+                        assertTrue(finished.indexOf("partsupp" + i) >= 0);
+                        assertTrue(start >= started.indexOf("orders" + i));
+                    }
+                } else if (task.startsWith("orders")) {
+                    assertTrue(start > started.indexOf("customer"));
+                }
+            }
+        }
+    }
+
+    /**
+     * testCriticalPathFirst
+     */
+    public void testCriticalPathFirst() throws Exception {
+        List<LoaderScheduler.Task> tasks = List.of(
+                task("a", List.of()),
+                task("b", List.of()),
+                task("c", List.of("b")),
+                task("d", List.of("c")));
+        new LoaderScheduler(tasks).run(1);
+        // b heads the longest chain, then c does; a and d tie and keep their order
+        assertEquals(List.of("b", "c", "a", "d"), started);
+    }
+
+    /**
+     * testUndeclaredKeepOrder
+     */
+    public void testUndeclaredKeepOrder() throws Exception {
+        List<LoaderScheduler.Task> tasks = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String name = "t" + i;
+            expected.add(name);
+            tasks.add(new LoaderScheduler.Task(() -> started.add(name), List.of(), List.of()));
+        }
+        new LoaderScheduler(tasks).run(1);
+        assertEquals(expected, started);
+    }
+
+    /**
+     * testMissingTable
+     */
+    public void testMissingTable() throws Exception {
+        new LoaderScheduler(List.of(task("a", List.of("nothing")))).run(2);
+        assertEquals(List.of("a"), finished);
+    }
+
+    /**
+     * testCycle
+     */
+    public void testCycle() throws Exception {
+        try {
+            new LoaderScheduler(List.of(
+                    task("a", List.of("c")),
+                    task("b", List.of("a")),
+                    task("c", List.of("b")),
+                    task("d", List.of())));
+            fail();
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("[a, b, c]"));
+        }
+    }
+}
@@ -176,4 +176,61 @@ public class TestRandomDistribution extends TestCase {
         } // FOR
         assertEquals(hist.getMaxCountValues(), hist2.getMaxCountValues());
     }
-}
\ No newline at end of file
+
+    /**
+     * testFlatHistogramProbabilities
+     */
+    public void testFlatHistogramProbabilities() throws Exception {
+        Histogram<String> hist = new Histogram<String>();
+        Random r = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            hist.put("value" + i, 1 + r.nextInt(i % 7 == 0 ? 1000 : 10));
+        } // FOR
+        hist.put("value" + r.nextInt(500), 20000);
+
+        AliasTable<String> table = new AliasTable<String>(hist);
+        assertEquals(hist.getValueCount(), table.size());
+        assertEquals(hist.getSampleCount(), table.getSampleCount());
+        for (int i = 0; i < table.size(); i++) {
+            double expected = hist.get(table.getValue(i)) / (double) hist.getSampleCount();
+            assertEquals(table.getValue(i), expected, table.getProbability(i), 1e-12);
+        } // FOR
+
+        RandomDistribution.FlatHistogram<String> flat = new RandomDistribution.FlatHistogram<String>(this.rand, table);
+        Histogram<String> hist2 = new Histogram<String>();
+        for (int i = 0; i < num_records; i++) {
+            hist2.put(flat.nextValue());
+        } // FOR
+        assertEquals(hist.getMaxCountValues(), hist2.getMaxCountValues());
+
+        try {
+            flat.nextLong();
+            fail();
+        } catch (ClassCastException ex) {
+            // expected
+        }
+    }
+
+    /**
+     * testFlatHistogramSharedTable
+     */
+    public void testFlatHistogramSharedTable() throws Exception {
+        Histogram<Long> hist = new Histogram<Long>();
+        for (long i = 0; i < 100; i++) {
+            hist.put(i * 1000, i == 0 ? 1000 : (int) (100 - i));
+        } // FOR
+        AliasTable<Long> table = new AliasTable<Long>(hist);
+
+        // Samplers over the same table with the same seed draw the same values
+        RandomDistribution.FlatHistogram<Long> flat0 = new RandomDistribution.FlatHistogram<Long>(new Random(7), table);
+        RandomDistribution.FlatHistogram<Long> flat1 = new RandomDistribution.FlatHistogram<Long>(new Random(7), table);
+        flat1.enableHistory();
+        for (int i = 0; i < num_records; i++) {
+            long val = flat0.nextLong();
+            assertEquals(val, flat1.nextLong());
+            assertEquals(0, val % 1000);
+        } // FOR
+        assertEquals(num_records, flat1.getHistogramHistory().getSampleCount());
+        assertEquals(Long.valueOf(0), flat1.getHistogramHistory().getMaxCountValues().iterator().next());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.util;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestRandomStreams extends TestCase {
+
+    private static final int NUM_ROUNDS = 10000;
+
+    /**
+     * testSameSeedSameSequence
+     */
+    public void testSameSeedSameSequence() throws Exception {
+        Random a = new RandomStreams(42).stream("worker", 3);
+        Random b = new RandomStreams(42).stream("worker", 3);
+        for (int i = 0; i < NUM_ROUNDS; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+        }
+    }
+
+    /**
+     * testStreamsDiffer
+     */
+    public void testStreamsDiffer() throws Exception {
+        RandomStreams streams = new RandomStreams(42);
+        assertFalse(streams.seed("worker", 0) == streams.seed("worker", 1));
+        assertFalse(streams.seed("worker", 0) == streams.seed("loader", 0));
+        assertFalse(streams.seed("worker", 0) == new RandomStreams(43).seed("worker", 0));
+
+        Random a = streams.stream("worker", 0);
+        Random b = streams.stream("worker", 1);
+        int same = 0;
+        for (int i = 0; i < NUM_ROUNDS; i++) {
+            if (a.nextInt(100) == b.nextInt(100)) {
+                same++;
+            }
+        }
+        // About 1% by chance
+        assertTrue(same < NUM_ROUNDS / 20);
+    }
+
+    /**
+     * testBounds
+     */
+    public void testBounds() throws Exception {
+        SplitMixRandom rng = new SplitMixRandom(7);
+        int[] counts = new int[10];
+        for (int i = 0; i < NUM_ROUNDS; i++) {
+            int n = rng.nextInt(counts.length);
+            counts[n]++;
+
+            double d = rng.nextDouble();
+            assertTrue(d >= 0.0 && d < 1.0);
+            float f = rng.nextFloat();
+            assertTrue(f >= 0.0f && f < 1.0f);
+            long l = rng.nextLong(5, 10);
+            assertTrue(l >= 5 && l < 10);
+        }
+        for (int count : counts) {
+            assertTrue(count > NUM_ROUNDS / counts.length / 2);
+        }
+    }
+
+    /**
+     * testSplitAndReseed
+     */
+    public void testSplitAndReseed() throws Exception {
+        SplitMixRandom rng = new SplitMixRandom(7);
+        long first = rng.nextLong();
+        SplitMixRandom split = rng.split();
+        assertFalse(split.nextLong() == rng.nextLong());
+
+        rng.setSeed(7);
+        assertEquals(first, rng.nextLong());
+    }
+
+    /**
+     * testBind
+     */
+    public void testBind() throws Exception {
+        Random rng = new SplitMixRandom(1);
+        Random previous = RandomStreams.bind(rng);
+        try {
+            assertSame(rng, RandomStreams.current());
+            long expected = RandomStreams.newSplittableRandom().nextLong();
+
+            // Same bound generator, same utils
+            RandomStreams.bind(new SplitMixRandom(1));
+            assertEquals(expected, RandomStreams.newSplittableRandom().nextLong());
+        } finally {
+            RandomStreams.bind(previous);
+        }
+        assertSame(previous, RandomStreams.current());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestThreadUtil extends TestCase {
+
+    /**
+     * testNewVirtualThread
+     */
+    public void testNewVirtualThread() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        Thread thread = ThreadUtil.newVirtualThread(() -> ran.set(true));
+        if (Runtime.version().feature() < 21) {
+            assertNull(thread);
+            return;
+        }
+        assertNotNull(thread);
+        assertEquals(Thread.State.NEW, thread.getState());
+        thread.start();
+        thread.join();
+        assertTrue(ran.get());
+    }
+
+    /**
+     * testVirtualThreadCarriers
+     */
+    public void testVirtualThreadCarriers() {
+        assertTrue(ThreadUtil.virtualThreadCarriers() > 0);
+    }
+
+    /**
+     * testProcessCpuTimeNanos
+     */
+    public void testProcessCpuTimeNanos() {
+        long first = ThreadUtil.processCpuTimeNanos();
+        if (first < 0) {
+            return;
+        }
+        assertTrue(ThreadUtil.processCpuTimeNanos() >= first);
+    }
+}